@@ -0,0 +1,47 @@
+package com.sms.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of benchmarks.jar.
+ *
+ * Accepts the usual JMH command line (benchmark regex, -p, -wi, -i, ...) and always adds
+ * the GC profiler (allocation rate, gc.alloc.rate.norm), the {@link PeakHeapProfiler}
+ * (heap.live.max) and a JSON result file, so two runs can be compared side by side:
+ * <pre>
+ * java -jar target/benchmarks.jar StudentCalculator -p students=500 -rff before.json
+ * </pre>
+ *
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+
+        OptionsBuilder builder = new OptionsBuilder();
+        builder.parent(commandLine);
+        builder.addProfiler(GCProfiler.class);
+        builder.addProfiler(PeakHeapProfiler.class);
+        if (!commandLine.getResult().hasValue()) {
+            builder.result("target/jmh-result.json");
+        }
+        if (!commandLine.getResultFormat().hasValue()) {
+            builder.resultFormat(ResultFormatType.JSON);
+        }
+        if (commandLine.getIncludes().isEmpty()) {
+            builder.include("com\\.sms\\.benchmarks\\..*");
+        }
+
+        Options options = builder.build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,143 @@
+package com.sms.benchmarks;
+
+import com.sms.util.ExcelExportEngine;
+import com.sms.util.ExcelStyle;
+import com.sms.util.ExcelStyleRegistry;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.SQLException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.apache.poi.ss.usermodel.BorderStyle;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.IndexedColors;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Excel export of a marks sheet: the streaming {@link ExcelExportEngine} against an
+ * in-memory XSSFWorkbook (the previous export path), both with shared styles.
+ *
+ * Rows are generated on the fly, like a JDBC cursor, so the source itself holds no data.
+ * One operation writes the whole file to a discarding stream. Compare
+ * {@code heap.live.max} (from {@link PeakHeapProfiler}) across {@code rows}: it stays
+ * flat for the streaming engine and grows with the row count for the in-memory workbook.
+ *
+ * @version 1.0
+ * @since 2026-10-17
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g", "-Xmn32m"})
+@State(Scope.Benchmark)
+public class ExcelExportBenchmark {
+
+    private static final String[] COLUMNS = {
+        "Roll No", "Student Name", "Internal 1 (25)", "Internal 2 (25)", "Assignment (10)",
+        "Lab (40)", "External (100)", "Total", "Status"
+    };
+    private static final int[] MAX_MARKS = {25, 25, 10, 40, 100};
+
+    @Param({"1000", "10000", "50000"})
+    public int rows;
+
+    private static final ExcelStyle HEADER = ExcelStyle.PLAIN.bold().fill(IndexedColors.GREY_25_PERCENT)
+        .border(BorderStyle.THIN);
+    private static final ExcelStyle DATA = ExcelStyle.PLAIN.border(BorderStyle.THIN);
+
+    @Benchmark
+    public long streamingEngine() throws IOException, SQLException {
+        try (ExcelExportEngine engine = new ExcelExportEngine()) {
+            ExcelExportEngine.SheetWriter sheet = engine.sheet("Marks", COLUMNS.length);
+            sheet.title("Mark Entry - Benchmark", ExcelStyle.PLAIN.bold().fontSize(14), 0);
+            sheet.blankRow();
+            sheet.header(COLUMNS, HEADER, 0);
+            long written = sheet.rows(new GeneratedRows(rows), (dataRow, col, value) -> DATA, 0);
+            sheet.autoSizeColumns(512);
+            engine.write(OutputStream.nullOutputStream());
+            return written;
+        }
+    }
+
+    @Benchmark
+    public long inMemoryWorkbook() throws IOException, SQLException {
+        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+            ExcelStyleRegistry styles = new ExcelStyleRegistry(workbook);
+            CellStyle headerStyle = styles.get(HEADER);
+            CellStyle dataStyle = styles.get(DATA);
+
+            Sheet sheet = workbook.createSheet("Marks");
+            sheet.createRow(0).createCell(0).setCellValue("Mark Entry - Benchmark");
+            Row header = sheet.createRow(2);
+            for (int col = 0; col < COLUMNS.length; col++) {
+                Cell cell = header.createCell(col);
+                cell.setCellValue(COLUMNS[col]);
+                cell.setCellStyle(headerStyle);
+            }
+
+            GeneratedRows source = new GeneratedRows(rows);
+            Object[] values = new Object[COLUMNS.length];
+            int rowIndex = 3;
+            while (source.next(values)) {
+                Row row = sheet.createRow(rowIndex++);
+                for (int col = 0; col < COLUMNS.length; col++) {
+                    Cell cell = row.createCell(col);
+                    if (values[col] instanceof Number) {
+                        cell.setCellValue(((Number) values[col]).doubleValue());
+                    } else {
+                        cell.setCellValue(values[col].toString());
+                    }
+                    cell.setCellStyle(dataStyle);
+                }
+            }
+            workbook.write(OutputStream.nullOutputStream());
+            return rowIndex - 3;
+        }
+    }
+
+    /**
+     * Deterministic marks rows produced one at a time, like a streaming ResultSet.
+     */
+    static final class GeneratedRows implements ExcelExportEngine.RowSupplier {
+        private final int count;
+        private final Random random = new Random(20261017L);
+        private int produced;
+
+        GeneratedRows(int count) {
+            this.count = count;
+        }
+
+        @Override
+        public boolean next(Object[] values) {
+            if (produced >= count) {
+                return false;
+            }
+            produced++;
+            values[0] = String.format("24CS%05d", produced);
+            values[1] = "Student " + produced;
+            double total = 0;
+            for (int i = 0; i < MAX_MARKS.length; i++) {
+                double marks = Math.round(MAX_MARKS[i] * (0.4 + random.nextDouble() * 0.6));
+                values[2 + i] = marks;
+                total += marks / MAX_MARKS[i] * 20;
+            }
+            values[7] = String.format("%.2f", total);
+            values[8] = total >= 40 ? "Complete" : "Incomplete (4/5)";
+            return true;
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.sms.benchmarks;
+
+import com.sms.dao.SectionMarksSnapshot;
+import com.sms.resultlauncher.LaunchComputation;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * CPU stage of a result launch ({@link LaunchComputation#calculateResults}): every
+ * selected student of a synthetic section, calculated from an in-memory
+ * SectionMarksSnapshot.
+ *
+ * The calculation runs inside a fork-join pool of {@code threads} workers, so the
+ * parallel stream uses that pool instead of the common pool. {@code threads=1} is the
+ * sequential baseline; compare the average time per launch across {@code threads}
+ * (up to the number of cores of the machine):
+ * <pre>
+ * java -jar target/benchmarks.jar LaunchComputation -p students=1000
+ * </pre>
+ *
+ * @version 1.0
+ * @since 2026-10-17
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LaunchComputationBenchmark {
+
+    private static final long SEED = 20261017L;
+    private static final int[] INTERNAL_MAX_MARKS = {20, 25, 50};
+
+    @Param({"1000", "5000"})
+    public int students;
+
+    @Param({"5", "15"})
+    public int subjects;
+
+    @Param({"3", "8"})
+    public int components;
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    private SectionMarksSnapshot snapshot;
+    private List<Integer> studentIds;
+    private ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        snapshot = syntheticSnapshot(students, subjects, components);
+        studentIds = new ArrayList<>(students);
+        for (int i = 0; i < students; i++) {
+            studentIds.add(i + 1);
+        }
+        pool = new ForkJoinPool(threads);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public Map<Integer, LaunchComputation.StudentResult> calculateResults()
+            throws InterruptedException, ExecutionException {
+        return pool.submit(() ->
+            LaunchComputation.calculateResults(snapshot, studentIds, Collections.emptyMap())).get();
+    }
+
+    /**
+     * Section with {@code components} exam types per subject: internals of 20/25/50
+     * marks sharing 40% weightage and an external of 100 marks with 60%. Marks are drawn
+     * around 65% with a fixed seed and about 2% are missing.
+     */
+    static SectionMarksSnapshot syntheticSnapshot(int studentCount, int subjectCount, int examsPerSubject) {
+        Random random = new Random(SEED);
+        int slotCount = subjectCount * examsPerSubject;
+
+        int[] studentIds = new int[studentCount];
+        String[] rollNumbers = new String[studentCount];
+        String[] studentNames = new String[studentCount];
+        for (int i = 0; i < studentCount; i++) {
+            studentIds[i] = i + 1;
+            rollNumbers[i] = String.format("R%05d", i + 1);
+            studentNames[i] = "Student " + (i + 1);
+        }
+
+        int[] subjectIds = new int[subjectCount];
+        String[] subjectNames = new String[subjectCount];
+        int[] subjectMaxMarks = new int[subjectCount];
+        int[] subjectPassingMarks = new int[subjectCount];
+        int[] subjectCredits = new int[subjectCount];
+        int[] examStart = new int[subjectCount + 1];
+        int[] examTypeIds = new int[slotCount];
+        String[] examNames = new String[slotCount];
+        int[] examMaxMarks = new int[slotCount];
+        int[] examWeightage = new int[slotCount];
+        int[] examPassingMarks = new int[slotCount];
+        boolean[] examConfigured = new boolean[slotCount];
+
+        for (int s = 0; s < subjectCount; s++) {
+            subjectIds[s] = s + 1;
+            subjectNames[s] = "Subject " + (s + 1);
+            subjectMaxMarks[s] = 100;
+            subjectPassingMarks[s] = 40;
+            subjectCredits[s] = 4;
+            examStart[s] = s * examsPerSubject;
+            int internals = examsPerSubject - 1;
+            for (int c = 0; c < examsPerSubject; c++) {
+                int e = examStart[s] + c;
+                boolean external = c == internals;
+                examTypeIds[e] = e + 1;
+                examNames[e] = external ? "External" : "Internal " + (c + 1);
+                examMaxMarks[e] = external ? 100 : INTERNAL_MAX_MARKS[random.nextInt(INTERNAL_MAX_MARKS.length)];
+                examWeightage[e] = external ? (internals > 0 ? 60 : 100) : 40 / internals;
+                examPassingMarks[e] = (int) (examMaxMarks[e] * 0.4);
+                examConfigured[e] = true;
+            }
+        }
+        examStart[subjectCount] = slotCount;
+
+        double[] marks = new double[studentCount * slotCount];
+        for (int i = 0; i < studentCount; i++) {
+            double ability = 0.65 + random.nextGaussian() * 0.15;
+            for (int e = 0; e < slotCount; e++) {
+                double fraction = Math.max(0, Math.min(1, ability + random.nextGaussian() * 0.1));
+                marks[i * slotCount + e] = random.nextInt(50) == 0
+                    ? SectionMarksSnapshot.NO_MARK
+                    : Math.round(fraction * examMaxMarks[e]);
+            }
+        }
+
+        return new SectionMarksSnapshot(1, studentIds, rollNumbers, studentNames,
+            subjectIds, subjectNames, subjectMaxMarks, subjectPassingMarks, subjectCredits,
+            examStart, examTypeIds, examNames, examMaxMarks, examWeightage, examPassingMarks,
+            examConfigured, marks);
+    }
+}
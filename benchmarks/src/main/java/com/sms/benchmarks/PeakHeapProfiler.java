@@ -0,0 +1,110 @@
+package com.sms.benchmarks;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.profile.InternalProfiler;
+import org.openjdk.jmh.results.AggregationPolicy;
+import org.openjdk.jmh.results.IterationResult;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.ScalarResult;
+
+/**
+ * Reports the largest live heap seen during an iteration as {@code heap.live.max} (MB).
+ *
+ * "Live" is the heap still in use right after a garbage collection, so unlike the
+ * allocation rate it measures what an operation keeps reachable (e.g. a whole
+ * workbook model) and not the garbage it produces. The heap is collected before each
+ * iteration; benchmarks that need samples while their data is reachable run with a
+ * small young generation so collections happen during the operation.
+ *
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class PeakHeapProfiler implements InternalProfiler {
+
+    private final Set<String> heapPools = new HashSet<>();
+    private final List<NotificationEmitter> emitters = new ArrayList<>();
+    private final NotificationListener listener = this::onNotification;
+    private volatile long maxLiveBytes;
+
+    public PeakHeapProfiler() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                heapPools.add(pool.getName());
+            }
+        }
+    }
+
+    @Override
+    public String getDescription() {
+        return "Largest live heap after GC during each iteration";
+    }
+
+    @Override
+    public void beforeIteration(BenchmarkParams benchmarkParams, IterationParams iterationParams) {
+        System.gc();
+        maxLiveBytes = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (collector instanceof NotificationEmitter) {
+                NotificationEmitter emitter = (NotificationEmitter) collector;
+                emitter.addNotificationListener(listener, null, null);
+                emitters.add(emitter);
+            }
+        }
+    }
+
+    @Override
+    public Collection<? extends Result> afterIteration(BenchmarkParams benchmarkParams,
+                                                       IterationParams iterationParams,
+                                                       IterationResult result) {
+        for (NotificationEmitter emitter : emitters) {
+            try {
+                emitter.removeNotificationListener(listener);
+            } catch (ListenerNotFoundException e) {
+                // Already gone
+            }
+        }
+        emitters.clear();
+
+        List<Result> results = new ArrayList<>();
+        results.add(new ScalarResult("heap.live.max", maxLiveBytes / (1024.0 * 1024.0), "MB", AggregationPolicy.MAX));
+        return results;
+    }
+
+    private void onNotification(Notification notification, Object handback) {
+        if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+            return;
+        }
+        GarbageCollectionNotificationInfo info =
+            GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+
+        long live = 0;
+        for (Map.Entry<String, MemoryUsage> pool : info.getGcInfo().getMemoryUsageAfterGc().entrySet()) {
+            if (heapPools.contains(pool.getKey())) {
+                live += pool.getValue().getUsed();
+            }
+        }
+        synchronized (this) {
+            if (live > maxLiveBytes) {
+                maxLiveBytes = live;
+            }
+        }
+    }
+}
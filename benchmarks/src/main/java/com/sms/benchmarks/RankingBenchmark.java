@@ -0,0 +1,30 @@
+package com.sms.benchmarks;
+
+import com.sms.calculation.CalculationUtils;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Competition ranking of a section by final percentage (as used by the result launcher).
+ *
+ * @version 1.0
+ * @since 2026-10-17
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RankingBenchmark {
+
+    @Benchmark
+    public int[] assignRanks(SectionState state) {
+        return CalculationUtils.assignRanks(state.percentages);
+    }
+}
@@ -0,0 +1,75 @@
+package com.sms.benchmarks;
+
+import com.sms.calculation.StudentCalculator;
+import com.sms.calculation.models.CalculationResult;
+import com.sms.calculation.models.Component;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Shared benchmark state: one synthetic section per parameter combination.
+ *
+ * Sizes cover a small class up to a whole department (50 to 5,000 students,
+ * 5 to 15 subjects, 3 to 8 components per subject). Narrow them on the
+ * command line, e.g. {@code -p students=500 -p subjects=5}.
+ *
+ * System.out is replaced by a discarding stream for the duration of the trial:
+ * the calculators still build and write their log lines (that cost is part of
+ * what is measured), but the forked JVM does not flood the JMH console.
+ *
+ * @version 1.0
+ * @since 2026-10-17
+ */
+@State(Scope.Benchmark)
+public class SectionState {
+
+    @Param({"50", "500", "5000"})
+    public int students;
+
+    @Param({"5", "15"})
+    public int subjects;
+
+    @Param({"3", "8"})
+    public int components;
+
+    public SyntheticSection section;
+
+    /** Overall result per student, precomputed for the statistics/ranking benchmarks. */
+    public List<CalculationResult> results;
+
+    /** Final percentage per student, in student order. */
+    public double[] percentages;
+
+    private PrintStream originalOut;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        section = new SyntheticSection(students, subjects, components);
+
+        StudentCalculator calculator = new StudentCalculator();
+        results = new ArrayList<>(students);
+        percentages = new double[students];
+        for (int i = 0; i < students; i++) {
+            List<Component> studentComponents = section.studentComponents.get(i);
+            CalculationResult result = calculator.calculateStudentMarks(i + 1, "Student " + (i + 1), studentComponents);
+            results.add(result);
+            percentages[i] = result.getFinalPercentage();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.setOut(originalOut);
+    }
+}
@@ -0,0 +1,41 @@
+package com.sms.benchmarks;
+
+import com.sms.calculation.SectionCalculator;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Section-wide statistics from already calculated student results,
+ * plus the component-wise and subject-wise analyses.
+ *
+ * @version 1.0
+ * @since 2026-10-17
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SectionStatisticsBenchmark {
+
+    @Benchmark
+    public Object sectionStatistics(SectionState state) {
+        return new SectionCalculator().calculateSectionStatistics(state.results);
+    }
+
+    @Benchmark
+    public Object componentWiseAnalysis(SectionState state) {
+        return new SectionCalculator().calculateComponentWiseAnalysis(state.section.componentsByStudent);
+    }
+
+    @Benchmark
+    public Object subjectWiseAnalysis(SectionState state) {
+        return new SectionCalculator().calculateSubjectWiseAnalysis(state.section.subjectComponentsByStudent);
+    }
+}
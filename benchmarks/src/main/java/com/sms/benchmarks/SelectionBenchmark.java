@@ -0,0 +1,61 @@
+package com.sms.benchmarks;
+
+import com.sms.calculation.GroupSelectionLogic;
+import com.sms.calculation.models.ComponentGroup;
+import com.sms.marking.utils.MarkCalculator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Best-N / drop-lowest component selection for every student and subject:
+ * GroupSelectionLogic (calculation engine) and MarkCalculator best_of groups
+ * (marking schemes). One operation = the whole section.
+ *
+ * @version 1.0
+ * @since 2026-10-17
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SelectionBenchmark {
+
+    @Benchmark
+    public void groupSelection(SectionState state, Blackhole blackhole) {
+        for (List<ComponentGroup> groups : state.section.studentGroups) {
+            for (ComponentGroup group : groups) {
+                blackhole.consume(GroupSelectionLogic.applyGroupSelection(group));
+            }
+        }
+    }
+
+    @Benchmark
+    public void groupScore(SectionState state, Blackhole blackhole) {
+        for (List<ComponentGroup> groups : state.section.studentGroups) {
+            for (ComponentGroup group : groups) {
+                blackhole.consume(GroupSelectionLogic.calculateGroupScore(group));
+            }
+        }
+    }
+
+    @Benchmark
+    public void markingSchemeGroups(SectionState state, Blackhole blackhole) {
+        MarkCalculator calculator = new MarkCalculator();
+        SyntheticSection section = state.section;
+        for (Map<Integer, Double> marks : section.markingMarks) {
+            for (com.sms.marking.models.ComponentGroup group : section.markingGroups) {
+                blackhole.consume(calculator.calculateGroupMarks(group, marks));
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.sms.benchmarks;
+
+import com.sms.calculation.StudentCalculator;
+import com.sms.calculation.models.CalculationResult;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Per-student calculation over a whole section.
+ * One operation = every student of the section calculated once.
+ *
+ * @version 1.0
+ * @since 2026-10-17
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StudentCalculatorBenchmark {
+
+    @Benchmark
+    public void componentMarks(SectionState state, Blackhole blackhole) {
+        StudentCalculator calculator = new StudentCalculator();
+        SyntheticSection section = state.section;
+        for (int i = 0; i < section.studentCount; i++) {
+            CalculationResult result = calculator.calculateStudentMarks(i + 1, "Student " + (i + 1),
+                section.studentComponents.get(i));
+            blackhole.consume(result);
+        }
+    }
+
+    @Benchmark
+    public void groupMarks(SectionState state, Blackhole blackhole) {
+        StudentCalculator calculator = new StudentCalculator();
+        SyntheticSection section = state.section;
+        for (int i = 0; i < section.studentCount; i++) {
+            CalculationResult result = calculator.calculateStudentMarksWithGroups(i + 1, "Student " + (i + 1),
+                section.studentGroups.get(i));
+            blackhole.consume(result);
+        }
+    }
+
+    @Benchmark
+    public void simpleTotal(SectionState state, Blackhole blackhole) {
+        StudentCalculator calculator = new StudentCalculator();
+        SyntheticSection section = state.section;
+        for (int i = 0; i < section.studentCount; i++) {
+            CalculationResult result = calculator.calculateSimpleTotal(i + 1, "Student " + (i + 1),
+                section.studentComponents.get(i));
+            blackhole.consume(result);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.sms.benchmarks;
+
+import com.sms.calculation.models.Component;
+import com.sms.calculation.models.ComponentGroup;
+import com.sms.marking.models.MarkingComponent;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Deterministic synthetic section used by the benchmarks.
+ *
+ * Every subject has {@code componentsPerSubject} components: the last one is the
+ * external exam (100 marks), the others are internals (20/25/50 marks). Marks are
+ * drawn around 65% with a fixed seed, and about 2% of components are "not counted"
+ * (absent), so runs are comparable across machines and commits.
+ *
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class SyntheticSection {
+
+    private static final long SEED = 20261017L;
+    private static final int[] INTERNAL_MAX_MARKS = {20, 25, 50};
+    private static final String[] SELECTION_MODES = {"bestN", "dropLowest", "all"};
+
+    public final int studentCount;
+    public final int subjectCount;
+    public final int componentsPerSubject;
+
+    public final String[] subjectNames;
+
+    /** All components of a student, subject after subject. */
+    public final List<List<Component>> studentComponents = new ArrayList<>();
+    /** Same components keyed by student id, as SectionCalculator expects. */
+    public final Map<Integer, List<Component>> componentsByStudent = new LinkedHashMap<>();
+    /** Student id -> subject -> components. */
+    public final Map<Integer, Map<String, List<Component>>> subjectComponentsByStudent = new LinkedHashMap<>();
+    /** One calculation ComponentGroup per subject and student (bestN / dropLowest / all). */
+    public final List<List<ComponentGroup>> studentGroups = new ArrayList<>();
+
+    /** Marking scheme groups shared by all students: internal best_of + external per subject. */
+    public final List<com.sms.marking.models.ComponentGroup> markingGroups = new ArrayList<>();
+    /** Per student: marking component id -> marks (missing marks are absent). */
+    public final List<Map<Integer, Double>> markingMarks = new ArrayList<>();
+
+    public SyntheticSection(int studentCount, int subjectCount, int componentsPerSubject) {
+        this.studentCount = studentCount;
+        this.subjectCount = subjectCount;
+        this.componentsPerSubject = componentsPerSubject;
+        this.subjectNames = new String[subjectCount];
+
+        Random random = new Random(SEED);
+        int[][] maxMarks = new int[subjectCount][componentsPerSubject];
+        for (int s = 0; s < subjectCount; s++) {
+            subjectNames[s] = "Subject " + (s + 1);
+            for (int c = 0; c < componentsPerSubject; c++) {
+                maxMarks[s][c] = isExternal(c) ? 100 : INTERNAL_MAX_MARKS[random.nextInt(INTERNAL_MAX_MARKS.length)];
+            }
+        }
+
+        buildMarkingScheme(maxMarks);
+
+        for (int i = 0; i < studentCount; i++) {
+            int studentId = i + 1;
+            double ability = 0.65 + random.nextGaussian() * 0.15;
+
+            List<Component> all = new ArrayList<>(subjectCount * componentsPerSubject);
+            Map<String, List<Component>> bySubject = new LinkedHashMap<>();
+            List<ComponentGroup> groups = new ArrayList<>(subjectCount);
+            Map<Integer, Double> marks = new HashMap<>();
+
+            for (int s = 0; s < subjectCount; s++) {
+                ComponentGroup group = new ComponentGroup(s + 1, subjectNames[s],
+                    SELECTION_MODES[s % SELECTION_MODES.length], Math.max(1, componentsPerSubject - 1),
+                    100.0 / subjectCount);
+                if ("dropLowest".equals(group.getSelectionMode())) {
+                    group.setSelectionValue(1);
+                }
+
+                List<Component> subjectComponents = new ArrayList<>(componentsPerSubject);
+                for (int c = 0; c < componentsPerSubject; c++) {
+                    int componentId = componentId(s, c);
+                    double fraction = Math.max(0, Math.min(1, ability + random.nextGaussian() * 0.1));
+                    double obtained = Math.round(fraction * maxMarks[s][c]);
+
+                    Component component = new Component(componentId,
+                        subjectNames[s] + " - " + componentName(c),
+                        isExternal(c) ? "external" : "internal",
+                        obtained, maxMarks[s][c], 100.0 / componentsPerSubject);
+                    component.setGroupId(s + 1);
+                    component.setGroupName(subjectNames[s]);
+                    component.setSequenceOrder(c);
+                    boolean absent = random.nextInt(50) == 0;
+                    component.setCounted(!absent);
+
+                    subjectComponents.add(component);
+                    group.addComponent(component);
+                    if (!absent) {
+                        marks.put(componentId, obtained);
+                    }
+                }
+
+                all.addAll(subjectComponents);
+                bySubject.put(subjectNames[s], subjectComponents);
+                groups.add(group);
+            }
+
+            studentComponents.add(all);
+            componentsByStudent.put(studentId, all);
+            subjectComponentsByStudent.put(studentId, bySubject);
+            studentGroups.add(groups);
+            markingMarks.add(marks);
+        }
+    }
+
+    private void buildMarkingScheme(int[][] maxMarks) {
+        for (int s = 0; s < subjectCount; s++) {
+            com.sms.marking.models.ComponentGroup internal =
+                new com.sms.marking.models.ComponentGroup(subjectNames[s] + " Internal", "internal", 40);
+            internal.setSelectionType("best_of");
+            internal.setSelectionCount(Math.max(1, componentsPerSubject - 2));
+
+            com.sms.marking.models.ComponentGroup external =
+                new com.sms.marking.models.ComponentGroup(subjectNames[s] + " External", "external", 60);
+
+            for (int c = 0; c < componentsPerSubject; c++) {
+                MarkingComponent component = new MarkingComponent(componentName(c), maxMarks[s][c]);
+                component.setId(componentId(s, c));
+                if (isExternal(c)) {
+                    external.getComponents().add(component);
+                } else {
+                    internal.getComponents().add(component);
+                }
+            }
+            markingGroups.add(internal);
+            markingGroups.add(external);
+        }
+    }
+
+    private boolean isExternal(int componentIndex) {
+        return componentIndex == componentsPerSubject - 1;
+    }
+
+    private String componentName(int componentIndex) {
+        return isExternal(componentIndex) ? "External Exam" : "Internal " + (componentIndex + 1);
+    }
+
+    private static int componentId(int subjectIndex, int componentIndex) {
+        return (subjectIndex + 1) * 100 + componentIndex;
+    }
+}
@@ -67,6 +67,71 @@ def get_grade(percentage):
     else:
         return 'F'
 
+def expand_result_data(launch_data, data):
+    """Rebuild the full result document from a packed (format 2) student row.
+
+    Launch-level data (config, class stats, exam types) is stored once per launch in
+    launched_result_meta; student rows only carry their own values by position.
+    Mirrors LaunchedResultCodec.expand in the desktop application.
+    """
+    layout = launch_data.get('subjects', [])
+    subjects = []
+    for index, marks, weighted_total, grade, passed in data.get('s', []):
+        subject = layout[index]
+        exam_types = []
+        for exam, obtained in zip(subject['exam_types'], marks):
+            if obtained is None:
+                continue
+            exam_types.append({
+                'exam_name': exam['exam_name'],
+                'obtained': obtained,
+                'max': exam['max'],
+                'weightage': exam['weightage']
+            })
+        subjects.append({
+            'subject_name': subject['subject_name'],
+            'exam_types': exam_types,
+            'weighted_total': weighted_total,
+            'max_marks': 100,
+            'grade': grade,
+            'passed': passed
+        })
+    total_obtained, total_max, percentage, cgpa, grade, is_passing, method = data['o']
+    rank, total_students, percentile = data['r']
+    return {
+        'student_info': {'id': data['id'], 'name': data['n']},
+        'config': launch_data.get('config', {}),
+        'subjects': subjects,
+        'overall': {
+            'total_obtained': total_obtained,
+            'total_max': total_max,
+            'percentage': percentage,
+            'cgpa': cgpa,
+            'grade': grade,
+            'is_passing': is_passing,
+            'calculation_method': method
+        },
+        'ranking': {'rank': rank, 'total_students': total_students, 'percentile': percentile},
+        'class_stats': launch_data.get('class_stats', {})
+    }
+
+def load_result_data(cursor, launch_id, raw, launch_cache=None):
+    """Parse a launched_student_results.result_data value (full or packed format)"""
+    data = json.loads(raw)
+    if not isinstance(data, dict) or data.get('f') != 2:
+        return data
+    if launch_cache is not None and launch_id in launch_cache:
+        launch_data = launch_cache[launch_id]
+    else:
+        cursor.execute("SELECT launch_data FROM launched_result_meta WHERE launch_id = %s", (launch_id,))
+        row = cursor.fetchone()
+        launch_data = json.loads(row['launch_data']) if row else None
+        if launch_cache is not None:
+            launch_cache[launch_id] = launch_data
+    if launch_data is None:
+        return None
+    return expand_result_data(launch_data, data)
+
 @app.route('/')
 def index():
     """Landing page - Section selection"""
@@ -276,13 +341,17 @@ def debug_results(student_id):
         """
         
         cursor.execute(query, (student_id,))
-        result = cursor.fetchone()
+        rows = cursor.fetchall()
+        result = rows[0] if rows else None
+        
+        result_data = None
+        if result and result['result_data']:
+            result_data = load_result_data(cursor, result['launch_id'], result['result_data'])
         
         cursor.close()
         conn.close()
         
-        if result and result['result_data']:
-            result_data = json.loads(result['result_data'])
+        if result_data:
             return f"<pre>{json.dumps(result_data, indent=2)}</pre>"
         else:
             return "No result data found"
@@ -325,9 +394,12 @@ def view_results(student_id):
         
         # Parse JSON result_data and format for display
         launched_results = []
+        launch_cache = {}
         for result in results:
             if result['result_data']:
-                result_data = json.loads(result['result_data'])
+                result_data = load_result_data(cursor, result['launch_id'], result['result_data'], launch_cache)
+                if not result_data:
+                    continue
                 
                 # Extract data from new JSON structure
                 overall = result_data.get('overall', {})
@@ -385,7 +457,13 @@ def download_pdf(launch_id, student_id):
         """
         
         cursor.execute(query, (launch_id, student_id))
-        result = cursor.fetchone()
+        rows = cursor.fetchall()
+        result = rows[0] if rows else None
+        
+        # Parse result data
+        result_data = None
+        if result and result['allow_pdf_download']:
+            result_data = load_result_data(cursor, launch_id, result['result_data'])
         
         cursor.close()
         conn.close()
@@ -396,8 +474,8 @@ def download_pdf(launch_id, student_id):
         if not result['allow_pdf_download']:
             return jsonify({'success': False, 'error': 'PDF download not allowed'}), 403
         
-        # Parse result data
-        result_data = json.loads(result['result_data'])
+        if not result_data:
+            return jsonify({'success': False, 'error': 'Result not found'}), 404
         
         # Generate PDF
         buffer = io.BytesIO()
@@ -5,6 +5,9 @@ import com.sms.login.AuthenticationFrame;
 import com.sms.util.ConfigLoader;
 import com.sms.database.DatabaseConnection;
 import com.sms.util.BackgroundTask;
+import com.sms.dashboard.services.DashboardStatisticsCache;
+import com.sms.dao.SectionConfigCache;
+import com.sms.resultlauncher.EmailDispatcher;
 
 public class Main {
     public static void main(String[] args) {
@@ -40,11 +43,17 @@ public class Main {
         // Add shutdown hook to close connection pool gracefully
         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
             System.out.println("\nShutting down application...");
+            EmailDispatcher.getInstance().shutdown();
             BackgroundTask.shutdown();
+            System.out.println(DashboardStatisticsCache.getStats());
+            System.out.println(SectionConfigCache.getStats());
             DatabaseConnection.shutdown();
             System.out.println("✓ Cleanup complete");
         }));
 
+        // Resume delivery of any result emails still queued from a previous session
+        EmailDispatcher.getInstance().start();
+
         // Show login screen
         new AuthenticationFrame();
     }
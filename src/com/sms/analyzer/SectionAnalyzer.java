@@ -17,6 +17,7 @@ import java.util.List;
 import com.sms.dao.SectionDAO;
 import com.sms.database.DatabaseConnection;
 import com.sms.dao.AnalyzerDAO;
+import com.sms.dao.AsyncRepository;
 import org.jfree.chart.axis.CategoryAxis;
 import org.jfree.chart.axis.NumberAxis;
 
@@ -55,6 +56,8 @@ public class SectionAnalyzer extends JPanel {
     private AnalyzerDAO.DetailedRankingData cachedRankingData;
     private Map<String, Set<String>> cachedFiltersForAnalysis;
     private Map<String, Set<String>> cachedFiltersForRanking;
+    // Weighted subject results of the ranking table (roll number -> subject -> result), loaded with cachedAnalysisData
+    private Map<String, Map<String, AnalyzerDAO.SubjectPassResult>> cachedRankingResults;
 
     // Constructor for standalone dialog (backward compatibility)
     public SectionAnalyzer(JFrame parent, HashMap<String, ArrayList<Student>> sectionStudents) {
@@ -286,17 +289,25 @@ public class SectionAnalyzer extends JPanel {
         boolean filtersMatchAnalysis = (selectedFilters == null && cachedFiltersForAnalysis == null) ||
                                       (selectedFilters != null && selectedFilters.equals(cachedFiltersForAnalysis));
         
-        if (cachedAnalysisData != null && filtersMatchAnalysis) {
+        if (cachedAnalysisData != null && cachedRankingResults != null && filtersMatchAnalysis) {
             analysisData = cachedAnalysisData;
         } else {
-            analysisData = analyzerDAO.getSectionAnalysisWithFilters(
-                currentSectionId, 
-                com.sms.login.LoginScreen.currentUserId,
-                selectedFilters
-            );
-            // Cache for future use
-            cachedAnalysisData = analysisData;
-            cachedFiltersForAnalysis = selectedFilters != null ? new HashMap<>(selectedFilters) : null;
+            // Load off the EDT; this method runs again once the data is cached
+            JLabel loadingLabel = new JLabel("Loading section data...");
+            loadingLabel.setHorizontalAlignment(SwingConstants.CENTER);
+            loadingLabel.setFont(new Font("SansSerif", Font.ITALIC, 14));
+            loadingLabel.setForeground(TEXT_SECONDARY);
+            mainContentPanel.add(loadingLabel, BorderLayout.CENTER);
+            loadSectionData(() -> {
+                mainContentPanel.removeAll();
+                createMainContent();
+                mainContentPanel.revalidate();
+                mainContentPanel.repaint();
+            }, failure -> {
+                loadingLabel.setText("Section data could not be loaded");
+                showAnalysisError(failure);
+            });
+            return;
         }
         
         long dataFetchTime = System.currentTimeMillis() - dataFetchStart;
@@ -716,29 +727,8 @@ public class SectionAnalyzer extends JPanel {
         double maxPossibleMarks = 100; // Default
         
         if (analysisData != null && analysisData.subjectAnalysisList != null) {
-            Connection conn = null;
-            try {
-                conn = DatabaseConnection.getConnection();
-                String maxMarksQuery = "SELECT MAX(ss.max_marks) as max_marks " +
-                                     "FROM section_subjects ss " +
-                                     "WHERE ss.section_id = ?";
-                PreparedStatement ps = conn.prepareStatement(maxMarksQuery);
-                ps.setInt(1, currentSectionId);
-                ResultSet rs = ps.executeQuery();
-                if (rs.next()) {
-                    maxPossibleMarks = rs.getDouble("max_marks");
-                }
-                rs.close();
-                ps.close();
-            } catch (SQLException e) {
-                e.printStackTrace();
-            } finally {
-                try {
-                    if (conn != null) conn.close();
-                } catch (SQLException e) {
-                    e.printStackTrace();
-                }
-            }
+            // Loaded with the analysis data, off the EDT
+            maxPossibleMarks = analysisData.maxSubjectMarks;
             
             for (AnalyzerDAO.SubjectAnalysis subject : analysisData.subjectAnalysisList) {
                 double avgMarks = Math.round(subject.averageMarks * 100.0) / 100.0;
@@ -1116,38 +1106,104 @@ public class SectionAnalyzer extends JPanel {
         loadAvailableComponentsForSection(currentSectionId);
         initializeFilters();
         
+        // Cached data belongs to the previous section
+        cachedAnalysisData = null;
+        cachedRankingData = null;
+        cachedRankingResults = null;
+        cachedFiltersForAnalysis = null;
+        cachedFiltersForRanking = null;
+        
         SwingUtilities.invokeLater(() -> {
             mainContentPanel.removeAll();
-            
-            JLabel loadingLabel = new JLabel("Loading section data...");
-            loadingLabel.setHorizontalAlignment(SwingConstants.CENTER);
-            loadingLabel.setFont(new Font("SansSerif", Font.ITALIC, 14));
-            loadingLabel.setForeground(TEXT_SECONDARY);
-            mainContentPanel.add(loadingLabel, BorderLayout.CENTER);
+            createMainContent(); // shows a loading label and loads off the EDT
             mainContentPanel.revalidate();
             mainContentPanel.repaint();
-            
-            SwingWorker<Void, Void> worker = new SwingWorker<Void, Void>() {
-                @Override
-                protected Void doInBackground() throws Exception {
-                    Thread.sleep(300);
-                    return null;
-                }
-                
-                @Override
-                protected void done() {
-                    long refreshStart = System.currentTimeMillis();
-                    mainContentPanel.removeAll();
-                    createMainContent();
-                    mainContentPanel.revalidate();
-                    mainContentPanel.repaint();
-                    long refreshTime = System.currentTimeMillis() - refreshStart;
-                }
-            };
-            worker.execute();
         });
     }
     
+    /**
+     * Everything the content area needs from the database, loaded together off the EDT.
+     */
+    private static final class SectionData {
+        final AnalyzerDAO.SectionAnalysisData analysis;
+        final AnalyzerDAO.DetailedRankingData ranking;
+        final Map<String, Map<String, AnalyzerDAO.SubjectPassResult>> rankingResults;
+        
+        SectionData(int sectionId, int userId, Map<String, Set<String>> filters) throws SQLException {
+            AnalyzerDAO analyzerDAO = new AnalyzerDAO();
+            analysis = analyzerDAO.getSectionAnalysisWithFilters(sectionId, userId, filters);
+            ranking = analyzerDAO.getDetailedStudentRankingFromAnalysisData(sectionId, analysis, filters);
+            rankingResults = loadRankingResults(sectionId, filters);
+        }
+    }
+    
+    /**
+     * Load the analysis and the ranking table's data for the current section
+     * and filters on the INTERACTIVE lane, cache them and run {@code render} on the EDT.
+     * A result is dropped if another section or filter was selected meanwhile.
+     */
+    private void loadSectionData(Runnable render, java.util.function.Consumer<Throwable> onFailure) {
+        int sectionId = currentSectionId;
+        int userId = com.sms.login.LoginScreen.currentUserId;
+        Map<String, Set<String>> filters = copyFilters(selectedFilters);
+        AsyncRepository.supply(() -> new SectionData(sectionId, userId, filters))
+            .thenAcceptAsync(loaded -> {
+                if (sectionId != currentSectionId || !Objects.equals(filters, selectedFilters)) {
+                    return; // superseded by a newer load
+                }
+                cachedAnalysisData = loaded.analysis;
+                cachedRankingData = loaded.ranking;
+                cachedRankingResults = loaded.rankingResults;
+                cachedFiltersForAnalysis = filters;
+                cachedFiltersForRanking = filters;
+                render.run();
+            }, AsyncRepository.EDT)
+            .exceptionally(failure -> {
+                AsyncRepository.logFailure("Loading section analysis").apply(failure);
+                Throwable cause = failure.getCause() != null ? failure.getCause() : failure;
+                SwingUtilities.invokeLater(() -> {
+                    if (sectionId == currentSectionId) {
+                        onFailure.accept(cause);
+                    }
+                });
+                return null;
+            });
+    }
+    
+    // Copy of the filters that the loader can read while the checkboxes keep editing the original sets
+    private static Map<String, Set<String>> copyFilters(Map<String, Set<String>> filters) {
+        if (filters == null) {
+            return null;
+        }
+        Map<String, Set<String>> copy = new HashMap<>();
+        for (Map.Entry<String, Set<String>> entry : filters.entrySet()) {
+            copy.put(entry.getKey(), entry.getValue() != null ? new HashSet<>(entry.getValue()) : null);
+        }
+        return copy;
+    }
+    
+    // Synchronous load for the PDF export, which runs on the EDT
+    private AnalyzerDAO.SectionAnalysisData loadAnalysisData(AnalyzerDAO analyzerDAO) {
+        try {
+            return analyzerDAO.getSectionAnalysisWithFilters(
+                currentSectionId, 
+                com.sms.login.LoginScreen.currentUserId,
+                selectedFilters
+            );
+        } catch (SQLException e) {
+            e.printStackTrace();
+            showAnalysisError(e);
+            return null;
+        }
+    }
+    
+    private void showAnalysisError(Throwable error) {
+        JOptionPane.showMessageDialog(this, 
+            "Error loading section analysis: " + error.getMessage(), 
+            "Database Error", 
+            JOptionPane.ERROR_MESSAGE);
+    }
+    
     private void refreshDataOnly() {
         // Only refresh the data content, NOT the filter panel
         System.out.println("Refreshing data only with filters: " + selectedFilters.keySet());
@@ -1155,197 +1211,185 @@ public class SectionAnalyzer extends JPanel {
         // Clear cache since filters changed
         cachedAnalysisData = null;
         cachedRankingData = null;
+        cachedRankingResults = null;
         cachedFiltersForAnalysis = null;
         cachedFiltersForRanking = null;
         
-        SwingUtilities.invokeLater(() -> {
-            // Find the content wrapper and update only that
-            Component[] components = mainContentPanel.getComponents();
-            if (components.length > 0 && components[0] instanceof JPanel) {
-                JPanel mainLayout = (JPanel) components[0];
-                Component[] mainComponents = mainLayout.getComponents();
-                
-                // Find and update only the CENTER component (content), not WEST (filter)
-                for (int i = 0; i < mainComponents.length; i++) {
-                    Object constraints = ((BorderLayout) mainLayout.getLayout()).getConstraints(mainComponents[i]);
-                    if (BorderLayout.CENTER.equals(constraints)) {
-                        // Remove and recreate only the content area
-                        mainLayout.remove(mainComponents[i]);
-                        
-                        AnalyzerDAO analyzerDAO = new AnalyzerDAO();
-                        // Use cached data if available and filters match
-                        AnalyzerDAO.SectionAnalysisData analysisData;
-                        boolean filtersMatchUpdate = (selectedFilters == null && cachedFiltersForAnalysis == null) ||
-                                                   (selectedFilters != null && selectedFilters.equals(cachedFiltersForAnalysis));
+        // Load off the EDT, then rebuild the content from the cache
+        loadSectionData(this::rebuildDataContent, this::showAnalysisError);
+    }
+    
+    // Replace the content area (not the filter panel) with cachedAnalysisData; runs on the EDT
+    private void rebuildDataContent() {
+        // Find the content wrapper and update only that
+        Component[] components = mainContentPanel.getComponents();
+        if (components.length > 0 && components[0] instanceof JPanel) {
+            JPanel mainLayout = (JPanel) components[0];
+            Component[] mainComponents = mainLayout.getComponents();
+            
+            // Find and update only the CENTER component (content), not WEST (filter)
+            for (int i = 0; i < mainComponents.length; i++) {
+                Object constraints = ((BorderLayout) mainLayout.getLayout()).getConstraints(mainComponents[i]);
+                if (BorderLayout.CENTER.equals(constraints)) {
+                    // Remove and recreate only the content area
+                    mainLayout.remove(mainComponents[i]);
+                    
+                    AnalyzerDAO.SectionAnalysisData analysisData = cachedAnalysisData;
+                    
+                    if (analysisData != null) {
+                        // Create scrollable content wrapper
+                        JPanel contentWrapper = new JPanel();
+                        contentWrapper.setLayout(new BoxLayout(contentWrapper, BoxLayout.Y_AXIS));
+
+                        // Section tabs
+                        JPanel tabsPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 0, 0));
+                        tabsPanel.setOpaque(false);
+                        tabsPanel.setAlignmentX(Component.LEFT_ALIGNMENT);
+                        tabsPanel.setMaximumSize(new Dimension(Integer.MAX_VALUE, 50));
+
+                        ButtonGroup tabGroup = new ButtonGroup();
                         
-                        if (cachedAnalysisData != null && filtersMatchUpdate) {
-                            analysisData = cachedAnalysisData;
+                        if (availableSections == null || availableSections.isEmpty()) {
+                            JLabel noSectionsLabel = new JLabel("No sections available");
+                            noSectionsLabel.setFont(new Font("SansSerif", Font.ITALIC, 12));
+                            noSectionsLabel.setForeground(TEXT_SECONDARY);
+                            tabsPanel.add(noSectionsLabel);
                         } else {
-                            analysisData = analyzerDAO.getSectionAnalysisWithFilters(
-                                currentSectionId, 
-                                com.sms.login.LoginScreen.currentUserId,
-                                selectedFilters
-                            );
-                            // Cache the new data
-                            cachedAnalysisData = analysisData;
-                            cachedFiltersForAnalysis = selectedFilters != null ? new HashMap<>(selectedFilters) : null;
+                            for (int j = 0; j < availableSections.size(); j++) {
+                                SectionDAO.SectionInfo section = availableSections.get(j);
+                                JToggleButton tabButton = createModernTab(section.sectionName, section.id == currentSectionId);
+                                
+                                // Calculate width based on text length
+                                FontMetrics fm = tabButton.getFontMetrics(tabButton.getFont());
+                                int textWidth = fm.stringWidth(section.sectionName);
+                                int tabWidth = Math.max(45, textWidth + 16); // Min 45px, +16 for padding
+                                tabButton.setPreferredSize(new Dimension(tabWidth, 28));
+                                
+                                tabButton.addActionListener(e -> {
+                                    currentSectionId = section.id;
+                                    currentSectionName = section.sectionName;
+                                    updateTabAppearance(tabsPanel, tabButton);
+                                    refreshSectionData();
+                                });
+                                
+                                tabGroup.add(tabButton);
+                                tabsPanel.add(tabButton);
+                            }
                         }
                         
-                        if (analysisData != null) {
-                            // Create scrollable content wrapper
-                            JPanel contentWrapper = new JPanel();
-                            contentWrapper.setLayout(new BoxLayout(contentWrapper, BoxLayout.Y_AXIS));
-
-                            // Section tabs
-                            JPanel tabsPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 0, 0));
-                            tabsPanel.setOpaque(false);
-                            tabsPanel.setAlignmentX(Component.LEFT_ALIGNMENT);
-                            tabsPanel.setMaximumSize(new Dimension(Integer.MAX_VALUE, 50));
-
-                            ButtonGroup tabGroup = new ButtonGroup();
-                            
-                            if (availableSections == null || availableSections.isEmpty()) {
-                                JLabel noSectionsLabel = new JLabel("No sections available");
-                                noSectionsLabel.setFont(new Font("SansSerif", Font.ITALIC, 12));
-                                noSectionsLabel.setForeground(TEXT_SECONDARY);
-                                tabsPanel.add(noSectionsLabel);
-                            } else {
-                                for (int j = 0; j < availableSections.size(); j++) {
-                                    SectionDAO.SectionInfo section = availableSections.get(j);
-                                    JToggleButton tabButton = createModernTab(section.sectionName, section.id == currentSectionId);
-                                    
-                                    // Calculate width based on text length
-                                    FontMetrics fm = tabButton.getFontMetrics(tabButton.getFont());
-                                    int textWidth = fm.stringWidth(section.sectionName);
-                                    int tabWidth = Math.max(45, textWidth + 16); // Min 45px, +16 for padding
-                                    tabButton.setPreferredSize(new Dimension(tabWidth, 28));
-                                    
-                                    tabButton.addActionListener(e -> {
-                                        currentSectionId = section.id;
-                                        currentSectionName = section.sectionName;
-                                        updateTabAppearance(tabsPanel, tabButton);
-                                        refreshSectionData();
-                                    });
-                                    
-                                    tabGroup.add(tabButton);
-                                    tabsPanel.add(tabButton);
-                                }
-                            }
-                            
-                            // Wrap tabs in horizontal scroll pane
-                            JScrollPane tabsScrollPane = new JScrollPane(tabsPanel);
-                            tabsScrollPane.setHorizontalScrollBarPolicy(JScrollPane.HORIZONTAL_SCROLLBAR_AS_NEEDED);
-                            tabsScrollPane.setVerticalScrollBarPolicy(JScrollPane.VERTICAL_SCROLLBAR_NEVER);
-                            tabsScrollPane.setBorder(BorderFactory.createEmptyBorder());
-                            tabsScrollPane.setOpaque(false);
-                            tabsScrollPane.getViewport().setOpaque(false);
-                            tabsScrollPane.setMaximumSize(new Dimension(Integer.MAX_VALUE, 50));
-                            tabsScrollPane.setAlignmentX(Component.LEFT_ALIGNMENT);
-                            
-                            contentWrapper.add(tabsScrollPane);
-                            contentWrapper.add(Box.createVerticalStrut(5));
+                        // Wrap tabs in horizontal scroll pane
+                        JScrollPane tabsScrollPane = new JScrollPane(tabsPanel);
+                        tabsScrollPane.setHorizontalScrollBarPolicy(JScrollPane.HORIZONTAL_SCROLLBAR_AS_NEEDED);
+                        tabsScrollPane.setVerticalScrollBarPolicy(JScrollPane.VERTICAL_SCROLLBAR_NEVER);
+                        tabsScrollPane.setBorder(BorderFactory.createEmptyBorder());
+                        tabsScrollPane.setOpaque(false);
+                        tabsScrollPane.getViewport().setOpaque(false);
+                        tabsScrollPane.setMaximumSize(new Dimension(Integer.MAX_VALUE, 50));
+                        tabsScrollPane.setAlignmentX(Component.LEFT_ALIGNMENT);
+                        
+                        contentWrapper.add(tabsScrollPane);
+                        contentWrapper.add(Box.createVerticalStrut(5));
 
-                            // PDF Export Button
-                            JPanel exportPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 0, 0));
-                            exportPanel.setOpaque(false);
-                            exportPanel.setAlignmentX(Component.LEFT_ALIGNMENT);
-                            exportPanel.setMaximumSize(new Dimension(Integer.MAX_VALUE, 50));
-                            JButton exportButton = createExportButton();
-                            exportPanel.add(exportButton);
-                            contentWrapper.add(exportPanel);
-                            contentWrapper.add(Box.createVerticalStrut(5));
+                        // PDF Export Button
+                        JPanel exportPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 0, 0));
+                        exportPanel.setOpaque(false);
+                        exportPanel.setAlignmentX(Component.LEFT_ALIGNMENT);
+                        exportPanel.setMaximumSize(new Dimension(Integer.MAX_VALUE, 50));
+                        JButton exportButton = createExportButton();
+                        exportPanel.add(exportButton);
+                        contentWrapper.add(exportPanel);
+                        contentWrapper.add(Box.createVerticalStrut(5));
 
-                            // Section Result Analysis at the TOP
-                            JPanel sectionResultPanel = createSectionResultAnalysis(analysisData);
-                            sectionResultPanel.setAlignmentX(Component.LEFT_ALIGNMENT);
-                            contentWrapper.add(sectionResultPanel);
-                            contentWrapper.add(Box.createVerticalStrut(15));
+                        // Section Result Analysis at the TOP
+                        JPanel sectionResultPanel = createSectionResultAnalysis(analysisData);
+                        sectionResultPanel.setAlignmentX(Component.LEFT_ALIGNMENT);
+                        contentWrapper.add(sectionResultPanel);
+                        contentWrapper.add(Box.createVerticalStrut(15));
 
-                            // ROW 1: Subject Analysis (FULL WIDTH)
-                            JPanel subjectRow = new JPanel(new BorderLayout());
-                            subjectRow.setOpaque(false);
-                            subjectRow.setAlignmentX(Component.LEFT_ALIGNMENT);
-                            subjectRow.setMaximumSize(new Dimension(935, 240));
-                            
-                            JPanel subjectPanel = createSubjectTable(analysisData.subjectAnalysisList);
-                            subjectRow.add(subjectPanel, BorderLayout.CENTER);
-                            
-                            contentWrapper.add(subjectRow);
-                            contentWrapper.add(Box.createVerticalStrut(15));
+                        // ROW 1: Subject Analysis (FULL WIDTH)
+                        JPanel subjectRow = new JPanel(new BorderLayout());
+                        subjectRow.setOpaque(false);
+                        subjectRow.setAlignmentX(Component.LEFT_ALIGNMENT);
+                        subjectRow.setMaximumSize(new Dimension(935, 240));
+                        
+                        JPanel subjectPanel = createSubjectTable(analysisData.subjectAnalysisList);
+                        subjectRow.add(subjectPanel, BorderLayout.CENTER);
+                        
+                        contentWrapper.add(subjectRow);
+                        contentWrapper.add(Box.createVerticalStrut(15));
 
-                            // ROW 2: Marks Analysis + Grade Distribution
-                            JPanel row2 = new JPanel(new GridLayout(1, 2, 15, 0));
-                            row2.setOpaque(false);
-                            row2.setAlignmentX(Component.LEFT_ALIGNMENT);
-                            row2.setMaximumSize(new Dimension(935, 260));
-                            
-                            JPanel chartCard = createModernCard();
-                            chartCard.setLayout(new BorderLayout());
-                            chartCard.add(createChart(analysisData), BorderLayout.CENTER);
-                            
-                            JPanel gradeDistCard = createModernCard();
-                            gradeDistCard.setLayout(new BorderLayout());
-                            gradeDistCard.add(createGradeDistributionChart(analysisData.gradeDistribution), BorderLayout.CENTER);
-                            
-                            row2.add(chartCard);
-                            row2.add(gradeDistCard);
-                            
-                            contentWrapper.add(row2);
-                            contentWrapper.add(Box.createVerticalStrut(15));
-                            
-                            // ROW 3: Top 5 Students + Failed Analysis
-                            JPanel row3 = new JPanel(new GridLayout(1, 2, 15, 0));
-                            row3.setOpaque(false);
-                            row3.setAlignmentX(Component.LEFT_ALIGNMENT);
-                            row3.setMaximumSize(new Dimension(935, 240));
-                            
-                            JPanel topStudentsCard = createModernCard();
-                            topStudentsCard.setLayout(new BorderLayout());
-                            topStudentsCard.add(createTopStudentsTable(analysisData.topStudents), BorderLayout.CENTER);
-                            
-                            JPanel failedStudentsCard = createModernCard();
-                            failedStudentsCard.setLayout(new BorderLayout());
-                            failedStudentsCard.add(createFailedStudentTable(analysisData.failedStudentsMap), BorderLayout.CENTER);
-                            
-                            row3.add(topStudentsCard);
-                            row3.add(failedStudentsCard);
-                            
-                            contentWrapper.add(row3);
-                            contentWrapper.add(Box.createVerticalStrut(15));
-                            
-                            // ROW 4: Student at Risk Panel
-                            JPanel atRiskRow = new JPanel(new BorderLayout());
-                            atRiskRow.setOpaque(false);
-                            atRiskRow.setAlignmentX(Component.LEFT_ALIGNMENT);
-                            atRiskRow.setMaximumSize(new Dimension(935, 300));
-                            
-                            JPanel atRiskCard = createModernCard();
-                            atRiskCard.setLayout(new BorderLayout());
-                            atRiskCard.add(createAtRiskStudentsPanel(analysisData.atRiskStudents), BorderLayout.CENTER);
-                            
-                            atRiskRow.add(atRiskCard, BorderLayout.CENTER);
-                            contentWrapper.add(atRiskRow);
-                            contentWrapper.add(Box.createVerticalStrut(20));
-                            
-                            // Wrap content in JScrollPane
-                            JScrollPane scrollPane = new JScrollPane(contentWrapper);
-                            scrollPane.setBorder(BorderFactory.createEmptyBorder());
-                            scrollPane.setVerticalScrollBarPolicy(JScrollPane.VERTICAL_SCROLLBAR_ALWAYS);
-                            scrollPane.setHorizontalScrollBarPolicy(JScrollPane.HORIZONTAL_SCROLLBAR_NEVER);
-                            scrollPane.getVerticalScrollBar().setUnitIncrement(16);
-                            scrollPane.setOpaque(false);
-                            scrollPane.getViewport().setOpaque(false);
-                            
-                            mainLayout.add(scrollPane, BorderLayout.CENTER);
-                        }
+                        // ROW 2: Marks Analysis + Grade Distribution
+                        JPanel row2 = new JPanel(new GridLayout(1, 2, 15, 0));
+                        row2.setOpaque(false);
+                        row2.setAlignmentX(Component.LEFT_ALIGNMENT);
+                        row2.setMaximumSize(new Dimension(935, 260));
                         
-                        mainLayout.revalidate();
-                        mainLayout.repaint();
-                        break;
+                        JPanel chartCard = createModernCard();
+                        chartCard.setLayout(new BorderLayout());
+                        chartCard.add(createChart(analysisData), BorderLayout.CENTER);
+                        
+                        JPanel gradeDistCard = createModernCard();
+                        gradeDistCard.setLayout(new BorderLayout());
+                        gradeDistCard.add(createGradeDistributionChart(analysisData.gradeDistribution), BorderLayout.CENTER);
+                        
+                        row2.add(chartCard);
+                        row2.add(gradeDistCard);
+                        
+                        contentWrapper.add(row2);
+                        contentWrapper.add(Box.createVerticalStrut(15));
+                        
+                        // ROW 3: Top 5 Students + Failed Analysis
+                        JPanel row3 = new JPanel(new GridLayout(1, 2, 15, 0));
+                        row3.setOpaque(false);
+                        row3.setAlignmentX(Component.LEFT_ALIGNMENT);
+                        row3.setMaximumSize(new Dimension(935, 240));
+                        
+                        JPanel topStudentsCard = createModernCard();
+                        topStudentsCard.setLayout(new BorderLayout());
+                        topStudentsCard.add(createTopStudentsTable(analysisData.topStudents), BorderLayout.CENTER);
+                        
+                        JPanel failedStudentsCard = createModernCard();
+                        failedStudentsCard.setLayout(new BorderLayout());
+                        failedStudentsCard.add(createFailedStudentTable(analysisData.failedStudentsMap), BorderLayout.CENTER);
+                        
+                        row3.add(topStudentsCard);
+                        row3.add(failedStudentsCard);
+                        
+                        contentWrapper.add(row3);
+                        contentWrapper.add(Box.createVerticalStrut(15));
+                        
+                        // ROW 4: Student at Risk Panel
+                        JPanel atRiskRow = new JPanel(new BorderLayout());
+                        atRiskRow.setOpaque(false);
+                        atRiskRow.setAlignmentX(Component.LEFT_ALIGNMENT);
+                        atRiskRow.setMaximumSize(new Dimension(935, 300));
+                        
+                        JPanel atRiskCard = createModernCard();
+                        atRiskCard.setLayout(new BorderLayout());
+                        atRiskCard.add(createAtRiskStudentsPanel(analysisData.atRiskStudents), BorderLayout.CENTER);
+                        
+                        atRiskRow.add(atRiskCard, BorderLayout.CENTER);
+                        contentWrapper.add(atRiskRow);
+                        contentWrapper.add(Box.createVerticalStrut(20));
+                        
+                        // Wrap content in JScrollPane
+                        JScrollPane scrollPane = new JScrollPane(contentWrapper);
+                        scrollPane.setBorder(BorderFactory.createEmptyBorder());
+                        scrollPane.setVerticalScrollBarPolicy(JScrollPane.VERTICAL_SCROLLBAR_ALWAYS);
+                        scrollPane.setHorizontalScrollBarPolicy(JScrollPane.HORIZONTAL_SCROLLBAR_NEVER);
+                        scrollPane.getVerticalScrollBar().setUnitIncrement(16);
+                        scrollPane.setOpaque(false);
+                        scrollPane.getViewport().setOpaque(false);
+                        
+                        mainLayout.add(scrollPane, BorderLayout.CENTER);
                     }
+                    
+                    mainLayout.revalidate();
+                    mainLayout.repaint();
+                    break;
                 }
             }
-        });
+        }
     }
     
     private void updateTabAppearance(JPanel tabsPanel, JToggleButton selectedTab) {
@@ -1849,11 +1893,7 @@ public class SectionAnalyzer extends JPanel {
                 analysisData = cachedAnalysisData;
             } else {
                 System.out.println("@@@ [PDF_EXPORT] Fetching analysis data for PDF export...");
-                analysisData = analyzerDAO.getSectionAnalysisWithFilters(
-                    currentSectionId,
-                    com.sms.login.LoginScreen.currentUserId,
-                    selectedFilters
-                );
+                analysisData = loadAnalysisData(analyzerDAO);
                 // Cache for future use
                 cachedAnalysisData = analysisData;
                 cachedFiltersForAnalysis = selectedFilters != null ? new HashMap<>(selectedFilters) : null;
@@ -2624,8 +2664,9 @@ public class SectionAnalyzer extends JPanel {
             table.getColumnModel().getColumn(i).setCellRenderer(cellRenderer);
         }
         
-        // Populate table with weighted calculation for subject totals
-        AnalyzerDAO dao = new AnalyzerDAO();
+        // Weighted subject totals were loaded off the EDT with the analysis (loadRankingResults)
+        Map<String, Map<String, AnalyzerDAO.SubjectPassResult>> subjectResults =
+            cachedRankingResults != null ? cachedRankingResults : Collections.emptyMap();
         
         for (AnalyzerDAO.StudentRankingDetail student : rankingData.students) {
             List<Object> rowData = new ArrayList<>();
@@ -2643,19 +2684,14 @@ public class SectionAnalyzer extends JPanel {
                     rowData.add(marks != null ? String.format("%.0f", marks) : "-");
                 }
                 
-                // Calculate weighted total for this subject using the same method as StudentAnalyzer
-                // Find the student ID first
-                int studentId = getStudentIdByRollNumber(student.rollNumber, currentSectionId);
+                // Weighted total for this subject, same calculation as StudentAnalyzer
+                Map<String, AnalyzerDAO.SubjectPassResult> studentResults = subjectResults.get(student.rollNumber);
                 
-                if (studentId > 0) {
-                    // Use the same calculation method
-                    Set<String> examTypesFilter = (selectedFilters != null) ? selectedFilters.get(subject.subjectName) : null;
-                    AnalyzerDAO.SubjectPassResult result = dao.calculateWeightedSubjectTotalWithPass(
-                        studentId, currentSectionId, subject.subjectName, examTypesFilter
-                    );
+                if (studentResults != null) {
+                    AnalyzerDAO.SubjectPassResult result = studentResults.get(subject.subjectName);
                     
                     // Display the weighted percentage (not the raw marks sum)
-                    if (result.percentage >= 0) {
+                    if (result != null && result.percentage >= 0) {
                         rowData.add(String.format("%.2f", result.percentage));
                     } else {
                         rowData.add("FAIL");
@@ -2718,34 +2754,38 @@ public class SectionAnalyzer extends JPanel {
         return metrics.stringWidth(text);
     }
     
-    // Helper method to get student ID by roll number
-    private int getStudentIdByRollNumber(String rollNumber, int sectionId) {
-        Connection conn = null;
-        try {
-            conn = DatabaseConnection.getConnection();
-            String query = "SELECT id FROM students WHERE roll_number = ? AND section_id = ?";
-            PreparedStatement ps = conn.prepareStatement(query);
-            ps.setString(1, rollNumber);
-            ps.setInt(2, sectionId);
-            ResultSet rs = ps.executeQuery();
-            
-            int studentId = 0;
-            if (rs.next()) {
-                studentId = rs.getInt("id");
+    /**
+     * Weighted subject results of every student of a section for the ranking table,
+     * keyed by roll number. Runs off the EDT (see loadSectionData).
+     * PERFORMANCE: student ids and all weighted subject results in two queries on one
+     * connection, instead of an id lookup and a subject calculation per student and subject
+     */
+    private static Map<String, Map<String, AnalyzerDAO.SubjectPassResult>> loadRankingResults(
+            int sectionId, Map<String, Set<String>> filters) throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            Map<String, Integer> studentIds = getStudentIdsByRollNumber(conn, sectionId);
+            Map<Integer, Map<String, AnalyzerDAO.SubjectPassResult>> byStudentId =
+                new AnalyzerDAO().calculateSubjectResults(conn, studentIds.values(), sectionId, filters);
+            Map<String, Map<String, AnalyzerDAO.SubjectPassResult>> byRollNumber = new HashMap<>();
+            for (Map.Entry<String, Integer> student : studentIds.entrySet()) {
+                byRollNumber.put(student.getKey(), byStudentId.getOrDefault(student.getValue(), Collections.emptyMap()));
             }
-            rs.close();
-            ps.close();
-            return studentId;
-        } catch (SQLException e) {
-            e.printStackTrace();
-            return 0;
-        } finally {
-            try {
-                if (conn != null) conn.close();
-            } catch (SQLException e) {
-                e.printStackTrace();
+            return byRollNumber;
+        }
+    }
+    
+    // Roll number -> student id of all students in a section
+    private static Map<String, Integer> getStudentIdsByRollNumber(Connection conn, int sectionId) throws SQLException {
+        Map<String, Integer> studentIds = new HashMap<>();
+        try (PreparedStatement ps = conn.prepareStatement("SELECT id, roll_number FROM students WHERE section_id = ?")) {
+            ps.setInt(1, sectionId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    studentIds.put(rs.getString("roll_number"), rs.getInt("id"));
+                }
             }
         }
+        return studentIds;
     }
     
     private void closePanel() {
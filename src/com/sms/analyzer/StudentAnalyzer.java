@@ -3,6 +3,7 @@ package com.sms.analyzer;
 import com.sms.analyzer.SectionAnalyzer;
 import com.sms.dao.AnalyzerDAO;
 import com.sms.dao.SectionDAO;
+import com.sms.dao.SectionRankingIndex;
 import com.sms.database.DatabaseConnection;
 import javax.swing.*;
 import javax.swing.border.*;
@@ -362,33 +363,14 @@ public class StudentAnalyzer extends JPanel {
     
     // Calculate student rank within section
     private int calculateStudentRank(int studentId) {
-        // For performance, return simplified rank based on ID order
-        // Full rank calculation with weighted totals is too slow for large sections
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
+        // PERFORMANCE: O(log n) lookup in the section's ranking index, which is built once
+        // from the section's marks and updated per student as marks are saved
         try {
-            String query = "SELECT COUNT(*) as rank FROM students WHERE section_id = (SELECT section_id FROM students WHERE id = ?) AND id < ?";
-            conn = DatabaseConnection.getConnection();
-            stmt = conn.prepareStatement(query);
-            stmt.setInt(1, studentId);
-            stmt.setInt(2, studentId);
-            rs = stmt.executeQuery();
-            
-            if (rs.next()) {
-                return rs.getInt("rank") + 1;
-            }
-            return 1;
-        } catch (Exception e) {
+            SectionRankingIndex.Rank rank = SectionRankingIndex.rankOf(studentId);
+            return rank != null ? rank.rank : 1;
+        } catch (SQLException e) {
+            e.printStackTrace();
             return 1;
-        } finally {
-            try {
-                if (rs != null) rs.close();
-                if (stmt != null) stmt.close();
-                if (conn != null) conn.close(); // CRITICAL: Return connection to pool!
-            } catch (Exception e) {
-                // Ignore cleanup errors
-            }
         }
     }
     
@@ -547,6 +529,11 @@ public class StudentAnalyzer extends JPanel {
                 int rowIndex = 0;
                 double grandWeightedTotal = 0.0;
                 
+                // Weighted totals of all subjects in one round trip
+                int studentSectionId = getStudentSectionId(currentStudent.getId());
+                Map<String, AnalyzerDAO.SubjectPassResult> subjectResults =
+                    analyzerDAO.calculateSubjectResults(currentStudent.getId(), studentSectionId, selectedFilters);
+                
                 for (Map.Entry<String, Map<String, Integer>> entry : marks.entrySet()) {
                     String subject = entry.getKey();
                     if (!selectedFilters.containsKey(subject)) continue;
@@ -567,10 +554,7 @@ public class StudentAnalyzer extends JPanel {
                     }
                     
                     // Calculate weighted total using new calculation method
-                    int studentSectionId = getStudentSectionId(currentStudent.getId());
-                    double weightedTotal = analyzerDAO.calculateWeightedSubjectTotal(
-                        currentStudent.getId(), studentSectionId, subject, selectedExams
-                    );
+                    double weightedTotal = weightedPercentage(subjectResults, subject);
                     grandWeightedTotal += weightedTotal;
                     
                     String subjectGrade = getLetterGrade(weightedTotal);
@@ -1147,6 +1131,9 @@ public class StudentAnalyzer extends JPanel {
         Map<String, Double> subjectPercentages = new HashMap<>();
         AnalyzerDAO analyzerDAO = new AnalyzerDAO();
         int studentSectionId = getStudentSectionId(currentStudent.getId());
+        // PERFORMANCE: all subject results in one query (used by the table and the metrics below)
+        Map<String, AnalyzerDAO.SubjectPassResult> subjectResults =
+            analyzerDAO.calculateSubjectResults(currentStudent.getId(), studentSectionId, selectedFilters);
         
         for (String subject : currentStudent.getMarks().keySet()) {
             if (!selectedFilters.containsKey(subject)) continue;
@@ -1173,12 +1160,7 @@ public class StudentAnalyzer extends JPanel {
             }
             
             // Calculate subject percentage using WEIGHTED FORMULA
-            double subjectWeightedTotal = analyzerDAO.calculateWeightedSubjectTotal(
-                currentStudent.getId(),
-                studentSectionId,
-                subject,
-                selectedFilters.get(subject)
-            );
+            double subjectWeightedTotal = weightedPercentage(subjectResults, subject);
             
             // Weighted total is already a percentage out of 100
             double subjectPercentage = subjectWeightedTotal >= 0 ? subjectWeightedTotal : 0.0;
@@ -1341,17 +1323,11 @@ public class StudentAnalyzer extends JPanel {
         
         // Update analysis panel with calculated totals - pass calculated metrics
         // Calculate metrics here to pass to updateAnalysisPanel
-        AnalyzerDAO dao = new AnalyzerDAO();
         double totalWeightedScore = 0.0;
         int examCount = 0;
         
         for (Map.Entry<String, Set<String>> entry : selectedFilters.entrySet()) {
-            double subjectWeightedTotal = dao.calculateWeightedSubjectTotal(
-                currentStudent.getId(),
-                studentSectionId,
-                entry.getKey(),
-                entry.getValue()
-            );
+            double subjectWeightedTotal = weightedPercentage(subjectResults, entry.getKey());
             if (subjectWeightedTotal >= 0) {
                 totalWeightedScore += subjectWeightedTotal;
             }
@@ -1911,6 +1887,12 @@ public class StudentAnalyzer extends JPanel {
         subjectPerformancePanel.repaint();
     }
     
+    // Subject percentage from a batch result; same value as AnalyzerDAO.calculateWeightedSubjectTotal()
+    private static double weightedPercentage(Map<String, AnalyzerDAO.SubjectPassResult> subjectResults, String subject) {
+        AnalyzerDAO.SubjectPassResult result = subjectResults.get(subject);
+        return Math.abs(result != null ? result.percentage : -1);
+    }
+    
     /**
      * Get section ID for a student
      */
@@ -2186,14 +2168,11 @@ public class StudentAnalyzer extends JPanel {
             
             double totalWeightedScore = 0.0;
             int examCount = 0;
+            Map<String, AnalyzerDAO.SubjectPassResult> subjectResults =
+                dao.calculateSubjectResults(currentStudent.getId(), studentSectionId, selectedFilters);
             
             for (Map.Entry<String, Set<String>> entry : selectedFilters.entrySet()) {
-                double subjectWeightedTotal = dao.calculateWeightedSubjectTotal(
-                    currentStudent.getId(),
-                    studentSectionId,
-                    entry.getKey(),
-                    entry.getValue()
-                );
+                double subjectWeightedTotal = weightedPercentage(subjectResults, entry.getKey());
                 if (subjectWeightedTotal >= 0) {
                     totalWeightedScore += subjectWeightedTotal;
                 }
@@ -2247,6 +2226,8 @@ public class StudentAnalyzer extends JPanel {
         // Get AnalyzerDAO for weighted calculations
         AnalyzerDAO dao = new AnalyzerDAO();
         int studentSectionId = getStudentSectionId(currentStudent.getId());
+        Map<String, AnalyzerDAO.SubjectPassResult> subjectResults =
+            dao.calculateSubjectResults(currentStudent.getId(), studentSectionId, selectedFilters);
         
         for (Map.Entry<String, Set<String>> entry : selectedFilters.entrySet()) {
             String subject = entry.getKey();
@@ -2271,15 +2252,8 @@ public class StudentAnalyzer extends JPanel {
             }
             
             // Calculate WEIGHTED subject total using DUAL PASSING method
-            AnalyzerDAO.SubjectPassResult result = dao.calculateWeightedSubjectTotalWithPass(
-                currentStudent.getId(),
-                studentSectionId,
-                subject,
-                entry.getValue()
-            );
-            
             // Use absolute percentage (negative indicates failure)
-            double subjectPercentage = Math.abs(result.percentage);
+            double subjectPercentage = weightedPercentage(subjectResults, subject);
             row[columns.length - 2] = String.format("%.0f", subjectPercentage);
             
             // Calculate grade from weighted percentage
@@ -2462,17 +2436,14 @@ public class StudentAnalyzer extends JPanel {
         AnalyzerDAO dao = new AnalyzerDAO();
         int studentSectionId = getStudentSectionId(currentStudent.getId());
         java.util.List<SubjectPerformance> subjectPerformances = new java.util.ArrayList<>();
+        Map<String, AnalyzerDAO.SubjectPassResult> subjectResults =
+            dao.calculateSubjectResults(currentStudent.getId(), studentSectionId, selectedFilters);
         
         for (Map.Entry<String, Set<String>> entry : selectedFilters.entrySet()) {
             String subject = entry.getKey();
             
             // Calculate WEIGHTED subject total (out of 100)
-            double subjectWeightedTotal = dao.calculateWeightedSubjectTotal(
-                currentStudent.getId(),
-                studentSectionId,
-                subject,
-                entry.getValue()
-            );
+            double subjectWeightedTotal = weightedPercentage(subjectResults, subject);
             
             if (subjectWeightedTotal >= 0) {
                 // Use weighted percentage
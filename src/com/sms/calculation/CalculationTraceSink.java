@@ -0,0 +1,33 @@
+package com.sms.calculation;
+
+import com.sms.calculation.models.CalculationExplanation;
+
+/**
+ * Receives the explanation of every student calculation while tracing is enabled.
+ *
+ * StudentCalculator has no sink by default, so the calculation hot path builds no
+ * trace objects and writes nothing to the console. Set a sink to debug a launch or
+ * to keep explanations for display:
+ * <pre>
+ * calculator.setTraceSink(CalculationTraceSink.CONSOLE);      // old console output
+ * calculator.setTraceSink(CalculationTraceSink.RESULT_ONLY);  // result.getExplanation()
+ * </pre>
+ * Console tracing can also be switched on for the whole application with
+ * {@code -Dsms.calculation.trace=true}.
+ *
+ * Sinks may be called from several threads at once.
+ *
+ * @version 1.0
+ * @since 2026-10-17
+ */
+@FunctionalInterface
+public interface CalculationTraceSink {
+
+    /** Print each explanation to the console. */
+    CalculationTraceSink CONSOLE = explanation -> System.out.println(explanation.describe());
+
+    /** Only attach the explanation to the CalculationResult. */
+    CalculationTraceSink RESULT_ONLY = explanation -> { };
+
+    void record(CalculationExplanation explanation);
+}
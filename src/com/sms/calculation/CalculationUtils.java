@@ -1,6 +1,7 @@
 package com.sms.calculation;
 
 import com.sms.calculation.models.Component;
+import java.util.Arrays;
 import java.util.List;
 
 public class CalculationUtils {
@@ -89,6 +90,38 @@ public class CalculationUtils {
         return count > 0 ? totalPercentage / count : 0;
     }
 
+    /**
+     * Assign competition ranks (1, 2, 2, 4, ...) by percentage, highest first.
+     * Percentages within 0.01 of the first student of a tie group share its rank.
+     * @return rank of each input position
+     */
+    public static int[] assignRanks(double[] percentages) {
+        int n = percentages.length;
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        // Stable sort, highest percentage first
+        Arrays.sort(order, (a, b) -> Double.compare(percentages[b], percentages[a]));
+
+        int[] ranks = new int[n];
+        int currentRank = 1;
+        double previousPercentage = -1;
+        int sameRankCount = 0;
+        for (int i = 0; i < n; i++) {
+            double percentage = percentages[order[i]];
+            if (Math.abs(percentage - previousPercentage) < 0.01) {
+                sameRankCount++;
+            } else {
+                currentRank += sameRankCount;
+                previousPercentage = percentage;
+                sameRankCount = 1;
+            }
+            ranks[order[i]] = currentRank;
+        }
+        return ranks;
+    }
+
     /**
      * Validate if marks are within valid range
      */
@@ -2,7 +2,7 @@ package com.sms.calculation;
 
 import com.sms.calculation.models.*;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 public class SectionCalculator {
     
@@ -18,6 +18,7 @@ public class SectionCalculator {
 
     /**
      * Calculate section-wide statistics
+     * PERFORMANCE: one (parallel for large sections) pass with SectionStatsAccumulator
      */
     public SectionResult calculateSectionStatistics(List<CalculationResult> studentResults) {
         SectionResult sectionResult = new SectionResult();
@@ -26,219 +27,153 @@ public class SectionCalculator {
             return sectionResult;
         }
         
-        // Basic counts
         int totalStudents = studentResults.size();
-        int passedStudents = (int) studentResults.stream()
-            .filter(CalculationResult::isPassing)
-            .count();
-        int failedStudents = totalStudents - passedStudents;
         
-        // Percentage calculations
-        List<Double> percentages = studentResults.stream()
-            .map(CalculationResult::getFinalPercentage)
-            .collect(Collectors.toList());
+        // Top performers (top 10% or minimum 3), failed students as bottom performers
+        int topCount = Math.max(3, totalStudents / 10);
+        SectionStatsAccumulator stats = SectionStatsAccumulator.collect(studentResults, topCount);
         
-        double averagePercentage = percentages.stream()
-            .mapToDouble(Double::doubleValue)
-            .average()
-            .orElse(0.0);
+        int passedStudents = (int) stats.getPassCount();
         
-        double highestPercentage = percentages.stream()
-            .mapToDouble(Double::doubleValue)
-            .max()
-            .orElse(0.0);
+        // Set all values in section result
+        sectionResult.setTotalStudents(totalStudents);
+        sectionResult.setPassedStudents(passedStudents);
+        sectionResult.setFailedStudents(totalStudents - passedStudents);
+        sectionResult.setPassPercentage(CalculationUtils.roundToDecimalPlaces(stats.getPassPercentage(), 2));
+        sectionResult.setAveragePercentage(CalculationUtils.roundToDecimalPlaces(stats.getMean(), 2));
+        sectionResult.setHighestPercentage(CalculationUtils.roundToDecimalPlaces(stats.getMax(), 2));
+        sectionResult.setLowestPercentage(CalculationUtils.roundToDecimalPlaces(stats.getMin(), 2));
+        sectionResult.setStandardDeviation(CalculationUtils.roundToDecimalPlaces(stats.getStandardDeviation(), 2));
+        sectionResult.setGradeDistribution(stats.getGradeHistogram());
+        sectionResult.setTopPerformers(stats.getTopPerformers());
+        sectionResult.setBottomPerformers(stats.getFailingStudents());
         
-        double lowestPercentage = percentages.stream()
-            .mapToDouble(Double::doubleValue)
-            .min()
-            .orElse(0.0);
+        return sectionResult;
+    }
+
+    /**
+     * Calculate component-wise section analysis (single pass over all components)
+     */
+    public Map<String, ComponentAnalysis> calculateComponentWiseAnalysis(
+            Map<Integer, List<Component>> studentComponents) {
         
-        // Standard deviation
-        double standardDeviation = calculateStandardDeviation(percentages, averagePercentage);
+        double threshold = studentCalculator.getPassingThreshold();
+        Map<String, SectionStatsAccumulator> statsByName = new HashMap<>();
         
-        // Grade distribution
-        Map<String, Integer> gradeDistribution = calculateGradeDistribution(studentResults);
+        for (List<Component> components : studentComponents.values()) {
+            for (Component component : components) {
+                double percentage = component.getPercentage();
+                statsByName.computeIfAbsent(component.getName(), k -> new SectionStatsAccumulator())
+                    .add(percentage, percentage >= threshold);
+            }
+        }
         
-        // Top performers (top 10% or minimum 3)
-        int topCount = Math.max(3, totalStudents / 10);
-        List<CalculationResult> topPerformers = studentResults.stream()
-                .sorted((r1, r2) -> Double.compare(r2.getFinalPercentage(), r1.getFinalPercentage()))
-                .limit(topCount)
-                .collect(Collectors.toList());
-            
-            // Bottom performers (students who failed)
-            List<CalculationResult> bottomPerformers = studentResults.stream()
-                .filter(r -> !r.isPassing())
-                .sorted((r1, r2) -> Double.compare(r1.getFinalPercentage(), r2.getFinalPercentage()))
-                .collect(Collectors.toList());
-            
-            // Set all values in section result
-            sectionResult.setTotalStudents(totalStudents);
-            sectionResult.setPassedStudents(passedStudents);
-            sectionResult.setFailedStudents(failedStudents);
-            sectionResult.setPassPercentage(CalculationUtils.roundToDecimalPlaces(
-                (double) passedStudents / totalStudents * 100, 2));
-            sectionResult.setAveragePercentage(CalculationUtils.roundToDecimalPlaces(averagePercentage, 2));
-            sectionResult.setHighestPercentage(CalculationUtils.roundToDecimalPlaces(highestPercentage, 2));
-            sectionResult.setLowestPercentage(CalculationUtils.roundToDecimalPlaces(lowestPercentage, 2));
-            sectionResult.setStandardDeviation(CalculationUtils.roundToDecimalPlaces(standardDeviation, 2));
-            sectionResult.setGradeDistribution(gradeDistribution);
-            sectionResult.setTopPerformers(topPerformers);
-            sectionResult.setBottomPerformers(bottomPerformers);
-            
-            return sectionResult;
+        Map<String, ComponentAnalysis> componentAnalysis = new HashMap<>();
+        for (Map.Entry<String, SectionStatsAccumulator> entry : statsByName.entrySet()) {
+            SectionStatsAccumulator stats = entry.getValue();
+            
+            ComponentAnalysis analysis = new ComponentAnalysis();
+            analysis.setComponentName(entry.getKey());
+            analysis.setTotalStudents((int) stats.getCount());
+            analysis.setAveragePercentage(CalculationUtils.roundToDecimalPlaces(stats.getMean(), 2));
+            analysis.setHighestPercentage(CalculationUtils.roundToDecimalPlaces(stats.getMax(), 2));
+            analysis.setLowestPercentage(CalculationUtils.roundToDecimalPlaces(stats.getMin(), 2));
+            analysis.setPassCount((int) stats.getPassCount());
+            analysis.setFailCount((int) stats.getFailCount());
+            analysis.setPassPercentage(CalculationUtils.roundToDecimalPlaces(stats.getPassPercentage(), 2));
+            
+            componentAnalysis.put(entry.getKey(), analysis);
         }
+        
+        return componentAnalysis;
+    }
 
-        /**
-         * Calculate component-wise section analysis
-         */
-        public Map<String, ComponentAnalysis> calculateComponentWiseAnalysis(
-                Map<Integer, List<Component>> studentComponents) {
-            
-            Map<String, ComponentAnalysis> componentAnalysis = new HashMap<>();
-            
-            // Group all components by name
-            Map<String, List<Component>> componentsByName = new HashMap<>();
-            
-            for (List<Component> components : studentComponents.values()) {
-                for (Component component : components) {
-                    componentsByName.computeIfAbsent(component.getName(), k -> new ArrayList<>())
-                        .add(component);
+    /**
+     * Calculate subject-wise section analysis
+     * PERFORMANCE: one pass over the students (parallel for large sections) feeding one
+     * accumulator per subject; no CalculationResult is built per student and subject.
+     */
+    public Map<String, SubjectAnalysis> calculateSubjectWiseAnalysis(
+            Map<Integer, Map<String, List<Component>>> studentSubjectComponents) {
+        
+        // Index all unique subjects
+        Map<String, Integer> subjectIndex = new HashMap<>();
+        List<String> subjectNames = new ArrayList<>();
+        for (Map<String, List<Component>> subjects : studentSubjectComponents.values()) {
+            for (String subject : subjects.keySet()) {
+                if (!subjectIndex.containsKey(subject)) {
+                    subjectIndex.put(subject, subjectNames.size());
+                    subjectNames.add(subject);
                 }
             }
-            
-            // Analyze each component
-            for (Map.Entry<String, List<Component>> entry : componentsByName.entrySet()) {
-                String componentName = entry.getKey();
-                List<Component> components = entry.getValue();
-                
-                ComponentAnalysis analysis = new ComponentAnalysis();
-                analysis.setComponentName(componentName);
-                analysis.setTotalStudents(components.size());
-                
-                // Calculate statistics
-                List<Double> percentages = components.stream()
-                    .map(Component::getPercentage)
-                    .collect(Collectors.toList());
-                
-                double average = percentages.stream()
-                    .mapToDouble(Double::doubleValue)
-                    .average()
-                    .orElse(0.0);
-                
-                double highest = percentages.stream()
-                    .mapToDouble(Double::doubleValue)
-                    .max()
-                    .orElse(0.0);
-                
-                double lowest = percentages.stream()
-                    .mapToDouble(Double::doubleValue)
-                    .min()
-                    .orElse(0.0);
-                
-                int passCount = (int) percentages.stream()
-                    .filter(p -> p >= studentCalculator.getPassingThreshold())
-                    .count();
-                
-                analysis.setAveragePercentage(CalculationUtils.roundToDecimalPlaces(average, 2));
-                analysis.setHighestPercentage(CalculationUtils.roundToDecimalPlaces(highest, 2));
-                analysis.setLowestPercentage(CalculationUtils.roundToDecimalPlaces(lowest, 2));
-                analysis.setPassCount(passCount);
-                analysis.setFailCount(components.size() - passCount);
-                analysis.setPassPercentage(CalculationUtils.roundToDecimalPlaces(
-                    (double) passCount / components.size() * 100, 2));
-                
-                componentAnalysis.put(componentName, analysis);
-            }
-            
-            return componentAnalysis;
         }
-
-        /**
-         * Calculate subject-wise section analysis
-         */
-        public Map<String, SubjectAnalysis> calculateSubjectWiseAnalysis(
-                Map<Integer, Map<String, List<Component>>> studentSubjectComponents) {
-            
-            Map<String, SubjectAnalysis> subjectAnalysis = new HashMap<>();
-            
-            // Get all unique subjects
-            Set<String> allSubjects = studentSubjectComponents.values().stream()
-                .flatMap(map -> map.keySet().stream())
-                .collect(Collectors.toSet());
-            
-            for (String subject : allSubjects) {
-                SubjectAnalysis analysis = new SubjectAnalysis();
-                analysis.setSubjectName(subject);
-                
-                List<CalculationResult> subjectResults = new ArrayList<>();
-                
-                // Calculate each student's result for this subject
-                for (Map.Entry<Integer, Map<String, List<Component>>> studentEntry : 
-                     studentSubjectComponents.entrySet()) {
-                    
-                    int studentId = studentEntry.getKey();
-                    Map<String, List<Component>> subjects = studentEntry.getValue();
-                    
-                    if (subjects.containsKey(subject)) {
-                        List<Component> components = subjects.get(subject);
-                        CalculationResult result = studentCalculator.calculateStudentMarks(
-                            studentId, "Student_" + studentId, components);
-                        subjectResults.add(result);
-                    }
-                }
-                
-                // Calculate subject statistics
-                if (!subjectResults.isEmpty()) {
-                    SectionResult subjectSectionResult = calculateSectionStatistics(subjectResults);
-                    analysis.setTotalStudents(subjectSectionResult.getTotalStudents());
-                    analysis.setPassedStudents(subjectSectionResult.getPassedStudents());
-                    analysis.setFailedStudents(subjectSectionResult.getFailedStudents());
-                    analysis.setAveragePercentage(subjectSectionResult.getAveragePercentage());
-                    analysis.setHighestPercentage(subjectSectionResult.getHighestPercentage());
-                    analysis.setLowestPercentage(subjectSectionResult.getLowestPercentage());
-                    analysis.setPassPercentage(subjectSectionResult.getPassPercentage());
+        
+        List<Map<String, List<Component>>> students = new ArrayList<>(studentSubjectComponents.values());
+        int subjectCount = subjectNames.size();
+        
+        IntStream indexes = IntStream.range(0, students.size());
+        if ((long) students.size() * subjectCount >= SectionStatsAccumulator.PARALLEL_THRESHOLD) {
+            indexes = indexes.parallel();
+        }
+        SubjectPass pass = indexes.collect(
+            () -> new SubjectPass(subjectCount),
+            (split, i) -> {
+                for (Map.Entry<String, List<Component>> entry : students.get(i).entrySet()) {
+                    studentCalculator.computeTotals(entry.getValue(), split.totals, null);
+                    split.stats[subjectIndex.get(entry.getKey())].add(split.totals.percentage, split.totals.passing);
                 }
-                
-                subjectAnalysis.put(subject, analysis);
+            },
+            SubjectPass::merge);
+        
+        Map<String, SubjectAnalysis> subjectAnalysis = new HashMap<>();
+        for (int s = 0; s < subjectCount; s++) {
+            SectionStatsAccumulator stats = pass.stats[s];
+            
+            SubjectAnalysis analysis = new SubjectAnalysis();
+            analysis.setSubjectName(subjectNames.get(s));
+            if (stats.getCount() > 0) {
+                analysis.setTotalStudents((int) stats.getCount());
+                analysis.setPassedStudents((int) stats.getPassCount());
+                analysis.setFailedStudents((int) stats.getFailCount());
+                analysis.setAveragePercentage(CalculationUtils.roundToDecimalPlaces(stats.getMean(), 2));
+                analysis.setHighestPercentage(CalculationUtils.roundToDecimalPlaces(stats.getMax(), 2));
+                analysis.setLowestPercentage(CalculationUtils.roundToDecimalPlaces(stats.getMin(), 2));
+                analysis.setPassPercentage(CalculationUtils.roundToDecimalPlaces(stats.getPassPercentage(), 2));
             }
-            
-            return subjectAnalysis;
+            subjectAnalysis.put(subjectNames.get(s), analysis);
         }
+        
+        return subjectAnalysis;
+    }
 
-        /**
-         * Calculate standard deviation
-         */
-        private double calculateStandardDeviation(List<Double> values, double mean) {
-            if (values.size() <= 1) return 0.0;
-            
-            double sumSquaredDifferences = values.stream()
-                .mapToDouble(value -> Math.pow(value - mean, 2))
-                .sum();
-            
-            return Math.sqrt(sumSquaredDifferences / (values.size() - 1));
-        }
+    /**
+     * Per-split state of the subject-wise pass: one accumulator per subject and a
+     * reusable totals holder.
+     */
+    private static final class SubjectPass {
+        final SectionStatsAccumulator[] stats;
+        final StudentCalculator.Totals totals = new StudentCalculator.Totals();
 
-        /**
-         * Calculate grade distribution
-         */
-        private Map<String, Integer> calculateGradeDistribution(List<CalculationResult> results) {
-            Map<String, Integer> distribution = new HashMap<>();
-            
-            for (CalculationResult result : results) {
-                String grade = result.getGrade();
-                distribution.put(grade, distribution.getOrDefault(grade, 0) + 1);
+        SubjectPass(int subjectCount) {
+            stats = new SectionStatsAccumulator[subjectCount];
+            for (int s = 0; s < subjectCount; s++) {
+                stats[s] = new SectionStatsAccumulator();
             }
-            
-            return distribution;
         }
 
-        // Getter and Setter
-        public StudentCalculator getStudentCalculator() {
-            return studentCalculator;
+        void merge(SubjectPass other) {
+            for (int s = 0; s < stats.length; s++) {
+                stats[s].merge(other.stats[s]);
+            }
         }
+    }
 
-        public void setStudentCalculator(StudentCalculator studentCalculator) {
-            this.studentCalculator = studentCalculator;
-        }
-    }
\ No newline at end of file
+    // Getter and Setter
+    public StudentCalculator getStudentCalculator() {
+        return studentCalculator;
+    }
+
+    public void setStudentCalculator(StudentCalculator studentCalculator) {
+        this.studentCalculator = studentCalculator;
+    }
+}
\ No newline at end of file
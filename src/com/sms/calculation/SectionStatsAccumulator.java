@@ -0,0 +1,237 @@
+package com.sms.calculation;
+
+import com.sms.calculation.models.CalculationResult;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.stream.IntStream;
+
+/**
+ * Single-pass, mergeable statistics over student percentages.
+ *
+ * PERFORMANCE OPTIMIZATION:
+ * Replaces the five-plus stream passes (pass count, boxed List&lt;Double&gt;, average,
+ * max, min, standard deviation, grade map, two sorts) with one pass over the results:
+ * - count / pass count
+ * - Welford running mean and variance (numerically stable, mergeable with Chan's formula)
+ * - min / max
+ * - grade histogram
+ * - top-k min-heap (top performers) and the failing students (bottom performers)
+ *
+ * Accumulators built on separate fork-join splits are combined with {@link #merge}, so
+ * {@link #collect} can run in parallel for large sections. Ties keep the order of the
+ * input list, exactly like the previous stable sorts.
+ *
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class SectionStatsAccumulator {
+
+    // Below this size a sequential pass is faster than forking
+    static final int PARALLEL_THRESHOLD = 2048;
+
+    // Highest percentage first, earlier input first on ties
+    private static final Comparator<Ranked> BEST_FIRST = (a, b) -> {
+        int byPercentage = Double.compare(b.percentage, a.percentage);
+        return byPercentage != 0 ? byPercentage : Integer.compare(a.index, b.index);
+    };
+    // Lowest percentage first, earlier input first on ties
+    private static final Comparator<Ranked> WORST_FIRST = (a, b) -> {
+        int byPercentage = Double.compare(a.percentage, b.percentage);
+        return byPercentage != 0 ? byPercentage : Integer.compare(a.index, b.index);
+    };
+
+    private static final class Ranked {
+        final int index;
+        final double percentage;
+        final CalculationResult result;
+
+        Ranked(int index, double percentage, CalculationResult result) {
+            this.index = index;
+            this.percentage = percentage;
+            this.result = result;
+        }
+    }
+
+    private final int topK;
+
+    private long count;
+    private long passCount;
+    private double mean;
+    private double m2;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+    private final Map<String, Integer> gradeHistogram = new HashMap<>();
+
+    // Min-heap holding the current best topK (its head is the weakest of them)
+    private final PriorityQueue<Ranked> top;
+    private final List<Ranked> failing = new ArrayList<>();
+
+    /**
+     * Accumulator for plain percentages (no performer lists).
+     */
+    public SectionStatsAccumulator() {
+        this(0);
+    }
+
+    /**
+     * @param topK number of top performers to keep (0 = none)
+     */
+    public SectionStatsAccumulator(int topK) {
+        this.topK = topK;
+        this.top = topK > 0 ? new PriorityQueue<>(topK + 1, BEST_FIRST.reversed()) : null;
+    }
+
+    /**
+     * Statistics of a whole result list in one pass; splits across the common
+     * fork-join pool for large lists.
+     */
+    public static SectionStatsAccumulator collect(List<CalculationResult> results, int topK) {
+        IntStream indexes = IntStream.range(0, results.size());
+        if (results.size() >= PARALLEL_THRESHOLD) {
+            indexes = indexes.parallel();
+        }
+        return indexes.collect(
+            () -> new SectionStatsAccumulator(topK),
+            (acc, i) -> acc.add(results.get(i), i),
+            SectionStatsAccumulator::merge);
+    }
+
+    /**
+     * Add a value without grade or performer tracking.
+     */
+    public void add(double percentage, boolean passing) {
+        count++;
+        if (passing) {
+            passCount++;
+        }
+        double delta = percentage - mean;
+        mean += delta / count;
+        m2 += delta * (percentage - mean);
+        if (percentage < min) min = percentage;
+        if (percentage > max) max = percentage;
+    }
+
+    /**
+     * Add one student result.
+     * @param index position of the result in the input, used to break ties
+     */
+    public void add(CalculationResult result, int index) {
+        double percentage = result.getFinalPercentage();
+        boolean passing = result.isPassing();
+        add(percentage, passing);
+        gradeHistogram.merge(result.getGrade(), 1, Integer::sum);
+
+        if (top != null) {
+            top.add(new Ranked(index, percentage, result));
+            if (top.size() > topK) {
+                top.poll();
+            }
+        }
+        if (!passing) {
+            failing.add(new Ranked(index, percentage, result));
+        }
+    }
+
+    /**
+     * Combine another accumulator (e.g. from a parallel split) into this one.
+     */
+    public SectionStatsAccumulator merge(SectionStatsAccumulator other) {
+        if (other.count == 0) {
+            return this;
+        }
+        if (count == 0) {
+            mean = other.mean;
+            m2 = other.m2;
+        } else {
+            long total = count + other.count;
+            double delta = other.mean - mean;
+            mean += delta * other.count / total;
+            m2 += other.m2 + delta * delta * ((double) count * other.count / total);
+        }
+        count += other.count;
+        passCount += other.passCount;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        other.gradeHistogram.forEach((grade, n) -> gradeHistogram.merge(grade, n, Integer::sum));
+
+        if (top != null && other.top != null) {
+            for (Ranked ranked : other.top) {
+                top.add(ranked);
+                if (top.size() > topK) {
+                    top.poll();
+                }
+            }
+        }
+        failing.addAll(other.failing);
+        return this;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getPassCount() {
+        return passCount;
+    }
+
+    public long getFailCount() {
+        return count - passCount;
+    }
+
+    public double getMean() {
+        return count > 0 ? mean : 0.0;
+    }
+
+    public double getMin() {
+        return count > 0 ? min : 0.0;
+    }
+
+    public double getMax() {
+        return count > 0 ? max : 0.0;
+    }
+
+    /**
+     * Sample standard deviation (n - 1), 0 for fewer than two values.
+     */
+    public double getStandardDeviation() {
+        return count > 1 ? Math.sqrt(m2 / (count - 1)) : 0.0;
+    }
+
+    public double getPassPercentage() {
+        return count > 0 ? (double) passCount / count * 100 : 0.0;
+    }
+
+    public Map<String, Integer> getGradeHistogram() {
+        return new HashMap<>(gradeHistogram);
+    }
+
+    /**
+     * Top performers, highest percentage first.
+     */
+    public List<CalculationResult> getTopPerformers() {
+        List<Ranked> ranked = top != null ? new ArrayList<>(top) : new ArrayList<>();
+        ranked.sort(BEST_FIRST);
+        return toResults(ranked);
+    }
+
+    /**
+     * Failing students, lowest percentage first.
+     */
+    public List<CalculationResult> getFailingStudents() {
+        List<Ranked> ranked = new ArrayList<>(failing);
+        ranked.sort(WORST_FIRST);
+        return toResults(ranked);
+    }
+
+    private static List<CalculationResult> toResults(List<Ranked> ranked) {
+        List<CalculationResult> results = new ArrayList<>(ranked.size());
+        for (Ranked r : ranked) {
+            results.add(r.result);
+        }
+        return results;
+    }
+}
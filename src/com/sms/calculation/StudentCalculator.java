@@ -8,15 +8,23 @@ public class StudentCalculator {
     
     private ComponentWeightManager weightManager;
     private double passingThreshold;
+    // null = tracing disabled: no explanation objects and no console output
+    private volatile CalculationTraceSink traceSink;
     
     public StudentCalculator() {
         this.weightManager = new ComponentWeightManager();
         this.passingThreshold = 40.0; // Default 40%
+        this.traceSink = defaultTraceSink();
     }
     
     public StudentCalculator(double passingThreshold) {
         this.weightManager = new ComponentWeightManager();
         this.passingThreshold = passingThreshold;
+        this.traceSink = defaultTraceSink();
+    }
+    
+    private static CalculationTraceSink defaultTraceSink() {
+        return Boolean.getBoolean("sms.calculation.trace") ? CalculationTraceSink.CONSOLE : null;
     }
 
     /**
@@ -30,74 +38,100 @@ public class StudentCalculator {
         result.setStudentName(studentName);
         result.setIncludedComponents(new ArrayList<>(selectedComponents));
         
+        // PERFORMANCE: explanation is only built when tracing is enabled
+        CalculationTraceSink sink = traceSink;
+        CalculationExplanation explanation = sink != null ? new CalculationExplanation(studentId, studentName) : null;
+        
+        Totals totals = new Totals();
+        computeTotals(selectedComponents, totals, explanation);
+        
+        // Set the basic totals
+        result.setTotalObtained(totals.totalObtained);
+        result.setTotalPossible(totals.totalPossible);
+        result.setFinalPercentage(totals.percentage);
+        
+        // Set calculation method based on component types
+        result.setCalculationMethod(totals.calculationType);
+        
+        // Passing marks with the threshold of the calculation type
+        result.setPassingMarks(totals.passingMarks);
+        result.setPassing(totals.passing);
+        
+        // Calculate grade
+        String grade = calculateGrade(totals.percentage);
+        result.setGrade(grade);
+        
+        // Calculate SGPA
+        double sgpa = calculateSGPA(totals.percentage);
+        result.setSgpa(sgpa);
+        
+        if (explanation != null) {
+            explanation.setOutcome(result, totals.passingThreshold);
+            result.setExplanation(explanation);
+            sink.record(explanation);
+        }
+        
+        return result;
+    }
+
+    /**
+     * Primitive totals of one component list (see computeTotals).
+     */
+    static final class Totals {
+        double totalObtained;
+        double totalPossible;
+        double percentage;
+        String calculationType;
+        double passingThreshold;
+        double passingMarks;
+        boolean passing;
+    }
+
+    /**
+     * Totals, percentage and pass/fail of a component list - the arithmetic of
+     * calculateStudentMarks without building a CalculationResult, so section
+     * analysis can evaluate many lists with one reusable holder.
+     */
+    void computeTotals(List<Component> components, Totals out, CalculationExplanation explanation) {
         // Analyze component types
-        ComponentTypeAnalysis typeAnalysis = analyzeComponentTypes(selectedComponents);
-        System.out.println("Component Type Analysis:");
-        System.out.println("  Internal components: " + typeAnalysis.internalCount);
-        System.out.println("  External components: " + typeAnalysis.externalCount);
-        System.out.println("  Other components: " + typeAnalysis.otherCount);
-        System.out.println("  Calculation type: " + typeAnalysis.calculationType);
+        ComponentTypeAnalysis typeAnalysis = analyzeComponentTypes(components);
+        if (explanation != null) {
+            explanation.setComponentTypeCounts(typeAnalysis.internalCount, typeAnalysis.externalCount,
+                                               typeAnalysis.otherCount);
+        }
         
         double totalObtained = 0.0;
         double totalPossible = 0.0;
         
-        // Calculate based on component types
-        for (Component component : selectedComponents) {
+        for (Component component : components) {
             if (component.isCounted()) {
                 totalObtained += component.getObtainedMarks();
                 totalPossible += component.getMaxMarks();
-                
-                System.out.println("Including: " + component.getName() + 
-                                 " (" + component.getType() + ") - " + 
-                                 component.getObtainedMarks() + "/" + component.getMaxMarks());
-            } else {
-                System.out.println("Skipping (not counted): " + component.getName());
+                if (explanation != null) {
+                    explanation.addIncluded(component);
+                }
+            } else if (explanation != null) {
+                explanation.addSkipped(component);
             }
         }
         
-        // Set the basic totals
-        result.setTotalObtained(totalObtained);
-        result.setTotalPossible(totalPossible);
-        
         // Calculate percentage
         double percentage = 0.0;
         if (totalPossible > 0) {
             percentage = (totalObtained / totalPossible) * 100.0;
         }
-        result.setFinalPercentage(percentage);
-        
-        // Set calculation method based on component types
-        result.setCalculationMethod(typeAnalysis.calculationType);
         
         // Calculate passing marks with different thresholds based on type
-        double passingThreshold = getPassingThresholdForType(typeAnalysis.calculationType);
-        double passingMarks = totalPossible * (passingThreshold / 100.0);
-        result.setPassingMarks(passingMarks);
-        
-        // Determine if passing
-        boolean isPassing = totalObtained >= passingMarks;
-        result.setPassing(isPassing);
-        
-        // Calculate grade
-        String grade = calculateGrade(percentage);
-        result.setGrade(grade);
+        double threshold = getPassingThresholdForType(typeAnalysis.calculationType);
+        double passingMarks = totalPossible * (threshold / 100.0);
         
-        // Calculate SGPA
-        double sgpa = calculateSGPA(percentage);
-        result.setSgpa(sgpa);
-        
-        System.out.println("Final calculation:");
-        System.out.println("  Total Obtained: " + result.getTotalObtained());
-        System.out.println("  Total Possible: " + result.getTotalPossible());
-        System.out.println("  Percentage: " + result.getFinalPercentage());
-        System.out.println("  Calculation Method: " + result.getCalculationMethod());
-        System.out.println("  Passing Threshold: " + passingThreshold + "%");
-        System.out.println("  Passing Marks: " + result.getPassingMarks());
-        System.out.println("  Grade: " + result.getGrade());
-        System.out.println("  SGPA: " + result.getSgpa());
-        System.out.println("  Is Passing: " + result.isPassing());
-        
-        return result;
+        out.totalObtained = totalObtained;
+        out.totalPossible = totalPossible;
+        out.percentage = percentage;
+        out.calculationType = typeAnalysis.calculationType;
+        out.passingThreshold = threshold;
+        out.passingMarks = passingMarks;
+        out.passing = totalObtained >= passingMarks;
     }
 
     /**
@@ -320,4 +354,19 @@ public class StudentCalculator {
     public void setPassingThreshold(double passingThreshold) {
         this.passingThreshold = passingThreshold;
     }
+
+    public CalculationTraceSink getTraceSink() {
+        return traceSink;
+    }
+
+    /**
+     * Enable calculation tracing (null disables it).
+     */
+    public void setTraceSink(CalculationTraceSink traceSink) {
+        this.traceSink = traceSink;
+    }
+
+    public boolean isTracing() {
+        return traceSink != null;
+    }
 }
@@ -0,0 +1,138 @@
+package com.sms.calculation.models;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Structured explanation of one student's calculation ("why this grade"):
+ * which components were included or skipped, the calculation type and
+ * threshold that applied, and the resulting percentage, grade and SGPA.
+ *
+ * Only built when a trace sink is set on the StudentCalculator.
+ *
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class CalculationExplanation {
+
+    /**
+     * One component as seen by the calculation.
+     */
+    public static class ComponentLine {
+        private final String name;
+        private final String type;
+        private final double obtainedMarks;
+        private final double maxMarks;
+
+        public ComponentLine(String name, String type, double obtainedMarks, double maxMarks) {
+            this.name = name;
+            this.type = type;
+            this.obtainedMarks = obtainedMarks;
+            this.maxMarks = maxMarks;
+        }
+
+        public String getName() { return name; }
+        public String getType() { return type; }
+        public double getObtainedMarks() { return obtainedMarks; }
+        public double getMaxMarks() { return maxMarks; }
+    }
+
+    private final int studentId;
+    private final String studentName;
+    private final List<ComponentLine> includedComponents = new ArrayList<>();
+    private final List<ComponentLine> skippedComponents = new ArrayList<>();
+    private int internalCount;
+    private int externalCount;
+    private int otherCount;
+    private String calculationType;
+    private double passingThreshold;
+    private double passingMarks;
+    private double totalObtained;
+    private double totalPossible;
+    private double percentage;
+    private String grade;
+    private double sgpa;
+    private boolean passing;
+
+    public CalculationExplanation(int studentId, String studentName) {
+        this.studentId = studentId;
+        this.studentName = studentName;
+    }
+
+    public void addIncluded(Component component) {
+        includedComponents.add(new ComponentLine(component.getName(), component.getType(),
+            component.getObtainedMarks(), component.getMaxMarks()));
+    }
+
+    public void addSkipped(Component component) {
+        skippedComponents.add(new ComponentLine(component.getName(), component.getType(),
+            component.getObtainedMarks(), component.getMaxMarks()));
+    }
+
+    public void setComponentTypeCounts(int internalCount, int externalCount, int otherCount) {
+        this.internalCount = internalCount;
+        this.externalCount = externalCount;
+        this.otherCount = otherCount;
+    }
+
+    public void setOutcome(CalculationResult result, double passingThreshold) {
+        this.calculationType = result.getCalculationMethod();
+        this.passingThreshold = passingThreshold;
+        this.passingMarks = result.getPassingMarks();
+        this.totalObtained = result.getTotalObtained();
+        this.totalPossible = result.getTotalPossible();
+        this.percentage = result.getFinalPercentage();
+        this.grade = result.getGrade();
+        this.sgpa = result.getSgpa();
+        this.passing = result.isPassing();
+    }
+
+    // Getters
+    public int getStudentId() { return studentId; }
+    public String getStudentName() { return studentName; }
+    public List<ComponentLine> getIncludedComponents() { return Collections.unmodifiableList(includedComponents); }
+    public List<ComponentLine> getSkippedComponents() { return Collections.unmodifiableList(skippedComponents); }
+    public int getInternalCount() { return internalCount; }
+    public int getExternalCount() { return externalCount; }
+    public int getOtherCount() { return otherCount; }
+    public String getCalculationType() { return calculationType; }
+    public double getPassingThreshold() { return passingThreshold; }
+    public double getPassingMarks() { return passingMarks; }
+    public double getTotalObtained() { return totalObtained; }
+    public double getTotalPossible() { return totalPossible; }
+    public double getPercentage() { return percentage; }
+    public String getGrade() { return grade; }
+    public double getSgpa() { return sgpa; }
+    public boolean isPassing() { return passing; }
+
+    /**
+     * Human readable, multi-line explanation (same information the calculator used to log).
+     */
+    public String describe() {
+        StringBuilder sb = new StringBuilder(256 + 64 * (includedComponents.size() + skippedComponents.size()));
+        sb.append("Calculation for ").append(studentName).append(" (ID ").append(studentId).append(")\n");
+        sb.append("  Components: ").append(internalCount).append(" internal, ")
+          .append(externalCount).append(" external, ").append(otherCount).append(" other\n");
+        for (ComponentLine line : includedComponents) {
+            sb.append("  Including: ").append(line.name).append(" (").append(line.type).append(") - ")
+              .append(line.obtainedMarks).append('/').append(line.maxMarks).append('\n');
+        }
+        for (ComponentLine line : skippedComponents) {
+            sb.append("  Skipping (not counted): ").append(line.name).append('\n');
+        }
+        sb.append("  Total: ").append(totalObtained).append('/').append(totalPossible)
+          .append(" = ").append(String.format("%.2f", percentage)).append("%\n");
+        sb.append("  Calculation type: ").append(calculationType)
+          .append(", passing threshold ").append(passingThreshold).append("% (")
+          .append(passingMarks).append(" marks)\n");
+        sb.append("  Grade: ").append(grade).append(", SGPA: ").append(String.format("%.2f", sgpa))
+          .append(passing ? ", PASS" : ", FAIL");
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        return describe();
+    }
+}
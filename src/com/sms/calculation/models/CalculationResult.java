@@ -20,6 +20,7 @@ public class CalculationResult {
     private double sgpa;
     private Map<String, Double> groupWiseScores;
     private List<String> missingComponents;
+    private CalculationExplanation explanation; // Only set while calculation tracing is enabled
 
     // Constructors
     public CalculationResult() {
@@ -134,6 +135,17 @@ public class CalculationResult {
         return missingComponents;
     }
 
+    public void setExplanation(CalculationExplanation explanation) {
+        this.explanation = explanation;
+    }
+
+    /**
+     * Why this grade - null unless the calculator had a trace sink.
+     */
+    public CalculationExplanation getExplanation() {
+        return explanation;
+    }
+
     // Existing setters
     public void setTotalObtained(double totalObtained) {
         this.totalObtained = totalObtained;
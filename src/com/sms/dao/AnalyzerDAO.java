@@ -3,7 +3,6 @@ package com.sms.dao;
 import java.sql.*;
 import java.util.*;
 
-import javax.swing.JOptionPane;
 
 import com.sms.database.DatabaseConnection;
 import com.sms.analyzer.Student;
@@ -259,276 +258,22 @@ public class AnalyzerDAO {
     }
     
     // Get section analysis data (without filters - calls filtered version with all selected)
-    public SectionAnalysisData getSectionAnalysis(int sectionId, int userId) {
+    public SectionAnalysisData getSectionAnalysis(int sectionId, int userId) throws SQLException {
         return getSectionAnalysisWithFilters(sectionId, userId, null);
     }
     
     /**
      * EFFICIENT BATCH METHOD: Calculate weighted percentages for ALL students at once
-     * This method eliminates the N+1 query problem by fetching all data in bulk
-     * @return Map of studentId -> weighted percentage
+     * Loads one SectionMarksSnapshot and evaluates every student in memory
+     * @return Map of studentId -> weighted percentage (negative = failed)
      */
     private Map<Integer, Double> calculateAllStudentPercentagesBatch(int sectionId, int userId, Map<String, Set<String>> selectedFilters) {
-        Map<Integer, Double> studentPercentages = new HashMap<>();
-        Connection conn = null;
-        
         try {
-            conn = DatabaseConnection.getConnection();
-            // OPTIMIZE: Disable autocommit for better batch performance
-            conn.setAutoCommit(false);
-            
-            // Step 1: Get all students - OPTIMIZED to use idx_section_email index
-            String studentsQuery = "SELECT /*+ USE_INDEX(students, idx_section_email) */ id " +
-                                 "FROM students " +
-                                 "WHERE section_id = ? AND created_by = ? " +
-                                 "ORDER BY id";
-            PreparedStatement psStudents = conn.prepareStatement(studentsQuery);
-            psStudents.setInt(1, sectionId);
-            psStudents.setInt(2, userId);
-            ResultSet rsStudents = psStudents.executeQuery();
-            
-            List<Integer> studentIds = new ArrayList<>();
-            while (rsStudents.next()) {
-                studentIds.add(rsStudents.getInt("id"));
-            }
-            rsStudents.close();
-            psStudents.close();
-            
-            if (studentIds.isEmpty()) {
-                return studentPercentages;
-            }
-            
-            // Step 2: Get all subjects - OPTIMIZED to use idx_subject_section_opt index
-            String subjectsQuery = "SELECT /*+ USE_INDEX(ss, idx_subject_section_opt) */ " +
-                                 "sub.id, sub.subject_name " +
-                                 "FROM subjects sub " +
-                                 "INNER JOIN section_subjects ss ON sub.id = ss.subject_id " +
-                                 "WHERE ss.section_id = ? " +
-                                 "ORDER BY sub.subject_name";
-            PreparedStatement psSubjects = conn.prepareStatement(subjectsQuery);
-            psSubjects.setInt(1, sectionId);
-            ResultSet rsSubjects = psSubjects.executeQuery();
-            
-            List<SubjectInfo> subjects = new ArrayList<>();
-            while (rsSubjects.next()) {
-                int subjectId = rsSubjects.getInt("id");
-                String subjectName = rsSubjects.getString("subject_name");
-                
-                // Apply filter
-                if (selectedFilters != null && !selectedFilters.isEmpty() && !selectedFilters.containsKey(subjectName)) {
-                    continue;
-                }
-                
-                subjects.add(new SubjectInfo(subjectId, subjectName));
-            }
-            rsSubjects.close();
-            psSubjects.close();
-            
-            if (subjects.isEmpty()) {
-                return studentPercentages;
-            }
-            
-            // Step 3: For each subject, get exam type configurations and marks for ALL students
-            Map<Integer, Map<Integer, Double>> studentSubjectWeighted = new HashMap<>(); // studentId -> subjectId -> weighted total
-            
-            for (SubjectInfo subject : subjects) {
-                // Get exam types with weights
-                List<ExamTypeConfig> examTypes = getExamTypesForSubject(sectionId, subject.id);
-                if (examTypes.isEmpty()) {
-                    continue;
-                }
-                
-                // Filter exam types if needed
-                Set<String> examFilter = (selectedFilters != null) ? selectedFilters.get(subject.name) : null;
-                
-                // OPTIMIZED query: Use idx_subject_student index (subject_id, student_id)
-                // Place subject_id first in WHERE clause to match index order
-                StringBuilder marksQuery = new StringBuilder(
-                    "SELECT /*+ USE_INDEX(sm, idx_subject_student) */ sm.student_id, et.exam_name, sm.marks_obtained " +
-                    "FROM entered_exam_marks sm " +
-                    "INNER JOIN exam_types et ON sm.exam_type_id = et.id " +
-                    "WHERE sm.subject_id = ? AND sm.student_id IN ("
-                );
-                for (int i = 0; i < studentIds.size(); i++) {
-                    if (i > 0) marksQuery.append(",");
-                    marksQuery.append("?");
-                }
-                marksQuery.append(")");
-                
-                PreparedStatement psMarks = conn.prepareStatement(marksQuery.toString());
-                psMarks.setInt(1, subject.id);
-                for (int i = 0; i < studentIds.size(); i++) {
-                    psMarks.setInt(i + 2, studentIds.get(i));
-                }
-                ResultSet rsMarks = psMarks.executeQuery();
-                
-                // Build marks map per student
-                Map<Integer, Map<String, Integer>> studentMarksMap = new HashMap<>();
-                while (rsMarks.next()) {
-                    int studentId = rsMarks.getInt("student_id");
-                    String examName = rsMarks.getString("exam_name");
-                    int marks = rsMarks.getInt("marks_obtained");
-                    
-                    studentMarksMap.putIfAbsent(studentId, new HashMap<>());
-                    studentMarksMap.get(studentId).put(examName, marks);
-                }
-                rsMarks.close();
-                psMarks.close();
-                
-                // Calculate weighted total for each student for this subject WITH DUAL PASSING CHECK
-                for (int studentId : studentIds) {
-                    Map<String, Integer> marksMap = studentMarksMap.getOrDefault(studentId, new HashMap<>());
-                    
-                    // DEBUG for students 166, 170, 171 in GEN AI
-                    boolean debugThis = (studentId == 166 || studentId == 170 || studentId == 171) && subject.name.equals("GEN AI");
-                    if (debugThis) {
-                    }
-                    
-                    double weightedTotal = 0.0;
-                    boolean allComponentsPassed = true;
-                    int componentsChecked = 0;
-                    
-                    for (ExamTypeConfig examType : examTypes) {
-                        // Skip if filter active and exam not selected
-                        if (examFilter != null && !examFilter.contains(examType.examName)) {
-                            if (debugThis) {
-                            }
-                            continue;
-                        }
-                        
-                        Integer marksObtained = marksMap.get(examType.examName);
-                        if (marksObtained != null && examType.maxMarks > 0) {
-                            // DUAL PASSING CHECK: Component must pass its passing marks
-                            if (marksObtained < examType.passingMarks) {
-                                allComponentsPassed = false;
-                                if (debugThis) {
-                                }
-                            } else {
-                                if (debugThis) {
-                                }
-                            }
-                            
-                            double contribution = (marksObtained.doubleValue() / examType.maxMarks) * examType.weightage;
-                            weightedTotal += contribution;
-                            componentsChecked++;
-                            
-                            if (debugThis) {
-                            }
-                        } else {
-                            if (debugThis) {
-                            }
-                        }
-                    }
-                    
-                    if (debugThis) {
-                    }
-                    
-                    // Only store if we checked at least one component
-                    if (componentsChecked > 0) {
-                        // CORRECT 3-LEVEL HIERARCHY:
-                        // 1. All components must pass their individual passing marks
-                        // 2. Subject weighted total must be >= 50% (subject passing)
-                        // 3. Student passes only if ALL subjects pass
-                        
-                        boolean subjectPassed = (allComponentsPassed && weightedTotal >= 50);
-                        
-                        if (!subjectPassed) {
-                            weightedTotal = -Math.abs(weightedTotal); // Negative indicates SUBJECT FAILED
-                        }
-                        
-                        studentSubjectWeighted.putIfAbsent(studentId, new HashMap<>());
-                        studentSubjectWeighted.get(studentId).put(subject.id, weightedTotal);
-                        
-                        // DEBUG for students 166, 170, 171
-                        if (studentId == 166 || studentId == 170 || studentId == 171) {
-                            String status = weightedTotal < 0 ? "FAILED" : "PASSED";
-                        }
-                    } else {
-                        // DEBUG for students 166, 170, 171
-                        if (studentId == 166 || studentId == 170 || studentId == 171) {
-                        }
-                    }
-                }
-            }
-            
-            // Step 4: Calculate overall percentage per student - CORRECT LOGIC
-            for (int studentId : studentIds) {
-                Map<Integer, Double> subjectTotals = studentSubjectWeighted.get(studentId);
-                if (subjectTotals == null || subjectTotals.isEmpty()) {
-                    studentPercentages.put(studentId, 0.0);
-                    continue;
-                }
-                
-                // DEBUG FOR PROBLEM STUDENTS 166, 170, 171
-                if (studentId == 166 || studentId == 170 || studentId == 171) {
-
-                    for (Map.Entry<Integer, Double> entry : subjectTotals.entrySet()) {
-                        String status = entry.getValue() < 0 ? "FAILED" : "PASSED";
-                    }
-                }
-                
-                // CORRECT CALCULATION: Sum subject totals (not raw marks)
-                double totalSubjectPercentages = 0.0;
-                int subjectCount = 0;
-                int passedSubjectCount = 0;
-                int failedSubjectCount = 0;
-                
-                for (Double subjectTotal : subjectTotals.values()) {
-                    if (subjectTotal < 0) {
-                        // Subject failed - use absolute value for calculation
-                        failedSubjectCount++;
-                        totalSubjectPercentages += Math.abs(subjectTotal);
-                    } else {
-                        // Subject passed
-                        passedSubjectCount++;
-                        totalSubjectPercentages += subjectTotal;
-                    }
-                    subjectCount++;
-                }
-                
-                // Overall percentage = Average of subject percentages
-                double overallPercentage = subjectCount > 0 ? (totalSubjectPercentages / subjectCount) : 0.0;
-                
-                // DEBUG FOR PROBLEM STUDENTS 166, 170, 171
-                if (studentId == 166 || studentId == 170 || studentId == 171) {
-                }
-                
-                // STUDENT PASSES only if ALL subjects passed (failedSubjectCount = 0)
-                if (failedSubjectCount > 0) {
-                    overallPercentage = -Math.abs(overallPercentage); // Mark student as FAILED
-                }
-                
-                // DEBUG FOR PROBLEM STUDENTS 166, 170, 171
-                if (studentId == 166 || studentId == 170 || studentId == 171) {
-                }
-                
-                studentPercentages.put(studentId, overallPercentage);
-            }
-            
-            // OPTIMIZE: Commit batch and restore autocommit
-            conn.commit();
-            conn.setAutoCommit(true);
-            
+            return SectionMarksSnapshot.load(sectionId, userId).overallPercentagesById(selectedFilters);
         } catch (SQLException e) {
             e.printStackTrace();
-            // OPTIMIZE: Rollback on error
-            try {
-                if (conn != null) {
-                    conn.rollback();
-                    conn.setAutoCommit(true);
-                }
-            } catch (SQLException rollbackEx) {
-                rollbackEx.printStackTrace();
-            }
-        } finally {
-            try {
-                if (conn != null) conn.close(); // CRITICAL: Return connection to pool!
-            } catch (SQLException e) {
-                e.printStackTrace();
-            }
+            return new HashMap<>();
         }
-
-        return studentPercentages;
     }
     
     /**
@@ -738,205 +483,77 @@ public class AnalyzerDAO {
     }
     
     // Get section analysis data with component filters
-    public SectionAnalysisData getSectionAnalysisWithFilters(int sectionId, int userId, Map<String, Set<String>> selectedFilters) {
+    // PERFORMANCE: All marks are loaded ONCE into a SectionMarksSnapshot, every statistic below is computed in memory
+    public SectionAnalysisData getSectionAnalysisWithFilters(int sectionId, int userId, Map<String, Set<String>> selectedFilters)
+            throws SQLException {
         SectionAnalysisData data = new SectionAnalysisData();
-        Connection conn = null;
         try {
-            conn = DatabaseConnection.getConnection();
-            
-            // Build filter WHERE clause for exam_types
-            StringBuilder filterClause = new StringBuilder();
-            java.util.List<String> filterParams = new ArrayList<>();
-            
-            if (selectedFilters != null && !selectedFilters.isEmpty()) {
-                filterClause.append(" AND (");
-                boolean firstSubject = true;
-                for (Map.Entry<String, Set<String>> entry : selectedFilters.entrySet()) {
-                    // Skip subjects with no components (empty set)
-                    if (entry.getValue() == null || entry.getValue().isEmpty()) {
+            SectionMarksSnapshot snapshot = SectionMarksSnapshot.load(sectionId, userId);
+            int studentCount = snapshot.getStudentCount();
+            int subjectCount = snapshot.getSubjectCount();
+            
+            // Overall percentages with DUAL PASSING (negative = failed)
+            double[] percentages = snapshot.overallPercentages(selectedFilters);
+            
+            // Subject results with DUAL PASSING - computed once per (student, subject) and shared below
+            SubjectPassResult[][] subjectResults = calculateSubjectResults(snapshot, selectedFilters);
+            
+            // Subject-wise analysis (only subjects in the filter, or all if no filter)
+            for (int subject = 0; subject < subjectCount; subject++) {
+                String subjectName = snapshot.getSubjectName(subject);
+                if (selectedFilters != null && !selectedFilters.isEmpty()) {
+                    Set<String> components = selectedFilters.get(subjectName);
+                    if (components == null || components.isEmpty()) {
                         continue;
                     }
-                    
-                    if (!firstSubject) filterClause.append(" OR ");
-                    filterClause.append("(sub.subject_name = ? AND et.exam_name IN (");
-                    filterParams.add(entry.getKey());
-                    
-                    boolean firstComponent = true;
-                    for (String component : entry.getValue()) {
-                        if (!firstComponent) filterClause.append(", ");
-                        filterClause.append("?");
-                        filterParams.add(component);
-                        firstComponent = false;
-                    }
-                    filterClause.append("))");
-                    firstSubject = false;
-                }
-                filterClause.append(")");
-            }
-            
-            // Calculate batch percentages for optimizations
-            Map<Integer, Double> batchPercentages = calculateAllStudentPercentagesBatch(sectionId, userId, selectedFilters);
-            
-            // Get subject-wise analysis with FILTER support - Use LEFT JOIN to include subjects without marks
-            String subjectQuery = 
-                "SELECT " +
-                "    sub.subject_name, " +
-                "    (SELECT COUNT(DISTINCT id) FROM students WHERE section_id = ? AND created_by = ?) as total_students, " +
-                "    AVG(sm.marks_obtained) as avg_marks " +
-                "FROM section_subjects ss " +
-                "INNER JOIN subjects sub ON ss.subject_id = sub.id " +
-                "LEFT JOIN entered_exam_marks sm ON sm.subject_id = sub.id " +
-                "LEFT JOIN exam_types et ON sm.exam_type_id = et.id " +
-                "LEFT JOIN students s ON sm.student_id = s.id AND s.section_id = ss.section_id AND s.created_by = ? " +
-                "WHERE ss.section_id = ? " + filterClause.toString() +
-                " GROUP BY sub.id, sub.subject_name";
-            
-            PreparedStatement ps = conn.prepareStatement(subjectQuery);
-            int paramIndex = 1;
-            ps.setInt(paramIndex++, sectionId);  // for total_students subquery
-            ps.setInt(paramIndex++, userId);     // for total_students subquery
-            ps.setInt(paramIndex++, userId);     // for students join
-            ps.setInt(paramIndex++, sectionId);  // for WHERE clause
-            // Apply filter params
-            for (String param : filterParams) {
-                ps.setString(paramIndex++, param);
-            }
-            
-            ResultSet rs = ps.executeQuery();
-            
-            while (rs.next()) {
-                String subjectName = rs.getString("subject_name");
-                // Only include if in filter or no filter
-                if (selectedFilters == null || selectedFilters.isEmpty() || selectedFilters.containsKey(subjectName)) {
-                    SubjectAnalysis sa = new SubjectAnalysis();
-                    sa.subjectName = subjectName;
-                    sa.totalStudents = rs.getInt("total_students");
-                    sa.averageMarks = rs.getDouble("avg_marks");
-                    if (Double.isNaN(sa.averageMarks)) {
-                        sa.averageMarks = 0.0;
-                    }
-                    
-                    // CRITICAL OPTIMIZATION: Use batch calculation instead of N×M individual queries
-                    calculateSubjectStatsBatch(conn, sectionId, userId, subjectName, selectedFilters, sa, batchPercentages);
-                    
-                    data.subjectAnalysisList.add(sa);
                 }
+                
+                SubjectAnalysis sa = new SubjectAnalysis();
+                sa.subjectName = subjectName;
+                sa.totalStudents = studentCount;
+                calculateSubjectStatsBatch(snapshot, subject, subjectResults, sa);
+                data.subjectAnalysisList.add(sa);
             }
             
-            // Get top 5 students - this query should work fine
-            
-            // Get student details (roll number and name) in one query
-            String studentsQuery = "SELECT id, roll_number, student_name FROM students WHERE section_id = ? AND created_by = ?";
-            ps = conn.prepareStatement(studentsQuery);
-            ps.setInt(1, sectionId);
-            ps.setInt(2, userId);
-            rs = ps.executeQuery();
-            
-            // List to hold all students with their weighted totals
+            // Top 5 students by overall percentage
             List<TopStudent> allStudents = new ArrayList<>();
-            
-            while (rs.next()) {
-                int studentId = rs.getInt("id");
-                String rollNumber = rs.getString("roll_number");
-                String studentName = rs.getString("student_name");
-                
-                // Get percentage from batch calculation
-                Double percentage = batchPercentages.get(studentId);
-                
-                if (percentage != null && Math.abs(percentage) > 0) {
+            for (int student = 0; student < studentCount; student++) {
+                double percentage = percentages[student];
+                if (Math.abs(percentage) > 0) {
                     TopStudent ts = new TopStudent();
-                    ts.rollNumber = rollNumber;
-                    ts.name = studentName;
+                    ts.rollNumber = snapshot.getRollNumber(student);
+                    ts.name = snapshot.getStudentName(student);
                     
-                    // Calculate total marks as sum of weighted subject totals
-                    // For 4 subjects with max 100 each, this should be close to percentage * 4
-                    // But we need the actual sum, so calculate it properly
+                    // Total marks = sum of weighted subject totals (each subject out of 100)
                     double totalWeightedMarks = 0.0;
-                    
-                    // Get all subjects for this section
-                    String subjectsQuery = "SELECT subject_name FROM section_subjects ss " +
-                                          "JOIN subjects sub ON ss.subject_id = sub.id " +
-                                          "WHERE ss.section_id = ?";
-                    PreparedStatement psSubjects = conn.prepareStatement(subjectsQuery);
-                    psSubjects.setInt(1, sectionId);
-                    ResultSet rsSubjects = psSubjects.executeQuery();
-                    
-                    while (rsSubjects.next()) {
-                        String subjectName = rsSubjects.getString("subject_name");
-                        Set<String> examTypesFilter = (selectedFilters != null) ? selectedFilters.get(subjectName) : null;
-                        SubjectPassResult result = calculateWeightedSubjectTotalWithPass(conn, studentId, sectionId, subjectName, examTypesFilter);
-                        totalWeightedMarks += result.percentage; // This is the weighted percentage out of 100 for this subject
+                    for (int subject = 0; subject < subjectCount; subject++) {
+                        totalWeightedMarks += subjectResults[student][subject].percentage;
                     }
-                    rsSubjects.close();
-                    psSubjects.close();
                     
-                    ts.totalMarks = (int) Math.round(totalWeightedMarks); // Sum of subject weighted totals
-                    ts.percentage = Math.abs(percentage); // Overall percentage
+                    ts.totalMarks = (int) Math.round(totalWeightedMarks);
+                    ts.percentage = Math.abs(percentage);
                     allStudents.add(ts);
                 }
             }
-            rs.close();
-            ps.close();
             
             // Sort by percentage descending and take top 5
             allStudents.sort((a, b) -> Double.compare(b.percentage, a.percentage));
             data.topStudents = allStudents.stream().limit(5).collect(java.util.stream.Collectors.toList());
             
-            // Calculate failed subjects distribution using batch percentage data
-            Map<Integer, Integer> studentFailCounts = new HashMap<>();
-            
-            // Get all students and subjects
-            String studentsQuery2 = "SELECT id FROM students WHERE section_id = ? AND created_by = ?";
-            PreparedStatement psStudents2 = conn.prepareStatement(studentsQuery2);
-            psStudents2.setInt(1, sectionId);
-            psStudents2.setInt(2, userId);
-            ResultSet rsStudents2 = psStudents2.executeQuery();
-            
-            List<Integer> allStudentIds = new ArrayList<>();
-            while (rsStudents2.next()) {
-                allStudentIds.add(rsStudents2.getInt("id"));
-            }
-            rsStudents2.close();
-            psStudents2.close();
-            
-            // Get all subjects
-            String subjectsQuery2 = "SELECT subject_name FROM section_subjects ss " +
-                                   "JOIN subjects sub ON ss.subject_id = sub.id " +
-                                   "WHERE ss.section_id = ?";
-            PreparedStatement psSubjects2 = conn.prepareStatement(subjectsQuery2);
-            psSubjects2.setInt(1, sectionId);
-            ResultSet rsSubjects2 = psSubjects2.executeQuery();
-            
-            List<String> allSubjects = new ArrayList<>();
-            while (rsSubjects2.next()) {
-                allSubjects.add(rsSubjects2.getString("subject_name"));
-            }
-            rsSubjects2.close();
-            psSubjects2.close();
-            
-            // For each student, count failed subjects
-            for (int studentId : allStudentIds) {
+            // Failed subjects distribution: students grouped by number of failed subjects
+            Map<Integer, Integer> failedSubjectsDistribution = new HashMap<>();
+            for (int student = 0; student < studentCount; student++) {
                 int failedCount = 0;
-                for (String subjectName : allSubjects) {
-                    Set<String> examTypesFilter = (selectedFilters != null) ? selectedFilters.get(subjectName) : null;
-                    SubjectPassResult result = calculateWeightedSubjectTotalWithPass(conn, studentId, sectionId, subjectName, examTypesFilter);
-                    if (!result.passed) {
+                for (int subject = 0; subject < subjectCount; subject++) {
+                    if (!subjectResults[student][subject].passed) {
                         failedCount++;
                     }
                 }
                 if (failedCount > 0) {
-                    studentFailCounts.put(studentId, failedCount);
+                    int bucket = (failedCount >= 6) ? 6 : failedCount;
+                    failedSubjectsDistribution.put(bucket, failedSubjectsDistribution.getOrDefault(bucket, 0) + 1);
                 }
             }
-            
-            // Group students by number of failed subjects
-            Map<Integer, Integer> failedSubjectsDistribution = new HashMap<>();
-            for (int failCount : studentFailCounts.values()) {
-                int bucket = (failCount >= 6) ? 6 : failCount;
-                failedSubjectsDistribution.put(bucket, failedSubjectsDistribution.getOrDefault(bucket, 0) + 1);
-            }
-            
-            // Populate data.failedStudentsMap
             for (int i = 1; i <= 6; i++) {
                 int count = failedSubjectsDistribution.getOrDefault(i, 0);
                 if (count > 0) {
@@ -944,152 +561,73 @@ public class AnalyzerDAO {
                 }
             }
             
-            // Get total students count
-            String totalStudentsQuery = "SELECT COUNT(*) as total FROM students WHERE section_id = ? AND created_by = ?";
-            ps = conn.prepareStatement(totalStudentsQuery);
-            ps.setInt(1, sectionId);
-            ps.setInt(2, userId);
-            rs = ps.executeQuery();
-            if (rs.next()) {
-                data.totalStudents = rs.getInt("total");
-            }
-            
-            // Calculate pass/fail students using EFFICIENT BATCH METHOD with DUAL PASSING
-            Map<Integer, Double> allPercentages = calculateAllStudentPercentagesBatch(sectionId, userId, selectedFilters);
-            
-
+            data.totalStudents = studentCount;
             
+            // Pass/fail students - negative percentage means failed ANY subject
             int passCount = 0;
             int failCount = 0;
-            List<Integer> failedStudentIds = new ArrayList<>();
-            
-            for (Map.Entry<Integer, Double> entry : allPercentages.entrySet()) {
-                // Negative percentage means failed ANY subject (component or total failure)
-                // Student passes ONLY if positive percentage (all subjects passed)
-                if (entry.getValue() < 0) {
+            for (double percentage : percentages) {
+                if (percentage < 0) {
                     failCount++;
-                    failedStudentIds.add(entry.getKey());
                 } else {
                     passCount++;
                 }
             }
-            
-            
             data.passStudents = passCount;
             data.failStudents = failCount;
             
             // Calculate section average
             double totalAverage = 0.0;
-            int subjectCount = 0;
+            int averagedSubjects = 0;
             for (SubjectAnalysis subject : data.subjectAnalysisList) {
                 if (subject.averageMarks > 0) {
                     totalAverage += subject.averageMarks;
-                    subjectCount++;
-                }
-            }
-            data.sectionAverage = (subjectCount > 0) ? totalAverage / subjectCount : 0.0;
-            
-            // Calculate grade distribution
-            Map<String, Integer> gradeCounts = new LinkedHashMap<>();
-            gradeCounts.put("A+", 0);
-            gradeCounts.put("A", 0);
-            gradeCounts.put("B+", 0);
-            gradeCounts.put("B", 0);
-            gradeCounts.put("C", 0);
-            gradeCounts.put("D", 0);
-            gradeCounts.put("F", 0);
-            
-            for (Double percentage : allPercentages.values()) {
-                // Negative means failed due to component/total failure
-                if (percentage < 0) {
-                    gradeCounts.put("F", gradeCounts.get("F") + 1);
-                } else {
-                    String grade = getGradeFromPercentage(percentage);
-                    gradeCounts.put(grade, gradeCounts.get(grade) + 1);
+                    averagedSubjects++;
                 }
             }
+            data.sectionAverage = (averagedSubjects > 0) ? totalAverage / averagedSubjects : 0.0;
             
-            // Convert to list
-            for (Map.Entry<String, Integer> entry : gradeCounts.entrySet()) {
-                data.gradeDistribution.add(new GradeDistribution(entry.getKey(), entry.getValue()));
-            }
-            
-            // Calculate at-risk students
-            
-            // Get student details in one query
-            String studentDetailsQuery = "SELECT id, roll_number, student_name FROM students WHERE section_id = ? AND created_by = ?";
-            PreparedStatement psDetails = conn.prepareStatement(studentDetailsQuery);
-            psDetails.setInt(1, sectionId);
-            psDetails.setInt(2, userId);
-            ResultSet rsDetails = psDetails.executeQuery();
-            
-            Map<Integer, StudentBasicInfo> studentInfoMap = new HashMap<>();
-            while (rsDetails.next()) {
-                int studentId = rsDetails.getInt("id");
-                String rollNo = rsDetails.getString("roll_number");
-                String name = rsDetails.getString("student_name");
-                studentInfoMap.put(studentId, new StudentBasicInfo(rollNo, name));
-            }
-            rsDetails.close();
-            psDetails.close();
+            data.gradeDistribution = buildGradeDistribution(percentages);
+            data.atRiskStudents = buildAtRiskStudents(snapshot, percentages);
             
-            // Filter students below 60% OR with component failures (negative percentage)
-            for (Map.Entry<Integer, Double> entry : allPercentages.entrySet()) {
-                int studentId = entry.getKey();
-                double percentage = entry.getValue();
-                boolean failed = (percentage < 0);
-                double absPercentage = Math.abs(percentage);
-                
-                // At risk if: failed due to components OR percentage < 60
-                if (failed || absPercentage < 60) {
-                    StudentBasicInfo info = studentInfoMap.get(studentId);
-                    if (info == null) continue;
-                    
-                    String riskLevel;
-                    if (failed) {
-                        riskLevel = "Critical (Component Fail)";
-                    } else if (absPercentage < 50) {
-                        riskLevel = "Critical";
-                    } else {
-                        riskLevel = "Borderline";
-                    }
-                    
-                    String failedSubjects = failed ? "Component Failure" : "Low Marks";
-                    
-                    data.atRiskStudents.add(new AtRiskStudent(info.rollNumber, info.name, absPercentage, riskLevel, failedSubjects));
-                }
+            // Loaded with the analysis so the chart does not query section_subjects on the EDT
+            double maxSubjectMarks = 0;
+            for (SectionConfigCache.SubjectEntry subject : SectionConfigCache.get(sectionId).getSubjects()) {
+                maxSubjectMarks = Math.max(maxSubjectMarks, subject.maxMarks);
             }
-            
-            // Sort at-risk by percentage ascending (worst first)
-            data.atRiskStudents.sort((a, b) -> Double.compare(a.percentage, b.percentage));
-            
-            rs.close();
-            ps.close();
+            data.maxSubjectMarks = maxSubjectMarks;
             
         } catch (SQLException e) {
-            e.printStackTrace();
-            JOptionPane.showMessageDialog(null, 
-                "Error loading section analysis: " + e.getMessage(), 
-                "Database Error", 
-                JOptionPane.ERROR_MESSAGE);
-        } finally {
-            try {
-                if (conn != null) conn.close(); // CRITICAL: Return connection to pool!
-            } catch (SQLException e) {
-                e.printStackTrace();
-            }
+            // Runs on AsyncRepository workers - the caller reports the error on the EDT
+            System.err.println("Error loading section analysis: " + e.getMessage());
+            throw e;
         }
         
         return data;
     }
     
     /**
-     * OPTIMIZED BATCH VERSION: Calculate subject stats using already computed batch percentages
-     * This eliminates the N×M query problem (50 students × 4 subjects = 200 queries)
+     * Evaluate every (student, subject) pair of a snapshot with DUAL PASSING
+     * @return results[studentOrdinal][subjectOrdinal]
+     */
+    private SubjectPassResult[][] calculateSubjectResults(SectionMarksSnapshot snapshot, Map<String, Set<String>> selectedFilters) {
+        int subjectCount = snapshot.getSubjectCount();
+        SubjectPassResult[][] results = new SubjectPassResult[snapshot.getStudentCount()][subjectCount];
+        for (int subject = 0; subject < subjectCount; subject++) {
+            Set<String> examTypesFilter = (selectedFilters != null) ? selectedFilters.get(snapshot.getSubjectName(subject)) : null;
+            for (int student = 0; student < results.length; student++) {
+                results[student][subject] = snapshot.subjectResult(student, subject, examTypesFilter);
+            }
+        }
+        return results;
+    }
+    
+    /**
+     * OPTIMIZED BATCH VERSION: Calculate subject stats from pre-computed subject results
+     * No database access - uses the section snapshot
      */
-    private void calculateSubjectStatsBatch(Connection conn, int sectionId, int userId, String subjectName, 
-                                          Map<String, Set<String>> selectedFilters, SubjectAnalysis sa,
-                                          Map<Integer, Double> batchPercentages) throws SQLException {
+    private void calculateSubjectStatsBatch(SectionMarksSnapshot snapshot, int subject,
+                                          SubjectPassResult[][] subjectResults, SubjectAnalysis sa) {
         
         // Initialize counters
         sa.passCount = 0;
@@ -1100,27 +638,8 @@ public class AnalyzerDAO {
         double totalPercentage = 0.0;
         int countedStudents = 0;
         
-        // Get all students
-        String studentsQuery = "SELECT id FROM students WHERE section_id = ? AND created_by = ?";
-        PreparedStatement psStudents = conn.prepareStatement(studentsQuery);
-        psStudents.setInt(1, sectionId);
-        psStudents.setInt(2, userId);
-        ResultSet rsStudents = psStudents.executeQuery();
-        
-        List<Integer> studentIds = new ArrayList<>();
-        while (rsStudents.next()) {
-            studentIds.add(rsStudents.getInt("id"));
-        }
-        rsStudents.close();
-        psStudents.close();
-        
-        // Get exam types filter for this subject
-        Set<String> examTypesFilter = (selectedFilters != null && selectedFilters.containsKey(subjectName)) 
-                                      ? selectedFilters.get(subjectName) : null;
-        
-        // For each student, calculate THIS SUBJECT's weighted percentage with dual passing
-        for (int studentId : studentIds) {
-            SubjectPassResult result = calculateWeightedSubjectTotalWithPass(conn, studentId, sectionId, subjectName, examTypesFilter);
+        for (int student = 0; student < snapshot.getStudentCount(); student++) {
+            SubjectPassResult result = subjectResults[student][subject];
             
             if (result.percentage >= 0) {
                 totalPercentage += result.percentage;
@@ -1145,6 +664,76 @@ public class AnalyzerDAO {
         // Set average marks (using weighted percentage for this subject)
         sa.averageMarks = countedStudents > 0 ? (totalPercentage / countedStudents) : 0.0;
     }
+    
+    /**
+     * Grade distribution from signed overall percentages (negative = F)
+     */
+    private List<GradeDistribution> buildGradeDistribution(double[] percentages) {
+        Map<String, Integer> gradeCounts = new LinkedHashMap<>();
+        gradeCounts.put("A+", 0);
+        gradeCounts.put("A", 0);
+        gradeCounts.put("B+", 0);
+        gradeCounts.put("B", 0);
+        gradeCounts.put("C", 0);
+        gradeCounts.put("D", 0);
+        gradeCounts.put("F", 0);
+        
+        for (double percentage : percentages) {
+            // Negative means failed due to component/total failure
+            String grade = percentage < 0 ? "F" : getGradeFromPercentage(percentage);
+            gradeCounts.put(grade, gradeCounts.get(grade) + 1);
+        }
+        
+        List<GradeDistribution> distribution = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : gradeCounts.entrySet()) {
+            distribution.add(new GradeDistribution(entry.getKey(), entry.getValue()));
+        }
+        return distribution;
+    }
+    
+    /**
+     * At-risk students (below 60% OR failed) sorted worst first
+     */
+    private List<AtRiskStudent> buildAtRiskStudents(SectionMarksSnapshot snapshot, double[] percentages) {
+        List<AtRiskStudent> atRiskStudents = new ArrayList<>();
+        for (int student = 0; student < percentages.length; student++) {
+            double percentage = percentages[student];
+            boolean failed = (percentage < 0);
+            double absPercentage = Math.abs(percentage);
+            
+            // At risk if: failed due to components OR percentage < 60
+            if (failed || absPercentage < 60) {
+                String riskLevel;
+                if (failed) {
+                    riskLevel = "Critical (Component Fail)";
+                } else if (absPercentage < 50) {
+                    riskLevel = "Critical";
+                } else {
+                    riskLevel = "Borderline";
+                }
+                
+                String failedSubjects = failed ? "Component Failure" : "Low Marks";
+                atRiskStudents.add(new AtRiskStudent(snapshot.getRollNumber(student), snapshot.getStudentName(student),
+                    absPercentage, riskLevel, failedSubjects));
+            }
+        }
+        
+        // Sort by percentage ascending (worst first)
+        atRiskStudents.sort((a, b) -> Double.compare(a.percentage, b.percentage));
+        return atRiskStudents;
+    }
+    
+    // Owner (created_by) of a section's students - used where callers only know the section
+    private int getSectionOwnerId(Connection conn, int sectionId) throws SQLException {
+        String userQuery = "SELECT /*+ USE_INDEX(students, idx_section_email) */ created_by " +
+                           "FROM students WHERE section_id = ? LIMIT 1";
+        try (PreparedStatement ps = conn.prepareStatement(userQuery)) {
+            ps.setInt(1, sectionId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getInt("created_by") : 0;
+            }
+        }
+    }
 
     /**
      * DEPRECATED: This method creates N×M query problem - replaced with batch version
@@ -1222,6 +811,7 @@ public class AnalyzerDAO {
         public double sectionAverage;  // ADDED THIS FIELD
         public List<GradeDistribution> gradeDistribution = new ArrayList<>(); // ADDED: Pre-calculated grade distribution
         public List<AtRiskStudent> atRiskStudents = new ArrayList<>(); // ADDED: Pre-calculated at-risk students
+        public double maxSubjectMarks = 100; // Highest max marks of the section's subjects (chart axis)
     }
     
     public static class SubjectAnalysis {
@@ -1469,134 +1059,60 @@ public class AnalyzerDAO {
     
     public List<SubjectInfo> getSubjectsForSection(int sectionId) {
         List<SubjectInfo> subjects = new ArrayList<>();
-        Connection conn = null;
         try {
-            conn = DatabaseConnection.getConnection();
+            // PERFORMANCE: section configuration is cached (see SectionConfigCache)
+            SectionConfigCache.SectionConfig config = SectionConfigCache.get(sectionId);
             
             // First try the new system (section_subjects)
-            String query = "SELECT DISTINCT s.id, s.subject_name " +
-                          "FROM subjects s " +
-                          "JOIN section_subjects ss ON s.id = ss.subject_id " +
-                          "WHERE ss.section_id = ? " +
-                          "ORDER BY s.subject_name";
-            
-            PreparedStatement ps = conn.prepareStatement(query);
-            ps.setInt(1, sectionId);
-            ResultSet rs = ps.executeQuery();
-            
-            while (rs.next()) {
-                SubjectInfo subject = new SubjectInfo();
-                subject.id = rs.getInt("id");
-                subject.name = rs.getString("subject_name");
-                subjects.add(subject);
+            for (SectionConfigCache.SubjectEntry entry : config.getSubjects()) {
+                subjects.add(new SubjectInfo(entry.subjectId, entry.subjectName));
             }
             
-            rs.close();
-            ps.close();
-            
             // If no subjects found, try the old system (marking_schemes)
             if (subjects.isEmpty()) {
-                query = "SELECT DISTINCT s.id, s.subject_name " +
-                       "FROM subjects s " +
-                       "JOIN marking_schemes ms ON s.id = ms.subject_id " +
-                       "WHERE ms.section_id = ? " +
-                       "ORDER BY s.subject_name";
-                
-                ps = conn.prepareStatement(query);
-                ps.setInt(1, sectionId);
-                rs = ps.executeQuery();
-                
-                while (rs.next()) {
-                    SubjectInfo subject = new SubjectInfo();
-                    subject.id = rs.getInt("id");
-                    subject.name = rs.getString("subject_name");
-                    subjects.add(subject);
+                for (SubjectInfo legacy : config.getLegacySubjects()) {
+                    subjects.add(new SubjectInfo(legacy.id, legacy.name));
                 }
-                
-                rs.close();
-                ps.close();
             }
         } catch (SQLException e) {
             e.printStackTrace();
-        } finally {
-            try {
-                if (conn != null) conn.close(); // CRITICAL: Return connection to pool!
-            } catch (SQLException e) {
-                e.printStackTrace();
-            }
         }
         
         return subjects;
     }
     
+    /**
+     * Look up a subject of the student's section in the section configuration cache.
+     * @return the section_subjects entry, or null if the student or subject is unknown
+     */
+    private SectionConfigCache.SubjectEntry getSectionSubjectForStudent(int studentId, String subjectName) throws SQLException {
+        int sectionId = SectionConfigCache.getSectionIdForStudent(studentId);
+        if (sectionId == 0) {
+            return null;
+        }
+        return SectionConfigCache.get(sectionId).getSubject(subjectName);
+    }
+    
     // Get maximum marks for a subject from section_subjects table
     public int getMaxMarksForSubject(int studentId, String subjectName) {
-        int maxMarks = 0;
-        Connection conn = null;
         try {
-            conn = DatabaseConnection.getConnection();
-            String query = "SELECT ss.max_marks " +
-                          "FROM section_subjects ss " +
-                          "JOIN subjects sub ON ss.subject_id = sub.id " +
-                          "JOIN students s ON s.section_id = ss.section_id " +
-                          "WHERE s.id = ? AND sub.subject_name = ?";
-            
-            PreparedStatement ps = conn.prepareStatement(query);
-            ps.setInt(1, studentId);
-            ps.setString(2, subjectName);
-            ResultSet rs = ps.executeQuery();
-            
-            if (rs.next()) {
-                maxMarks = rs.getInt("max_marks");
-            }
-            
-            rs.close();
-            ps.close();
+            SectionConfigCache.SubjectEntry subject = getSectionSubjectForStudent(studentId, subjectName);
+            return subject != null ? subject.maxMarks : 0;
         } catch (SQLException e) {
             e.printStackTrace();
-        } finally {
-            try {
-                if (conn != null) conn.close();
-            } catch (SQLException e) {
-                e.printStackTrace();
-            }
+            return 0;
         }
-        return maxMarks;
     }
     
     // Get credit for a subject from section_subjects table
     public int getCreditForSubject(int studentId, String subjectName) {
-        int credit = 0;
-        Connection conn = null;
         try {
-            conn = DatabaseConnection.getConnection();
-            String query = "SELECT ss.credit " +
-                          "FROM section_subjects ss " +
-                          "JOIN subjects sub ON ss.subject_id = sub.id " +
-                          "JOIN students s ON s.section_id = ss.section_id " +
-                          "WHERE s.id = ? AND sub.subject_name = ?";
-            
-            PreparedStatement ps = conn.prepareStatement(query);
-            ps.setInt(1, studentId);
-            ps.setString(2, subjectName);
-            ResultSet rs = ps.executeQuery();
-            
-            if (rs.next()) {
-                credit = rs.getInt("credit");
-            }
-            
-            rs.close();
-            ps.close();
+            SectionConfigCache.SubjectEntry subject = getSectionSubjectForStudent(studentId, subjectName);
+            return subject != null ? subject.credit : 0;
         } catch (SQLException e) {
             e.printStackTrace();
-        } finally {
-            try {
-                if (conn != null) conn.close();
-            } catch (SQLException e) {
-                e.printStackTrace();
-            }
+            return 0;
         }
-        return credit;
     }
     
     // Class to hold subject configuration info
@@ -1650,49 +1166,22 @@ public class AnalyzerDAO {
      */
     public List<ExamTypeConfig> getExamTypesForSubject(int sectionId, int subjectId) {
         List<ExamTypeConfig> examTypes = new ArrayList<>();
-        Connection conn = null;
         try {
-            conn = DatabaseConnection.getConnection();
-            
-            // OPTIMIZED query: Use idx_exam_section_opt index (exam_type_id, section_id)
-            // Use INNER JOIN for better performance and force index usage
-            String query = "SELECT /*+ USE_INDEX(set_tbl, idx_exam_section_opt) */ " +
-                          "et.id, et.exam_name, et.max_marks, et.weightage, et.passing_marks " +
-                          "FROM exam_types et " +
-                          "INNER JOIN subject_exam_types set_tbl ON et.id = set_tbl.exam_type_id " +
-                          "WHERE set_tbl.section_id = ? AND set_tbl.subject_id = ? " +
-                          "ORDER BY et.exam_name";
-            
-            PreparedStatement ps = conn.prepareStatement(query);
-            ps.setInt(1, sectionId);
-            ps.setInt(2, subjectId);
-            ResultSet rs = ps.executeQuery();
-            
-            while (rs.next()) {
-                ExamTypeConfig config = new ExamTypeConfig(
-                    rs.getInt("id"),
-                    rs.getString("exam_name"),
-                    rs.getInt("max_marks"),
-                    rs.getInt("weightage"),
-                    rs.getInt("passing_marks")
-                );
-                examTypes.add(config);
+            // PERFORMANCE: served from SectionConfigCache instead of one query per call
+            for (ExamTypeConfig cached : SectionConfigCache.get(sectionId).getExamTypes(subjectId)) {
+                examTypes.add(copyOf(cached));
             }
-            
-            rs.close();
-            ps.close();
         } catch (SQLException e) {
             e.printStackTrace();
-        } finally {
-            try {
-                if (conn != null) conn.close(); // CRITICAL: Return connection to pool!
-            } catch (SQLException e) {
-                e.printStackTrace();
-            }
         }
         return examTypes;
     }
     
+    // Cached configs are shared - callers get their own copy
+    private static ExamTypeConfig copyOf(ExamTypeConfig config) {
+        return new ExamTypeConfig(config.id, config.examName, config.maxMarks, config.weightage, config.passingMarks);
+    }
+    
     /**
      * Calculate weighted subject total using SCALED FORMULA with DUAL PASSING REQUIREMENT:
      * Total = Σ((marks_obtained / max_marks) × weightage) for all components
@@ -1729,116 +1218,169 @@ public class AnalyzerDAO {
      * @param conn Existing database connection (not closed by this method)
      */
     private SubjectPassResult calculateWeightedSubjectTotalWithPass(Connection conn, int studentId, int sectionId, String subjectName, Set<String> selectedExamTypes) {
+        try {
+            // View over the batch calculation, restricted to one subject
+            SubjectPassResult result = calculateSubjectResults(conn, Collections.singletonList(studentId), sectionId,
+                Collections.singletonMap(subjectName, selectedExamTypes)).get(studentId).get(subjectName);
+            return result != null ? result : new SubjectPassResult(-1, false, false, false, new ArrayList<>());
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return new SubjectPassResult(-1, false, false, false, new ArrayList<>());
+        }
+        // NOTE: Connection is NOT closed here - caller owns it
+    }
+    
+    /**
+     * Weighted subject results of one student for every (filtered) subject of the section.
+     * Same rules as calculateWeightedSubjectTotalWithPass().
+     * @param selectedFilters Map of subject -> exam types to include (null set = all exam types);
+     *                        null or empty map = all subjects
+     * @return subject name -> result, in section subject order (empty on database error)
+     */
+    public Map<String, SubjectPassResult> calculateSubjectResults(int studentId, int sectionId, Map<String, Set<String>> selectedFilters) {
+        Map<String, SubjectPassResult> results = calculateSubjectResults(
+            Collections.singletonList(studentId), sectionId, selectedFilters).get(studentId);
+        return results != null ? results : new LinkedHashMap<>();
+    }
+    
+    /**
+     * Weighted subject results of a set of students for every (filtered) subject of the section.
+     * @return student id -> (subject name -> result); empty on database error
+     */
+    public Map<Integer, Map<String, SubjectPassResult>> calculateSubjectResults(Collection<Integer> studentIds, int sectionId,
+                                                                               Map<String, Set<String>> selectedFilters) {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            return calculateSubjectResults(conn, studentIds, sectionId, selectedFilters);
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return new HashMap<>();
+        }
+    }
+    
+    /**
+     * Batch weighted subject calculation on the caller's connection.
+     *
+     * PERFORMANCE: The per-subject calculation cost a subject lookup, an exam type lookup
+     * and a marks query for every student and subject. Subject and exam type configuration
+     * now come from SectionConfigCache and the marks of all requested students and subjects
+     * are read with ONE query (chunked for very large student sets), so a student profile
+     * costs one round trip instead of 3 x subjects.
+     */
+    public Map<Integer, Map<String, SubjectPassResult>> calculateSubjectResults(Connection conn, Collection<Integer> studentIds,
+                                                                               int sectionId, Map<String, Set<String>> selectedFilters) throws SQLException {
+        SectionConfigCache.SectionConfig sectionConfig = SectionConfigCache.get(conn, sectionId);
+        boolean filterSubjects = selectedFilters != null && !selectedFilters.isEmpty();
+        
+        // Subjects to calculate (a subject without exam types yields percentage -1)
+        List<SectionConfigCache.SubjectEntry> subjects = new ArrayList<>();
+        for (SectionConfigCache.SubjectEntry subject : sectionConfig.getSubjects()) {
+            if (!filterSubjects || selectedFilters.containsKey(subject.subjectName)) {
+                subjects.add(subject);
+            }
+        }
+        
+        // studentId -> subjectId -> exam name -> marks
+        Map<Integer, Map<Integer, Map<String, Integer>>> marks = new HashMap<>();
+        List<Integer> ids = new ArrayList<>(new LinkedHashSet<>(studentIds));
+        if (!subjects.isEmpty()) {
+            for (int from = 0; from < ids.size(); from += SUBJECT_RESULT_CHUNK) {
+                List<Integer> chunk = ids.subList(from, Math.min(ids.size(), from + SUBJECT_RESULT_CHUNK));
+                loadSubjectMarks(conn, chunk, subjects, marks);
+            }
+        }
+        
+        Map<Integer, Map<String, SubjectPassResult>> results = new HashMap<>();
+        for (int studentId : ids) {
+            Map<Integer, Map<String, Integer>> studentMarks = marks.getOrDefault(studentId, Collections.emptyMap());
+            Map<String, SubjectPassResult> studentResults = new LinkedHashMap<>();
+            for (SectionConfigCache.SubjectEntry subject : subjects) {
+                Set<String> selectedExamTypes = selectedFilters != null ? selectedFilters.get(subject.subjectName) : null;
+                studentResults.put(subject.subjectName, evaluateSubject(subject.passingMarks,
+                    sectionConfig.getExamTypes(subject.subjectId),
+                    studentMarks.getOrDefault(subject.subjectId, Collections.emptyMap()), selectedExamTypes));
+            }
+            results.put(studentId, studentResults);
+        }
+        return results;
+    }
+    
+    private static final int SUBJECT_RESULT_CHUNK = 500;
+    
+    private void loadSubjectMarks(Connection conn, List<Integer> studentIds, List<SectionConfigCache.SubjectEntry> subjects,
+                                  Map<Integer, Map<Integer, Map<String, Integer>>> marks) throws SQLException {
+        String marksQuery = "SELECT sm.student_id, sm.subject_id, et.exam_name, sm.marks_obtained " +
+                          "FROM entered_exam_marks sm " +
+                          "JOIN exam_types et ON sm.exam_type_id = et.id " +
+                          "WHERE sm.student_id IN (" + String.join(",", Collections.nCopies(studentIds.size(), "?")) + ") " +
+                          "AND sm.subject_id IN (" + String.join(",", Collections.nCopies(subjects.size(), "?")) + ")";
+        try (PreparedStatement ps = conn.prepareStatement(marksQuery)) {
+            int index = 1;
+            for (int studentId : studentIds) {
+                ps.setInt(index++, studentId);
+            }
+            for (SectionConfigCache.SubjectEntry subject : subjects) {
+                ps.setInt(index++, subject.subjectId);
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    marks.computeIfAbsent(rs.getInt("student_id"), k -> new HashMap<>())
+                         .computeIfAbsent(rs.getInt("subject_id"), k -> new HashMap<>())
+                         .put(rs.getString("exam_name"), rs.getInt("marks_obtained"));
+                }
+            }
+        }
+    }
+    
+    /**
+     * SCALED FORMULA with DUAL PASSING REQUIREMENT for one student and subject
+     * (see calculateWeightedSubjectTotalWithPass)
+     */
+    private static SubjectPassResult evaluateSubject(int subjectPassingMarks, List<ExamTypeConfig> examTypes,
+                                                     Map<String, Integer> marksMap, Set<String> selectedExamTypes) {
         List<String> failedComponents = new ArrayList<>();
         double weightedTotal = 0.0;
         int componentsIncluded = 0;
         boolean allComponentsPassed = true;
         
-        try {
-            
-            // Get subject ID and passing marks from section_subjects
-            String subjectQuery = "SELECT sub.id, ss.passing_marks " +
-                                 "FROM subjects sub " +
-                                 "JOIN section_subjects ss ON sub.id = ss.subject_id " +
-                                 "WHERE sub.subject_name = ? AND ss.section_id = ?";
-            PreparedStatement psSubject = conn.prepareStatement(subjectQuery);
-            psSubject.setString(1, subjectName);
-            psSubject.setInt(2, sectionId);
-            ResultSet rsSubject = psSubject.executeQuery();
-            
-            int subjectId = 0;
-            int subjectPassingMarks = 50; // Default fallback
-            if (rsSubject.next()) {
-                subjectId = rsSubject.getInt("id");
-                subjectPassingMarks = rsSubject.getInt("passing_marks");
+        for (ExamTypeConfig examType : examTypes) {
+            // Skip if filter is active and this exam not selected
+            if (selectedExamTypes != null && !selectedExamTypes.contains(examType.examName)) {
+                continue;
             }
-            rsSubject.close();
-            psSubject.close();
             
-            if (subjectId == 0) {
-                return new SubjectPassResult(-1, false, false, false, failedComponents);
+            Integer marksObtained = marksMap.get(examType.examName);
+            if (marksObtained == null) {
+                failedComponents.add(examType.examName);
+                allComponentsPassed = false;
+                continue;
             }
             
-            // Get exam type configurations with passing marks
-            List<ExamTypeConfig> examTypes = getExamTypesForSubject(sectionId, subjectId);
-            
-            if (examTypes.isEmpty()) {
-                return new SubjectPassResult(-1, false, false, false, failedComponents);
+            // PROTECTION: Skip if max_marks is 0 or invalid (data error)
+            if (examType.maxMarks <= 0) {
+                continue;
             }
             
-            // Get student's marks for this subject
-            String marksQuery = "SELECT et.exam_name, sm.marks_obtained " +
-                              "FROM entered_exam_marks sm " +
-                              "JOIN exam_types et ON sm.exam_type_id = et.id " +
-                              "WHERE sm.student_id = ? AND sm.subject_id = ?";
-            PreparedStatement psMarks = conn.prepareStatement(marksQuery);
-            psMarks.setInt(1, studentId);
-            psMarks.setInt(2, subjectId);
-            ResultSet rsMarks = psMarks.executeQuery();
-            
-            Map<String, Integer> marksMap = new HashMap<>();
-            while (rsMarks.next()) {
-                marksMap.put(rsMarks.getString("exam_name"), rsMarks.getInt("marks_obtained"));
+            // DUAL PASSING CHECK 1: Component passing marks
+            if (marksObtained < examType.passingMarks) {
+                failedComponents.add(examType.examName);
+                allComponentsPassed = false;
             }
-            rsMarks.close();
-            psMarks.close();
             
-            // COMMENT OUT for now - too much output
-            
-            for (ExamTypeConfig examType : examTypes) {
-                // Skip if filter is active and this exam not selected
-                if (selectedExamTypes != null && !selectedExamTypes.contains(examType.examName)) {
-                    continue;
-                }
-                
-                Integer marksObtained = marksMap.get(examType.examName);
-                if (marksObtained == null) {
-                    failedComponents.add(examType.examName);
-                    allComponentsPassed = false;
-                    continue;
-                }
-                
-                // PROTECTION: Skip if max_marks is 0 or invalid (data error)
-                if (examType.maxMarks <= 0) {
-                    continue;
-                }
-                
-                // DUAL PASSING CHECK 1: Component passing marks
-                boolean componentPassed = (marksObtained >= examType.passingMarks);
-                if (!componentPassed) {
-                    failedComponents.add(examType.examName);
-                    allComponentsPassed = false;
-                }
-                
-                // SCALED FORMULA: (marks_obtained / max_marks) ?? weightage
-                double contribution = (marksObtained.doubleValue() / examType.maxMarks) * examType.weightage;
-                weightedTotal += contribution;
-                componentsIncluded++;
-                
-                //                  " (pass>=" + examType.passingMarks + ") ?? " + examType.weightage + "% = " + 
-                //                  String.format("%.2f", contribution) + " [" + (componentPassed ? "PASS" : "FAIL") + "]");
-            }
-            
-            if (componentsIncluded == 0) {
-                return new SubjectPassResult(-1, false, false, false, failedComponents);
-            }
-            
-            // DUAL PASSING CHECK 2: Total weighted percentage >= subject's passing_marks
-            boolean totalPassed = (weightedTotal >= subjectPassingMarks);
-            
-            // FINAL RESULT: Pass only if BOTH component AND total pass
-            boolean overallPassed = allComponentsPassed && totalPassed;
-            
-            // if (!failedComponents.isEmpty()) {
-            // }
-            
-            return new SubjectPassResult(weightedTotal, overallPassed, totalPassed, allComponentsPassed, failedComponents);
-            
-        } catch (SQLException e) {
-            e.printStackTrace();
+            // SCALED FORMULA: (marks_obtained / max_marks) x weightage
+            weightedTotal += (marksObtained.doubleValue() / examType.maxMarks) * examType.weightage;
+            componentsIncluded++;
+        }
+        
+        if (componentsIncluded == 0) {
             return new SubjectPassResult(-1, false, false, false, failedComponents);
         }
-        // NOTE: Connection is NOT closed here - caller owns it
+        
+        // DUAL PASSING CHECK 2: Total weighted percentage >= subject's passing_marks
+        boolean totalPassed = (weightedTotal >= subjectPassingMarks);
+        
+        // FINAL RESULT: Pass only if BOTH component AND total pass
+        boolean overallPassed = allComponentsPassed && totalPassed;
+        return new SubjectPassResult(weightedTotal, overallPassed, totalPassed, allComponentsPassed, failedComponents);
     }
     
     /**
@@ -1861,51 +1403,11 @@ public class AnalyzerDAO {
      */
     public double getStudentWeightedTotal(int studentId, int sectionId, Map<String, Set<String>> selectedFilters) {
         double totalWeighted = 0.0;
-        int subjectCount = 0;
-        Connection conn = null;
-        try {
-            conn = DatabaseConnection.getConnection();
-            
-            // Get all subjects for this section
-            String subjectQuery = "SELECT DISTINCT sub.subject_name FROM section_subjects ss " +
-                                 "JOIN subjects sub ON ss.subject_id = sub.id " +
-                                 "WHERE ss.section_id = ?";
-            PreparedStatement ps = conn.prepareStatement(subjectQuery);
-            ps.setInt(1, sectionId);
-            ResultSet rs = ps.executeQuery();
-            
-            List<String> subjects = new ArrayList<>();
-            while (rs.next()) {
-                String subjectName = rs.getString("subject_name");
-                // Only include if in filter or no filter
-                if (selectedFilters == null || selectedFilters.isEmpty() || selectedFilters.containsKey(subjectName)) {
-                    subjects.add(subjectName);
-                }
-            }
-            rs.close();
-            ps.close();
-            
-            // Calculate weighted total for each subject using DUAL PASSING
-            for (String subject : subjects) {
-                Set<String> examTypes = (selectedFilters != null) ? selectedFilters.get(subject) : null;
-                SubjectPassResult result = calculateWeightedSubjectTotalWithPass(studentId, sectionId, subject, examTypes);
-                
-                // Add absolute percentage to total regardless of pass/fail
-                // This gives total weighted marks across all subjects
-                totalWeighted += Math.abs(result.percentage);
-                subjectCount++;
-            }
-        
-        } catch (SQLException e) {
-            e.printStackTrace();
-        } finally {
-            try {
-                if (conn != null) conn.close(); // CRITICAL: Return connection to pool!
-            } catch (SQLException e) {
-                e.printStackTrace();
-            }
+        for (SubjectPassResult result : calculateSubjectResults(studentId, sectionId, selectedFilters).values()) {
+            // Add absolute percentage to total regardless of pass/fail
+            // This gives total weighted marks across all subjects
+            totalWeighted += Math.abs(result.percentage);
         }
-        
         return totalWeighted;
     }
     
@@ -1917,87 +1419,27 @@ public class AnalyzerDAO {
      * @return Percentage (0-100) based on weighted calculations
      */
     public double getStudentWeightedPercentage(int studentId, int sectionId, Map<String, Set<String>> selectedFilters) {
+        Map<String, SubjectPassResult> results = calculateSubjectResults(studentId, sectionId, selectedFilters);
         double totalWeighted = 0.0;
-        int subjectCount = 0;
-        Connection conn = null;
-        try {
-            conn = DatabaseConnection.getConnection();
-            
-            // Get all subjects for this section
-            String subjectQuery = "SELECT DISTINCT sub.subject_name FROM section_subjects ss " +
-                                 "JOIN subjects sub ON ss.subject_id = sub.id " +
-                                 "WHERE ss.section_id = ?";
-            PreparedStatement ps = conn.prepareStatement(subjectQuery);
-            ps.setInt(1, sectionId);
-            ResultSet rs = ps.executeQuery();
-            
-            List<String> subjects = new ArrayList<>();
-            while (rs.next()) {
-                String subjectName = rs.getString("subject_name");
-                // Only include if in filter or no filter
-                if (selectedFilters == null || selectedFilters.isEmpty() || selectedFilters.containsKey(subjectName)) {
-                    subjects.add(subjectName);
-                }
-            }
-            rs.close();
-            ps.close();
-            
-            // Calculate weighted total for each subject using DUAL PASSING
-            for (String subject : subjects) {
-                Set<String> examTypes = (selectedFilters != null) ? selectedFilters.get(subject) : null;
-                SubjectPassResult result = calculateWeightedSubjectTotalWithPass(studentId, sectionId, subject, examTypes);
-                
-                // Add absolute percentage to total regardless of pass/fail
-                // This gives total weighted marks across all subjects
-                totalWeighted += Math.abs(result.percentage);
-                subjectCount++;
-            }
-            
-        } catch (SQLException e) {
-            e.printStackTrace();
-        } finally {
-            try {
-                if (conn != null) conn.close(); // CRITICAL: Return connection to pool!
-            } catch (SQLException e) {
-                e.printStackTrace();
-            }
+        for (SubjectPassResult result : results.values()) {
+            // Add absolute percentage to total regardless of pass/fail
+            totalWeighted += Math.abs(result.percentage);
         }
         
         // Return average percentage across all subjects
-        return subjectCount > 0 ? (totalWeighted / subjectCount) : 0.0;
+        return !results.isEmpty() ? (totalWeighted / results.size()) : 0.0;
     }
     
     public SubjectConfig getSubjectInfo(int studentId, String subjectName) {
         SubjectConfig info = new SubjectConfig(0, 0);
-        Connection conn = null;
         try {
-            conn = DatabaseConnection.getConnection();
-            String query = "SELECT ss.max_marks, ss.credit " +
-                          "FROM section_subjects ss " +
-                          "JOIN subjects sub ON ss.subject_id = sub.id " +
-                          "JOIN students s ON s.section_id = ss.section_id " +
-                          "WHERE s.id = ? AND sub.subject_name = ?";
-            
-            PreparedStatement ps = conn.prepareStatement(query);
-            ps.setInt(1, studentId);
-            ps.setString(2, subjectName);
-            ResultSet rs = ps.executeQuery();
-            
-            if (rs.next()) {
-                info.maxMarks = rs.getInt("max_marks");
-                info.credit = rs.getInt("credit");
+            SectionConfigCache.SubjectEntry subject = getSectionSubjectForStudent(studentId, subjectName);
+            if (subject != null) {
+                info.maxMarks = subject.maxMarks;
+                info.credit = subject.credit;
             }
-            
-            rs.close();
-            ps.close();
         } catch (SQLException e) {
             e.printStackTrace();
-        } finally {
-            try {
-                if (conn != null) conn.close(); // CRITICAL: Return connection to pool!
-            } catch (SQLException e) {
-                e.printStackTrace();
-            }
         }
         return info;
     }
@@ -2014,60 +1456,14 @@ public class AnalyzerDAO {
     }
     
     public List<GradeDistribution> getGradeDistribution(int sectionId, Map<String, Set<String>> selectedFilters) {
-        List<GradeDistribution> distribution = new ArrayList<>();
-        Connection conn = null;
-        
-        try {
-            conn = DatabaseConnection.getConnection();
-            
-            // Get user ID for this section
-            String userQuery = "SELECT created_by FROM students WHERE section_id = ? LIMIT 1";
-            PreparedStatement psUser = conn.prepareStatement(userQuery);
-            psUser.setInt(1, sectionId);
-            ResultSet rsUser = psUser.executeQuery();
-            int userId = rsUser.next() ? rsUser.getInt("created_by") : 0;
-            rsUser.close();
-            psUser.close();
-            
-            // Use EFFICIENT BATCH METHOD to get all percentages at once (with DUAL PASSING)
-            Map<Integer, Double> allPercentages = calculateAllStudentPercentagesBatch(sectionId, userId, selectedFilters);
-            
-            // Count students by grade
-            Map<String, Integer> gradeCounts = new LinkedHashMap<>();
-            gradeCounts.put("A+", 0);
-            gradeCounts.put("A", 0);
-            gradeCounts.put("B+", 0);
-            gradeCounts.put("B", 0);
-            gradeCounts.put("C", 0);
-            gradeCounts.put("D", 0);
-            gradeCounts.put("F", 0);
-            
-            for (Double percentage : allPercentages.values()) {
-                // Negative means failed due to component/total failure
-                if (percentage < 0) {
-                    gradeCounts.put("F", gradeCounts.get("F") + 1);
-                } else {
-                    String grade = getGradeFromPercentage(percentage);
-                    gradeCounts.put(grade, gradeCounts.get(grade) + 1);
-                }
-            }
-            
-            // Convert to list
-            for (Map.Entry<String, Integer> entry : gradeCounts.entrySet()) {
-                distribution.add(new GradeDistribution(entry.getKey(), entry.getValue()));
-            }
-            
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            int userId = getSectionOwnerId(conn, sectionId);
+            SectionMarksSnapshot snapshot = SectionMarksSnapshot.load(conn, sectionId, userId);
+            return buildGradeDistribution(snapshot.overallPercentages(selectedFilters));
         } catch (SQLException e) {
             e.printStackTrace();
-        } finally {
-            try {
-                if (conn != null) conn.close(); // CRITICAL: Return connection to pool!
-            } catch (SQLException e) {
-                e.printStackTrace();
-            }
+            return new ArrayList<>();
         }
-        
-        return distribution;
     }
     
     public String getGradeFromPercentage(double percentage) {
@@ -2091,38 +1487,12 @@ public class AnalyzerDAO {
      * Get exam type configuration details
      */
     public ExamTypeConfig getExamTypeConfig(int sectionId, String examName) {
-        Connection conn = null;
         try {
-            conn = DatabaseConnection.getConnection();
-            String query = "SELECT id, exam_name, max_marks, weightage, passing_marks " +
-                          "FROM exam_types WHERE section_id = ? AND exam_name = ?";
-            PreparedStatement ps = conn.prepareStatement(query);
-            ps.setInt(1, sectionId);
-            ps.setString(2, examName);
-            ResultSet rs = ps.executeQuery();
-            
-            ExamTypeConfig config = null;
-            if (rs.next()) {
-                config = new ExamTypeConfig(
-                    rs.getInt("id"),
-                    rs.getString("exam_name"),
-                    rs.getInt("max_marks"),
-                    rs.getInt("weightage"),
-                    rs.getInt("passing_marks")
-                );
-            }
-            rs.close();
-            ps.close();
-            return config;
+            ExamTypeConfig config = SectionConfigCache.get(sectionId).getExamType(examName);
+            return config != null ? copyOf(config) : null;
         } catch (SQLException e) {
             e.printStackTrace();
             return null;
-        } finally {
-            try {
-                if (conn != null) conn.close();
-            } catch (SQLException e) {
-                e.printStackTrace();
-            }
         }
     }
     
@@ -2144,76 +1514,16 @@ public class AnalyzerDAO {
     }
     
     public List<AtRiskStudent> getAtRiskStudents(int sectionId, Map<String, Set<String>> selectedFilters) {
-        List<AtRiskStudent> atRiskStudents = new ArrayList<>();
-        Connection conn = null;
-        
-        try {
-            conn = DatabaseConnection.getConnection();
-            
-            // Get user ID and student details
-            String studentsQuery = "SELECT id, roll_number, student_name, created_by FROM students WHERE section_id = ?";
-            PreparedStatement ps = conn.prepareStatement(studentsQuery);
-            ps.setInt(1, sectionId);
-            ResultSet rs = ps.executeQuery();
-            
-            Map<Integer, StudentBasicInfo> studentInfoMap = new HashMap<>();
-            int userId = 0;
-            while (rs.next()) {
-                int studentId = rs.getInt("id");
-                String rollNo = rs.getString("roll_number");
-                String name = rs.getString("student_name");
-                userId = rs.getInt("created_by");
-                studentInfoMap.put(studentId, new StudentBasicInfo(rollNo, name));
-            }
-            rs.close();
-            ps.close();
-            
-            // Use EFFICIENT BATCH METHOD to get all percentages at once (with DUAL PASSING)
-            Map<Integer, Double> allPercentages = calculateAllStudentPercentagesBatch(sectionId, userId, selectedFilters);
-            
-            // Filter students below 60% OR with component failures (negative percentage)
-            for (Map.Entry<Integer, Double> entry : allPercentages.entrySet()) {
-                int studentId = entry.getKey();
-                double percentage = entry.getValue();
-                boolean failed = (percentage < 0);
-                double absPercentage = Math.abs(percentage);
-                
-                // At risk if: failed due to components OR percentage < 60
-                if (failed || absPercentage < 60) {
-                    StudentBasicInfo info = studentInfoMap.get(studentId);
-                    if (info == null) continue;
-                    
-                    String riskLevel;
-                    if (failed) {
-                        riskLevel = "Critical (Component Fail)";
-                    } else if (absPercentage < 50) {
-                        riskLevel = "Critical";
-                    } else {
-                        riskLevel = "Borderline";
-                    }
-                    
-                    // PERFORMANCE FIX: Skip detailed failed subjects list (was calling calculateWeightedSubjectTotalWithPass in loop)
-                    // Just show general risk indicator
-                    String failedSubjects = failed ? "Component Failure" : "Low Marks";
-                    
-                    atRiskStudents.add(new AtRiskStudent(info.rollNumber, info.name, absPercentage, riskLevel, failedSubjects));
-                }
-            }
-            
-            // Sort by percentage ascending (worst first)
-            atRiskStudents.sort((a, b) -> Double.compare(a.percentage, b.percentage));
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            int userId = getSectionOwnerId(conn, sectionId);
+            SectionMarksSnapshot snapshot = SectionMarksSnapshot.load(conn, sectionId, userId);
             
+            // PERFORMANCE: Detailed failed subjects list is skipped - just show general risk indicator
+            return buildAtRiskStudents(snapshot, snapshot.overallPercentages(selectedFilters));
         } catch (SQLException e) {
             e.printStackTrace();
-        } finally {
-            try {
-                if (conn != null) conn.close();
-            } catch (SQLException e) {
-                e.printStackTrace();
-            }
+            return new ArrayList<>();
         }
-        
-        return atRiskStudents;
     }
     
     private String getFailedSubjectsForStudent(int sectionId, String rollNo, Map<String, Set<String>> selectedFilters) {
@@ -2242,29 +1552,12 @@ public class AnalyzerDAO {
                 return "None";
             }
             
-            // Get all subjects for this section
-            String subjectsQuery = "SELECT DISTINCT sub.subject_name FROM section_subjects ss " +
-                                  "JOIN subjects sub ON ss.subject_id = sub.id " +
-                                  "WHERE ss.section_id = ?";
-            PreparedStatement psSubjects = conn.prepareStatement(subjectsQuery);
-            psSubjects.setInt(1, sectionId);
-            ResultSet rsSubjects = psSubjects.executeQuery();
-            
-            List<String> subjects = new ArrayList<>();
-            while (rsSubjects.next()) {
-                String subjectName = rsSubjects.getString("subject_name");
-                // Only check subjects in filter or all if no filter
-                if (selectedFilters == null || selectedFilters.isEmpty() || selectedFilters.containsKey(subjectName)) {
-                    subjects.add(subjectName);
-                }
-            }
-            rsSubjects.close();
-            psSubjects.close();
-            
-            // For each subject, calculate WEIGHTED percentage with DUAL PASSING CHECK
-            for (String subject : subjects) {
-                Set<String> examTypes = (selectedFilters != null) ? selectedFilters.get(subject) : null;
-                SubjectPassResult result = calculateWeightedSubjectTotalWithPass(studentId, sectionId, subject, examTypes);
+            // WEIGHTED percentage with DUAL PASSING CHECK for every (filtered) subject, one marks query
+            Map<String, SubjectPassResult> results = calculateSubjectResults(conn,
+                Collections.singletonList(studentId), sectionId, selectedFilters).get(studentId);
+            for (Map.Entry<String, SubjectPassResult> entry : results.entrySet()) {
+                String subject = entry.getKey();
+                SubjectPassResult result = entry.getValue();
                 
                 if (!result.failedComponents.isEmpty()) {
                 }
@@ -2421,89 +1714,31 @@ public class AnalyzerDAO {
     
     public List<StudentRanking> getAllStudentsRanking(int sectionId, Map<String, Set<String>> selectedFilters) {
         List<StudentRanking> rankings = new ArrayList<>();
-        Connection conn = null;
         
-        try {
-            conn = DatabaseConnection.getConnection();
-            // OPTIMIZE: Disable autocommit for batch processing
-            conn.setAutoCommit(false);
-            
-            // Get user ID for this section - OPTIMIZED query
-            String userQuery = "SELECT /*+ USE_INDEX(students, idx_section_email) */ created_by " +
-                             "FROM students WHERE section_id = ? LIMIT 1";
-            PreparedStatement psUser = conn.prepareStatement(userQuery);
-            psUser.setInt(1, sectionId);
-            ResultSet rsUser = psUser.executeQuery();
-            int userId = rsUser.next() ? rsUser.getInt("created_by") : 0;
-            rsUser.close();
-            psUser.close();
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            int userId = getSectionOwnerId(conn, sectionId);
+            SectionMarksSnapshot snapshot = SectionMarksSnapshot.load(conn, sectionId, userId);
             
             // Use EFFICIENT BATCH METHOD with DUAL PASSING REQUIREMENT
-            Map<Integer, Double> allPercentages = calculateAllStudentPercentagesBatch(sectionId, userId, selectedFilters);
-            
-            // OPTIMIZED: Get student names and roll numbers with proper index usage
-            String studentsQuery = "SELECT /*+ USE_INDEX(students, idx_section_email) */ " +
-                                 "id, student_name, roll_number " +
-                                 "FROM students " +
-                                 "WHERE section_id = ? AND created_by = ? " +
-                                 "ORDER BY roll_number";
-            PreparedStatement psStudents = conn.prepareStatement(studentsQuery);
-            psStudents.setInt(1, sectionId);
-            psStudents.setInt(2, userId);
-            ResultSet rsStudents = psStudents.executeQuery();
-            
-            // CRITICAL OPTIMIZATION: Get subject count ONCE, not per student (N+1 query fix)
-            int subjectCount = 0;
-            try {
-                String countQuery = "SELECT COUNT(DISTINCT subject_id) FROM section_subjects WHERE section_id = ?";
-                PreparedStatement psCount = conn.prepareStatement(countQuery);
-                psCount.setInt(1, sectionId);
-                ResultSet rsCount = psCount.executeQuery();
-                if (rsCount.next()) {
-                    subjectCount = rsCount.getInt(1);
-                }
-                rsCount.close();
-                psCount.close();
-            } catch (SQLException e) {
-                e.printStackTrace();
-            }
+            double[] percentages = snapshot.overallPercentages(selectedFilters);
+            int subjectCount = snapshot.getSubjectCount();
             
-            // Create list of student data with percentages
+            // Snapshot students are already in roll number order
             List<StudentRankingData> studentData = new ArrayList<>();
-            while (rsStudents.next()) {
-                int studentId = rsStudents.getInt("id");
-                String rollNumber = rsStudents.getString("roll_number");
-                String studentName = rsStudents.getString("student_name");
-                
-                Double percentage = allPercentages.get(studentId);
-                if (percentage == null) continue; // Skip students with no marks
-                
-                // Calculate CGPA based on actual performance (negative = failed = 0.0 CGPA)
-                double cgpa = 0.0;
-                double cgpaPercentage = 0.0;
+            for (int student = 0; student < snapshot.getStudentCount(); student++) {
+                double percentage = percentages[student];
+                double displayPercentage = Math.abs(percentage);
                 
-                if (percentage < 0) {
-                    // Student FAILED at least one subject - CGPA = 0.0
-                    cgpa = 0.0;
-                    cgpaPercentage = 0.0;
-                } else {
-                    // Student PASSED all subjects - Calculate CGPA as percentage/10 (same as StudentAnalyzer)
-                    double displayPercentage = Math.abs(percentage); // For calculation only
-                    cgpa = displayPercentage / 10.0; // Same formula as StudentAnalyzer
-                    cgpaPercentage = displayPercentage;
-                }
-                
-                // OPTIMIZED: Use pre-calculated subject count instead of per-student query
-                double displayPercentage = Math.abs(percentage); // For display and calculations
+                // Negative = FAILED at least one subject = 0.0 CGPA
+                double cgpa = percentage < 0 ? 0.0 : displayPercentage / 10.0; // Same formula as StudentAnalyzer
+                double cgpaPercentage = percentage < 0 ? 0.0 : displayPercentage;
                 double totalMarks = displayPercentage * subjectCount; // Since each subject is out of 100
                 
                 studentData.add(new StudentRankingData(
-                    studentId, rollNumber, studentName, totalMarks, displayPercentage, cgpa, cgpaPercentage
+                    snapshot.getStudentId(student), snapshot.getRollNumber(student), snapshot.getStudentName(student),
+                    totalMarks, displayPercentage, cgpa, cgpaPercentage
                 ));
-            }  // End of while loop
-            
-            rsStudents.close();
-            psStudents.close();
+            }
             
             // Sort by total marks (descending) - use absolute percentage for ranking
             studentData.sort((a, b) -> Double.compare(b.totalMarks, a.totalMarks));
@@ -2524,12 +1759,6 @@ public class AnalyzerDAO {
             
         } catch (SQLException e) {
             e.printStackTrace();
-        } finally {
-            try {
-                if (conn != null) conn.close(); // CRITICAL: Return connection to pool!
-            } catch (SQLException e) {
-                e.printStackTrace();
-            }
         }
         
         return rankings;
@@ -2593,302 +1822,86 @@ public class AnalyzerDAO {
     }
     
     public DetailedRankingData getDetailedStudentRanking(int sectionId, Map<String, Set<String>> selectedFilters) {
-        long startTime = System.currentTimeMillis();
         DetailedRankingData data = new DetailedRankingData();
-        Connection conn = null;
-        try {
-            conn = DatabaseConnection.getConnection();
-            long step1Start = System.currentTimeMillis();
-            
-            // Step 1: Get subjects and their max marks for this section
-            String subjectQuery = 
-                "SELECT DISTINCT sub.subject_name, sub.id, ss.max_marks, ss.passing_marks " +
-                "FROM section_subjects ss " +
-                "JOIN subjects sub ON ss.subject_id = sub.id " +
-                "WHERE ss.section_id = ? " +
-                "ORDER BY sub.subject_name";
-            
-            PreparedStatement ps1 = conn.prepareStatement(subjectQuery);
-            ps1.setInt(1, sectionId);
-            ResultSet rs1 = ps1.executeQuery();
-            
-            Map<String, SubjectInfoDetailed> subjectMap = new LinkedHashMap<>();
-            Map<String, Integer> subjectIds = new HashMap<>();
-            
-            while (rs1.next()) {
-                String subjectName = rs1.getString("subject_name");
-                int subjectId = rs1.getInt("id");
-                int maxMarks = rs1.getInt("max_marks");
-                int passingMarks = rs1.getInt("passing_marks");
-                
-                SubjectInfoDetailed subInfo = new SubjectInfoDetailed();
-                subInfo.subjectName = subjectName;
-                subInfo.maxMarks = maxMarks;
-                subInfo.passingMarks = passingMarks;
-                
-                subjectMap.put(subjectName, subInfo);
-                subjectIds.put(subjectName, subjectId);
-            }
-            rs1.close();
-            ps1.close();
-            
-            long step1Time = System.currentTimeMillis() - step1Start;
-            long step2Start = System.currentTimeMillis();
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            int userId = getSectionOwnerId(conn, sectionId);
+            SectionMarksSnapshot snapshot = SectionMarksSnapshot.load(conn, sectionId, userId);
+            int subjectCount = snapshot.getSubjectCount();
             
-            // Step 2: Get exam types and their actual max marks for each subject
-            for (Map.Entry<String, Integer> entry : subjectIds.entrySet()) {
-                String subjectName = entry.getKey();
-                int subjectId = entry.getValue();
-                
-                SubjectInfoDetailed subInfo = subjectMap.get(subjectName);
-                Set<String> examTypes = new LinkedHashSet<>();
-                Map<String, Integer> examTypeMaxMarks = new LinkedHashMap<>();
-                Map<String, Integer> examTypeWeightage = new LinkedHashMap<>();
-                Map<String, Integer> examTypePassingMarks = new LinkedHashMap<>();
-                
-                // Get exam types from exam_types table with subject_exam_types join
-                String componentQuery = 
-                    "SELECT et.exam_name, et.max_marks, et.weightage, et.passing_marks " +
-                    "FROM exam_types et " +
-                    "JOIN subject_exam_types set_tbl ON et.id = set_tbl.exam_type_id " +
-                    "WHERE set_tbl.section_id = ? AND set_tbl.subject_id = ? " +
-                    "ORDER BY et.exam_name";
-                PreparedStatement ps2 = conn.prepareStatement(componentQuery);
-                ps2.setInt(1, sectionId);
-                ps2.setInt(2, subjectId);
-                ResultSet rs2 = ps2.executeQuery();
-                
-                boolean hasComponents = false;
-                while (rs2.next()) {
-                    String componentName = rs2.getString("exam_name");
-                    int maxMarks = rs2.getInt("max_marks");
-                    int weightage = rs2.getInt("weightage");
-                    int passingMarks = rs2.getInt("passing_marks");
-                    if (componentName != null && !componentName.trim().isEmpty()) {
-                        examTypes.add(componentName);
-                        examTypeMaxMarks.put(componentName, maxMarks);
-                        examTypeWeightage.put(componentName, weightage);
-                        examTypePassingMarks.put(componentName, passingMarks);
-                        hasComponents = true;
+            // Step 1: Subjects with their exam type configuration (from the snapshot)
+            for (int subject = 0; subject < subjectCount; subject++) {
+                SubjectInfoDetailed subInfo = new SubjectInfoDetailed();
+                subInfo.subjectName = snapshot.getSubjectName(subject);
+                subInfo.maxMarks = snapshot.getSubjectMaxMarks(subject);
+                subInfo.passingMarks = snapshot.getSubjectPassingMarks(subject);
+                
+                boolean hasComponents = snapshot.hasConfiguredExams(subject);
+                Map<String, Integer> fallbackSlots = new TreeMap<>();
+                for (int slot = snapshot.examStart(subject); slot < snapshot.examEnd(subject); slot++) {
+                    String examName = snapshot.getExamName(slot);
+                    if (examName == null || examName.trim().isEmpty()) {
+                        continue;
+                    }
+                    if (snapshot.isExamConfigured(slot)) {
+                        addExamTypeConfig(subInfo, examName, snapshot.getExamMaxMarks(slot),
+                            snapshot.getExamWeightage(slot), snapshot.getExamPassingMarks(slot));
+                    } else if (!hasComponents) {
+                        fallbackSlots.putIfAbsent(examName, slot);
                     }
                 }
-                rs2.close();
-                ps2.close();
                 
-                // If no components found, try fallback from entered_exam_marks
+                // If no components are configured, fall back to exam types that have entered marks
                 if (!hasComponents) {
-                    String examTypeQuery1 = 
-                        "SELECT DISTINCT et.exam_name, et.max_marks, et.weightage, et.passing_marks " +
-                        "FROM entered_exam_marks sm " +
-                        "JOIN exam_types et ON sm.exam_type_id = et.id " +
-                        "JOIN students s ON sm.student_id = s.id " +
-                        "WHERE sm.subject_id = ? AND s.section_id = ? " +
-                        "ORDER BY et.exam_name";
-                    
-                    PreparedStatement ps3 = conn.prepareStatement(examTypeQuery1);
-                    ps3.setInt(1, subjectId);
-                    ps3.setInt(2, sectionId);
-                    ResultSet rs3 = ps3.executeQuery();
-                    
-                    while (rs3.next()) {
-                        String examType = rs3.getString("exam_name");
-                        int maxMarks = rs3.getInt("max_marks");
-                        int weightage = rs3.getInt("weightage");
-                        int passingMarks = rs3.getInt("passing_marks");
-                        if (examType != null && !examType.trim().isEmpty()) {
-                            examTypes.add(examType);
-                            examTypeMaxMarks.put(examType, maxMarks);
-                            examTypeWeightage.put(examType, weightage);
-                            examTypePassingMarks.put(examType, passingMarks);
-                        }
-                    }
-                    rs3.close();
-                    ps3.close();
-                    
-                    // Also check marks table with exam_types
-                    String examTypeQuery2 = 
-                        "SELECT DISTINCT et.exam_name, et.max_marks, et.weightage, et.passing_marks " +
-                        "FROM marks m " +
-                        "JOIN exam_types et ON m.exam_type_id = et.id " +
-                        "JOIN students s ON m.student_id = s.id " +
-                        "WHERE m.subject_id = ? AND s.section_id = ? " +
-                        "ORDER BY et.exam_name";
-                    
-                    PreparedStatement ps4 = conn.prepareStatement(examTypeQuery2);
-                    ps4.setInt(1, subjectId);
-                    ps4.setInt(2, sectionId);
-                    ResultSet rs4 = ps4.executeQuery();
-                    
-                    while (rs4.next()) {
-                        String examName = rs4.getString("exam_name");
-                        int maxMarks = rs4.getInt("max_marks");
-                        int weightage = rs4.getInt("weightage");
-                        int passingMarks = rs4.getInt("passing_marks");
-                        if (examName != null && !examName.trim().isEmpty()) {
-                            examTypes.add(examName);
-                            if (!examTypeMaxMarks.containsKey(examName)) {
-                                examTypeMaxMarks.put(examName, maxMarks);
-                                examTypeWeightage.put(examName, weightage);
-                                examTypePassingMarks.put(examName, passingMarks);
-                            }
-                        }
+                    for (Map.Entry<String, Integer> entry : fallbackSlots.entrySet()) {
+                        int slot = entry.getValue();
+                        addExamTypeConfig(subInfo, entry.getKey(), snapshot.getExamMaxMarks(slot),
+                            snapshot.getExamWeightage(slot), snapshot.getExamPassingMarks(slot));
                     }
-                    rs4.close();
-                    ps4.close();
+                    addLegacyMarksExamTypes(conn, sectionId, snapshot.getSubjectId(subject), subInfo);
                 }
                 
-                // Add exam types to subject info (prevent duplicates)
-                for (String examType : examTypes) {
-                    subInfo.addExamType(examType);
+                // Set subject max as sum of weightages (should be 100), not sum of actual max marks
+                if (!subInfo.examTypeWeightage.isEmpty()) {
+                    subInfo.maxMarks = subInfo.examTypeWeightage.values().stream().mapToInt(Integer::intValue).sum();
                 }
                 
-                // Store the configuration maps
-                if (!examTypeMaxMarks.isEmpty()) {
-                    subInfo.examTypeMaxMarks.putAll(examTypeMaxMarks);
-                    subInfo.examTypeWeightage.putAll(examTypeWeightage);
-                    subInfo.examTypePassingMarks.putAll(examTypePassingMarks);
-                    // Set subject max as sum of weightages (should be 100), not sum of actual max marks
-                    int totalWeightage = examTypeWeightage.values().stream().mapToInt(Integer::intValue).sum();
-                    subInfo.maxMarks = totalWeightage;
-                }
-            }
-            
-            data.subjects.addAll(subjectMap.values());
-            
-            long step2Time = System.currentTimeMillis() - step2Start;
-            
-            long step3Start = System.currentTimeMillis();
-            // Get userId ONCE before the loop
-            int userId = 0;
-            try {
-                String userQuery = "SELECT created_by FROM students WHERE section_id = ? LIMIT 1";
-                PreparedStatement psUser = conn.prepareStatement(userQuery);
-                psUser.setInt(1, sectionId);
-                ResultSet rsUser = psUser.executeQuery();
-                if (rsUser.next()) userId = rsUser.getInt("created_by");
-                rsUser.close();
-                psUser.close();
-            } catch (SQLException e) {
-                e.printStackTrace();
+                data.subjects.add(subInfo);
             }
             
-            long step4Start = System.currentTimeMillis();
-            // Calculate batch percentages ONCE before the loop (not inside!)
-            Map<Integer, Double> batchPercentages = calculateAllStudentPercentagesBatch(sectionId, userId, selectedFilters);
-            long step4Time = System.currentTimeMillis() - step4Start;
-            
-            long step5Start = System.currentTimeMillis();
-            // Step 3: Get all students and their marks
-            String studentQuery = 
-                "SELECT s.id, s.roll_number, s.student_name " +
-                "FROM students s " +
-                "WHERE s.section_id = ? " +
-                "ORDER BY s.roll_number";
-            
-            PreparedStatement ps4 = conn.prepareStatement(studentQuery);
-            ps4.setInt(1, sectionId);
-            ResultSet rs4 = ps4.executeQuery();
-            
-            // Collect all student IDs first
-            List<Integer> allStudentIds = new ArrayList<>();
-            Map<Integer, StudentRankingDetail> studentMap = new LinkedHashMap<>();
-            
-            while (rs4.next()) {
-                int studentId = rs4.getInt("id");
-                allStudentIds.add(studentId);
-                
-                StudentRankingDetail student = new StudentRankingDetail();
-                student.rollNumber = rs4.getString("roll_number");
-                student.studentName = rs4.getString("student_name");
-                studentMap.put(studentId, student);
-            }
-            rs4.close();
-            ps4.close();
-            
-            long step5Time = System.currentTimeMillis() - step5Start;
-            
-            long step6Start = System.currentTimeMillis();
-            
-            // Fetch ALL student marks in ONE batch query instead of per-student queries
-            Map<Integer, Map<String, Map<String, Integer>>> allStudentMarks = new HashMap<>();
-            
-            if (!allStudentIds.isEmpty()) {
-                // Build IN clause for batch query
-                StringBuilder idList = new StringBuilder();
-                for (int i = 0; i < allStudentIds.size(); i++) {
-                    if (i > 0) idList.append(",");
-                    idList.append(allStudentIds.get(i));
-                }
-                
-                String batchMarksQuery = 
-                    "SELECT s.id as student_id, sub.subject_name, et.exam_name, eem.marks_obtained " +
-                    "FROM entered_exam_marks eem " +
-                    "JOIN students s ON eem.student_id = s.id " +
-                    "JOIN subjects sub ON eem.subject_id = sub.id " +
-                    "JOIN exam_types et ON eem.exam_type_id = et.id " +
-                    "WHERE s.section_id = ? AND s.id IN (" + idList + ")";
-                
-                PreparedStatement psBatch = conn.prepareStatement(batchMarksQuery);
-                psBatch.setInt(1, sectionId);
-                ResultSet rsBatch = psBatch.executeQuery();
-                
-                while (rsBatch.next()) {
-                    int studentId = rsBatch.getInt("student_id");
-                    String subjectName = rsBatch.getString("subject_name");
-                    String examName = rsBatch.getString("exam_name");
-                    int marks = rsBatch.getInt("marks_obtained");
-                    
-                    allStudentMarks.putIfAbsent(studentId, new HashMap<>());
-                    allStudentMarks.get(studentId).putIfAbsent(subjectName, new HashMap<>());
-                    allStudentMarks.get(studentId).get(subjectName).put(examName, marks);
-                }
-                rsBatch.close();
-                psBatch.close();
-            }
-            
-            long step6Time = System.currentTimeMillis() - step6Start;
-            
-            long step7Start = System.currentTimeMillis();
+            // Step 2: Overall percentages for pass/fail status (negative = failed)
+            double[] percentages = snapshot.overallPercentages(selectedFilters);
             
+            // Step 3: Per-student marks and subject totals - all in memory
             List<StudentRankingDetail> studentList = new ArrayList<>();
-            int studentCount = 0;
-            
-            for (Integer studentId : allStudentIds) {
-                studentCount++;
+            for (int studentOrdinal = 0; studentOrdinal < snapshot.getStudentCount(); studentOrdinal++) {
+                StudentRankingDetail student = new StudentRankingDetail();
+                student.rollNumber = snapshot.getRollNumber(studentOrdinal);
+                student.studentName = snapshot.getStudentName(studentOrdinal);
                 
-                StudentRankingDetail student = studentMap.get(studentId);
                 double totalWeightedMarks = 0;
                 int subjectCountProcessed = 0;
                 
-                // Use cached marks instead of querying per student
-                Map<String, Map<String, Integer>> studentMarks = allStudentMarks.getOrDefault(studentId, new HashMap<>());
-                
-                for (SubjectInfoDetailed subject : data.subjects) {
+                for (int subject = 0; subject < subjectCount; subject++) {
+                    SubjectInfoDetailed subInfo = data.subjects.get(subject);
                     // Skip if not in filter
-                    if (selectedFilters != null && !selectedFilters.isEmpty() && !selectedFilters.containsKey(subject.subjectName)) {
+                    if (selectedFilters != null && !selectedFilters.isEmpty() && !selectedFilters.containsKey(subInfo.subjectName)) {
                         continue;
                     }
                     
                     Map<String, Double> subjectMarksMap = new HashMap<>();
-                    Map<String, Integer> marksForSubject = studentMarks.get(subject.subjectName);
-                    
-                    if (marksForSubject != null) {
-                        for (String examType : subject.examTypes) {
-                            Integer marks = marksForSubject.get(examType);
-                            if (marks != null) {
-                                subjectMarksMap.put(examType, marks.doubleValue());
-                            }
+                    for (int slot = snapshot.examStart(subject); slot < snapshot.examEnd(subject); slot++) {
+                        if (snapshot.hasMark(studentOrdinal, slot) && subInfo.examTypes.contains(snapshot.getExamName(slot))) {
+                            subjectMarksMap.put(snapshot.getExamName(slot), snapshot.getMark(studentOrdinal, slot));
                         }
                     }
+                    student.subjectMarks.put(subInfo.subjectName, subjectMarksMap);
                     
-                    student.subjectMarks.put(subject.subjectName, subjectMarksMap);
-                    
-                    // Use the SAME method as Top 5 Students for consistency
-                    Set<String> examTypesFilter = (selectedFilters != null) ? selectedFilters.get(subject.subjectName) : null;
-                    SubjectPassResult result = calculateWeightedSubjectTotalWithPass(conn, studentId, sectionId, subject.subjectName, examTypesFilter);
+                    // Use the SAME rules as Top 5 Students for consistency
+                    Set<String> examTypesFilter = (selectedFilters != null) ? selectedFilters.get(subInfo.subjectName) : null;
+                    SubjectPassResult result = snapshot.subjectResult(studentOrdinal, subject, examTypesFilter);
                     
                     double weightedTotal = Math.abs(result.percentage);
-                    student.subjectTotals.put(subject.subjectName, weightedTotal);
+                    student.subjectTotals.put(subInfo.subjectName, weightedTotal);
                     totalWeightedMarks += weightedTotal;
                     subjectCountProcessed++;
                 }
@@ -2896,16 +1909,9 @@ public class AnalyzerDAO {
                 // Store sum of subject totals (weighted percentages), not raw marks
                 student.totalMarks = totalWeightedMarks;
                 
-                // Get the batch percentage for pass/fail status
-                Double studentBatchPercentage = batchPercentages.get(studentId);
-                boolean studentFailed = (studentBatchPercentage != null && studentBatchPercentage < 0);
-                
-                // Use the batch percentage (take absolute value if negative for failed students)
-                if (studentBatchPercentage != null) {
-                    student.percentage = Math.abs(studentBatchPercentage);
-                } else {
-                    student.percentage = subjectCountProcessed > 0 ? (totalWeightedMarks / subjectCountProcessed) : 0.0;
-                }
+                double studentBatchPercentage = percentages[studentOrdinal];
+                boolean studentFailed = studentBatchPercentage < 0;
+                student.percentage = Math.abs(studentBatchPercentage);
                 
                 // Calculate Grade and CGPA based on DUAL PASSING
                 if (studentFailed) {
@@ -2913,8 +1919,6 @@ public class AnalyzerDAO {
                     student.grade = "F";
                     student.cgpa = 0.0;
                 } else {
-                    // Student PASSED all subjects - Calculate grade/CGPA from percentage
-                    
                     // Calculate CGPA as percentage/10 (same as StudentAnalyzer)
                     student.cgpa = student.percentage / 10.0;
                     
@@ -2933,42 +1937,60 @@ public class AnalyzerDAO {
                         student.grade = "F";
                         student.cgpa = 0.0; // Override for failing grade
                     }
-
                 }
                 
                 studentList.add(student);
             }
-            rs4.close();
-            ps4.close();
-            
-            long step7Time = System.currentTimeMillis() - step7Start;
             
-            long step8Start = System.currentTimeMillis();
             // Sort by WEIGHTED percentage (descending) and assign ranks
             studentList.sort((a, b) -> Double.compare(b.percentage, a.percentage));
             for (int i = 0; i < studentList.size(); i++) {
                 studentList.get(i).rank = i + 1;
             }
             
-            long step8Time = System.currentTimeMillis() - step8Start;
-            
             data.students = studentList;
             
-            long totalTime = System.currentTimeMillis() - startTime;
-            
         } catch (SQLException e) {
             e.printStackTrace();
-        } finally {
-            try {
-                if (conn != null) conn.close(); // CRITICAL: Return connection to pool!
-            } catch (SQLException e) {
-                e.printStackTrace();
-            }
         }
         
         return data;
     }
     
+    // Add one exam type with its configuration to a detailed subject (first definition wins)
+    private void addExamTypeConfig(SubjectInfoDetailed subInfo, String examName, int maxMarks, int weightage, int passingMarks) {
+        subInfo.addExamType(examName);
+        if (!subInfo.examTypeMaxMarks.containsKey(examName)) {
+            subInfo.examTypeMaxMarks.put(examName, maxMarks);
+            subInfo.examTypeWeightage.put(examName, weightage);
+            subInfo.examTypePassingMarks.put(examName, passingMarks);
+        }
+    }
+    
+    // Legacy fallback: exam types referenced from the old marks table (subjects without configured components only)
+    private void addLegacyMarksExamTypes(Connection conn, int sectionId, int subjectId, SubjectInfoDetailed subInfo) throws SQLException {
+        String examTypeQuery = 
+            "SELECT DISTINCT et.exam_name, et.max_marks, et.weightage, et.passing_marks " +
+            "FROM marks m " +
+            "JOIN exam_types et ON m.exam_type_id = et.id " +
+            "JOIN students s ON m.student_id = s.id " +
+            "WHERE m.subject_id = ? AND s.section_id = ? " +
+            "ORDER BY et.exam_name";
+        try (PreparedStatement ps = conn.prepareStatement(examTypeQuery)) {
+            ps.setInt(1, subjectId);
+            ps.setInt(2, sectionId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    String examName = rs.getString("exam_name");
+                    if (examName != null && !examName.trim().isEmpty()) {
+                        addExamTypeConfig(subInfo, examName, rs.getInt("max_marks"),
+                            rs.getInt("weightage"), rs.getInt("passing_marks"));
+                    }
+                }
+            }
+        }
+    }
+    
     /**
      * Fetch marks from entered_exam_marks table (for result launch).
      * This is used when launching results - reads manual entry marks.
@@ -3033,93 +2055,58 @@ public class AnalyzerDAO {
 
     /**
      * OPTIMIZED METHOD: Create detailed ranking data from existing analysis data
-     * This avoids expensive recalculation by reusing already computed percentages
+     * This avoids expensive recalculation by evaluating a single section snapshot in memory
      */
     public DetailedRankingData getDetailedStudentRankingFromAnalysisData(int sectionId, SectionAnalysisData analysisData, Map<String, Set<String>> selectedFilters) {
         DetailedRankingData data = new DetailedRankingData();
-        Connection conn = null;
         
         try {
-            conn = DatabaseConnection.getConnection();
-            
-            // STEP 1: Get subject information and exam types (same as main analysis)
-            String subjectsQuery = "SELECT DISTINCT ss.subject_id as id, sub.subject_name FROM section_subjects ss " +
-                                  "JOIN subjects sub ON ss.subject_id = sub.id " +
-                                  "WHERE ss.section_id = ? ORDER BY sub.subject_name";
-            PreparedStatement psSubjects = conn.prepareStatement(subjectsQuery);
-            psSubjects.setInt(1, sectionId);
-            ResultSet rsSubjects = psSubjects.executeQuery();
+            SectionMarksSnapshot snapshot = SectionMarksSnapshot.load(sectionId, com.sms.login.LoginScreen.currentUserId);
             
+            // STEP 1: Subject information and exam types (same as main analysis)
             List<SubjectInfoDetailed> subjects = new ArrayList<>();
-            while (rsSubjects.next()) {
-                int subjectId = rsSubjects.getInt("id");
-                String subjectName = rsSubjects.getString("subject_name");
+            List<Integer> subjectOrdinals = new ArrayList<>();
+            for (int subject = 0; subject < snapshot.getSubjectCount(); subject++) {
+                String subjectName = snapshot.getSubjectName(subject);
                 
                 // Apply filter
                 if (selectedFilters != null && !selectedFilters.isEmpty() && !selectedFilters.containsKey(subjectName)) {
                     continue;
                 }
-                
-                // Get exam types for this subject
-                List<ExamTypeConfig> examTypes = getExamTypesForSubject(sectionId, subjectId);
-                if (examTypes.isEmpty()) {
+                if (!snapshot.hasConfiguredExams(subject)) {
                     continue;
                 }
                 
-                SubjectInfoDetailed subject = new SubjectInfoDetailed();
-                subject.subjectName = subjectName;
-                subject.examTypes = new ArrayList<>();
-                subject.examTypeMaxMarks = new HashMap<>();
+                SubjectInfoDetailed subInfo = new SubjectInfoDetailed();
+                subInfo.subjectName = subjectName;
+                subInfo.examTypes = new ArrayList<>();
+                subInfo.examTypeMaxMarks = new HashMap<>();
                 
+                Set<String> examFilter = (selectedFilters != null) ? selectedFilters.get(subjectName) : null;
                 int totalWeightage = 0;
-                for (ExamTypeConfig examType : examTypes) {
-                    // Apply exam type filter if needed
-                    Set<String> examFilter = (selectedFilters != null) ? selectedFilters.get(subjectName) : null;
+                for (ExamTypeConfig examType : snapshot.getExamTypeConfigs(subject)) {
                     if (examFilter != null && !examFilter.contains(examType.examName)) {
                         continue;
                     }
-                    
-                    subject.examTypes.add(examType.examName);
-                    subject.examTypeMaxMarks.put(examType.examName, examType.maxMarks);
+                    subInfo.examTypes.add(examType.examName);
+                    subInfo.examTypeMaxMarks.put(examType.examName, examType.maxMarks);
                     totalWeightage += examType.weightage;
                 }
-                subject.maxMarks = totalWeightage; // Sum of weightages (should be 100)
-                subjects.add(subject);
+                subInfo.maxMarks = totalWeightage; // Sum of weightages (should be 100)
+                subjects.add(subInfo);
+                subjectOrdinals.add(subject);
             }
-            rsSubjects.close();
-            psSubjects.close();
             data.subjects = subjects;
             
-            // STEP 2: Get ALL students and use existing batch calculated percentages
+            // STEP 2: All students with batch percentages
+            double[] percentages = snapshot.overallPercentages(selectedFilters);
             List<StudentRankingDetail> studentList = new ArrayList<>();
             
-            // Use the batch percentages already calculated in the analysis
-            // First, get all student IDs and details
-            String allStudentsQuery = "SELECT s.id, s.roll_number, s.student_name " +
-                                    "FROM students s " +
-                                    "WHERE s.section_id = ? AND s.created_by = ? " +
-                                    "ORDER BY s.roll_number";
-            PreparedStatement psAllStudents = conn.prepareStatement(allStudentsQuery);
-            psAllStudents.setInt(1, sectionId);
-            psAllStudents.setInt(2, com.sms.login.LoginScreen.currentUserId);
-            ResultSet rsAllStudents = psAllStudents.executeQuery();
-            
-            // Get the batch percentages from the already calculated data in analysisData
-            // We'll recalculate batch for ALL students (not just top 5)
-            Map<Integer, Double> allBatchPercentages = calculateAllStudentPercentagesBatch(sectionId, com.sms.login.LoginScreen.currentUserId, selectedFilters);
-            
-            while (rsAllStudents.next()) {
-                int studentId = rsAllStudents.getInt("id");
-                String rollNumber = rsAllStudents.getString("roll_number");
-                String studentName = rsAllStudents.getString("student_name");
-                
+            for (int studentOrdinal = 0; studentOrdinal < snapshot.getStudentCount(); studentOrdinal++) {
                 StudentRankingDetail student = new StudentRankingDetail();
-                student.rollNumber = rollNumber;
-                student.studentName = studentName;
-                
-                // Get percentage from batch calculation
-                Double percentage = allBatchPercentages.get(studentId);
-                student.percentage = percentage != null ? Math.abs(percentage) : 0.0;
+                student.rollNumber = snapshot.getRollNumber(studentOrdinal);
+                student.studentName = snapshot.getStudentName(studentOrdinal);
+                student.percentage = Math.abs(percentages[studentOrdinal]);
                 
                 // Calculate grade and CGPA
                 if (student.percentage >= 90) {
@@ -3138,54 +2125,37 @@ public class AnalyzerDAO {
                 
                 student.cgpa = student.percentage >= 50 ? student.percentage / 10.0 : 0.0;
                 
-                // STEP 3: Get detailed subject marks and totals for this student
+                // STEP 3: Detailed subject marks and totals for this student
                 student.subjectMarks = new HashMap<>();
                 student.subjectTotals = new HashMap<>();
                 
                 double totalWeightedMarks = 0.0;
-                
-                // For each subject, use the SAME calculation method as everywhere else
-                for (SubjectInfoDetailed subject : subjects) {
-                    // Get exam types filter for this subject
-                    Set<String> examTypesFilter = (selectedFilters != null) ? selectedFilters.get(subject.subjectName) : null;
+                for (int i = 0; i < subjects.size(); i++) {
+                    SubjectInfoDetailed subInfo = subjects.get(i);
+                    int subject = subjectOrdinals.get(i);
                     
-                    // Use the standard calculation method for consistency
-                    SubjectPassResult result = calculateWeightedSubjectTotalWithPass(studentId, sectionId, subject.subjectName, examTypesFilter);
-                    double weightedTotal = Math.abs(result.percentage);
+                    Set<String> examTypesFilter = (selectedFilters != null) ? selectedFilters.get(subInfo.subjectName) : null;
+                    double weightedTotal = Math.abs(snapshot.subjectResult(studentOrdinal, subject, examTypesFilter).percentage);
                     
-                    // Get exam marks for display
+                    // Exam marks for display
                     Map<String, Double> examMarks = new HashMap<>();
-                    String marksQuery = "SELECT et.exam_name, sm.marks_obtained " +
-                                      "FROM entered_exam_marks sm " +
-                                      "INNER JOIN exam_types et ON sm.exam_type_id = et.id " +
-                                      "WHERE sm.student_id = ? AND sm.subject_id = ?";
-                    PreparedStatement psMarks = conn.prepareStatement(marksQuery);
-                    psMarks.setInt(1, studentId);
-                    psMarks.setInt(2, getSubjectId(sectionId, subject.subjectName));
-                    ResultSet rsMarks = psMarks.executeQuery();
-                    
-                    while (rsMarks.next()) {
-                        examMarks.put(rsMarks.getString("exam_name"), (double) rsMarks.getInt("marks_obtained"));
+                    for (int slot = snapshot.examStart(subject); slot < snapshot.examEnd(subject); slot++) {
+                        if (snapshot.hasMark(studentOrdinal, slot)) {
+                            examMarks.put(snapshot.getExamName(slot), snapshot.getMark(studentOrdinal, slot));
+                        }
                     }
-                    rsMarks.close();
-                    psMarks.close();
                     
-                    student.subjectMarks.put(subject.subjectName, examMarks);
-                    student.subjectTotals.put(subject.subjectName, weightedTotal);
+                    student.subjectMarks.put(subInfo.subjectName, examMarks);
+                    student.subjectTotals.put(subInfo.subjectName, weightedTotal);
                     totalWeightedMarks += weightedTotal;
                 }
                 
                 student.totalMarks = totalWeightedMarks;
-                
                 studentList.add(student);
             }
-            rsAllStudents.close();
-            psAllStudents.close();
             
             // STEP 4: Sort students by percentage (highest first) and assign proper ranks
             studentList.sort((s1, s2) -> Double.compare(s2.percentage, s1.percentage));
-            
-            // Assign ranks
             for (int i = 0; i < studentList.size(); i++) {
                 studentList.get(i).rank = i + 1;
             }
@@ -3194,39 +2164,8 @@ public class AnalyzerDAO {
             
         } catch (SQLException e) {
             e.printStackTrace();
-        } finally {
-            try {
-                if (conn != null) conn.close();
-            } catch (SQLException e) {
-                e.printStackTrace();
-            }
         }
         
         return data;
     }
-    
-    // Helper method to get subject ID by name
-    private int getSubjectId(int sectionId, String subjectName) throws SQLException {
-        Connection conn = null;
-        try {
-            conn = DatabaseConnection.getConnection();
-            String query = "SELECT ss.subject_id FROM section_subjects ss " +
-                          "JOIN subjects sub ON ss.subject_id = sub.id " +
-                          "WHERE ss.section_id = ? AND sub.subject_name = ?";
-            PreparedStatement ps = conn.prepareStatement(query);
-            ps.setInt(1, sectionId);
-            ps.setString(2, subjectName);
-            ResultSet rs = ps.executeQuery();
-            
-            int subjectId = -1;
-            if (rs.next()) {
-                subjectId = rs.getInt("subject_id");
-            }
-            rs.close();
-            ps.close();
-            return subjectId;
-        } finally {
-            if (conn != null) conn.close();
-        }
-    }
 }
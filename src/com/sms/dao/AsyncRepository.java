@@ -0,0 +1,114 @@
+package com.sms.dao;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import javax.swing.SwingUtilities;
+import com.sms.dao.DataChangeTracker.SectionVersion;
+import com.sms.util.BackgroundTask;
+
+/**
+ * Asynchronous facade over the DAOs for UI code.
+ *
+ * PERFORMANCE: Swing panels must not query MySQL on the event dispatch thread - every
+ * round trip to the remote database freezes the UI. Reads go through this class instead:
+ * the DAO call runs on the INTERACTIVE lane of BackgroundTask (BG_INTERACTIVE_THREADS
+ * threads, default 4, so UI reads cannot exhaust the connection pool) and the result
+ * comes back as a CompletableFuture. Continue on the EDT with the {@link #EDT} executor:
+ * <pre>
+ * AsyncRepository.sectionsByUser(userId)
+ *     .thenAcceptAsync(sections -> panel.show(sections), AsyncRepository.EDT)
+ *     .exceptionally(AsyncRepository.logFailure("Loading sections"));
+ * </pre>
+ *
+ * Calls that are not covered by a typed method use {@link #supply} / {@link #run}.
+ * Run with DEBUG_EDT_JDBC=true to find JDBC calls that still happen on the EDT
+ * (see EdtJdbcWatchdog).
+ *
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public final class AsyncRepository {
+
+    /**
+     * Database work that may throw.
+     */
+    @FunctionalInterface
+    public interface DataTask<T> {
+        T call() throws Exception;
+    }
+
+    /**
+     * Database work without a result.
+     */
+    @FunctionalInterface
+    public interface DataAction {
+        void run() throws Exception;
+    }
+
+    /**
+     * Runs continuations on the Swing event dispatch thread.
+     */
+    public static final Executor EDT = SwingUtilities::invokeLater;
+
+    private AsyncRepository() {
+    }
+
+    /**
+     * Run a read on the INTERACTIVE lane. Exceptions complete the future exceptionally;
+     * cancel(true) drops the read if it is still queued.
+     */
+    public static <T> CompletableFuture<T> supply(DataTask<T> task) {
+        return BackgroundTask.submit(BackgroundTask.Lane.INTERACTIVE, null, "AsyncRepository read", task::call);
+    }
+
+    public static CompletableFuture<Void> run(DataAction action) {
+        return supply(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * exceptionally() handler that logs the failure (unwrapped) and yields null.
+     */
+    public static <T> java.util.function.Function<Throwable, T> logFailure(String operation) {
+        return failure -> {
+            Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                ? failure.getCause() : failure;
+            System.err.println(operation + " failed: " + cause.getMessage());
+            cause.printStackTrace();
+            return null;
+        };
+    }
+
+    // ========== Typed reads used by the UI ==========
+
+    public static CompletableFuture<List<SectionDAO.SectionInfo>> sectionsByUser(int userId) {
+        return supply(() -> new SectionDAO().getSectionsByUser(userId));
+    }
+
+    public static CompletableFuture<List<SectionDAO.SubjectInfo>> sectionSubjects(int sectionId) {
+        return supply(() -> new SectionDAO().getSectionSubjects(sectionId));
+    }
+
+    public static CompletableFuture<AnalyzerDAO.SectionAnalysisData> sectionAnalysis(
+            int sectionId, int userId, Map<String, Set<String>> selectedFilters) {
+        return supply(() -> new AnalyzerDAO().getSectionAnalysisWithFilters(sectionId, userId, selectedFilters));
+    }
+
+    public static CompletableFuture<SectionConfigCache.SectionConfig> sectionConfig(int sectionId) {
+        return supply(() -> SectionConfigCache.get(sectionId));
+    }
+
+    public static CompletableFuture<Map<Integer, SectionVersion>> sectionVersions(int userId) {
+        return supply(() -> DataChangeTracker.loadVersions(userId));
+    }
+
+    public static String getStats() {
+        return "AsyncRepository: " + BackgroundTask.getLaneStats(BackgroundTask.Lane.INTERACTIVE);
+    }
+}
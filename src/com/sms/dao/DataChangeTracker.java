@@ -0,0 +1,255 @@
+package com.sms.dao;
+
+import java.sql.*;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import com.sms.database.DatabaseConnection;
+
+/**
+ * Change tracking for section data (marks, students, section configuration).
+ *
+ * Two sources of change information:
+ * - In-app events: the mark and student writers call {@link #publish} (or
+ *   {@link #recordChange} + {@link #fireChanged} around their own transaction) and
+ *   registered {@link Listener}s are told which section changed, immediately.
+ * - A per-section watermark in the section_versions table: every recorded change
+ *   bumps the version of its kind, so other application instances (another teacher's
+ *   laptop on the same database) find changed sections with one small query
+ *   ({@link #loadVersions}) instead of reloading everything.
+ *
+ * PERFORMANCE: the dashboard compares watermarks and refetches only the sections and
+ * metrics whose version moved, instead of a full reload every 30 seconds.
+ *
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public final class DataChangeTracker {
+
+    /**
+     * What changed in a section.
+     */
+    public enum ChangeType {
+        MARKS("marks_version"),
+        STUDENTS("students_version"),
+        SECTION("config_version");
+
+        private final String column;
+
+        ChangeType(String column) {
+            this.column = column;
+        }
+    }
+
+    /**
+     * Notified after a change was committed. Called on the thread that made the change
+     * (often a worker thread) - listeners that touch Swing must hop to the EDT.
+     */
+    public interface Listener {
+        void sectionChanged(int sectionId, ChangeType type);
+
+        /**
+         * Same change, with the students it touched when the writer knows them
+         * (null = unknown or the whole section). Override for per-student updates.
+         */
+        default void sectionChanged(int sectionId, ChangeType type, Collection<Integer> studentIds) {
+            sectionChanged(sectionId, type);
+        }
+    }
+
+    /**
+     * Watermark of one section as stored in section_versions.
+     */
+    public static final class SectionVersion {
+        public final int sectionId;
+        public final long marksVersion;
+        public final long studentsVersion;
+        public final long configVersion;
+
+        public SectionVersion(int sectionId, long marksVersion, long studentsVersion, long configVersion) {
+            this.sectionId = sectionId;
+            this.marksVersion = marksVersion;
+            this.studentsVersion = studentsVersion;
+            this.configVersion = configVersion;
+        }
+
+        /**
+         * Kinds of change between an older watermark and this one (all kinds if older is null).
+         */
+        public Set<ChangeType> changesSince(SectionVersion older) {
+            Set<ChangeType> changes = new LinkedHashSet<>();
+            if (older == null || marksVersion != older.marksVersion) changes.add(ChangeType.MARKS);
+            if (older == null || studentsVersion != older.studentsVersion) changes.add(ChangeType.STUDENTS);
+            if (older == null || configVersion != older.configVersion) changes.add(ChangeType.SECTION);
+            return changes;
+        }
+    }
+
+    private static final CopyOnWriteArrayList<Listener> listeners = new CopyOnWriteArrayList<>();
+    private static volatile boolean tableReady = false;
+
+    private DataChangeTracker() {
+    }
+
+    public static void addListener(Listener listener) {
+        listeners.addIfAbsent(listener);
+    }
+
+    public static void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Create the section_versions table if it does not exist yet.
+     * Uses its own connection - DDL causes an implicit commit in MySQL.
+     */
+    public static void ensureTable() {
+        if (tableReady) {
+            return;
+        }
+        synchronized (DataChangeTracker.class) {
+            if (tableReady) {
+                return;
+            }
+            String createTable = "CREATE TABLE IF NOT EXISTS section_versions (" +
+                "section_id INT PRIMARY KEY, " +
+                "marks_version BIGINT NOT NULL DEFAULT 0, " +
+                "students_version BIGINT NOT NULL DEFAULT 0, " +
+                "config_version BIGINT NOT NULL DEFAULT 0, " +
+                "updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP" +
+                ")";
+
+            try (Connection conn = DatabaseConnection.getConnection();
+                 Statement stmt = conn.createStatement()) {
+                stmt.executeUpdate(createTable);
+                tableReady = true;
+            } catch (SQLException e) {
+                System.err.println("Error creating section_versions table: " + e.getMessage());
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Record a committed change: bump the watermark and notify listeners.
+     * A failed watermark update is logged; local listeners are notified regardless.
+     */
+    public static void publish(int sectionId, ChangeType type) {
+        if (sectionId <= 0) {
+            return;
+        }
+        ensureTable();
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            recordChange(conn, sectionId, type);
+        } catch (SQLException e) {
+            System.err.println("Error updating section version for section " + sectionId + ": " + e.getMessage());
+        }
+        fireChanged(sectionId, type);
+    }
+
+    /**
+     * Publish the same change for several sections.
+     */
+    public static void publish(Collection<Integer> sectionIds, ChangeType type) {
+        for (int sectionId : new LinkedHashSet<>(sectionIds)) {
+            publish(sectionId, type);
+        }
+    }
+
+    /**
+     * Bump the watermark with the caller's connection, so it commits (or rolls back)
+     * with the change itself. Call {@link #fireChanged} after the commit.
+     * {@link #ensureTable} must have run before the caller's transaction started.
+     */
+    public static void recordChange(Connection conn, int sectionId, ChangeType type) throws SQLException {
+        if (sectionId <= 0) {
+            return;
+        }
+        String upsert = "INSERT INTO section_versions (section_id, " + type.column + ") VALUES (?, 1) " +
+                        "ON DUPLICATE KEY UPDATE " + type.column + " = " + type.column + " + 1";
+        try (PreparedStatement ps = conn.prepareStatement(upsert)) {
+            ps.setInt(1, sectionId);
+            ps.executeUpdate();
+        }
+    }
+
+    /**
+     * Notify in-app listeners of a change that is already committed.
+     */
+    public static void fireChanged(int sectionId, ChangeType type) {
+        fireChanged(sectionId, type, null);
+    }
+
+    /**
+     * Notify in-app listeners of a committed change to the given students of a section.
+     */
+    public static void fireChanged(int sectionId, ChangeType type, Collection<Integer> studentIds) {
+        if (sectionId <= 0) {
+            return;
+        }
+        for (Listener listener : listeners) {
+            try {
+                listener.sectionChanged(sectionId, type, studentIds);
+            } catch (RuntimeException e) {
+                System.err.println("Change listener failed: " + e.getMessage());
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Watermark of one section, read on the caller's connection (inside a transaction
+     * it is consistent with the caller's other reads). Never-changed sections have version 0.
+     */
+    public static SectionVersion loadVersion(Connection conn, int sectionId) throws SQLException {
+        ensureTable();
+        String query = "SELECT marks_version, students_version, config_version " +
+                       "FROM section_versions WHERE section_id = ?";
+        try (PreparedStatement ps = conn.prepareStatement(query)) {
+            ps.setInt(1, sectionId);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    return new SectionVersion(sectionId,
+                        rs.getLong("marks_version"),
+                        rs.getLong("students_version"),
+                        rs.getLong("config_version"));
+                }
+            }
+        }
+        return new SectionVersion(sectionId, 0, 0, 0);
+    }
+
+    /**
+     * Watermarks of all sections of a user, in one query.
+     * Sections that were never changed through the tracker have version 0.
+     */
+    public static Map<Integer, SectionVersion> loadVersions(int userId) throws SQLException {
+        ensureTable();
+        String query = "SELECT sec.id, " +
+                       "COALESCE(v.marks_version, 0) AS marks_version, " +
+                       "COALESCE(v.students_version, 0) AS students_version, " +
+                       "COALESCE(v.config_version, 0) AS config_version " +
+                       "FROM sections sec " +
+                       "LEFT JOIN section_versions v ON v.section_id = sec.id " +
+                       "WHERE sec.created_by = ?";
+
+        Map<Integer, SectionVersion> versions = new LinkedHashMap<>();
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(query)) {
+            ps.setInt(1, userId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    int sectionId = rs.getInt("id");
+                    versions.put(sectionId, new SectionVersion(sectionId,
+                        rs.getLong("marks_version"),
+                        rs.getLong("students_version"),
+                        rs.getLong("config_version")));
+                }
+            }
+        }
+        return versions;
+    }
+}
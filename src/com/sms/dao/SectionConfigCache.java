@@ -0,0 +1,369 @@
+package com.sms.dao;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import com.sms.dao.AnalyzerDAO.ExamTypeConfig;
+import com.sms.database.DatabaseConnection;
+import com.sms.util.ConfigLoader;
+
+/**
+ * Process-wide cache of section reference data, keyed by section id:
+ * - section_subjects (+ subjects): subject id, name, max marks, passing marks, credit
+ * - subject_exam_types (+ exam_types): exam type configs per subject
+ * - exam_types by name for the section
+ *
+ * PERFORMANCE OPTIMIZATION:
+ * AnalyzerDAO helpers (getExamTypesForSubject, getSubjectsForSection, getMaxMarksForSubject, ...)
+ * used to query this configuration again for every student and subject. It changes only
+ * when a section is edited, so it is loaded once per section (one connection, 3 queries)
+ * and served from memory afterwards.
+ *
+ * - Bounded LRU (SECTION_CONFIG_CACHE_SIZE sections, default 64) with size-based eviction
+ * - Explicit invalidation from the section editors (CreateSectionDialog, CreateSectionPanel),
+ *   SectionDAO, SectionEditDAO and MarkingSchemeDAO
+ * - Hit/miss/eviction counters via getStats(), printed at shutdown
+ *
+ * Cached objects are shared and must be treated as read-only; the AnalyzerDAO
+ * methods hand out copies.
+ *
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public final class SectionConfigCache {
+
+    private static final int MAX_SECTIONS = Math.max(1, ConfigLoader.getInt("SECTION_CONFIG_CACHE_SIZE", 64));
+    private static final int MAX_STUDENTS = 20000;
+
+    /**
+     * One section_subjects row.
+     */
+    public static final class SubjectEntry {
+        public final int subjectId;
+        public final String subjectName;
+        public final int maxMarks;
+        public final int passingMarks;
+        public final int credit;
+
+        SubjectEntry(int subjectId, String subjectName, int maxMarks, int passingMarks, int credit) {
+            this.subjectId = subjectId;
+            this.subjectName = subjectName;
+            this.maxMarks = maxMarks;
+            this.passingMarks = passingMarks;
+            this.credit = credit;
+        }
+    }
+
+    /**
+     * Immutable reference data of one section.
+     */
+    public static final class SectionConfig {
+        private final int sectionId;
+        private final List<SubjectEntry> subjects;
+        private final List<AnalyzerDAO.SubjectInfo> legacySubjects;
+        private final Map<String, SubjectEntry> subjectsByName;
+        private final Map<Integer, List<ExamTypeConfig>> examTypesBySubject;
+        private final Map<String, ExamTypeConfig> examTypesByName;
+
+        private SectionConfig(int sectionId, List<SubjectEntry> subjects, List<AnalyzerDAO.SubjectInfo> legacySubjects,
+                              Map<Integer, List<ExamTypeConfig>> examTypesBySubject,
+                              Map<String, ExamTypeConfig> examTypesByName) {
+            this.sectionId = sectionId;
+            this.subjects = Collections.unmodifiableList(subjects);
+            this.legacySubjects = Collections.unmodifiableList(legacySubjects);
+            this.examTypesBySubject = examTypesBySubject;
+            this.examTypesByName = examTypesByName;
+
+            Map<String, SubjectEntry> byName = new HashMap<>();
+            for (SubjectEntry subject : subjects) {
+                byName.putIfAbsent(subject.subjectName, subject);
+            }
+            this.subjectsByName = byName;
+        }
+
+        public int getSectionId() {
+            return sectionId;
+        }
+
+        /** section_subjects rows ordered by subject name. */
+        public List<SubjectEntry> getSubjects() {
+            return subjects;
+        }
+
+        /** Subjects linked only through marking_schemes (old system); empty when section_subjects has rows. */
+        public List<AnalyzerDAO.SubjectInfo> getLegacySubjects() {
+            return legacySubjects;
+        }
+
+        public SubjectEntry getSubject(String subjectName) {
+            return subjectsByName.get(subjectName);
+        }
+
+        /** Exam types linked to the subject via subject_exam_types, ordered by exam name. */
+        public List<ExamTypeConfig> getExamTypes(int subjectId) {
+            List<ExamTypeConfig> examTypes = examTypesBySubject.get(subjectId);
+            return examTypes != null ? examTypes : Collections.emptyList();
+        }
+
+        /** exam_types row of this section with the given name. */
+        public ExamTypeConfig getExamType(String examName) {
+            return examTypesByName.get(examName);
+        }
+    }
+
+    // Access-ordered for LRU eviction; guarded by LOCK
+    private static final Object LOCK = new Object();
+    private static final LinkedHashMap<Integer, SectionConfig> sections =
+        new LinkedHashMap<Integer, SectionConfig>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, SectionConfig> eldest) {
+                if (size() > MAX_SECTIONS) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    // Students never change section, so this mapping only needs removal on delete
+    private static final LinkedHashMap<Integer, Integer> studentSections =
+        new LinkedHashMap<Integer, Integer>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Integer> eldest) {
+                return size() > MAX_STUDENTS;
+            }
+        };
+
+    private static final AtomicLong hits = new AtomicLong();
+    private static final AtomicLong misses = new AtomicLong();
+    private static final AtomicLong evictions = new AtomicLong();
+    private static final AtomicLong invalidations = new AtomicLong();
+    // Bumped on every invalidation so a load that raced with an edit is not cached
+    private static final AtomicLong generation = new AtomicLong();
+
+    private SectionConfigCache() {
+    }
+
+    /**
+     * Get the configuration of a section, loading it with its own connection on a miss.
+     */
+    public static SectionConfig get(int sectionId) throws SQLException {
+        SectionConfig cached = lookup(sectionId);
+        if (cached != null) {
+            return cached;
+        }
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            return loadAndStore(conn, sectionId);
+        }
+    }
+
+    /**
+     * Get the configuration of a section, loading it with the caller's connection on a miss.
+     */
+    public static SectionConfig get(Connection conn, int sectionId) throws SQLException {
+        SectionConfig cached = lookup(sectionId);
+        return cached != null ? cached : loadAndStore(conn, sectionId);
+    }
+
+    /**
+     * Section of a student (0 if the student does not exist).
+     */
+    public static int getSectionIdForStudent(int studentId) throws SQLException {
+        synchronized (LOCK) {
+            Integer sectionId = studentSections.get(studentId);
+            if (sectionId != null) {
+                return sectionId;
+            }
+        }
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement("SELECT section_id FROM students WHERE id = ?")) {
+            ps.setInt(1, studentId);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) {
+                    return 0;
+                }
+                int sectionId = rs.getInt("section_id");
+                synchronized (LOCK) {
+                    studentSections.put(studentId, sectionId);
+                }
+                return sectionId;
+            }
+        }
+    }
+
+    /**
+     * Drop a section after its subjects or exam patterns were edited or it was deleted.
+     */
+    public static void invalidate(int sectionId) {
+        generation.incrementAndGet();
+        synchronized (LOCK) {
+            if (sections.remove(sectionId) != null) {
+                invalidations.incrementAndGet();
+            }
+            // Students of a deleted section are deleted with it
+            studentSections.values().removeIf(id -> id == sectionId);
+        }
+    }
+
+    public static void invalidateStudent(int studentId) {
+        synchronized (LOCK) {
+            studentSections.remove(studentId);
+        }
+    }
+
+    public static void invalidateAll() {
+        generation.incrementAndGet();
+        synchronized (LOCK) {
+            invalidations.addAndGet(sections.size());
+            sections.clear();
+            studentSections.clear();
+        }
+    }
+
+    public static long getHitCount() {
+        return hits.get();
+    }
+
+    public static long getMissCount() {
+        return misses.get();
+    }
+
+    public static long getEvictionCount() {
+        return evictions.get();
+    }
+
+    public static double getHitRatio() {
+        long total = hits.get() + misses.get();
+        return total > 0 ? (double) hits.get() / total : 0.0;
+    }
+
+    public static String getStats() {
+        int size;
+        synchronized (LOCK) {
+            size = sections.size();
+        }
+        return String.format("SectionConfigCache: %d/%d sections, hits=%d, misses=%d (%.1f%% hit), evictions=%d, invalidations=%d",
+            size, MAX_SECTIONS, hits.get(), misses.get(), getHitRatio() * 100, evictions.get(), invalidations.get());
+    }
+
+    private static SectionConfig lookup(int sectionId) {
+        synchronized (LOCK) {
+            SectionConfig cached = sections.get(sectionId);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return cached;
+            }
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    private static SectionConfig loadAndStore(Connection conn, int sectionId) throws SQLException {
+        long generationAtLoad = generation.get();
+        SectionConfig loaded = load(conn, sectionId);
+        synchronized (LOCK) {
+            if (generation.get() == generationAtLoad) {
+                SectionConfig existing = sections.putIfAbsent(sectionId, loaded);
+                if (existing != null) {
+                    return existing;
+                }
+            }
+        }
+        return loaded;
+    }
+
+    private static SectionConfig load(Connection conn, int sectionId) throws SQLException {
+        // 1. Subjects with max/passing marks and credit
+        List<SubjectEntry> subjects = new ArrayList<>();
+        String subjectQuery = "SELECT sub.id, sub.subject_name, ss.max_marks, ss.passing_marks, ss.credit " +
+                             "FROM section_subjects ss " +
+                             "JOIN subjects sub ON ss.subject_id = sub.id " +
+                             "WHERE ss.section_id = ? " +
+                             "ORDER BY sub.subject_name, sub.id";
+        try (PreparedStatement ps = conn.prepareStatement(subjectQuery)) {
+            ps.setInt(1, sectionId);
+            try (ResultSet rs = ps.executeQuery()) {
+                int lastId = -1;
+                while (rs.next()) {
+                    int subjectId = rs.getInt("id");
+                    if (subjectId == lastId) {
+                        continue; // duplicate mapping rows
+                    }
+                    lastId = subjectId;
+                    subjects.add(new SubjectEntry(subjectId, rs.getString("subject_name"),
+                        rs.getInt("max_marks"), rs.getInt("passing_marks"), rs.getInt("credit")));
+                }
+            }
+        }
+
+        // 1b. Old system (marking_schemes) - only consulted when section_subjects is empty
+        List<AnalyzerDAO.SubjectInfo> legacySubjects = new ArrayList<>();
+        if (subjects.isEmpty()) {
+            String legacyQuery = "SELECT DISTINCT s.id, s.subject_name " +
+                                "FROM subjects s " +
+                                "JOIN marking_schemes ms ON s.id = ms.subject_id " +
+                                "WHERE ms.section_id = ? " +
+                                "ORDER BY s.subject_name";
+            try (PreparedStatement ps = conn.prepareStatement(legacyQuery)) {
+                ps.setInt(1, sectionId);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        legacySubjects.add(new AnalyzerDAO.SubjectInfo(rs.getInt("id"), rs.getString("subject_name")));
+                    }
+                }
+            } catch (SQLException e) {
+                System.err.println("Legacy marking_schemes lookup failed: " + e.getMessage());
+            }
+        }
+
+        // 2. Exam types linked per subject
+        Map<Integer, List<ExamTypeConfig>> examTypesBySubject = new HashMap<>();
+        String linkedQuery = "SELECT set_tbl.subject_id, et.id, et.exam_name, et.max_marks, et.weightage, et.passing_marks " +
+                            "FROM exam_types et " +
+                            "INNER JOIN subject_exam_types set_tbl ON et.id = set_tbl.exam_type_id " +
+                            "WHERE set_tbl.section_id = ? " +
+                            "ORDER BY set_tbl.subject_id, et.exam_name";
+        try (PreparedStatement ps = conn.prepareStatement(linkedQuery)) {
+            ps.setInt(1, sectionId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    examTypesBySubject.computeIfAbsent(rs.getInt("subject_id"), k -> new ArrayList<>())
+                        .add(readExamType(rs));
+                }
+            }
+        }
+        for (Map.Entry<Integer, List<ExamTypeConfig>> entry : examTypesBySubject.entrySet()) {
+            entry.setValue(Collections.unmodifiableList(entry.getValue()));
+        }
+
+        // 3. All exam types of the section by name (first row wins, like the old single-row lookup)
+        Map<String, ExamTypeConfig> examTypesByName = new HashMap<>();
+        String examQuery = "SELECT id, exam_name, max_marks, weightage, passing_marks " +
+                          "FROM exam_types WHERE section_id = ? ORDER BY id";
+        try (PreparedStatement ps = conn.prepareStatement(examQuery)) {
+            ps.setInt(1, sectionId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    ExamTypeConfig config = readExamType(rs);
+                    examTypesByName.putIfAbsent(config.examName, config);
+                }
+            }
+        }
+
+        return new SectionConfig(sectionId, subjects, legacySubjects, examTypesBySubject, examTypesByName);
+    }
+
+    private static ExamTypeConfig readExamType(ResultSet rs) throws SQLException {
+        return new ExamTypeConfig(
+            rs.getInt("id"),
+            rs.getString("exam_name"),
+            rs.getInt("max_marks"),
+            rs.getInt("weightage"),
+            rs.getInt("passing_marks")
+        );
+    }
+}
@@ -2,6 +2,7 @@ package com.sms.dao;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -334,6 +335,8 @@ public class SectionDAO {
             Map<String, List<MarkDistribution>> distributions,
             int totalStudents, 
             int userId) {
+        DataChangeTracker.ensureTable();
+        
         Connection conn = null;
         PreparedStatement ps = null;
         ResultSet rs = null;
@@ -453,7 +456,9 @@ public class SectionDAO {
             ps.executeBatch();
             ps.close();
             
+            DataChangeTracker.recordChange(conn, sectionId, DataChangeTracker.ChangeType.SECTION);
             conn.commit();
+            DataChangeTracker.fireChanged(sectionId, DataChangeTracker.ChangeType.SECTION);
             System.out.println("Section created successfully with " + examTypeIds.size() + " exam types");
             return true;
             
@@ -585,6 +590,8 @@ public class SectionDAO {
             Map<String, MarkingScheme> markingSchemes,
             int totalStudents, 
             int userId) throws SQLException {
+        DataChangeTracker.ensureTable();
+        
         Connection conn = null;
         PreparedStatement pstmt = null;
         ResultSet rs = null;
@@ -747,7 +754,9 @@ public class SectionDAO {
             pstmt.executeBatch();
             pstmt.close();
             
+            DataChangeTracker.recordChange(conn, sectionId, DataChangeTracker.ChangeType.SECTION);
             conn.commit();
+            DataChangeTracker.fireChanged(sectionId, DataChangeTracker.ChangeType.SECTION);
             System.out.println("Section created with " + uniqueComponents.size() + " exam types from flexible components");
             return sectionId;
             
@@ -874,6 +883,47 @@ public class SectionDAO {
         return sections;
     }
     
+    // Reload only the given sections of a user (incremental dashboard refresh)
+    public List<SectionInfo> getSectionsByIds(int userId, Collection<Integer> sectionIds) {
+        List<SectionInfo> sections = new ArrayList<>();
+        if (sectionIds.isEmpty()) {
+            return sections;
+        }
+        
+        StringBuilder placeholders = new StringBuilder();
+        for (int i = 0; i < sectionIds.size(); i++) {
+            placeholders.append(i == 0 ? "?" : ", ?");
+        }
+        String query = "SELECT id, section_name, total_students, COALESCE(academic_year, 0) as academic_year, COALESCE(semester, 0) as semester " +
+                      "FROM sections WHERE created_by = ? AND id IN (" + placeholders + ") " +
+                      "ORDER BY academic_year DESC, semester, section_name";
+        
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            try (PreparedStatement ps = conn.prepareStatement(query)) {
+                int index = 1;
+                ps.setInt(index++, userId);
+                for (int sectionId : sectionIds) {
+                    ps.setInt(index++, sectionId);
+                }
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        sections.add(new SectionInfo(rs.getInt("id"), rs.getString("section_name"),
+                            rs.getInt("total_students"), rs.getInt("academic_year"), rs.getInt("semester")));
+                    }
+                }
+            }
+            
+            for (SectionInfo section : sections) {
+                section.subjects = getSubjectsForSection(conn, section.id);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error in getSectionsByIds: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        return sections;
+    }
+    
     // Helper method to get subjects for a section
     private List<SubjectInfo> getSubjectsForSection(Connection conn, int sectionId) {
         List<SubjectInfo> subjects = new ArrayList<>();
@@ -939,6 +989,8 @@ public class SectionDAO {
     }
     
     public boolean deleteSection(int sectionId, int userId) {
+        DataChangeTracker.ensureTable();
+        
         Connection conn = null;
         PreparedStatement ps = null;
         ResultSet rs = null;
@@ -1012,7 +1064,10 @@ public class SectionDAO {
             ps.setInt(2, userId);
             int rowsAffected = ps.executeUpdate();
             
+            DataChangeTracker.recordChange(conn, sectionId, DataChangeTracker.ChangeType.SECTION);
             conn.commit();
+            SectionConfigCache.invalidate(sectionId);
+            DataChangeTracker.fireChanged(sectionId, DataChangeTracker.ChangeType.SECTION);
             return rowsAffected > 0;
             
         } catch (SQLException e) {
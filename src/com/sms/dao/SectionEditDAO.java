@@ -15,6 +15,8 @@ public class SectionEditDAO {
      * @return true if successful, false otherwise
      */
     public boolean deleteSection(int sectionId, int userId) {
+        DataChangeTracker.ensureTable();
+        
         Connection conn = null;
         PreparedStatement ps = null;
         
@@ -81,7 +83,10 @@ public class SectionEditDAO {
             ps.executeUpdate();
             ps.close();
             
+            DataChangeTracker.recordChange(conn, sectionId, DataChangeTracker.ChangeType.SECTION);
             conn.commit();
+            SectionConfigCache.invalidate(sectionId);
+            DataChangeTracker.fireChanged(sectionId, DataChangeTracker.ChangeType.SECTION);
             System.out.println("Section deleted successfully: " + sectionId);
             return true;
             
@@ -0,0 +1,595 @@
+package com.sms.dao;
+
+import java.sql.*;
+import java.util.*;
+
+import com.sms.database.DatabaseConnection;
+import com.sms.dao.AnalyzerDAO.ExamTypeConfig;
+import com.sms.dao.AnalyzerDAO.SubjectPassResult;
+
+/**
+ * Columnar in-memory snapshot of one section's marks.
+ *
+ * PERFORMANCE DESIGN:
+ * ===================
+ * - Loaded with a fixed number of bulk queries per section on ONE connection
+ *   (students, section subjects, exam type configuration, entered marks)
+ * - Students, subjects and exam types are mapped to dense ordinals
+ * - All values live in primitive int/double arrays, marks are stored
+ *   student-major: marks[studentOrdinal * examSlotCount + examSlot]
+ * - Statistics, rankings and pass/fail checks are then pure in-memory loops
+ *   with no further SQL round trips
+ *
+ * EXAM SLOTS:
+ * Every subject owns a contiguous range of exam slots
+ * [examStart[subject], examStart[subject + 1]). Configured slots come from
+ * subject_exam_types (ordered by exam_name, like getExamTypesForSubject).
+ * Marks entered for an exam type that is not configured for the subject get an
+ * extra "unconfigured" slot so they can still be displayed, but they never take
+ * part in weighted totals or pass/fail checks.
+ *
+ * The snapshot is immutable once loaded and safe to share between threads.
+ */
+public final class SectionMarksSnapshot {
+
+    // Marker for "no mark entered" in the marks array
+    public static final double NO_MARK = Double.NaN;
+
+    // Subject passing threshold used by the section-wide batch calculation
+    private static final double BATCH_SUBJECT_PASS_PERCENTAGE = 50.0;
+
+    private final int sectionId;
+
+    // Students (ordinal -> data)
+    private final int[] studentIds;
+    private final String[] rollNumbers;
+    private final String[] studentNames;
+
+    // Subjects (ordinal -> data)
+    private final int[] subjectIds;
+    private final String[] subjectNames;
+    private final int[] subjectMaxMarks;
+    private final int[] subjectPassingMarks;
+    private final int[] subjectCredits;
+
+    // Exam slots (subject ranges into the arrays below)
+    private final int[] examStart;
+    private final int[] examTypeIds;
+    private final String[] examNames;
+    private final int[] examMaxMarks;
+    private final int[] examWeightage;
+    private final int[] examPassingMarks;
+    private final boolean[] examConfigured;
+
+    // Marks: student-major, NO_MARK when not entered
+    private final double[] marks;
+
+    private final Map<Integer, Integer> studentOrdinals;
+    private final Map<String, Integer> subjectOrdinals;
+
+    /**
+     * Snapshot from columns that are already in memory, laid out as {@link #load} builds
+     * them (examStart has subjectCount + 1 entries). The arrays are not copied and must
+     * not be changed afterwards. Used by the benchmarks to build synthetic sections.
+     */
+    public SectionMarksSnapshot(int sectionId,
+                                 int[] studentIds, String[] rollNumbers, String[] studentNames,
+                                 int[] subjectIds, String[] subjectNames, int[] subjectMaxMarks,
+                                 int[] subjectPassingMarks, int[] subjectCredits,
+                                 int[] examStart, int[] examTypeIds, String[] examNames,
+                                 int[] examMaxMarks, int[] examWeightage, int[] examPassingMarks,
+                                 boolean[] examConfigured, double[] marks) {
+        this.sectionId = sectionId;
+        this.studentIds = studentIds;
+        this.rollNumbers = rollNumbers;
+        this.studentNames = studentNames;
+        this.subjectIds = subjectIds;
+        this.subjectNames = subjectNames;
+        this.subjectMaxMarks = subjectMaxMarks;
+        this.subjectPassingMarks = subjectPassingMarks;
+        this.subjectCredits = subjectCredits;
+        this.examStart = examStart;
+        this.examTypeIds = examTypeIds;
+        this.examNames = examNames;
+        this.examMaxMarks = examMaxMarks;
+        this.examWeightage = examWeightage;
+        this.examPassingMarks = examPassingMarks;
+        this.examConfigured = examConfigured;
+        this.marks = marks;
+
+        this.studentOrdinals = new HashMap<>(studentIds.length * 2);
+        for (int i = 0; i < studentIds.length; i++) {
+            studentOrdinals.put(studentIds[i], i);
+        }
+        this.subjectOrdinals = new HashMap<>(subjectIds.length * 2);
+        for (int i = 0; i < subjectNames.length; i++) {
+            subjectOrdinals.putIfAbsent(subjectNames[i], i);
+        }
+    }
+
+    // ===== LOADING =====
+
+    /**
+     * Load a snapshot using a pooled connection
+     * @param sectionId Section ID
+     * @param userId Owner of the students (created_by); 0 or less loads every student of the section
+     */
+    public static SectionMarksSnapshot load(int sectionId, int userId) throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            return load(conn, sectionId, userId);
+        }
+    }
+
+    /**
+     * Load a snapshot on an existing connection (not closed by this method)
+     * @param conn Open connection
+     * @param sectionId Section ID
+     * @param userId Owner of the students (created_by); 0 or less loads every student of the section
+     */
+    public static SectionMarksSnapshot load(Connection conn, int sectionId, int userId) throws SQLException {
+        // Query 1: Students ordered by roll number (display order for rankings)
+        List<Integer> studentIdList = new ArrayList<>();
+        List<String> rollList = new ArrayList<>();
+        List<String> nameList = new ArrayList<>();
+
+        String studentsQuery = "SELECT id, roll_number, student_name FROM students " +
+                               "WHERE section_id = ?" + (userId > 0 ? " AND created_by = ?" : "") +
+                               " ORDER BY roll_number, id";
+        try (PreparedStatement ps = conn.prepareStatement(studentsQuery)) {
+            ps.setInt(1, sectionId);
+            if (userId > 0) {
+                ps.setInt(2, userId);
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    studentIdList.add(rs.getInt("id"));
+                    rollList.add(rs.getString("roll_number"));
+                    nameList.add(rs.getString("student_name"));
+                }
+            }
+        }
+
+        // Query 2: Section subjects with subject-level configuration
+        List<Integer> subjectIdList = new ArrayList<>();
+        List<String> subjectNameList = new ArrayList<>();
+        List<int[]> subjectConfigList = new ArrayList<>(); // {max_marks, passing_marks, credit}
+        Map<Integer, Integer> subjectOrdinalById = new HashMap<>();
+
+        String subjectsQuery = "SELECT sub.id, sub.subject_name, ss.max_marks, ss.passing_marks, ss.credit " +
+                               "FROM section_subjects ss " +
+                               "INNER JOIN subjects sub ON ss.subject_id = sub.id " +
+                               "WHERE ss.section_id = ? " +
+                               "ORDER BY sub.subject_name, sub.id";
+        try (PreparedStatement ps = conn.prepareStatement(subjectsQuery)) {
+            ps.setInt(1, sectionId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    int subjectId = rs.getInt("id");
+                    if (subjectOrdinalById.containsKey(subjectId)) {
+                        continue;
+                    }
+                    subjectOrdinalById.put(subjectId, subjectIdList.size());
+                    subjectIdList.add(subjectId);
+                    subjectNameList.add(rs.getString("subject_name"));
+                    subjectConfigList.add(new int[] {
+                        rs.getInt("max_marks"), rs.getInt("passing_marks"), rs.getInt("credit")
+                    });
+                }
+            }
+        }
+
+        int subjectCount = subjectIdList.size();
+
+        // Query 3: Configured exam types for every subject of the section
+        List<List<ExamSlot>> slotsBySubject = new ArrayList<>(subjectCount);
+        List<Map<Integer, Integer>> slotIndexBySubject = new ArrayList<>(subjectCount);
+        for (int i = 0; i < subjectCount; i++) {
+            slotsBySubject.add(new ArrayList<>());
+            slotIndexBySubject.add(new HashMap<>());
+        }
+
+        String examTypesQuery = "SELECT set_tbl.subject_id, et.id, et.exam_name, et.max_marks, et.weightage, et.passing_marks " +
+                                "FROM subject_exam_types set_tbl " +
+                                "INNER JOIN exam_types et ON et.id = set_tbl.exam_type_id " +
+                                "WHERE set_tbl.section_id = ? " +
+                                "ORDER BY set_tbl.subject_id, et.exam_name";
+        try (PreparedStatement ps = conn.prepareStatement(examTypesQuery)) {
+            ps.setInt(1, sectionId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    Integer subjectOrdinal = subjectOrdinalById.get(rs.getInt("subject_id"));
+                    if (subjectOrdinal == null) {
+                        continue;
+                    }
+                    ExamSlot slot = new ExamSlot(rs.getInt("id"), rs.getString("exam_name"),
+                        rs.getInt("max_marks"), rs.getInt("weightage"), rs.getInt("passing_marks"), true);
+                    slotIndexBySubject.get(subjectOrdinal).putIfAbsent(slot.examTypeId, slotsBySubject.get(subjectOrdinal).size());
+                    slotsBySubject.get(subjectOrdinal).add(slot);
+                }
+            }
+        }
+
+        // Query 4: All entered marks of the section's students
+        // Kept as sparse rows first because unconfigured exam types may add slots
+        List<int[]> markRows = new ArrayList<>(); // {studentOrdinal, subjectOrdinal, examTypeId, marks}
+        Map<Integer, Integer> studentOrdinalById = new HashMap<>(studentIdList.size() * 2);
+        for (int i = 0; i < studentIdList.size(); i++) {
+            studentOrdinalById.put(studentIdList.get(i), i);
+        }
+
+        if (!studentIdList.isEmpty() && subjectCount > 0) {
+            String marksQuery = "SELECT eem.student_id, eem.subject_id, eem.exam_type_id, eem.marks_obtained, " +
+                                "et.exam_name, et.max_marks, et.weightage, et.passing_marks " +
+                                "FROM entered_exam_marks eem " +
+                                "INNER JOIN students s ON eem.student_id = s.id " +
+                                "INNER JOIN exam_types et ON eem.exam_type_id = et.id " +
+                                "WHERE s.section_id = ?";
+            try (PreparedStatement ps = conn.prepareStatement(marksQuery)) {
+                ps.setInt(1, sectionId);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        Integer studentOrdinal = studentOrdinalById.get(rs.getInt("student_id"));
+                        Integer subjectOrdinal = subjectOrdinalById.get(rs.getInt("subject_id"));
+                        if (studentOrdinal == null || subjectOrdinal == null) {
+                            continue;
+                        }
+                        int examTypeId = rs.getInt("exam_type_id");
+                        Map<Integer, Integer> slotIndex = slotIndexBySubject.get(subjectOrdinal);
+                        if (!slotIndex.containsKey(examTypeId)) {
+                            // Marks exist for an exam type not linked to this subject - display only
+                            ExamSlot slot = new ExamSlot(examTypeId, rs.getString("exam_name"),
+                                rs.getInt("max_marks"), rs.getInt("weightage"), rs.getInt("passing_marks"), false);
+                            slotIndex.put(examTypeId, slotsBySubject.get(subjectOrdinal).size());
+                            slotsBySubject.get(subjectOrdinal).add(slot);
+                        }
+                        markRows.add(new int[] { studentOrdinal, subjectOrdinal, examTypeId, rs.getInt("marks_obtained") });
+                    }
+                }
+            }
+        }
+
+        // Flatten subject slot lists into primitive columns
+        int[] examStart = new int[subjectCount + 1];
+        int slotCount = 0;
+        for (int s = 0; s < subjectCount; s++) {
+            examStart[s] = slotCount;
+            slotCount += slotsBySubject.get(s).size();
+        }
+        examStart[subjectCount] = slotCount;
+
+        int[] examTypeIds = new int[slotCount];
+        String[] examNames = new String[slotCount];
+        int[] examMaxMarks = new int[slotCount];
+        int[] examWeightage = new int[slotCount];
+        int[] examPassingMarks = new int[slotCount];
+        boolean[] examConfigured = new boolean[slotCount];
+        for (int s = 0; s < subjectCount; s++) {
+            List<ExamSlot> slots = slotsBySubject.get(s);
+            for (int i = 0; i < slots.size(); i++) {
+                ExamSlot slot = slots.get(i);
+                int e = examStart[s] + i;
+                examTypeIds[e] = slot.examTypeId;
+                examNames[e] = slot.examName;
+                examMaxMarks[e] = slot.maxMarks;
+                examWeightage[e] = slot.weightage;
+                examPassingMarks[e] = slot.passingMarks;
+                examConfigured[e] = slot.configured;
+            }
+        }
+
+        int studentCount = studentIdList.size();
+        double[] marks = new double[studentCount * slotCount];
+        Arrays.fill(marks, NO_MARK);
+        for (int[] row : markRows) {
+            int slot = examStart[row[1]] + slotIndexBySubject.get(row[1]).get(row[2]);
+            marks[row[0] * slotCount + slot] = row[3];
+        }
+
+        int[] subjectMaxMarks = new int[subjectCount];
+        int[] subjectPassingMarks = new int[subjectCount];
+        int[] subjectCredits = new int[subjectCount];
+        for (int s = 0; s < subjectCount; s++) {
+            int[] config = subjectConfigList.get(s);
+            subjectMaxMarks[s] = config[0];
+            subjectPassingMarks[s] = config[1];
+            subjectCredits[s] = config[2];
+        }
+
+        return new SectionMarksSnapshot(sectionId,
+            toIntArray(studentIdList), rollList.toArray(new String[0]), nameList.toArray(new String[0]),
+            toIntArray(subjectIdList), subjectNameList.toArray(new String[0]),
+            subjectMaxMarks, subjectPassingMarks, subjectCredits,
+            examStart, examTypeIds, examNames, examMaxMarks, examWeightage, examPassingMarks,
+            examConfigured, marks);
+    }
+
+    private static int[] toIntArray(List<Integer> values) {
+        int[] result = new int[values.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = values.get(i);
+        }
+        return result;
+    }
+
+    // Loader-only holder for one exam slot
+    private static class ExamSlot {
+        final int examTypeId;
+        final String examName;
+        final int maxMarks;
+        final int weightage;
+        final int passingMarks;
+        final boolean configured;
+
+        ExamSlot(int examTypeId, String examName, int maxMarks, int weightage, int passingMarks, boolean configured) {
+            this.examTypeId = examTypeId;
+            this.examName = examName;
+            this.maxMarks = maxMarks;
+            this.weightage = weightage;
+            this.passingMarks = passingMarks;
+            this.configured = configured;
+        }
+    }
+
+    // ===== ACCESSORS =====
+
+    public int getSectionId() {
+        return sectionId;
+    }
+
+    public int getStudentCount() {
+        return studentIds.length;
+    }
+
+    public int getSubjectCount() {
+        return subjectIds.length;
+    }
+
+    public int getStudentId(int student) {
+        return studentIds[student];
+    }
+
+    public String getRollNumber(int student) {
+        return rollNumbers[student];
+    }
+
+    public String getStudentName(int student) {
+        return studentNames[student];
+    }
+
+    /** @return Student ordinal or -1 if the student is not part of the snapshot */
+    public int studentOrdinal(int studentId) {
+        Integer ordinal = studentOrdinals.get(studentId);
+        return ordinal != null ? ordinal : -1;
+    }
+
+    /** @return Subject ordinal or -1 if the subject is not linked to the section */
+    public int subjectOrdinal(String subjectName) {
+        Integer ordinal = subjectOrdinals.get(subjectName);
+        return ordinal != null ? ordinal : -1;
+    }
+
+    public int getSubjectId(int subject) {
+        return subjectIds[subject];
+    }
+
+    public String getSubjectName(int subject) {
+        return subjectNames[subject];
+    }
+
+    public int getSubjectMaxMarks(int subject) {
+        return subjectMaxMarks[subject];
+    }
+
+    public int getSubjectPassingMarks(int subject) {
+        return subjectPassingMarks[subject];
+    }
+
+    public int getSubjectCredit(int subject) {
+        return subjectCredits[subject];
+    }
+
+    /** First exam slot of a subject (inclusive) */
+    public int examStart(int subject) {
+        return examStart[subject];
+    }
+
+    /** Last exam slot of a subject (exclusive) */
+    public int examEnd(int subject) {
+        return examStart[subject + 1];
+    }
+
+    public int getExamTypeId(int slot) {
+        return examTypeIds[slot];
+    }
+
+    public String getExamName(int slot) {
+        return examNames[slot];
+    }
+
+    public int getExamMaxMarks(int slot) {
+        return examMaxMarks[slot];
+    }
+
+    public int getExamWeightage(int slot) {
+        return examWeightage[slot];
+    }
+
+    public int getExamPassingMarks(int slot) {
+        return examPassingMarks[slot];
+    }
+
+    /** @return true if the slot comes from subject_exam_types (counts towards totals) */
+    public boolean isExamConfigured(int slot) {
+        return examConfigured[slot];
+    }
+
+    /** @return true if the subject has at least one configured exam type */
+    public boolean hasConfiguredExams(int subject) {
+        for (int e = examStart[subject]; e < examStart[subject + 1]; e++) {
+            if (examConfigured[e]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** @return Marks obtained or NO_MARK (NaN) when not entered */
+    public double getMark(int student, int slot) {
+        return marks[student * examTypeIds.length + slot];
+    }
+
+    public boolean hasMark(int student, int slot) {
+        return !Double.isNaN(getMark(student, slot));
+    }
+
+    /**
+     * Configured exam types of a subject, in the same shape and order as
+     * AnalyzerDAO.getExamTypesForSubject()
+     */
+    public List<ExamTypeConfig> getExamTypeConfigs(int subject) {
+        List<ExamTypeConfig> configs = new ArrayList<>();
+        for (int e = examStart[subject]; e < examStart[subject + 1]; e++) {
+            if (examConfigured[e]) {
+                configs.add(new ExamTypeConfig(examTypeIds[e], examNames[e], examMaxMarks[e],
+                    examWeightage[e], examPassingMarks[e]));
+            }
+        }
+        return configs;
+    }
+
+    // ===== CALCULATIONS =====
+
+    /**
+     * Weighted subject result with DUAL PASSING REQUIREMENT
+     * Same rules as AnalyzerDAO.calculateWeightedSubjectTotalWithPass():
+     * - Missing mark = failed component
+     * - Components with max_marks <= 0 are skipped
+     * - Total must reach the subject passing_marks from section_subjects
+     * - Percentage -1 when no component could be evaluated
+     * @param selectedExamTypes If not null, only include these exam types
+     */
+    public SubjectPassResult subjectResult(int student, int subject, Set<String> selectedExamTypes) {
+        List<String> failedComponents = new ArrayList<>();
+        double weightedTotal = 0.0;
+        int componentsIncluded = 0;
+        boolean allComponentsPassed = true;
+        boolean hasExamTypes = false;
+
+        int rowOffset = student * examTypeIds.length;
+        for (int e = examStart[subject]; e < examStart[subject + 1]; e++) {
+            if (!examConfigured[e]) {
+                continue;
+            }
+            hasExamTypes = true;
+            if (selectedExamTypes != null && !selectedExamTypes.contains(examNames[e])) {
+                continue;
+            }
+
+            double marksObtained = marks[rowOffset + e];
+            if (Double.isNaN(marksObtained)) {
+                failedComponents.add(examNames[e]);
+                allComponentsPassed = false;
+                continue;
+            }
+            if (examMaxMarks[e] <= 0) {
+                continue;
+            }
+
+            if (marksObtained < examPassingMarks[e]) {
+                failedComponents.add(examNames[e]);
+                allComponentsPassed = false;
+            }
+
+            weightedTotal += (marksObtained / examMaxMarks[e]) * examWeightage[e];
+            componentsIncluded++;
+        }
+
+        if (!hasExamTypes || componentsIncluded == 0) {
+            return new SubjectPassResult(-1, false, false, false, failedComponents);
+        }
+
+        boolean totalPassed = weightedTotal >= subjectPassingMarks[subject];
+        boolean overallPassed = allComponentsPassed && totalPassed;
+        return new SubjectPassResult(weightedTotal, overallPassed, totalPassed, allComponentsPassed, failedComponents);
+    }
+
+    /**
+     * Signed overall percentage of one student (section-wide batch rules)
+     * - Average of weighted subject totals over the filtered subjects
+     * - Missing marks are skipped, a subject passes when all entered
+     *   components pass AND the weighted total is >= 50
+     * - NEGATIVE value means the student failed at least one subject
+     * - 0.0 when no subject could be evaluated
+     */
+    public double overallPercentage(int student, Map<String, Set<String>> selectedFilters) {
+        boolean filterSubjects = selectedFilters != null && !selectedFilters.isEmpty();
+        int rowOffset = student * examTypeIds.length;
+
+        double totalSubjectPercentages = 0.0;
+        int subjectCount = 0;
+        int failedSubjectCount = 0;
+
+        for (int s = 0; s < subjectIds.length; s++) {
+            if (filterSubjects && !selectedFilters.containsKey(subjectNames[s])) {
+                continue;
+            }
+            Set<String> examFilter = (selectedFilters != null) ? selectedFilters.get(subjectNames[s]) : null;
+
+            double weightedTotal = 0.0;
+            boolean allComponentsPassed = true;
+            int componentsChecked = 0;
+
+            for (int e = examStart[s]; e < examStart[s + 1]; e++) {
+                if (!examConfigured[e]) {
+                    continue;
+                }
+                if (examFilter != null && !examFilter.contains(examNames[e])) {
+                    continue;
+                }
+                double marksObtained = marks[rowOffset + e];
+                if (!Double.isNaN(marksObtained) && examMaxMarks[e] > 0) {
+                    if (marksObtained < examPassingMarks[e]) {
+                        allComponentsPassed = false;
+                    }
+                    weightedTotal += (marksObtained / examMaxMarks[e]) * examWeightage[e];
+                    componentsChecked++;
+                }
+            }
+
+            if (componentsChecked > 0) {
+                if (!(allComponentsPassed && weightedTotal >= BATCH_SUBJECT_PASS_PERCENTAGE)) {
+                    failedSubjectCount++;
+                }
+                totalSubjectPercentages += weightedTotal;
+                subjectCount++;
+            }
+        }
+
+        double overallPercentage = subjectCount > 0 ? (totalSubjectPercentages / subjectCount) : 0.0;
+        return failedSubjectCount > 0 ? -Math.abs(overallPercentage) : overallPercentage;
+    }
+
+    /**
+     * Signed overall percentages for every student, indexed by student ordinal
+     * @see #overallPercentage(int, Map)
+     */
+    public double[] overallPercentages(Map<String, Set<String>> selectedFilters) {
+        double[] percentages = new double[studentIds.length];
+        for (int i = 0; i < percentages.length; i++) {
+            percentages[i] = overallPercentage(i, selectedFilters);
+        }
+        return percentages;
+    }
+
+    /**
+     * Signed overall percentages keyed by student ID
+     * (same shape as the old calculateAllStudentPercentagesBatch result)
+     */
+    public Map<Integer, Double> overallPercentagesById(Map<String, Set<String>> selectedFilters) {
+        Map<Integer, Double> result = new LinkedHashMap<>(studentIds.length * 2);
+        for (int i = 0; i < studentIds.length; i++) {
+            result.put(studentIds[i], overallPercentage(i, selectedFilters));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,318 @@
+package com.sms.dao;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import com.sms.dao.AnalyzerDAO.SubjectPassResult;
+import com.sms.database.DatabaseConnection;
+
+/**
+ * Per-section ranking index: every student's overall weighted percentage, kept in a
+ * sorted primitive array.
+ *
+ * PERFORMANCE: StudentAnalyzer used to show a placeholder rank (students with a lower
+ * id) because ranking a student meant recomputing the weighted total of the whole
+ * section. Now:
+ * - the index of a section is built once from a SectionMarksSnapshot (a fixed number
+ *   of bulk queries, no per-student SQL)
+ * - rank and percentile of any student are two binary searches, O(log n)
+ * - mark auto-saves report the students they touched (DataChangeTracker events with
+ *   student ids); only those students are recomputed, with one marks query, and moved
+ *   to their new place in the array
+ * - changes without student ids (bulk saves, imports, roster and configuration
+ *   changes) drop the section's index; it is rebuilt on the next lookup
+ *
+ * Ranking value: the overall weighted percentage over all subjects, as in the section
+ * ranking (AnalyzerDAO.getAllStudentsRanking) without filters - the average of the
+ * weighted subject totals, pass/fail ignored. Students with equal percentages share
+ * the better rank (1, 2, 2, 4).
+ *
+ * Changes made by other application instances are picked up when an index expires
+ * after MAX_AGE_MILLIS.
+ *
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public final class SectionRankingIndex {
+
+    private static final int MAX_SECTIONS = 32;
+    private static final long MAX_AGE_MILLIS = 10 * 60 * 1000L;
+
+    /**
+     * Position of one student in the section ranking.
+     */
+    public static final class Rank {
+        public final int rank;          // 1 = best
+        public final int studentCount;
+        public final double percentage; // Overall weighted percentage used for ranking
+        public final double percentile; // % of the other students with a lower percentage
+
+        Rank(int rank, int studentCount, double percentage, double percentile) {
+            this.rank = rank;
+            this.studentCount = studentCount;
+            this.percentage = percentage;
+            this.percentile = percentile;
+        }
+    }
+
+    private final int sectionId;
+    private final long loadedAt;
+    private final Map<Integer, Double> percentages;
+    private double[] sorted; // ascending
+    private final Set<Integer> dirtyStudents = new LinkedHashSet<>();
+
+    private SectionRankingIndex(int sectionId, Map<Integer, Double> percentages, long loadedAt) {
+        this.sectionId = sectionId;
+        this.loadedAt = loadedAt;
+        this.percentages = percentages;
+        this.sorted = new double[percentages.size()];
+        int i = 0;
+        for (double percentage : percentages.values()) {
+            sorted[i++] = percentage;
+        }
+        Arrays.sort(sorted);
+    }
+
+    private static final Object LOCK = new Object();
+    private static final LinkedHashMap<Integer, SectionRankingIndex> sections =
+        new LinkedHashMap<Integer, SectionRankingIndex>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, SectionRankingIndex> eldest) {
+                return size() > MAX_SECTIONS;
+            }
+        };
+    // Bumped on every invalidation so a build that raced with a change is not cached
+    private static final AtomicLong generation = new AtomicLong();
+
+    private static final AtomicLong builds = new AtomicLong();
+    private static final AtomicLong buildNanos = new AtomicLong();
+    private static final AtomicLong incrementalUpdates = new AtomicLong();
+    private static final AtomicLong lookups = new AtomicLong();
+
+    static {
+        DataChangeTracker.addListener(new DataChangeTracker.Listener() {
+            @Override
+            public void sectionChanged(int sectionId, DataChangeTracker.ChangeType type) {
+                invalidate(sectionId);
+            }
+
+            @Override
+            public void sectionChanged(int sectionId, DataChangeTracker.ChangeType type, Collection<Integer> studentIds) {
+                if (type == DataChangeTracker.ChangeType.MARKS && studentIds != null) {
+                    studentsChanged(sectionId, studentIds);
+                } else {
+                    invalidate(sectionId);
+                }
+            }
+        });
+    }
+
+    /**
+     * Rank of a student within its section.
+     * @return null if the student does not exist
+     */
+    public static Rank rankOf(int studentId) throws SQLException {
+        int sectionId = SectionConfigCache.getSectionIdForStudent(studentId);
+        if (sectionId <= 0) {
+            return null;
+        }
+        SectionRankingIndex index = get(sectionId);
+        index.applyDirtyStudents();
+        lookups.incrementAndGet();
+        return index.rank(studentId);
+    }
+
+    /**
+     * Ranking index of a section, built on a miss.
+     */
+    public static SectionRankingIndex get(int sectionId) throws SQLException {
+        long now = System.currentTimeMillis();
+        long startGeneration;
+        synchronized (LOCK) {
+            SectionRankingIndex cached = sections.get(sectionId);
+            if (cached != null && now - cached.loadedAt < MAX_AGE_MILLIS) {
+                return cached;
+            }
+            startGeneration = generation.get();
+        }
+
+        long start = System.nanoTime();
+        SectionMarksSnapshot snapshot = SectionMarksSnapshot.load(sectionId, 0);
+        double[] overall = snapshot.overallPercentages(null);
+        Map<Integer, Double> percentages = new HashMap<>(overall.length * 2);
+        for (int student = 0; student < overall.length; student++) {
+            percentages.put(snapshot.getStudentId(student), Math.abs(overall[student]));
+        }
+        SectionRankingIndex index = new SectionRankingIndex(sectionId, percentages, now);
+        builds.incrementAndGet();
+        buildNanos.addAndGet(System.nanoTime() - start);
+
+        synchronized (LOCK) {
+            if (generation.get() == startGeneration) {
+                sections.put(sectionId, index);
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Students of a section whose marks changed; they are re-ranked on the next lookup.
+     */
+    public static void studentsChanged(int sectionId, Collection<Integer> studentIds) {
+        SectionRankingIndex index;
+        synchronized (LOCK) {
+            index = sections.get(sectionId);
+            if (index == null) {
+                generation.incrementAndGet(); // a build in progress may predate this change
+            }
+        }
+        if (index != null) {
+            synchronized (index) {
+                index.dirtyStudents.addAll(studentIds);
+            }
+        }
+    }
+
+    public static void invalidate(int sectionId) {
+        synchronized (LOCK) {
+            generation.incrementAndGet();
+            sections.remove(sectionId);
+        }
+    }
+
+    public static void clear() {
+        synchronized (LOCK) {
+            generation.incrementAndGet();
+            sections.clear();
+        }
+    }
+
+    public static String getStats() {
+        long count = builds.get();
+        int cached;
+        synchronized (LOCK) {
+            cached = sections.size();
+        }
+        return String.format("SectionRankingIndex: %d sections, %d builds (avg %.1f ms), %d incremental updates, %d lookups",
+            cached, count, count > 0 ? buildNanos.get() / 1_000_000.0 / count : 0.0,
+            incrementalUpdates.get(), lookups.get());
+    }
+
+    // ===== Index operations =====
+
+    private synchronized Rank rank(int studentId) {
+        Double percentage = percentages.get(studentId);
+        int count = sorted.length;
+        if (percentage == null || count == 0) {
+            return new Rank(count + 1, count, 0.0, 0.0);
+        }
+        int higher = count - upperBound(percentage);
+        int lower = lowerBound(percentage);
+        double percentile = count > 1 ? 100.0 * lower / (count - 1) : 100.0;
+        return new Rank(higher + 1, count, percentage, percentile);
+    }
+
+    /**
+     * Recompute the students whose marks changed since the last lookup (one marks query)
+     * and move them to their new position.
+     */
+    private void applyDirtyStudents() throws SQLException {
+        Set<Integer> changed;
+        synchronized (this) {
+            if (dirtyStudents.isEmpty()) {
+                return;
+            }
+            changed = new LinkedHashSet<>(dirtyStudents);
+            dirtyStudents.clear();
+        }
+
+        Map<Integer, Map<String, SubjectPassResult>> results;
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            results = new AnalyzerDAO().calculateSubjectResults(conn, changed, sectionId, null);
+        } catch (SQLException e) {
+            invalidate(sectionId); // the changed students were not applied
+            throw e;
+        }
+
+        synchronized (this) {
+            for (int studentId : changed) {
+                Map<String, SubjectPassResult> subjectResults = results.get(studentId);
+                if (subjectResults != null) {
+                    move(studentId, overallPercentage(subjectResults));
+                }
+            }
+        }
+        incrementalUpdates.addAndGet(changed.size());
+    }
+
+    // Same value as abs(SectionMarksSnapshot.overallPercentage(student, null))
+    private static double overallPercentage(Map<String, SubjectPassResult> subjectResults) {
+        double total = 0.0;
+        int subjects = 0;
+        for (SubjectPassResult result : subjectResults.values()) {
+            if (result.percentage >= 0) {
+                total += result.percentage;
+                subjects++;
+            }
+        }
+        return subjects > 0 ? total / subjects : 0.0;
+    }
+
+    // Replace a student's value in place, keeping the array sorted
+    private void move(int studentId, double newPercentage) {
+        Double old = percentages.put(studentId, newPercentage);
+        int length = sorted.length;
+        int at = old != null ? Arrays.binarySearch(sorted, old) : -1;
+        if (at >= 0) {
+            // Close the gap of the old value
+            System.arraycopy(sorted, at + 1, sorted, at, length - at - 1);
+            length--;
+        } else {
+            sorted = Arrays.copyOf(sorted, length + 1);
+        }
+        int insertAt = lowerBound(newPercentage, length);
+        System.arraycopy(sorted, insertAt, sorted, insertAt + 1, length - insertAt);
+        sorted[insertAt] = newPercentage;
+    }
+
+    private int lowerBound(double key) {
+        return lowerBound(key, sorted.length);
+    }
+
+    // Index of the first value >= key among the first length values
+    private int lowerBound(double key, int length) {
+        int low = 0;
+        int high = length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Index of the first value > key
+    private int upperBound(double key) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] <= key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
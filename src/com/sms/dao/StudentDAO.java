@@ -79,6 +79,9 @@ public class StudentDAO {
                 int result = insertPS.executeUpdate();
                 System.out.println("Insert result: " + result);
                 System.out.println("Insert success: " + (result > 0));
+                if (result > 0) {
+                    DataChangeTracker.publish(sectionId, DataChangeTracker.ChangeType.STUDENTS);
+                }
                 return result > 0;
             }
             
@@ -123,7 +126,11 @@ return false;
             ps.setInt(4, studentId);
             ps.setInt(5, updatedBy);
             
-            return ps.executeUpdate() > 0;
+            boolean updated = ps.executeUpdate() > 0;
+            if (updated) {
+                publishStudentChange(studentId);
+            }
+            return updated;
         } catch (SQLException e) {
             e.printStackTrace();
             return false;
@@ -155,7 +162,11 @@ return false;
             updatePs.setInt(2, studentId);
             updatePs.setInt(3, updatedBy);
             
-            return updatePs.executeUpdate() > 0;
+            boolean updated = updatePs.executeUpdate() > 0;
+            if (updated) {
+                publishStudentChange(studentId);
+            }
+            return updated;
             
         } catch (SQLException e) {
             System.out.println("Error updating roll number: " + e.getMessage());
@@ -196,6 +207,9 @@ return false;
             
             int result = updatePs.executeUpdate();
             System.out.println("Updated student " + studentId + " with roll number " + rollNumber + ": " + (result > 0));
+            if (result > 0) {
+                publishStudentChange(studentId);
+            }
             return result > 0;
             
         } catch (SQLException e) {
@@ -208,12 +222,269 @@ return false;
         }
     }
     
+    // Tell the dashboard which section an edited student belongs to
+    private void publishStudentChange(int studentId) throws SQLException {
+        DataChangeTracker.publish(SectionConfigCache.getSectionIdForStudent(studentId),
+                                  DataChangeTracker.ChangeType.STUDENTS);
+    }
+    
+    // ========== Bulk roster save ==========
+    
+    /**
+     * One row of a roster save. studentId is -1 for a new student.
+     */
+    public static class RosterRow {
+        public int studentId;
+        public String rollNumber;
+        public String name;
+        public String email;
+        public String phone;
+        
+        public RosterRow(int studentId, String rollNumber, String name, String email, String phone) {
+            this.studentId = studentId;
+            this.rollNumber = rollNumber;
+            this.name = name;
+            this.email = email;
+            this.phone = phone;
+        }
+    }
+    
+    public enum RosterStatus {
+        INSERTED, UPDATED, DUPLICATE_ROLL, NOT_FOUND, FAILED
+    }
+    
+    /**
+     * Result of one roster row; studentId is the new id for inserted rows.
+     */
+    public static class RosterOutcome {
+        public final RosterRow row;
+        public final RosterStatus status;
+        public final int studentId;
+        public final String message;
+        
+        RosterOutcome(RosterRow row, RosterStatus status, int studentId, String message) {
+            this.row = row;
+            this.status = status;
+            this.studentId = studentId;
+            this.message = message;
+        }
+        
+        public boolean isSuccess() {
+            return status == RosterStatus.INSERTED || status == RosterStatus.UPDATED;
+        }
+    }
+    
+    /**
+     * Progress callback for {@link #saveRoster}, called on the saving thread.
+     */
+    public interface RosterProgress {
+        void update(int saved, int total);
+    }
+    
+    private static final int ROSTER_BATCH_SIZE = 50;
+    
+    /**
+     * Insert new students and update edited ones of a section in one transaction.
+     *
+     * PERFORMANCE: addStudent / updateStudentComplete per row cost a connection, an
+     * ownership check and a duplicate check each. Here ownership is checked once, the
+     * section's roll numbers are loaded with one query and duplicates are resolved in
+     * memory (rows are checked in list order, like the old row-by-row save), and the
+     * updates and inserts go to MySQL as JDBC batches.
+     *
+     * @return one outcome per row, in the order of rows. If the transaction fails,
+     *         every row that was to be written is FAILED and nothing is saved.
+     */
+    public List<RosterOutcome> saveRoster(int sectionId, int userId, List<RosterRow> rows,
+                                          RosterProgress progress) {
+        RosterOutcome[] outcomes = new RosterOutcome[rows.size()];
+        List<Integer> updates = new ArrayList<>();
+        List<Integer> inserts = new ArrayList<>();
+        
+        DataChangeTracker.ensureTable();
+        
+        Connection conn = null;
+        try {
+            conn = DatabaseConnection.getConnection();
+            
+            // Section must exist and belong to the user
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "SELECT id FROM sections WHERE id = ? AND created_by = ?")) {
+                ps.setInt(1, sectionId);
+                ps.setInt(2, userId);
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (!rs.next()) {
+                        System.out.println("Section not found or access denied: " + sectionId);
+                        return failAll(rows, outcomes, "Section not found or access denied");
+                    }
+                }
+            }
+            
+            // Current roll numbers of the section, and the students the user may edit
+            Map<String, Integer> idByRoll = new HashMap<>();
+            Set<Integer> editableIds = new HashSet<>();
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "SELECT id, roll_number, created_by FROM students WHERE section_id = ?")) {
+                ps.setInt(1, sectionId);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        int id = rs.getInt("id");
+                        idByRoll.put(rs.getString("roll_number"), id);
+                        if (rs.getInt("created_by") == userId) {
+                            editableIds.add(id);
+                        }
+                    }
+                }
+            }
+            
+            for (int i = 0; i < rows.size(); i++) {
+                RosterRow row = rows.get(i);
+                Integer holder = idByRoll.get(row.rollNumber);
+                if (row.studentId > 0) {
+                    if (!editableIds.contains(row.studentId)) {
+                        outcomes[i] = new RosterOutcome(row, RosterStatus.NOT_FOUND, row.studentId,
+                            "Student not found in this section");
+                    } else if (holder != null && holder != row.studentId) {
+                        outcomes[i] = new RosterOutcome(row, RosterStatus.DUPLICATE_ROLL, row.studentId,
+                            "Roll number " + row.rollNumber + " already exists in this section");
+                    } else {
+                        idByRoll.values().remove(row.studentId);
+                        idByRoll.put(row.rollNumber, row.studentId);
+                        updates.add(i);
+                    }
+                } else if (holder != null) {
+                    outcomes[i] = new RosterOutcome(row, RosterStatus.DUPLICATE_ROLL, -1,
+                        "Roll number " + row.rollNumber + " already exists in this section");
+                } else {
+                    idByRoll.put(row.rollNumber, -1 - i); // reserved for this new row
+                    inserts.add(i);
+                }
+            }
+            
+            int total = updates.size() + inserts.size();
+            if (total == 0) {
+                return Arrays.asList(outcomes);
+            }
+            
+            conn.setAutoCommit(false);
+            
+            // Updates first: a new row may take a roll number an edited row gave up
+            String updateSQL = "UPDATE students SET roll_number = ?, student_name = ?, email = ?, phone = ?, updated_at = NOW() " +
+                               "WHERE id = ? AND created_by = ?";
+            try (PreparedStatement ps = conn.prepareStatement(updateSQL)) {
+                for (int n = 0; n < updates.size(); n++) {
+                    RosterRow row = rows.get(updates.get(n));
+                    ps.setString(1, row.rollNumber);
+                    ps.setString(2, row.name);
+                    ps.setString(3, emptyToNull(row.email));
+                    ps.setString(4, emptyToNull(row.phone));
+                    ps.setInt(5, row.studentId);
+                    ps.setInt(6, userId);
+                    ps.addBatch();
+                    if ((n + 1) % ROSTER_BATCH_SIZE == 0 || n == updates.size() - 1) {
+                        ps.executeBatch();
+                        if (progress != null) {
+                            progress.update(n + 1, total);
+                        }
+                    }
+                }
+            }
+            
+            String insertSQL = "INSERT INTO students (roll_number, student_name, section_id, email, phone, created_by, created_at) " +
+                               "VALUES (?, ?, ?, ?, ?, ?, NOW())";
+            int[] newIds = new int[inserts.size()];
+            try (PreparedStatement ps = conn.prepareStatement(insertSQL, Statement.RETURN_GENERATED_KEYS)) {
+                int batchStart = 0;
+                for (int n = 0; n < inserts.size(); n++) {
+                    RosterRow row = rows.get(inserts.get(n));
+                    ps.setString(1, row.rollNumber);
+                    ps.setString(2, row.name);
+                    ps.setInt(3, sectionId);
+                    ps.setString(4, emptyToNull(row.email));
+                    ps.setString(5, emptyToNull(row.phone));
+                    ps.setInt(6, userId);
+                    ps.addBatch();
+                    if ((n + 1) % ROSTER_BATCH_SIZE == 0 || n == inserts.size() - 1) {
+                        ps.executeBatch();
+                        try (ResultSet keys = ps.getGeneratedKeys()) {
+                            int k = batchStart;
+                            while (keys.next() && k <= n) {
+                                newIds[k++] = keys.getInt(1);
+                            }
+                        }
+                        batchStart = n + 1;
+                        if (progress != null) {
+                            progress.update(updates.size() + n + 1, total);
+                        }
+                    }
+                }
+            }
+            
+            DataChangeTracker.recordChange(conn, sectionId, DataChangeTracker.ChangeType.STUDENTS);
+            conn.commit();
+            
+            for (int index : updates) {
+                outcomes[index] = new RosterOutcome(rows.get(index), RosterStatus.UPDATED, rows.get(index).studentId, null);
+            }
+            for (int n = 0; n < inserts.size(); n++) {
+                int index = inserts.get(n);
+                outcomes[index] = new RosterOutcome(rows.get(index), RosterStatus.INSERTED, newIds[n], null);
+            }
+            DataChangeTracker.fireChanged(sectionId, DataChangeTracker.ChangeType.STUDENTS);
+            System.out.println("Saved roster of section " + sectionId + ": " + inserts.size() + " added, "
+                + updates.size() + " updated, " + (rows.size() - total) + " rejected");
+            return Arrays.asList(outcomes);
+            
+        } catch (SQLException e) {
+            System.out.println("Error saving roster: " + e.getMessage());
+            if (e.getErrorCode() == 1062) { // MySQL duplicate entry error
+                System.out.println("Duplicate roll number constraint violation");
+            }
+            e.printStackTrace();
+            if (conn != null) {
+                try {
+                    conn.rollback();
+                } catch (SQLException ex) {
+                    ex.printStackTrace();
+                }
+            }
+            return failAll(rows, outcomes, e.getMessage());
+        } finally {
+            if (conn != null) {
+                try {
+                    conn.setAutoCommit(true);
+                    conn.close();
+                } catch (SQLException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+    
+    // Mark every row without an outcome as failed
+    private static List<RosterOutcome> failAll(List<RosterRow> rows, RosterOutcome[] outcomes, String message) {
+        for (int i = 0; i < outcomes.length; i++) {
+            if (outcomes[i] == null) {
+                outcomes[i] = new RosterOutcome(rows.get(i), RosterStatus.FAILED, rows.get(i).studentId, message);
+            }
+        }
+        return Arrays.asList(outcomes);
+    }
+    
+    private static String emptyToNull(String value) {
+        return value != null && !value.trim().isEmpty() ? value.trim() : null;
+    }
+    
     // Delete student
     public boolean deleteStudent(int studentId, int deletedBy) {
         Connection conn = null;
         PreparedStatement ps = null;
         
         try {
+            // Resolve the section while the student row still exists
+            int sectionId = SectionConfigCache.getSectionIdForStudent(studentId);
+            DataChangeTracker.ensureTable();
+            
             conn = DatabaseConnection.getConnection();
             conn.setAutoCommit(false);
             
@@ -230,8 +501,15 @@ return false;
             ps.setInt(1, studentId);
             ps.setInt(2, deletedBy);
             int rowsAffected = ps.executeUpdate();
+            if (rowsAffected > 0) {
+                DataChangeTracker.recordChange(conn, sectionId, DataChangeTracker.ChangeType.STUDENTS);
+            }
             
             conn.commit();
+            SectionConfigCache.invalidateStudent(studentId);
+            if (rowsAffected > 0) {
+                DataChangeTracker.fireChanged(sectionId, DataChangeTracker.ChangeType.STUDENTS);
+            }
             return rowsAffected > 0;
             
         } catch (SQLException e) {
@@ -13,6 +13,8 @@ import java.util.List;
 import java.util.ArrayList;
 import java.util.Set;
 import java.util.LinkedHashSet;
+import java.util.LinkedHashMap;
+import java.util.EnumSet;
 import java.util.Map;
 import javax.swing.table.JTableHeader;
 import javax.swing.table.DefaultTableModel;
@@ -33,6 +35,10 @@ import com.sms.analyzer.StudentAnalyzer;
 import com.sms.analyzer.SectionAnalyzer;
 import com.sms.viewtool.ViewSelectionTool;
 import com.sms.dao.AnalyzerDAO;
+import com.sms.dao.AsyncRepository;
+import com.sms.dao.DataChangeTracker;
+import com.sms.dao.DataChangeTracker.ChangeType;
+import com.sms.dao.DataChangeTracker.SectionVersion;
 import com.sms.dao.SectionDAO;
 import com.sms.dao.SectionDAO.SectionInfo;
 import com.formdev.flatlaf.FlatLightLaf;
@@ -70,6 +76,19 @@ public class DashboardScreen extends JFrame implements DashboardActions {
     private Timer autoRefreshTimer;
     private boolean autoRefreshEnabled = false;
     
+    // PERFORMANCE: Incremental refresh state (EDT only) - sections and watermarks as of the
+    // last refresh, so a refresh only refetches sections whose version moved
+    private final Map<Integer, SectionInfo> knownSections = new LinkedHashMap<>();
+    private final Map<Integer, SectionVersion> knownVersions = new HashMap<>();
+    private final Map<Integer, SectionCardPanel> sectionCards = new HashMap<>();
+    private final Map<String, JLabel> summaryValueLabels = new HashMap<>();
+    private boolean incrementalRefreshRunning = false;
+    
+    // In-app change events, coalesced by a short debounce timer
+    private final Map<Integer, Set<ChangeType>> pendingChanges = new HashMap<>();
+    private Timer changeDebounceTimer;
+    private final DataChangeTracker.Listener changeListener = this::onSectionChanged;
+    
     // CardLayout for switching between dashboard and create section panel
     private CardLayout cardLayout;
     private JPanel mainContentPanel;
@@ -164,6 +183,7 @@ public class DashboardScreen extends JFrame implements DashboardActions {
         
         // Initialize auto-refresh timer
         initializeAutoRefresh();
+        DataChangeTracker.addListener(changeListener);
         
         // Add window listener to stop timer when closing
         addWindowListener(new WindowAdapter() {
@@ -173,6 +193,15 @@ public class DashboardScreen extends JFrame implements DashboardActions {
                     autoRefreshTimer.stop();
                 }
             }
+            
+            @Override
+            public void windowClosed(WindowEvent e) {
+                // Also reached through dispose() on logout
+                DataChangeTracker.removeListener(changeListener);
+                if (changeDebounceTimer != null) {
+                    changeDebounceTimer.stop();
+                }
+            }
         });
     }
     
@@ -223,13 +252,13 @@ public class DashboardScreen extends JFrame implements DashboardActions {
     // Method to close create section panel and return to dashboard
     public void closeSectionCreationPanel() {
         cardLayout.show(mainContentPanel, DASHBOARD_VIEW);
-        refreshDashboard(); // Refresh dashboard to show any new sections
+        refreshChangedSections(); // Refresh dashboard to show any new sections
     }
     
     // Method to close student entry panel and return to dashboard
     public void closeStudentEntryPanel() {
         cardLayout.show(mainContentPanel, DASHBOARD_VIEW);
-        refreshDashboard(); // Refresh dashboard to show any new students
+        refreshChangedSections(); // Refresh dashboard to show any new students
     }
     
     private JPanel createDashboardPanel() {
@@ -518,7 +547,7 @@ public class DashboardScreen extends JFrame implements DashboardActions {
     
     public void closeMarkEntryPanel() {
         cardLayout.show(mainContentPanel, DASHBOARD_VIEW);
-        refreshDashboard();
+        refreshChangedSections();
     }
     
     @Override
@@ -542,7 +571,7 @@ public class DashboardScreen extends JFrame implements DashboardActions {
     
     public void closeResultLauncherPanel() {
         cardLayout.show(mainContentPanel, DASHBOARD_VIEW);
-        refreshDashboard();
+        refreshChangedSections();
     }
     
     public void showViewDataPanel() {
@@ -556,7 +585,7 @@ public class DashboardScreen extends JFrame implements DashboardActions {
     
     public void closeViewDataPanel() {
         cardLayout.show(mainContentPanel, DASHBOARD_VIEW);
-        refreshDashboard();
+        refreshChangedSections();
     }
     
     public void showStudentAnalyzerPanel() {
@@ -575,7 +604,7 @@ public class DashboardScreen extends JFrame implements DashboardActions {
     
     public void closeStudentAnalyzerPanel() {
         cardLayout.show(mainContentPanel, DASHBOARD_VIEW);
-        refreshDashboard();
+        refreshChangedSections();
     }
     
     // New method to show section ranking table from library
@@ -1036,11 +1065,15 @@ public class DashboardScreen extends JFrame implements DashboardActions {
     public void refreshDashboard() {
         BackgroundTaskUtil.executeAsync(() -> {
             try {
+                // Watermarks first: a change made while the sections load is seen again next time
+                Map<Integer, SectionVersion> versions = loadVersionsQuietly();
+                
                 // Load sections ONCE and reuse for all operations
                 List<SectionInfo> allSections = sectionService.getUserSections(userId);
                 
                 SwingUtilities.invokeLater(() -> {
                     try {
+                        rememberSections(allSections, versions);
                         populateYearFilterFromSections(allSections);
                         updateSectionCardsFromSections(allSections);
                         updateAnalytics();
@@ -1055,6 +1088,165 @@ public class DashboardScreen extends JFrame implements DashboardActions {
         });
     }
     
+    /**
+     * PERFORMANCE: Incremental refresh. Compares the per-section watermarks (one small
+     * query) with the ones from the last refresh, refetches only the sections that changed
+     * and patches their cards in place. Summary statistics and the grade distribution are
+     * reloaded only when marks or students changed. Falls back to a full refresh when
+     * sections were added or removed, or no full refresh has happened yet.
+     */
+    public void refreshChangedSections() {
+        if (knownVersions.isEmpty()) {
+            refreshDashboard();
+            return;
+        }
+        if (incrementalRefreshRunning) {
+            changeDebounceTimer.restart(); // try again once the running refresh is done
+            return;
+        }
+        incrementalRefreshRunning = true;
+        
+        Map<Integer, SectionVersion> baseline = new HashMap<>(knownVersions);
+        Map<Integer, Set<ChangeType>> localChanges = drainPendingChanges();
+        
+        BackgroundTaskUtil.executeAsync(() -> {
+            try {
+                Map<Integer, SectionVersion> current = DataChangeTracker.loadVersions(userId);
+                if (!current.keySet().equals(baseline.keySet())) {
+                    SwingUtilities.invokeLater(() -> {
+                        incrementalRefreshRunning = false;
+                        refreshDashboard();
+                    });
+                    return;
+                }
+                
+                // Changed sections: moved watermarks, plus local events (in case a watermark update failed)
+                Map<Integer, Set<ChangeType>> changes = new HashMap<>();
+                for (SectionVersion version : current.values()) {
+                    Set<ChangeType> changed = version.changesSince(baseline.get(version.sectionId));
+                    if (!changed.isEmpty()) {
+                        changes.put(version.sectionId, changed);
+                    }
+                }
+                for (Map.Entry<Integer, Set<ChangeType>> local : localChanges.entrySet()) {
+                    if (current.containsKey(local.getKey())) {
+                        changes.computeIfAbsent(local.getKey(), k -> EnumSet.noneOf(ChangeType.class))
+                               .addAll(local.getValue());
+                    }
+                }
+                
+                List<SectionInfo> changedSections = changes.isEmpty()
+                    ? new ArrayList<>()
+                    : sectionService.getSectionsByIds(userId, changes.keySet());
+                
+                SwingUtilities.invokeLater(() -> {
+                    incrementalRefreshRunning = false;
+                    try {
+                        applySectionChanges(changedSections, changes, current);
+                    } catch (Exception e) {
+                        DashboardErrorHandler.handleError("Failed to refresh dashboard", e);
+                    }
+                });
+            } catch (Exception e) {
+                System.err.println("Incremental dashboard refresh failed, reloading: " + e.getMessage());
+                SwingUtilities.invokeLater(() -> {
+                    incrementalRefreshRunning = false;
+                    refreshDashboard();
+                });
+            }
+        });
+    }
+    
+    private void applySectionChanges(List<SectionInfo> changedSections,
+                                     Map<Integer, Set<ChangeType>> changes,
+                                     Map<Integer, SectionVersion> versions) {
+        knownVersions.clear();
+        knownVersions.putAll(versions);
+        if (changes.isEmpty()) {
+            return;
+        }
+        
+        boolean layoutChanged = false;
+        boolean yearsChanged = false;
+        for (SectionInfo section : changedSections) {
+            SectionInfo previous = knownSections.put(section.id, section);
+            if (previous == null || previous.academicYear != section.academicYear) {
+                yearsChanged = true;
+                layoutChanged = true;
+            } else if (previous.semester != section.semester
+                       || !java.util.Objects.equals(previous.sectionName, section.sectionName)) {
+                layoutChanged = true; // card title and order
+            } else {
+                SectionCardPanel card = sectionCards.get(section.id);
+                if (card != null && card.getStudentCount() != section.totalStudents) {
+                    card.updateStudentCount(section.totalStudents);
+                }
+            }
+        }
+        
+        if (layoutChanged) {
+            List<SectionInfo> allSections = new ArrayList<>(knownSections.values());
+            // Same order as SectionDAO.getSectionsByUser
+            allSections.sort((a, b) -> a.academicYear != b.academicYear ? Integer.compare(b.academicYear, a.academicYear)
+                                     : a.semester != b.semester ? Integer.compare(a.semester, b.semester)
+                                     : a.sectionName.compareTo(b.sectionName));
+            if (yearsChanged) {
+                populateYearFilterFromSections(allSections);
+            }
+            updateSectionCardsFromSections(allSections);
+        }
+        
+        boolean metricsChanged = yearsChanged;
+        for (Set<ChangeType> changed : changes.values()) {
+            if (changed.contains(ChangeType.MARKS) || changed.contains(ChangeType.STUDENTS)) {
+                metricsChanged = true;
+            }
+        }
+        if (metricsChanged) {
+            updateAnalytics();
+        }
+    }
+    
+    private void rememberSections(List<SectionInfo> allSections, Map<Integer, SectionVersion> versions) {
+        knownSections.clear();
+        for (SectionInfo section : allSections) {
+            knownSections.put(section.id, section);
+        }
+        knownVersions.clear();
+        if (versions != null) {
+            knownVersions.putAll(versions);
+        }
+    }
+    
+    private Map<Integer, SectionVersion> loadVersionsQuietly() {
+        try {
+            return DataChangeTracker.loadVersions(userId);
+        } catch (SQLException e) {
+            System.err.println("Error loading section versions: " + e.getMessage());
+            return null; // next refresh is a full one again
+        }
+    }
+    
+    // Called on the thread that committed the change
+    private void onSectionChanged(int sectionId, ChangeType type) {
+        synchronized (pendingChanges) {
+            pendingChanges.computeIfAbsent(sectionId, k -> EnumSet.noneOf(ChangeType.class)).add(type);
+        }
+        SwingUtilities.invokeLater(() -> {
+            if (changeDebounceTimer != null) {
+                changeDebounceTimer.restart();
+            }
+        });
+    }
+    
+    private Map<Integer, Set<ChangeType>> drainPendingChanges() {
+        synchronized (pendingChanges) {
+            Map<Integer, Set<ChangeType>> drained = new HashMap<>(pendingChanges);
+            pendingChanges.clear();
+            return drained;
+        }
+    }
+    
     private void onYearFilterChanged() {
         String selected = (String) yearFilterComboBox.getSelectedItem();
         if (selected != null) {
@@ -1150,6 +1342,7 @@ public class DashboardScreen extends JFrame implements DashboardActions {
     
     private void updateSectionCards(List<SectionInfo> sections) {
         sectionCardsPanel.removeAll();
+        sectionCards.clear();
         
         if (sections == null || sections.isEmpty()) {
             sectionCardsPanel.add(createEmptyState());
@@ -1163,6 +1356,7 @@ public class DashboardScreen extends JFrame implements DashboardActions {
                     this::refreshDashboard,
                     this
                 );
+                sectionCards.put(section.id, card);
                 sectionCardsPanel.add(card);
             }
         }
@@ -1208,31 +1402,49 @@ public class DashboardScreen extends JFrame implements DashboardActions {
     }
     
     private void updateAnalytics() {
-        BackgroundTaskUtil.executeAsync(() -> {
-            try {
-                // Update grade distribution with year filter
-                SwingUtilities.invokeLater(() -> gradeDistPanel.updateData(userId, selectedYear));
-                
-                // Update summary statistics with year filter
-                HashMap<String, Object> stats = analyticsService.getDashboardStatistics(userId, selectedYear);
-                SwingUtilities.invokeLater(() -> updateSummaryPanel(stats));
-            } catch (Exception e) {
-                SwingUtilities.invokeLater(() -> 
-                    DashboardErrorHandler.handleError("Failed to update analytics", e));
-            }
-        });
+        int year = selectedYear;
+        
+        // Update grade distribution with year filter (loads its sections off the EDT)
+        gradeDistPanel.updateData(userId, year);
+        
+        // Update summary statistics with year filter
+        AsyncRepository.supply(() -> analyticsService.getDashboardStatistics(userId, year))
+            .thenAcceptAsync(this::updateSummaryPanel, AsyncRepository.EDT)
+            .exceptionally(failure -> {
+                Throwable cause = failure.getCause() != null ? failure.getCause() : failure;
+                DashboardErrorHandler.handleError("Failed to update analytics",
+                    cause instanceof Exception ? (Exception) cause : new Exception(cause));
+                return null;
+            });
     }
     
     private void updateSummaryPanel(HashMap<String, Object> stats) {
+        Map<String, String> values = new LinkedHashMap<>();
+        values.put("Total Students", String.valueOf(stats.getOrDefault("totalStudents", 0)));
+        values.put("Total Sections", String.valueOf(stats.getOrDefault("totalSections", 0)));
+        values.put("Average Score", String.format("%.1f", (Double) stats.getOrDefault("averageScore", 0.0)));
+        values.put("Top Performer", (String) stats.getOrDefault("topPerformer", "N/A"));
+        values.put("Recent Activity", String.valueOf(stats.getOrDefault("recentUpdates", 0)) + " updates");
+        values.put("Completion Rate", String.format("%.1f%%", (Double) stats.getOrDefault("completionRate", 0.0)));
+        
+        // PERFORMANCE: Cards already built - only patch the values
+        if (summaryValueLabels.keySet().equals(values.keySet())) {
+            for (Map.Entry<String, String> value : values.entrySet()) {
+                summaryValueLabels.get(value.getKey()).setText(value.getValue());
+            }
+            return;
+        }
+        
         summaryPanel.removeAll();
+        summaryValueLabels.clear();
         
         // Create summary cards with modern soft colors
-        addSummaryCard("Total Students", String.valueOf(stats.getOrDefault("totalStudents", 0)), "👥", new Color(139, 92, 246));
-        addSummaryCard("Total Sections", String.valueOf(stats.getOrDefault("totalSections", 0)), "📚", new Color(16, 185, 129));
-        addSummaryCard("Average Score", String.format("%.1f", (Double) stats.getOrDefault("averageScore", 0.0)), "📊", new Color(249, 115, 22));
-        addSummaryCard("Top Performer", (String) stats.getOrDefault("topPerformer", "N/A"), "🏆", new Color(139, 92, 246));
-        addSummaryCard("Recent Activity", String.valueOf(stats.getOrDefault("recentUpdates", 0)) + " updates", "⏰", new Color(236, 72, 153));
-        addSummaryCard("Completion Rate", String.format("%.1f%%", (Double) stats.getOrDefault("completionRate", 0.0)), "✅", new Color(14, 165, 233));
+        addSummaryCard("Total Students", values.get("Total Students"), "👥", new Color(139, 92, 246));
+        addSummaryCard("Total Sections", values.get("Total Sections"), "📚", new Color(16, 185, 129));
+        addSummaryCard("Average Score", values.get("Average Score"), "📊", new Color(249, 115, 22));
+        addSummaryCard("Top Performer", values.get("Top Performer"), "🏆", new Color(139, 92, 246));
+        addSummaryCard("Recent Activity", values.get("Recent Activity"), "⏰", new Color(236, 72, 153));
+        addSummaryCard("Completion Rate", values.get("Completion Rate"), "✅", new Color(14, 165, 233));
         
         summaryPanel.revalidate();
         summaryPanel.repaint();
@@ -1278,6 +1490,7 @@ public class DashboardScreen extends JFrame implements DashboardActions {
         
         textPanel.add(titleLabel, BorderLayout.NORTH);
         textPanel.add(valueLabel, BorderLayout.CENTER);
+        summaryValueLabels.put(title, valueLabel);
         
         card.add(iconLabel, BorderLayout.WEST);
         card.add(textPanel, BorderLayout.CENTER);
@@ -1304,11 +1517,16 @@ public class DashboardScreen extends JFrame implements DashboardActions {
     
     // Auto-refresh feature
     private void initializeAutoRefresh() {
+        // Polls the section watermarks for changes made elsewhere (other instances)
         autoRefreshTimer = new Timer(30000, e -> { // 30 seconds
             if (autoRefreshEnabled) {
-                refreshDashboard();
+                refreshChangedSections();
             }
         });
+        
+        // Local changes are applied right away, coalesced over 500 ms of edits
+        changeDebounceTimer = new Timer(500, e -> refreshChangedSections());
+        changeDebounceTimer.setRepeats(false);
     }
     
     public void toggleAutoRefresh() {
@@ -7,6 +7,7 @@ import org.jfree.chart.*;
 import org.jfree.chart.labels.StandardPieSectionLabelGenerator;
 import org.jfree.chart.plot.PiePlot;
 import org.jfree.data.general.DefaultPieDataset;
+import com.sms.dao.AsyncRepository;
 import com.sms.dao.SectionDAO.SectionInfo;
 
 public class GradeDistributionPanel extends JPanel {
@@ -217,25 +218,25 @@ public class GradeDistributionPanel extends JPanel {
     }
     
     /**
-     * Overload method to accept userId and academicYear and fetch filtered sections
+     * Overload method to accept userId and academicYear and fetch filtered sections.
+     * Sections are loaded off the EDT; the chart is updated on the EDT when they arrive.
      */
     public void updateData(int userId, int academicYear) {
-        try {
-            // Use SectionService instead of directly calling DAO
-            com.sms.dashboard.services.SectionService sectionService = new com.sms.dashboard.services.SectionService();
-            List<SectionInfo> sections = sectionService.getSectionsByUser(userId);
-            
-            // Filter by academic year if specified
-            if (academicYear > 0) {
-                sections = sections.stream()
-                    .filter(s -> s.academicYear == academicYear)
-                    .collect(java.util.stream.Collectors.toList());
-            }
-            
-            updateData(sections);
-        } catch (Exception e) {
-            System.err.println("Error updating grade distribution data: " + e.getMessage());
-            updateData((List<SectionInfo>) null); // Show empty state
-        }
+        AsyncRepository.sectionsByUser(userId)
+            .thenApply(sections -> {
+                // Filter by academic year if specified
+                if (academicYear > 0) {
+                    return sections.stream()
+                        .filter(s -> s.academicYear == academicYear)
+                        .collect(java.util.stream.Collectors.toList());
+                }
+                return sections;
+            })
+            .thenAcceptAsync(this::updateData, AsyncRepository.EDT)
+            .exceptionally(failure -> {
+                System.err.println("Error updating grade distribution data: " + failure.getMessage());
+                SwingUtilities.invokeLater(() -> updateData((List<SectionInfo>) null)); // Show empty state
+                return null;
+            });
     }
 }
\ No newline at end of file
@@ -11,6 +11,8 @@ import java.sql.SQLException;
 import java.util.*;
 import java.util.List;
 import com.sms.theme.ThemeManager;
+import com.sms.dao.DataChangeTracker;
+import com.sms.dao.SectionConfigCache;
 import com.sms.dao.SectionDAO;
 import com.sms.database.DatabaseConnection;
 import com.sms.marking.models.MarkingScheme;
@@ -2555,6 +2557,8 @@ public class CreateSectionDialog extends JDialog {
                 createSectionWithFlexibleMarking(sectionName, totalStudents);
             } else {
                 updateSectionWithFlexibleMarking(sectionName, totalStudents);
+                SectionConfigCache.invalidate(editSectionId);
+                DataChangeTracker.publish(editSectionId, DataChangeTracker.ChangeType.SECTION);
             }
             
         } else {
@@ -2566,6 +2570,8 @@ public class CreateSectionDialog extends JDialog {
                 createSectionWithTraditionalMarking(sectionName, totalStudents);
             } else {
                 updateSectionWithTraditionalMarking(sectionName, totalStudents);
+                SectionConfigCache.invalidate(editSectionId);
+                DataChangeTracker.publish(editSectionId, DataChangeTracker.ChangeType.SECTION);
             }
         }
     }
@@ -3452,6 +3458,8 @@ public class CreateSectionDialog extends JDialog {
                 showError("Error deleting subject from database: " + ex.getMessage());
                 ex.printStackTrace();
             }
+            SectionConfigCache.invalidate(editSectionId);
+            DataChangeTracker.publish(editSectionId, DataChangeTracker.ChangeType.SECTION);
         }
 
         // Update table
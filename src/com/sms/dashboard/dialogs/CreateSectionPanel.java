@@ -19,6 +19,8 @@ import java.sql.SQLException;
 import java.util.*;
 import java.util.List;
 import com.sms.theme.ThemeManager;
+import com.sms.dao.DataChangeTracker;
+import com.sms.dao.SectionConfigCache;
 import com.sms.dao.SectionDAO;
 import com.sms.database.DatabaseConnection;
 import com.sms.marking.models.MarkingScheme;
@@ -1304,6 +1306,8 @@ public class CreateSectionPanel extends JPanel {
                 // UPDATE MODE - Update existing section
                 success = updateSection(editSectionId, sectionName, subjectInfos, studentCount, year, semester);
                 sectionId = editSectionId;
+                SectionConfigCache.invalidate(sectionId);
+                DataChangeTracker.publish(sectionId, DataChangeTracker.ChangeType.SECTION);
                 
                 if (success) {
                     showSuccess("Section updated successfully!");
@@ -1323,6 +1327,7 @@ public class CreateSectionPanel extends JPanel {
                     // Save exam patterns if they exist
                     if (sectionId > 0 && !subjectExamPatterns.isEmpty()) {
                         saveExamPatterns(sectionId, subjectInfos);
+                        SectionConfigCache.invalidate(sectionId);
                     }
                     
                     showSuccess("Section created successfully!");
@@ -1896,6 +1901,8 @@ public class CreateSectionPanel extends JPanel {
                     int rowsUpdated = ps.executeUpdate();
                     
                     if (rowsUpdated > 0) {
+                        SectionConfigCache.invalidate(editSectionId);
+                        DataChangeTracker.publish(editSectionId, DataChangeTracker.ChangeType.SECTION);
                         if (hasMaxMarksColumn) {
                             System.out.println("✅ Database updated: " + oldName + " -> " + newName + 
                                              " (max: " + newMaxMarks + ", weightage: " + newWeightage + "%, passing: " + newPassingMarks + ")");
@@ -11,8 +11,11 @@ import java.util.*;
 import java.util.List;
 import com.sms.database.DatabaseConnection;
 import com.sms.theme.ThemeManager;
+import com.sms.dao.DataChangeTracker;
 import com.sms.dao.SectionDAO;
 import com.sms.dao.StudentDAO;
+import com.sms.util.ExcelExportEngine;
+import com.sms.util.ExcelStyle;
 
 import javax.swing.border.*;
 
@@ -20,7 +23,6 @@ import javax.swing.border.*;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.ss.usermodel.Font;
 import org.apache.poi.ss.util.CellRangeAddress;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.apache.poi.hssf.usermodel.HSSFWorkbook;
 import com.itextpdf.text.Document;
 import com.itextpdf.text.DocumentException;
@@ -36,6 +38,8 @@ import javax.swing.filechooser.FileNameExtensionFilter;
 import java.io.*;
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import com.sms.util.BackgroundTask;
+import java.util.concurrent.Callable;
 
 /**
  * Mark Entry Dialog for entering student marks using WEIGHTED GRADING SYSTEM
@@ -98,6 +102,12 @@ public class MarkEntryDialog extends JPanel {
     private boolean isCalculating = false; // Flag to prevent infinite recursion in calculateRowTotal
     private boolean isLoadingData = false; // Flag to prevent auto-save during initial data load
     
+    // Write-behind auto-save: coalesces cell edits and flushes them as one batch
+    private MarkWriteBehindBuffer markBuffer;
+    private static final long FLUSH_TIMEOUT_MILLIS = 5000;
+    // Flushes pending marks when the application window closes; removed by closePanel
+    private WindowListener parentCloseListener;
+    
     // Inner class to store exam type information
     private static class ExamTypeInfo {
         int id;
@@ -150,9 +160,126 @@ public class MarkEntryDialog extends JPanel {
         
         initializeMaps();
         initializeUI();
+        initializeAutoSave();
         loadSections();
     }
     
+    /**
+     * Set up the write-behind auto-save buffer and the flush triggers
+     * (debounce, table focus loss, panel removal, application window closing).
+     */
+    private void initializeAutoSave() {
+        markBuffer = new MarkWriteBehindBuffer(currentUserId, new MarkWriteBehindBuffer.Listener() {
+            @Override
+            public void flushed(int markCount, long flushedAtMillis) {
+                int stillPending = markBuffer.getPendingCount();
+                statusLabel.setText("✓ Auto-saved " + markCount + " mark(s) at " +
+                    new SimpleDateFormat("HH:mm:ss").format(new Date(flushedAtMillis)) +
+                    (stillPending > 0 ? " • " + stillPending + " pending" : ""));
+                statusLabel.setForeground(primaryGreen);
+                lastSavedLabel.setText("Last saved: " + new SimpleDateFormat("MMM dd, yyyy HH:mm").format(new Date(flushedAtMillis)));
+            }
+            
+            @Override
+            public void flushFailed(int markCount, String error) {
+                statusLabel.setText("⚠ Auto-save failed (" + markCount + " mark(s) kept, will retry): " + error);
+                statusLabel.setForeground(primaryRed);
+            }
+        });
+        
+        marksTable.addFocusListener(new FocusAdapter() {
+            @Override
+            public void focusLost(FocusEvent e) {
+                if (markBuffer.getPendingCount() > 0) {
+                    markBuffer.flush();
+                }
+            }
+        });
+        
+        // Flush when the panel is taken off screen (e.g. dashboard navigation)
+        addHierarchyListener(e -> {
+            if ((e.getChangeFlags() & HierarchyEvent.SHOWING_CHANGED) != 0) {
+                if (isShowing()) {
+                    attachParentCloseListener(); // panel reopened after closePanel
+                } else if (markBuffer.getPendingCount() > 0) {
+                    markBuffer.flush();
+                }
+            }
+        });
+        
+        attachParentCloseListener();
+    }
+    
+    /**
+     * Make pending marks durable before the application window closes. The close runs
+     * on the WRITE lane, which the shutdown hook (BackgroundTask.shutdown) waits for,
+     * so the EDT is not blocked while the marks are written.
+     */
+    private void attachParentCloseListener() {
+        if (parentFrame == null || parentCloseListener != null) {
+            return;
+        }
+        parentCloseListener = new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                if (!markBuffer.isIdle()) {
+                    BackgroundTask.run(BackgroundTask.Lane.WRITE, null, "Save marks on exit",
+                        () -> markBuffer.close(FLUSH_TIMEOUT_MILLIS));
+                }
+            }
+        };
+        parentFrame.addWindowListener(parentCloseListener);
+    }
+    
+    private void detachParentCloseListener() {
+        if (parentFrame != null && parentCloseListener != null) {
+            parentFrame.removeWindowListener(parentCloseListener);
+            parentCloseListener = null;
+        }
+    }
+    
+    /**
+     * Run a blocking save of the buffered marks on the WRITE lane and continue on the EDT.
+     * If the marks could not be saved, onSaved is skipped and the user is told why, so a
+     * later retry of those marks cannot overwrite data the next step loads or imports.
+     *
+     * @param save flushAndWait or close of the buffer; true when every mark was written
+     * @param skippedAction what did not happen, e.g. "The grid was not reloaded"
+     */
+    private void runAfterMarksSaved(Callable<Boolean> save, String skippedAction, Runnable onSaved) {
+        statusLabel.setText("Saving " + markBuffer.getPendingCount() + " pending mark(s)...");
+        statusLabel.setForeground(textSecondary);
+        
+        SwingWorker<Boolean, Void> worker = new SwingWorker<Boolean, Void>() {
+            @Override
+            protected Boolean doInBackground() throws Exception {
+                return save.call();
+            }
+            
+            @Override
+            protected void done() {
+                boolean saved;
+                try {
+                    saved = !isCancelled() && get();
+                } catch (Exception e) {
+                    e.printStackTrace();
+                    saved = false;
+                }
+                if (saved) {
+                    onSaved.run();
+                    return;
+                }
+                statusLabel.setText("⚠ " + markBuffer.getPendingCount() + " mark(s) not saved yet");
+                statusLabel.setForeground(primaryRed);
+                JOptionPane.showMessageDialog(MarkEntryDialog.this,
+                    markBuffer.getPendingCount() + " mark(s) could not be saved. " + skippedAction +
+                    " so they are not overwritten.\nPlease check the connection and try again.",
+                    "Unsaved Marks", JOptionPane.WARNING_MESSAGE);
+            }
+        };
+        BackgroundTask.execute(BackgroundTask.Lane.WRITE, this, worker);
+    }
+    
     private void initializeMaps() {
         sectionIdMap = new HashMap<>();
         subjectIdMap = new HashMap<>();
@@ -1000,6 +1127,20 @@ private void debugDropdownStates() {
             return;
         }
         
+        // Pending edits must reach the database before the grid is re-read from it
+        if (!markBuffer.isIdle()) {
+            runAfterMarksSaved(() -> markBuffer.flushAndWait(FLUSH_TIMEOUT_MILLIS),
+                "The grid was not reloaded", this::reloadMarksGrid);
+            return;
+        }
+        reloadMarksGrid();
+    }
+    
+    private void reloadMarksGrid() {
+        if (currentSectionId == null || currentSubjectId == null) {
+            return;
+        }
+        
         // Disable auto-save during data loading
         isLoadingData = true;
         
@@ -1410,40 +1551,46 @@ private void debugDropdownStates() {
         try {
             isCalculating = true;
             
-            double total = 0;
-            int filledCount = 0;
-            
-            // Apply SCALED CALCULATION: (marks_obtained / max_marks) × weightage
-            for (int i = 0; i < examTypes.size(); i++) {
-                Object value = tableModel.getValueAt(row, i + 2);
-                if (value != null && !value.toString().trim().isEmpty()) {
-                    try {
-                        double marksObtained = Double.parseDouble(value.toString());
-                        ExamTypeInfo examInfo = examTypes.get(i);
-                        
-                        // Scaled contribution = (marks_obtained / max_marks) × weightage
-                        double contribution = (marksObtained / examInfo.maxMarks) * examInfo.weightage;
-                        total += contribution;
-                        filledCount++;
-                    } catch (NumberFormatException e) {
-                        // Ignore invalid values
-                    }
-                }
-            }
-            
-            // Only show total if all exam types are filled
-            if (filledCount == examTypes.size()) {
-                tableModel.setValueAt(String.format("%.2f", total), row, examTypes.size() + 2);
-                tableModel.setValueAt("Complete", row, examTypes.size() + 3);
-            } else {
-                tableModel.setValueAt("", row, examTypes.size() + 2);
-                tableModel.setValueAt("Incomplete (" + filledCount + "/" + examTypes.size() + ")", row, examTypes.size() + 3);
-            }
+            String[] totalAndStatus = computeRowTotal(row);
+            tableModel.setValueAt(totalAndStatus[0], row, examTypes.size() + 2);
+            tableModel.setValueAt(totalAndStatus[1], row, examTypes.size() + 3);
         } finally {
             isCalculating = false;
         }
     }
     
+    /**
+     * Total and status text of one grid row, without touching the model.
+     */
+    private String[] computeRowTotal(int row) {
+        double total = 0;
+        int filledCount = 0;
+        
+        // Apply SCALED CALCULATION: (marks_obtained / max_marks) × weightage
+        for (int i = 0; i < examTypes.size(); i++) {
+            Object value = tableModel.getValueAt(row, i + 2);
+            if (value != null && !value.toString().trim().isEmpty()) {
+                try {
+                    double marksObtained = Double.parseDouble(value.toString());
+                    ExamTypeInfo examInfo = examTypes.get(i);
+                    
+                    // Scaled contribution = (marks_obtained / max_marks) × weightage
+                    double contribution = (marksObtained / examInfo.maxMarks) * examInfo.weightage;
+                    total += contribution;
+                    filledCount++;
+                } catch (NumberFormatException e) {
+                    // Ignore invalid values
+                }
+            }
+        }
+        
+        // Only show total if all exam types are filled
+        if (filledCount == examTypes.size()) {
+            return new String[] { String.format("%.2f", total), "Complete" };
+        }
+        return new String[] { "", "Incomplete (" + filledCount + "/" + examTypes.size() + ")" };
+    }
+    
     private void autoSaveMark(int row, int column) {
         // Skip auto-save during initial data loading
         if (isLoadingData) {
@@ -1468,57 +1615,22 @@ private void debugDropdownStates() {
         Object valueObj = tableModel.getValueAt(row, column);
         String value = valueObj != null ? valueObj.toString().trim() : "";
         
-        // Save in background thread to avoid blocking UI
-        SwingWorker<Void, Void> worker = new SwingWorker<Void, Void>() {
-            @Override
-            protected Void doInBackground() throws Exception {
-                try (Connection conn = DatabaseConnection.getConnection()) {
-                    if (value.isEmpty()) {
-                        // Delete mark if value is empty
-                        String deleteQuery = "DELETE FROM entered_exam_marks WHERE student_id = ? AND exam_type_id = ? AND subject_id = ?";
-                        try (PreparedStatement ps = conn.prepareStatement(deleteQuery)) {
-                            ps.setInt(1, studentId);
-                            ps.setInt(2, exam.id);
-                            ps.setInt(3, currentSubjectId);
-                            ps.executeUpdate();
-                        }
-                    } else {
-                        // Delete existing mark first (to handle updates)
-                        String deleteQuery = "DELETE FROM entered_exam_marks WHERE student_id = ? AND exam_type_id = ? AND subject_id = ?";
-                        try (PreparedStatement ps = conn.prepareStatement(deleteQuery)) {
-                            ps.setInt(1, studentId);
-                            ps.setInt(2, exam.id);
-                            ps.setInt(3, currentSubjectId);
-                            ps.executeUpdate();
-                        }
-                        
-                        // Insert new mark using exam_type_id FK
-                        String insertQuery = "INSERT INTO entered_exam_marks (student_id, exam_type_id, subject_id, marks_obtained, created_by) VALUES (?, ?, ?, ?, ?)";
-                        try (PreparedStatement ps = conn.prepareStatement(insertQuery)) {
-                            ps.setInt(1, studentId);
-                            ps.setInt(2, exam.id);  // exam_type_id FK
-                            ps.setInt(3, currentSubjectId);
-                            ps.setInt(4, Integer.parseInt(value));
-                            ps.setInt(5, currentUserId);
-                            ps.executeUpdate();
-                        }
-                    }
-                } catch (Exception e) {
-                    System.err.println("Auto-save error: " + e.getMessage());
-                    e.printStackTrace();
-                }
-                return null;
-            }
-            
-            @Override
-            protected void done() {
-                // Update status bar to show auto-saved
-                statusLabel.setText("✓ Auto-saved at " + new java.text.SimpleDateFormat("HH:mm:ss").format(new java.util.Date()));
-                statusLabel.setForeground(primaryGreen);
+        // Empty or absent clears the stored mark
+        Integer marks = null;
+        if (!value.isEmpty() && !value.equalsIgnoreCase("ABS")) {
+            try {
+                marks = Integer.parseInt(value); // whole marks only, like the cell editor
+            } catch (NumberFormatException e) {
+                statusLabel.setText("⚠ Not saved: '" + value + "' is not a whole number");
+                statusLabel.setForeground(primaryRed);
+                return;
             }
-        };
+        }
         
-        worker.execute();
+        // Queue in the write-behind buffer - flushed as one batch after a short pause
+        markBuffer.put(studentId, exam.id, currentSubjectId, marks);
+        statusLabel.setText("Saving... (" + markBuffer.getPendingCount() + " unsaved change(s))");
+        statusLabel.setForeground(textSecondary);
     }
     
     // OLD METHODS - Commented out after grid redesign
@@ -1632,6 +1744,15 @@ private void debugDropdownStates() {
             
             @Override
             protected Boolean doInBackground() throws Exception {
+                // Apply queued auto-save edits (including cleared cells) first; a later retry of
+                // an unsaved edit would overwrite what this save writes
+                if (!markBuffer.flushAndWait(FLUSH_TIMEOUT_MILLIS)) {
+                    errorMessage = markBuffer.getPendingCount() +
+                        " edited mark(s) could not be saved, so the bulk save was not started";
+                    return false;
+                }
+                DataChangeTracker.ensureTable();
+                
                 Connection conn = null;
                 
                 try {
@@ -1682,7 +1803,9 @@ private void debugDropdownStates() {
                         }
                     }
                     
+                    DataChangeTracker.recordChange(conn, currentSectionId, DataChangeTracker.ChangeType.MARKS);
                     conn.commit();
+                    DataChangeTracker.fireChanged(currentSectionId, DataChangeTracker.ChangeType.MARKS);
                     return true;
                     
                 } catch (Exception e) {
@@ -1736,7 +1859,7 @@ private void debugDropdownStates() {
             }
         };
         
-        worker.execute();
+        BackgroundTask.execute(BackgroundTask.Lane.WRITE, null, worker);
         progressDialog.setVisible(true);
     }
     
@@ -1923,6 +2046,15 @@ private void debugDropdownStates() {
     }
     
     private JDialog createProgressDialog(String message) {
+        JProgressBar progressBar = new JProgressBar();
+        progressBar.setIndeterminate(true);
+        return createProgressDialog(new JLabel(message), progressBar);
+    }
+    
+    /**
+     * Progress dialog around a caller-owned label and bar, so a worker can update both.
+     */
+    private JDialog createProgressDialog(JLabel messageLabel, JProgressBar progressBar) {
         JDialog dialog = new JDialog(parentFrame, "Processing", true);
         dialog.setSize(300, 120);
         dialog.setLocationRelativeTo(parentFrame);
@@ -1933,12 +2065,9 @@ private void debugDropdownStates() {
         panel.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
         panel.setBackground(cardBackground);
         
-        JLabel messageLabel = new JLabel(message);
         messageLabel.setFont(new java.awt.Font("Segoe UI", java.awt.Font.PLAIN, 14));
         messageLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
         
-        JProgressBar progressBar = new JProgressBar();
-        progressBar.setIndeterminate(true);
         progressBar.setAlignmentX(Component.CENTER_ALIGNMENT);
         
         panel.add(messageLabel);
@@ -1999,153 +2128,145 @@ private void debugDropdownStates() {
     }
     
     private void importMarksFromExcel(File file) {
-        JDialog progressDialog = createProgressDialog("Importing marks...");
+        List<MarkExcelImporter.Column> columns = new ArrayList<>();
+        for (ExamTypeInfo exam : examTypes) {
+            columns.add(new MarkExcelImporter.Column(exam.id, exam.name, exam.maxMarks));
+        }
+        MarkExcelImporter importer = new MarkExcelImporter(columns, studentIdMap);
+        int sectionId = currentSectionId;
+        int subjectId = currentSubjectId;
         
-        SwingWorker<Boolean, Void> worker = new SwingWorker<Boolean, Void>() {
-            private String errorMessage = null;
-            private int importedCount = 0;
-            
+        JLabel progressLabel = new JLabel("Importing marks...");
+        JProgressBar progressBar = new JProgressBar(0, 100);
+        progressBar.setIndeterminate(true);
+        JDialog progressDialog = createProgressDialog(progressLabel, progressBar);
+        
+        // PERFORMANCE: SAX read + roll number index + one transaction, then ONE grid refresh
+        // (see MarkExcelImporter) - no per-cell auto-save while importing
+        SwingWorker<MarkExcelImporter.Result, String> worker = new SwingWorker<MarkExcelImporter.Result, String>() {
             @Override
-            protected Boolean doInBackground() throws Exception {
-                try (FileInputStream fis = new FileInputStream(file)) {
-                    Workbook workbook = null;
-                    
-                    // Determine file type
-                    String fileName = file.getName().toLowerCase();
-                    if (fileName.endsWith(".xlsx")) {
-                        workbook = new XSSFWorkbook(fis);
-                    } else if (fileName.endsWith(".xls")) {
-                        workbook = new HSSFWorkbook(fis);
-                    } else {
-                        errorMessage = "Unsupported file format";
-                        return false;
-                    }
-                    
-                    Sheet sheet = workbook.getSheetAt(0);
-                    
-                    // Read header row to match exam types
-                    Row headerRow = sheet.getRow(0);
-                    if (headerRow == null) {
-                        errorMessage = "Invalid Excel format: No header row";
-                        return false;
-                    }
-                    
-                    // Map column indices to exam types
-                    Map<Integer, Integer> columnToExamIndex = new HashMap<>();
-                    for (int col = 2; col < headerRow.getLastCellNum(); col++) {
-                        Cell cell = headerRow.getCell(col);
-                        if (cell != null) {
-                            String headerText = cell.getStringCellValue().trim();
-                            // Find matching exam type
-                            for (int i = 0; i < examTypes.size(); i++) {
-                                if (examTypes.get(i).name.equals(headerText)) {
-                                    columnToExamIndex.put(col, i);
-                                    break;
-                                }
-                            }
-                        }
-                    }
-                    
-                    // Read data rows
-                    for (int rowIndex = 1; rowIndex <= sheet.getLastRowNum(); rowIndex++) {
-                        Row dataRow = sheet.getRow(rowIndex);
-                        if (dataRow == null) continue;
-                        
-                        // Get roll number from first column
-                        Cell rollCell = dataRow.getCell(0);
-                        if (rollCell == null) continue;
-                        
-                        String rollNumber = getCellValueAsString(rollCell).trim();
-                        if (rollNumber.isEmpty()) continue;
-                        
-                        // Find matching row in table
-                        int tableRow = -1;
-                        for (int r = 0; r < tableModel.getRowCount(); r++) {
-                            if (tableModel.getValueAt(r, 0).equals(rollNumber)) {
-                                tableRow = r;
-                                break;
-                            }
-                        }
-                        
-                        if (tableRow == -1) continue; // Student not found
-                        
-                        // Import marks for each exam type
-                        for (Map.Entry<Integer, Integer> entry : columnToExamIndex.entrySet()) {
-                            int col = entry.getKey();
-                            int examIndex = entry.getValue();
-                            
-                            Cell markCell = dataRow.getCell(col);
-                            if (markCell != null) {
-                                String value = getCellValueAsString(markCell).trim();
-                                if (!value.isEmpty()) {
-                                    tableModel.setValueAt(value, tableRow, examIndex + 2);
-                                    importedCount++;
-                                }
-                            }
-                        }
-                    }
-                    
-                    workbook.close();
-                    return true;
-                    
-                } catch (Exception e) {
-                    errorMessage = e.getMessage();
-                    e.printStackTrace();
-                    return false;
+            protected MarkExcelImporter.Result doInBackground() throws Exception {
+                // Buffered edits must be durable first, or a later retry would overwrite imported marks
+                if (!markBuffer.flushAndWait(FLUSH_TIMEOUT_MILLIS)) {
+                    throw new SQLException(markBuffer.getPendingCount() +
+                        " edited mark(s) could not be saved, so the import was not started");
                 }
+                MarkExcelImporter.Progress progress = (message, percent) -> {
+                    publish(message);
+                    if (percent >= 0) {
+                        setProgress(percent);
+                    }
+                };
+                MarkExcelImporter.Result result = importer.read(file, progress);
+                progress.update("Saving " + result.getMarks().size() + " marks...", 0);
+                importer.write(result.getMarks(), sectionId, subjectId, currentUserId, progress);
+                return result;
+            }
+            
+            @Override
+            protected void process(List<String> messages) {
+                progressLabel.setText(messages.get(messages.size() - 1));
             }
             
             @Override
             protected void done() {
                 progressDialog.dispose();
                 
+                MarkExcelImporter.Result result;
                 try {
-                    if (get()) {
-                        showSuccessNotification("Imported " + importedCount + " marks successfully!");
-                        statusLabel.setText("Imported " + importedCount + " marks");
-                        statusLabel.setForeground(primaryGreen);
-                    } else {
-                        JOptionPane.showMessageDialog(MarkEntryDialog.this, 
-                            "Import failed: " + errorMessage, 
-                            "Import Error", 
-                            JOptionPane.ERROR_MESSAGE);
-                    }
+                    result = get();
                 } catch (Exception e) {
-                    e.printStackTrace();
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    cause.printStackTrace();
+                    JOptionPane.showMessageDialog(MarkEntryDialog.this, 
+                        "Import failed: " + cause.getMessage() + "\nNo marks were changed.", 
+                        "Import Error", 
+                        JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
+                
+                applyImportedMarks(result.getMarks());
+                
+                int importedCount = result.getMarks().size();
+                int rejectedCount = result.getRejections().size();
+                statusLabel.setText("Imported " + importedCount + " marks from " + result.getImportedRows() + " rows" +
+                    (rejectedCount > 0 ? " • " + rejectedCount + " row(s) rejected" : ""));
+                statusLabel.setForeground(rejectedCount > 0 ? primaryOrange : primaryGreen);
+                if (importedCount > 0) {
+                    lastSavedLabel.setText("Last saved: " + new SimpleDateFormat("MMM dd, yyyy HH:mm").format(new Date()));
+                }
+                
+                if (rejectedCount > 0) {
+                    showImportRejections(result);
+                } else {
+                    showSuccessNotification("Imported " + importedCount + " marks successfully!");
                 }
             }
         };
         
-        worker.execute();
+        worker.addPropertyChangeListener(evt -> {
+            if ("progress".equals(evt.getPropertyName())) {
+                progressBar.setIndeterminate(false);
+                progressBar.setValue((Integer) evt.getNewValue());
+            }
+        });
+        BackgroundTask.execute(BackgroundTask.Lane.BULK, null, worker);
         progressDialog.setVisible(true);
     }
     
-    private String getCellValueAsString(Cell cell) {
-        if (cell == null) return "";
+    /**
+     * Put imported (already saved) marks into the grid with a single table refresh.
+     * The cells are written straight into the data vector, so neither the per-cell
+     * total calculation nor the auto-save listener runs for them.
+     */
+    private void applyImportedMarks(List<MarkExcelImporter.ImportedMark> marks) {
+        if (marks.isEmpty()) {
+            return;
+        }
         
-        switch (cell.getCellType()) {
-            case STRING:
-                return cell.getStringCellValue();
-            case NUMERIC:
-                if (DateUtil.isCellDateFormatted(cell)) {
-                    return cell.getDateCellValue().toString();
-                } else {
-                    double numValue = cell.getNumericCellValue();
-                    if (numValue == (long) numValue) {
-                        return String.valueOf((long) numValue);
-                    } else {
-                        return String.valueOf(numValue);
-                    }
-                }
-            case BOOLEAN:
-                return String.valueOf(cell.getBooleanCellValue());
-            case FORMULA:
-                return cell.getCellFormula();
-            case BLANK:
-                return "";
-            default:
-                return "";
+        Map<String, Integer> rowByRoll = new HashMap<>();
+        for (int row = 0; row < tableModel.getRowCount(); row++) {
+            rowByRoll.put((String) tableModel.getValueAt(row, 0), row);
+        }
+        
+        @SuppressWarnings("unchecked")
+        Vector<Vector<Object>> data = (Vector<Vector<Object>>) (Vector<?>) tableModel.getDataVector();
+        Set<Integer> changedRows = new TreeSet<>();
+        for (MarkExcelImporter.ImportedMark mark : marks) {
+            Integer row = rowByRoll.get(mark.rollNumber);
+            if (row == null) continue;
+            data.get(row).set(mark.columnIndex + 2, mark.marks != null ? String.valueOf(mark.marks) : "");
+            changedRows.add(row);
+        }
+        
+        for (int row : changedRows) {
+            String[] totalAndStatus = computeRowTotal(row);
+            data.get(row).set(examTypes.size() + 2, totalAndStatus[0]);
+            data.get(row).set(examTypes.size() + 3, totalAndStatus[1]);
+        }
+        
+        tableModel.fireTableDataChanged();
+    }
+    
+    private void showImportRejections(MarkExcelImporter.Result result) {
+        StringBuilder report = new StringBuilder();
+        report.append("Imported ").append(result.getMarks().size()).append(" marks from ")
+              .append(result.getImportedRows()).append(" of ").append(result.getRowsRead()).append(" rows.\n")
+              .append("The following rows were not imported:\n\n");
+        for (MarkExcelImporter.Rejection rejection : result.getRejections()) {
+            report.append(rejection).append('\n');
         }
+        
+        JTextArea reportArea = new JTextArea(report.toString());
+        reportArea.setEditable(false);
+        reportArea.setFont(new java.awt.Font("Consolas", java.awt.Font.PLAIN, 12));
+        reportArea.setCaretPosition(0);
+        JScrollPane scrollPane = new JScrollPane(reportArea);
+        scrollPane.setPreferredSize(new Dimension(560, 320));
+        
+        JOptionPane.showMessageDialog(this, scrollPane,
+            "Import Report - " + result.getRejections().size() + " row(s) rejected",
+            JOptionPane.WARNING_MESSAGE);
     }
     
     private void showExportDialog() {
@@ -2229,8 +2350,14 @@ private void debugDropdownStates() {
                 FileOutputStream fos = null;
                 
                 try {
-                    // Create workbook
-                    workbook = isXlsx ? new XSSFWorkbook() : new HSSFWorkbook();
+                    if (isXlsx) {
+                        // PERFORMANCE: streaming workbook in constant memory (see ExcelExportEngine)
+                        exportMarksXlsx(file);
+                        return true;
+                    }
+                    
+                    // Legacy .xls (max 65,536 rows) keeps the in-memory HSSF workbook
+                    workbook = new HSSFWorkbook();
                     Sheet sheet = workbook.createSheet("Marks");
                     
                     // Create styles
@@ -2352,10 +2479,58 @@ private void debugDropdownStates() {
             }
         };
         
-        worker.execute();
+        BackgroundTask.execute(BackgroundTask.Lane.BULK, this, worker);
         progressDialog.setVisible(true);
     }
     
+    /**
+     * Write the grid as .xlsx through the streaming export engine.
+     * Called on the export worker thread, like the .xls path.
+     */
+    private void exportMarksXlsx(File file) throws IOException, SQLException {
+        int columnCount = tableModel.getColumnCount();
+        
+        try (ExcelExportEngine engine = new ExcelExportEngine()) {
+            ExcelExportEngine.SheetWriter sheet = engine.sheet("Marks", columnCount);
+            
+            sheet.title("Mark Entry - " + sectionDropdown.getSelectedItem() + 
+                        " - " + subjectDropdown.getSelectedItem(), ExcelStyle.PLAIN.bold().fontSize(14), 0);
+            sheet.blankRow();
+            
+            String[] columnNames = new String[columnCount];
+            for (int col = 0; col < columnCount; col++) {
+                columnNames[col] = tableModel.getColumnName(col);
+            }
+            sheet.header(columnNames, ExcelStyle.PLAIN.bold().fontSize(12).fill(IndexedColors.GREY_25_PERCENT)
+                .border(BorderStyle.THIN).align(HorizontalAlignment.CENTER), 0);
+            
+            // Mark columns are written as numbers when possible ("ABS" and blanks stay text)
+            ExcelExportEngine.RowSupplier gridRows = ExcelExportEngine.RowSupplier.fromTableModel(tableModel);
+            ExcelExportEngine.RowSupplier rows = values -> {
+                if (!gridRows.next(values)) {
+                    return false;
+                }
+                for (int col = 2; col < columnCount - 2; col++) {
+                    String text = values[col] != null ? values[col].toString() : "";
+                    if (!text.isEmpty() && !text.equalsIgnoreCase("ABS")) {
+                        try {
+                            values[col] = Double.parseDouble(text);
+                        } catch (NumberFormatException e) {
+                            // Keep as text
+                        }
+                    }
+                }
+                return true;
+            };
+            
+            ExcelStyle dataStyle = ExcelStyle.PLAIN.border(BorderStyle.THIN);
+            sheet.rows(rows, (dataRow, col, value) -> dataStyle, 0);
+            sheet.autoSizeColumns(512);
+            
+            engine.write(file);
+        }
+    }
+    
     private void exportToPDF(File file) {
         JDialog progressDialog = createProgressDialog("Exporting to PDF...");
         
@@ -2490,7 +2665,7 @@ private void debugDropdownStates() {
             }
         };
         
-        worker.execute();
+        BackgroundTask.execute(BackgroundTask.Lane.BULK, this, worker);
         progressDialog.setVisible(true);
     }
     
@@ -2502,9 +2677,15 @@ private void debugDropdownStates() {
     }
     
     private void closePanel() {
-        if (onCloseCallback != null) {
-            onCloseCallback.run();
-        }
+        // Flush and stop the writer thread; it is started again if the panel is reopened
+        runAfterMarksSaved(() -> markBuffer.close(FLUSH_TIMEOUT_MILLIS), "The panel was not closed", () -> {
+            detachParentCloseListener();
+            // Loads and exports started from this panel have nobody to report to any more
+            BackgroundTask.cancelAll(this);
+            if (onCloseCallback != null) {
+                onCloseCallback.run();
+            }
+        });
     }
     
     // Main method for testing
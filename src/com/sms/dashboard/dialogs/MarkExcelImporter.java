@@ -0,0 +1,476 @@
+package com.sms.dashboard.dialogs;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.xml.parsers.ParserConfigurationException;
+import com.sms.dao.DataChangeTracker;
+import com.sms.database.DatabaseConnection;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.FormulaEvaluator;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+/**
+ * Streaming Excel import for MarkEntryDialog.
+ *
+ * PERFORMANCE OPTIMIZATION:
+ * - .xlsx sheets are read with POI's SAX event API (XSSFReader + XSSFSheetXMLHandler),
+ *   one row at a time, instead of loading the whole XSSFWorkbook into memory
+ * - every row is matched against a roll number hash index instead of scanning the grid
+ * - all accepted marks are written in ONE transaction with multi-row DELETE / INSERT
+ *   statements, instead of one auto-save transaction per imported cell
+ *
+ * Validation is per row: a row is imported completely or not at all, and every rejected
+ * row ends up in the rejection report with its reason.
+ *
+ * Legacy .xls files have no SAX reader in POI; they are read with HSSFWorkbook (the
+ * format is capped at 65,536 rows) and go through the same validation and write path.
+ *
+ * Threading: read and write run on a worker thread; this class never touches Swing.
+ */
+class MarkExcelImporter {
+
+    // Rows per multi-row statement (5 parameters each on INSERT)
+    static final int WRITE_CHUNK_SIZE = 500;
+    private static final int PROGRESS_EVERY_ROWS = 250;
+    private static final int ROLL_NUMBER_COLUMN = 0;
+
+    /**
+     * Progress callback, called on the worker thread.
+     */
+    interface Progress {
+        /**
+         * @param percent 0-100, or -1 when the total is not known yet
+         */
+        void update(String message, int percent);
+    }
+
+    /**
+     * One exam type column of the grid.
+     */
+    static final class Column {
+        final int examTypeId;
+        final String name;
+        final int maxMarks;
+
+        Column(int examTypeId, String name, int maxMarks) {
+            this.examTypeId = examTypeId;
+            this.name = name;
+            this.maxMarks = maxMarks;
+        }
+
+        boolean matchesHeader(String header) {
+            return header.equalsIgnoreCase(name)
+                || header.equalsIgnoreCase(name + " (" + maxMarks + ")");
+        }
+    }
+
+    /**
+     * One accepted mark; a null value clears the stored mark ("ABS").
+     */
+    static final class ImportedMark {
+        final String rollNumber;
+        final int studentId;
+        final int columnIndex;
+        final Integer marks;
+
+        ImportedMark(String rollNumber, int studentId, int columnIndex, Integer marks) {
+            this.rollNumber = rollNumber;
+            this.studentId = studentId;
+            this.columnIndex = columnIndex;
+            this.marks = marks;
+        }
+    }
+
+    /**
+     * A sheet row that was not imported.
+     */
+    static final class Rejection {
+        final int rowNumber;
+        final String rollNumber;
+        final String reason;
+
+        Rejection(int rowNumber, String rollNumber, String reason) {
+            this.rowNumber = rowNumber;
+            this.rollNumber = rollNumber;
+            this.reason = reason;
+        }
+
+        @Override
+        public String toString() {
+            return "Row " + rowNumber + (rollNumber.isEmpty() ? "" : " (" + rollNumber + ")") + ": " + reason;
+        }
+    }
+
+    /**
+     * Outcome of reading one sheet.
+     */
+    static final class Result {
+        private final List<ImportedMark> marks = new ArrayList<>();
+        private final List<Rejection> rejections = new ArrayList<>();
+        private int rowsRead;
+        private int importedRows;
+
+        List<ImportedMark> getMarks() {
+            return Collections.unmodifiableList(marks);
+        }
+
+        List<Rejection> getRejections() {
+            return Collections.unmodifiableList(rejections);
+        }
+
+        int getRowsRead() {
+            return rowsRead;
+        }
+
+        int getImportedRows() {
+            return importedRows;
+        }
+    }
+
+    private final List<Column> columns;
+    private final Map<String, Integer> studentIdByRoll;
+
+    /**
+     * @param columns exam type columns in grid order
+     * @param studentIdByRoll roll number -> student id of the current section
+     */
+    MarkExcelImporter(List<Column> columns, Map<String, Integer> studentIdByRoll) {
+        this.columns = new ArrayList<>(columns);
+        this.studentIdByRoll = new HashMap<>(studentIdByRoll);
+    }
+
+    /**
+     * Read and validate the first sheet of an .xlsx or .xls file.
+     * Rows before the header row (e.g. the title written by the export) are ignored.
+     */
+    Result read(File file, Progress progress) throws IOException {
+        RowCollector collector = new RowCollector(progress);
+        String fileName = file.getName().toLowerCase();
+        if (fileName.endsWith(".xlsx")) {
+            readXlsx(file, collector);
+        } else if (fileName.endsWith(".xls")) {
+            readXls(file, collector);
+        } else {
+            throw new IOException("Unsupported file format");
+        }
+        if (!collector.hasHeader()) {
+            throw new IOException("Invalid Excel format: no header row with exam type columns");
+        }
+        return collector.result;
+    }
+
+    private void readXlsx(File file, RowCollector collector) throws IOException {
+        OPCPackage pkg;
+        try {
+            pkg = OPCPackage.open(file, PackageAccess.READ);
+        } catch (OpenXML4JException e) {
+            throw new IOException("Not a valid .xlsx file: " + e.getMessage(), e);
+        }
+        try {
+            XSSFReader reader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+            StylesTable styles = reader.getStylesTable();
+            if (styles == null) {
+                styles = new StylesTable();
+            }
+
+            java.util.Iterator<InputStream> sheets = reader.getSheetsData();
+            if (!sheets.hasNext()) {
+                throw new IOException("Workbook has no sheets");
+            }
+            try (InputStream sheet = sheets.next()) {
+                XMLReader parser = XMLHelper.newXMLReader();
+                // Cached formula results, not the formulas themselves
+                parser.setContentHandler(new XSSFSheetXMLHandler(
+                    styles, null, strings, collector, new DataFormatter(), false));
+                parser.parse(new InputSource(sheet));
+            }
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new IOException("Could not read " + file.getName() + ": " + e.getMessage(), e);
+        } finally {
+            // Read-only package: revert instead of close (close would try to save)
+            pkg.revert();
+        }
+    }
+
+    private void readXls(File file, RowCollector collector) throws IOException {
+        try (HSSFWorkbook workbook = new HSSFWorkbook(new java.io.FileInputStream(file))) {
+            DataFormatter formatter = new DataFormatter();
+            FormulaEvaluator evaluator = workbook.getCreationHelper().createFormulaEvaluator();
+            Sheet sheet = workbook.getSheetAt(0);
+            for (Row row : sheet) {
+                collector.startRow(row.getRowNum());
+                for (Cell cell : row) {
+                    collector.cellAt(cell.getColumnIndex(), formatter.formatCellValue(cell, evaluator));
+                }
+                collector.endRow(row.getRowNum());
+            }
+        }
+    }
+
+    /**
+     * Write the accepted marks in one transaction (and bump the section's marks watermark).
+     * @return number of marks written
+     */
+    int write(List<ImportedMark> marks, int sectionId, int subjectId, int userId, Progress progress) throws SQLException {
+        if (marks.isEmpty()) {
+            return 0;
+        }
+        DataChangeTracker.ensureTable();
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                // No unique key on (student_id, exam_type_id, subject_id), so the upsert is
+                // a multi-row delete followed by a multi-row insert in the same transaction
+                for (int from = 0; from < marks.size(); from += WRITE_CHUNK_SIZE) {
+                    List<ImportedMark> chunk = marks.subList(from, Math.min(marks.size(), from + WRITE_CHUNK_SIZE));
+                    deleteChunk(conn, chunk, subjectId);
+                    insertChunk(conn, chunk, subjectId, userId);
+
+                    int written = from + chunk.size();
+                    progress.update("Saving marks... " + written + " / " + marks.size(),
+                        (int) (written * 100L / marks.size()));
+                }
+                DataChangeTracker.recordChange(conn, sectionId, DataChangeTracker.ChangeType.MARKS);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+        DataChangeTracker.fireChanged(sectionId, DataChangeTracker.ChangeType.MARKS);
+        return marks.size();
+    }
+
+    private void deleteChunk(Connection conn, List<ImportedMark> chunk, int subjectId) throws SQLException {
+        String query = "DELETE FROM entered_exam_marks WHERE subject_id = ? AND (student_id, exam_type_id) IN (" +
+                       placeholders("(?, ?)", chunk.size()) + ")";
+        try (PreparedStatement ps = conn.prepareStatement(query)) {
+            int p = 1;
+            ps.setInt(p++, subjectId);
+            for (ImportedMark mark : chunk) {
+                ps.setInt(p++, mark.studentId);
+                ps.setInt(p++, columns.get(mark.columnIndex).examTypeId);
+            }
+            ps.executeUpdate();
+        }
+    }
+
+    private void insertChunk(Connection conn, List<ImportedMark> chunk, int subjectId, int userId) throws SQLException {
+        List<ImportedMark> values = new ArrayList<>(chunk.size());
+        for (ImportedMark mark : chunk) {
+            if (mark.marks != null) {
+                values.add(mark);
+            }
+        }
+        if (values.isEmpty()) {
+            return;
+        }
+
+        String query = "INSERT INTO entered_exam_marks (student_id, exam_type_id, subject_id, marks_obtained, created_by) " +
+                       "VALUES " + placeholders("(?, ?, ?, ?, ?)", values.size());
+        try (PreparedStatement ps = conn.prepareStatement(query)) {
+            int p = 1;
+            for (ImportedMark mark : values) {
+                ps.setInt(p++, mark.studentId);
+                ps.setInt(p++, columns.get(mark.columnIndex).examTypeId);
+                ps.setInt(p++, subjectId);
+                ps.setInt(p++, mark.marks);
+                ps.setInt(p++, userId);
+            }
+            ps.executeUpdate();
+        }
+    }
+
+    private static String placeholders(String tuple, int count) {
+        StringBuilder sb = new StringBuilder(count * (tuple.length() + 2));
+        for (int i = 0; i < count; i++) {
+            if (i > 0) sb.append(", ");
+            sb.append(tuple);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Receives cells row by row (from the SAX handler or the .xls loop),
+     * finds the header row and validates each data row.
+     */
+    private final class RowCollector implements XSSFSheetXMLHandler.SheetContentsHandler {
+        private final Progress progress;
+        private final Result result = new Result();
+
+        // Sheet column -> grid column index, null until the header row is found
+        private int[] columnBySheetColumn;
+        private final Map<String, Integer> firstRowByRoll = new HashMap<>();
+
+        private final List<String> cells = new ArrayList<>();
+        private int nextColumn;
+
+        RowCollector(Progress progress) {
+            this.progress = progress;
+        }
+
+        boolean hasHeader() {
+            return columnBySheetColumn != null;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            cells.clear();
+            nextColumn = 0;
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int column = cellReference != null ? new CellReference(cellReference).getCol() : nextColumn;
+            cellAt(column, formattedValue);
+        }
+
+        void cellAt(int column, String value) {
+            while (cells.size() <= column) {
+                cells.add("");
+            }
+            cells.set(column, value != null ? value.trim() : "");
+            nextColumn = column + 1;
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            if (columnBySheetColumn == null) {
+                detectHeader();
+                return;
+            }
+            validateRow(rowNum + 1);
+
+            result.rowsRead++;
+            if (result.rowsRead % PROGRESS_EVERY_ROWS == 0) {
+                progress.update("Reading rows... " + result.rowsRead, -1);
+            }
+        }
+
+        private void detectHeader() {
+            int[] mapping = new int[cells.size()];
+            Arrays.fill(mapping, -1);
+            boolean[] used = new boolean[columns.size()];
+            boolean found = false;
+
+            for (int col = 0; col < cells.size(); col++) {
+                if (col == ROLL_NUMBER_COLUMN) continue;
+                for (int i = 0; i < columns.size(); i++) {
+                    if (!used[i] && columns.get(i).matchesHeader(cells.get(col))) {
+                        mapping[col] = i;
+                        used[i] = true;
+                        found = true;
+                        break;
+                    }
+                }
+            }
+            if (found) {
+                columnBySheetColumn = mapping;
+            }
+        }
+
+        private void validateRow(int rowNumber) {
+            String rollNumber = cellValue(ROLL_NUMBER_COLUMN);
+            boolean hasMarks = false;
+            for (int col = 0; col < columnBySheetColumn.length; col++) {
+                if (columnBySheetColumn[col] >= 0 && !cellValue(col).isEmpty()) {
+                    hasMarks = true;
+                    break;
+                }
+            }
+
+            if (rollNumber.isEmpty()) {
+                if (hasMarks) {
+                    reject(rowNumber, rollNumber, "Missing roll number");
+                }
+                return; // Blank row
+            }
+
+            Integer studentId = studentIdByRoll.get(rollNumber);
+            if (studentId == null) {
+                reject(rowNumber, rollNumber, "Roll number not found in this section");
+                return;
+            }
+
+            Integer firstRow = firstRowByRoll.putIfAbsent(rollNumber, rowNumber);
+            if (firstRow != null) {
+                reject(rowNumber, rollNumber, "Duplicate roll number (already on row " + firstRow + ")");
+                return;
+            }
+
+            List<ImportedMark> rowMarks = new ArrayList<>();
+            List<String> errors = new ArrayList<>();
+            for (int col = 0; col < columnBySheetColumn.length; col++) {
+                int columnIndex = columnBySheetColumn[col];
+                String value = cellValue(col);
+                if (columnIndex < 0 || value.isEmpty()) {
+                    continue; // Not an exam column, or left blank: keep the stored mark
+                }
+
+                Column column = columns.get(columnIndex);
+                if (value.equalsIgnoreCase("ABS")) {
+                    rowMarks.add(new ImportedMark(rollNumber, studentId, columnIndex, null));
+                    continue;
+                }
+                try {
+                    double marks = Double.parseDouble(value);
+                    if (marks != Math.rint(marks)) {
+                        // Marks are stored as whole numbers; 7.0 is fine, 7.5 is not
+                        errors.add(column.name + ": " + value + " is not a whole number");
+                    } else if (marks < 0 || marks > column.maxMarks) {
+                        errors.add(column.name + ": " + value + " is outside 0-" + column.maxMarks);
+                    } else {
+                        rowMarks.add(new ImportedMark(rollNumber, studentId, columnIndex, (int) marks));
+                    }
+                } catch (NumberFormatException e) {
+                    errors.add(column.name + ": '" + value + "' is not a number");
+                }
+            }
+
+            if (!errors.isEmpty()) {
+                reject(rowNumber, rollNumber, String.join("; ", errors));
+                return;
+            }
+            if (!rowMarks.isEmpty()) {
+                result.marks.addAll(rowMarks);
+                result.importedRows++;
+            }
+        }
+
+        private String cellValue(int column) {
+            return column < cells.size() ? cells.get(column) : "";
+        }
+
+        private void reject(int rowNumber, String rollNumber, String reason) {
+            result.rejections.add(new Rejection(rowNumber, rollNumber, reason));
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package com.sms.dashboard.dialogs;
+
+import java.sql.*;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import com.sms.dao.DataChangeTracker;
+import com.sms.dao.SectionConfigCache;
+import com.sms.database.DatabaseConnection;
+
+/**
+ * Write-behind buffer for MarkEntryDialog auto-save.
+ *
+ * PERFORMANCE OPTIMIZATION:
+ * Cell edits are coalesced by (student, exam type, subject) - only the latest value
+ * per cell is kept - and written as ONE transaction with two batched statements
+ * after a short debounce, instead of one SwingWorker + connection + DELETE/INSERT
+ * per edit. The dialog also flushes on focus loss, before reloading and on close.
+ *
+ * Flushes run on a single writer thread, so they are applied in edit order.
+ * A failed flush puts its entries back (unless a newer edit replaced them) and
+ * is retried by the next flush.
+ *
+ * The writer thread is started on the first flush and stopped by {@link #close};
+ * a buffer that is used again after close() starts a new one.
+ *
+ * Threading: {@link #put} is called on the EDT; listener callbacks run on the EDT.
+ * {@link #flushAndWait} and {@link #close} block and must not be called on the EDT.
+ */
+class MarkWriteBehindBuffer {
+
+    static final int DEBOUNCE_MS = 800;
+
+    /**
+     * Notified on the EDT after each flush attempt.
+     */
+    interface Listener {
+        void flushed(int markCount, long flushedAtMillis);
+        void flushFailed(int markCount, String error);
+    }
+
+    private static final class CellKey {
+        final int studentId;
+        final int examTypeId;
+        final int subjectId;
+
+        CellKey(int studentId, int examTypeId, int subjectId) {
+            this.studentId = studentId;
+            this.examTypeId = examTypeId;
+            this.subjectId = subjectId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof CellKey)) return false;
+            CellKey other = (CellKey) o;
+            return studentId == other.studentId && examTypeId == other.examTypeId && subjectId == other.subjectId;
+        }
+
+        @Override
+        public int hashCode() {
+            return (studentId * 31 + examTypeId) * 31 + subjectId;
+        }
+    }
+
+    // No unique key on (student_id, exam_type_id, subject_id), so delete-then-insert
+    // inside one transaction rather than ON DUPLICATE KEY UPDATE
+    private static final String DELETE_QUERY =
+        "DELETE FROM entered_exam_marks WHERE student_id = ? AND exam_type_id = ? AND subject_id = ?";
+    private static final String INSERT_QUERY =
+        "INSERT INTO entered_exam_marks (student_id, exam_type_id, subject_id, marks_obtained, created_by) " +
+        "VALUES (?, ?, ?, ?, ?)";
+
+    private final int userId;
+    private final Listener listener;
+
+    // Latest value per cell; a null value means "delete the mark"
+    private final Map<CellKey, Integer> pending = new LinkedHashMap<>();
+    private final Timer debounceTimer;
+    private ExecutorService writer; // guarded by this
+    // Flushes submitted but not finished; their batch is no longer in pending
+    private final AtomicInteger flushesInFlight = new AtomicInteger();
+    private volatile long lastFlushMillis = 0;
+
+    MarkWriteBehindBuffer(int userId, Listener listener) {
+        this.userId = userId;
+        this.listener = listener;
+        this.debounceTimer = new Timer(DEBOUNCE_MS, e -> flush());
+        this.debounceTimer.setRepeats(false);
+    }
+
+    /**
+     * Record the latest value of one cell and (re)start the debounce timer.
+     * @param marks marks to store, or null to delete the mark
+     */
+    void put(int studentId, int examTypeId, int subjectId, Integer marks) {
+        synchronized (pending) {
+            pending.put(new CellKey(studentId, examTypeId, subjectId), marks);
+        }
+        debounceTimer.restart();
+    }
+
+    int getPendingCount() {
+        synchronized (pending) {
+            return pending.size();
+        }
+    }
+
+    long getLastFlushMillis() {
+        return lastFlushMillis;
+    }
+
+    /**
+     * True when every edit has been written: nothing pending and no flush running.
+     */
+    boolean isIdle() {
+        return flushesInFlight.get() == 0 && getPendingCount() == 0;
+    }
+
+    /**
+     * Write all pending edits in the background.
+     */
+    Future<?> flush() {
+        debounceTimer.stop();
+        flushesInFlight.incrementAndGet();
+        try {
+            return writer().submit(this::writePending);
+        } catch (RuntimeException e) {
+            flushesInFlight.decrementAndGet();
+            throw e;
+        }
+    }
+
+    /**
+     * Write all pending edits and wait for them to be durable. Blocks - call it from
+     * a background thread.
+     * @return true if every edit was written within the timeout
+     */
+    boolean flushAndWait(long timeoutMillis) {
+        try {
+            flush().get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (Exception e) {
+            // A timed-out flush may still be writing its batch - not durable yet
+            System.err.println("Mark flush did not complete: " + e.getMessage());
+            return false;
+        }
+        return getPendingCount() == 0;
+    }
+
+    /**
+     * Flush, then stop the writer thread. Blocks - call it from a background thread.
+     * @return true if every edit was written
+     */
+    boolean close(long timeoutMillis) {
+        boolean clean = flushAndWait(timeoutMillis);
+        synchronized (this) {
+            if (writer != null) {
+                writer.shutdown();
+                writer = null;
+            }
+        }
+        return clean;
+    }
+
+    private synchronized ExecutorService writer() {
+        if (writer == null) {
+            writer = Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "mark-write-behind");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        return writer;
+    }
+
+    private void writePending() {
+        try {
+            writePendingBatch();
+        } finally {
+            flushesInFlight.decrementAndGet();
+        }
+    }
+
+    private void writePendingBatch() {
+        Map<CellKey, Integer> batch;
+        synchronized (pending) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = new LinkedHashMap<>(pending);
+            pending.clear();
+        }
+
+        try {
+            writeBatch(batch);
+            lastFlushMillis = System.currentTimeMillis();
+            long flushedAt = lastFlushMillis;
+            SwingUtilities.invokeLater(() -> listener.flushed(batch.size(), flushedAt));
+        } catch (SQLException e) {
+            System.err.println("Auto-save error: " + e.getMessage());
+            e.printStackTrace();
+            // Keep the edits for the next flush unless the cell was edited again meanwhile
+            synchronized (pending) {
+                for (Map.Entry<CellKey, Integer> entry : batch.entrySet()) {
+                    if (!pending.containsKey(entry.getKey())) {
+                        pending.put(entry.getKey(), entry.getValue());
+                    }
+                }
+            }
+            SwingUtilities.invokeLater(() -> listener.flushFailed(batch.size(), e.getMessage()));
+        }
+    }
+
+    private void writeBatch(Map<CellKey, Integer> batch) throws SQLException {
+        // Sections (and their students) touched by this batch, for the change watermark
+        // and listeners that update per student (ranking index)
+        Map<Integer, Set<Integer>> studentsBySection = new LinkedHashMap<>();
+        for (CellKey key : batch.keySet()) {
+            studentsBySection.computeIfAbsent(SectionConfigCache.getSectionIdForStudent(key.studentId),
+                                              k -> new LinkedHashSet<>()).add(key.studentId);
+        }
+        Set<Integer> sectionIds = studentsBySection.keySet();
+        DataChangeTracker.ensureTable();
+        
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement delete = conn.prepareStatement(DELETE_QUERY);
+                 PreparedStatement insert = conn.prepareStatement(INSERT_QUERY)) {
+                boolean hasInserts = false;
+                for (Map.Entry<CellKey, Integer> entry : batch.entrySet()) {
+                    CellKey key = entry.getKey();
+                    delete.setInt(1, key.studentId);
+                    delete.setInt(2, key.examTypeId);
+                    delete.setInt(3, key.subjectId);
+                    delete.addBatch();
+
+                    if (entry.getValue() != null) {
+                        insert.setInt(1, key.studentId);
+                        insert.setInt(2, key.examTypeId);
+                        insert.setInt(3, key.subjectId);
+                        insert.setInt(4, entry.getValue());
+                        insert.setInt(5, userId);
+                        insert.addBatch();
+                        hasInserts = true;
+                    }
+                }
+                delete.executeBatch();
+                if (hasInserts) {
+                    insert.executeBatch();
+                }
+                for (int sectionId : sectionIds) {
+                    DataChangeTracker.recordChange(conn, sectionId, DataChangeTracker.ChangeType.MARKS);
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+        for (Map.Entry<Integer, Set<Integer>> section : studentsBySection.entrySet()) {
+            DataChangeTracker.fireChanged(section.getKey(), DataChangeTracker.ChangeType.MARKS, section.getValue());
+        }
+    }
+}
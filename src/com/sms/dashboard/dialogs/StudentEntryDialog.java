@@ -10,6 +10,7 @@ import java.util.List;
 import com.sms.dashboard.data.DashboardDataManager;
 import com.sms.dao.SectionDAO;
 import com.sms.dao.StudentDAO;
+import com.sms.util.BackgroundTask;
 
 public class StudentEntryDialog extends JPanel {
     private JPanel studentListPanel;
@@ -899,89 +900,107 @@ public class StudentEntryDialog extends JPanel {
             return;
         }
 
-        try {
-            StudentDAO dao = new StudentDAO();
-            
-            int newStudentsAdded = 0;
-            int existingStudentsUpdated = 0;
-            int failedOperations = 0;
-            
-            for (StudentEntry student : studentEntries) {
-                // Safe null checks for email and phone
-                String emailValue = (student.email != null && !student.email.trim().isEmpty()) ? student.email.trim() : null;
-                String phoneValue = (student.phone != null && !student.phone.trim().isEmpty()) ? student.phone.trim() : null;
-                
-                boolean success = false;
-                
-                if (student.isNewStudent()) {
-                    // Add new student
-                    success = dao.addStudent(
-                        student.rollNumber,
-                        student.name,
-                        sectionId,
-                        emailValue,
-                        phoneValue,
-                        com.sms.login.LoginScreen.currentUserId
-                    );
-                    
-                    if (success) {
-                        newStudentsAdded++;
-                        System.out.println("Added new student: " + student.name + " (" + student.rollNumber + ")");
-                    }
-                    
-                } else if (student.isExistingStudent() && student.isModified) {
-                    // Update existing student with all fields including roll number
-                    success = dao.updateStudentComplete(
-                        student.studentId,
-                        student.rollNumber,
-                        student.name,
-                        emailValue,
-                        phoneValue,
-                        com.sms.login.LoginScreen.currentUserId
-                    );
-                    
-                    if (success) {
-                        existingStudentsUpdated++;
-                        System.out.println("Updated existing student " + student.studentId + ": " + student.name + " (" + student.rollNumber + ")");
-                    }
-                    
-                } else {
-                    // Existing student not modified - skip
-                    success = true;
-                }
-                
-                if (!success) {
-                    failedOperations++;
-                    System.out.println("Failed to save student: " + student.name + " (" + student.rollNumber + ")");
-                }
+        // New students and edited existing students; unchanged students are skipped
+        List<StudentEntry> changedEntries = new ArrayList<>();
+        List<StudentDAO.RosterRow> rows = new ArrayList<>();
+        for (StudentEntry student : studentEntries) {
+            if (student.isNewStudent() || (student.isExistingStudent() && student.isModified)) {
+                changedEntries.add(student);
+                rows.add(new StudentDAO.RosterRow(student.studentId, student.rollNumber, student.name,
+                                                  student.email, student.phone));
             }
-            
-            // Build result message
-            StringBuilder message = new StringBuilder();
-            if (newStudentsAdded > 0) {
-                message.append("New students added: ").append(newStudentsAdded).append("\n");
+        }
+        if (rows.isEmpty()) {
+            JOptionPane.showMessageDialog(this, "No changes to save");
+            return;
+        }
+
+        int userId = com.sms.login.LoginScreen.currentUserId;
+        JDialog progressDialog = createProgressDialog();
+        JProgressBar progressBar = findProgressBar(progressDialog.getContentPane());
+        JLabel progressStatus = findStatusLabel(progressDialog.getContentPane());
+
+        // PERFORMANCE: one bulk save (one ownership check, one duplicate query, batched
+        // writes in one transaction) on the write lane instead of a DAO call per row on the EDT
+        SwingWorker<List<StudentDAO.RosterOutcome>, Void> worker =
+                new SwingWorker<List<StudentDAO.RosterOutcome>, Void>() {
+            @Override
+            protected List<StudentDAO.RosterOutcome> doInBackground() {
+                return new StudentDAO().saveRoster(sectionId, userId, rows, (saved, total) -> {
+                    setProgress(saved * 100 / total);
+                    SwingUtilities.invokeLater(() ->
+                        progressStatus.setText("Saved " + saved + " of " + total + " students"));
+                });
             }
-            if (existingStudentsUpdated > 0) {
-                message.append("Existing students updated: ").append(existingStudentsUpdated).append("\n");
+
+            @Override
+            protected void done() {
+                progressDialog.dispose();
+                try {
+                    showRosterResult(changedEntries, get());
+                } catch (Exception e) {
+                    JOptionPane.showMessageDialog(StudentEntryDialog.this, "Error saving students: " + e.getMessage());
+                    e.printStackTrace();
+                }
             }
-            if (failedOperations > 0) {
-                message.append("Failed operations: ").append(failedOperations).append("\n");
+        };
+        worker.addPropertyChangeListener(evt -> {
+            if ("progress".equals(evt.getPropertyName())) {
+                progressBar.setValue((Integer) evt.getNewValue());
             }
-            
-            if (message.length() == 0) {
-                message.append("No changes to save");
+        });
+        BackgroundTask.execute(BackgroundTask.Lane.WRITE, null, worker);
+        progressDialog.setVisible(true);
+    }
+
+    private void showRosterResult(List<StudentEntry> changedEntries, List<StudentDAO.RosterOutcome> outcomes) {
+        int newStudentsAdded = 0;
+        int existingStudentsUpdated = 0;
+        List<String> failures = new ArrayList<>();
+
+        for (int i = 0; i < outcomes.size(); i++) {
+            StudentDAO.RosterOutcome outcome = outcomes.get(i);
+            StudentEntry student = changedEntries.get(i);
+            switch (outcome.status) {
+                case INSERTED:
+                    // Saved rows become existing students, so a retry does not insert them twice
+                    student.studentId = outcome.studentId;
+                    student.isModified = false;
+                    newStudentsAdded++;
+                    break;
+                case UPDATED:
+                    student.isModified = false;
+                    existingStudentsUpdated++;
+                    break;
+                default:
+                    failures.add(student.name + " (" + student.rollNumber + "): " + outcome.message);
+                    break;
             }
-            
-            JOptionPane.showMessageDialog(this, message.toString().trim());
-            
-            // Close if any operations succeeded
-            if (newStudentsAdded > 0 || existingStudentsUpdated > 0) {
-                closePanel();
+        }
+
+        // Build result message
+        StringBuilder message = new StringBuilder();
+        if (newStudentsAdded > 0) {
+            message.append("New students added: ").append(newStudentsAdded).append("\n");
+        }
+        if (existingStudentsUpdated > 0) {
+            message.append("Existing students updated: ").append(existingStudentsUpdated).append("\n");
+        }
+        if (!failures.isEmpty()) {
+            message.append("Failed operations: ").append(failures.size()).append("\n");
+            for (int i = 0; i < Math.min(10, failures.size()); i++) {
+                message.append("  ").append(failures.get(i)).append("\n");
             }
-            
-        } catch (Exception e) {
-            JOptionPane.showMessageDialog(this, "Error saving students: " + e.getMessage());
-            e.printStackTrace();
+            if (failures.size() > 10) {
+                message.append("  ... and ").append(failures.size() - 10).append(" more\n");
+            }
+        }
+
+        JOptionPane.showMessageDialog(this, message.toString().trim());
+
+        // Close if any operations succeeded
+        if (newStudentsAdded > 0 || existingStudentsUpdated > 0) {
+            closePanel();
         }
     }
 
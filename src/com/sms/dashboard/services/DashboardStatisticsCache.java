@@ -0,0 +1,340 @@
+package com.sms.dashboard.services;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import com.sms.dao.DataChangeTracker;
+import com.sms.dao.DataChangeTracker.SectionVersion;
+import com.sms.database.DatabaseConnection;
+
+/**
+ * Process-wide, per-section aggregate of the dashboard statistics.
+ *
+ * PERFORMANCE OPTIMIZATION:
+ * AnalyticsService.getDashboardStatistics used to run six separate queries (one pooled
+ * connection each, up to three attempts for the top performer) that re-scanned every
+ * mark of the user on every refresh, so dashboard open time grew with the years of
+ * marks accumulated. Now:
+ * - every section has one aggregate (student count, mark percentage sum, per-student
+ *   averages folded into pass count / top / highest / lowest, recent updates)
+ * - aggregates are keyed by the section's DataChangeTracker watermark and dropped by its
+ *   change events, so a mark write only invalidates the section it touched
+ * - a refresh reads the watermarks, recomputes the changed sections with ONE grouped
+ *   query and merges all aggregates in memory; unchanged sections cost nothing
+ * - every refresh records its time and how many sections it recomputed (getStats(),
+ *   printed at shutdown); refreshes slower than SLOW_REFRESH_MILLIS are logged
+ *
+ * "Recent Activity" is a sliding 30-day window, so aggregates also expire after
+ * MAX_AGE_MILLIS even when nothing changed.
+ *
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public final class DashboardStatisticsCache {
+
+    private static final long MAX_AGE_MILLIS = 10 * 60 * 1000L;
+    private static final double PASS_PERCENTAGE = 50.0;
+    private static final long SLOW_REFRESH_MILLIS = 500;
+
+    /**
+     * Statistics of one section at one watermark.
+     */
+    static final class SectionStats {
+        final int sectionId;
+        final int userId;
+        final int academicYear;
+        final SectionVersion version;
+        final long loadedAt;
+
+        int studentCount;
+        long markCount;
+        double percentageSum;
+        int studentsWithMarks;
+        int passedStudents;
+        String topStudentName;
+        double highestAverage = Double.NaN;
+        double lowestAverage = Double.NaN;
+        int recentUpdates;
+
+        SectionStats(int sectionId, int userId, int academicYear, SectionVersion version, long loadedAt) {
+            this.sectionId = sectionId;
+            this.userId = userId;
+            this.academicYear = academicYear;
+            this.version = version;
+            this.loadedAt = loadedAt;
+        }
+
+        void addStudent(String name, long marks, double percentageSum, int recent) {
+            studentCount++;
+            recentUpdates += recent;
+            if (marks == 0) {
+                return;
+            }
+            this.markCount += marks;
+            this.percentageSum += percentageSum;
+            studentsWithMarks++;
+
+            double average = percentageSum / marks;
+            if (average >= PASS_PERCENTAGE) {
+                passedStudents++;
+            }
+            if (Double.isNaN(highestAverage) || average > highestAverage) {
+                highestAverage = average;
+                topStudentName = name;
+            }
+            if (Double.isNaN(lowestAverage) || average < lowestAverage) {
+                lowestAverage = average;
+            }
+        }
+
+        boolean isCurrent(SectionVersion current, long now) {
+            return version != null && current != null
+                && version.changesSince(current).isEmpty()
+                && now - loadedAt < MAX_AGE_MILLIS;
+        }
+    }
+
+    /**
+     * Merged statistics of a user's sections, optionally filtered by academic year.
+     */
+    public static final class Snapshot {
+        public int totalStudents;
+        public int totalSections;
+        public double averageScore;
+        public String topPerformer = "N/A";
+        public double highestPercentage;
+        public double lowestPercentage;
+        public int recentUpdates;
+        public double passRate;
+
+        // Timing of the refresh that produced this snapshot
+        public double refreshMillis;
+        public int sectionsRecomputed;
+    }
+
+    // Cleared when entered_exam_marks has no created_at column (Recent Activity shows 0)
+    private static volatile boolean hasCreatedAt = true;
+
+    private static final Object LOCK = new Object();
+    private static final Map<Integer, SectionStats> sections = new HashMap<>();
+    private static final AtomicLong generation = new AtomicLong();
+
+    private static final AtomicLong refreshes = new AtomicLong();
+    private static final AtomicLong refreshNanos = new AtomicLong();
+    private static final AtomicLong maxRefreshNanos = new AtomicLong();
+    private static final AtomicLong recomputedSections = new AtomicLong();
+    private static final AtomicLong reusedSections = new AtomicLong();
+
+    static {
+        // Any change to a section (marks, students, configuration) invalidates its aggregate
+        DataChangeTracker.addListener((sectionId, type) -> invalidate(sectionId));
+    }
+
+    private DashboardStatisticsCache() {
+    }
+
+    /**
+     * Statistics for the dashboard cards. Year-filtered like the old per-metric queries:
+     * students, sections, average and top performer follow the filter; recent activity
+     * and the pass rate cover all years.
+     *
+     * @param academicYear 0 for all years
+     */
+    public static Snapshot getStatistics(int userId, int academicYear) throws SQLException {
+        long start = System.nanoTime();
+
+        Map<Integer, SectionVersion> versions = DataChangeTracker.loadVersions(userId);
+        List<SectionStats> current = new ArrayList<>();
+        List<Integer> stale = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        long generationAtLoad = generation.get();
+
+        synchronized (LOCK) {
+            // Sections the user no longer has
+            Iterator<SectionStats> cached = sections.values().iterator();
+            while (cached.hasNext()) {
+                SectionStats stats = cached.next();
+                if (stats.userId == userId && !versions.containsKey(stats.sectionId)) {
+                    cached.remove();
+                }
+            }
+            for (SectionVersion version : versions.values()) {
+                SectionStats stats = sections.get(version.sectionId);
+                if (stats != null && stats.isCurrent(version, now)) {
+                    current.add(stats);
+                } else {
+                    stale.add(version.sectionId);
+                }
+            }
+        }
+
+        if (!stale.isEmpty()) {
+            List<SectionStats> loaded = load(userId, stale, versions, now);
+            synchronized (LOCK) {
+                // Not stored if a change event arrived while loading; the values are still used once
+                if (generation.get() == generationAtLoad) {
+                    for (SectionStats stats : loaded) {
+                        sections.put(stats.sectionId, stats);
+                    }
+                }
+            }
+            current.addAll(loaded);
+        }
+
+        Snapshot snapshot = merge(current, academicYear);
+
+        long elapsed = System.nanoTime() - start;
+        snapshot.refreshMillis = elapsed / 1_000_000.0;
+        snapshot.sectionsRecomputed = stale.size();
+        refreshes.incrementAndGet();
+        refreshNanos.addAndGet(elapsed);
+        maxRefreshNanos.accumulateAndGet(elapsed, Math::max);
+        recomputedSections.addAndGet(stale.size());
+        reusedSections.addAndGet(versions.size() - stale.size());
+        if (elapsed > TimeUnit.MILLISECONDS.toNanos(SLOW_REFRESH_MILLIS)) {
+            System.err.println(String.format("DashboardStatisticsCache: refresh took %.1f ms (%d of %d sections recomputed)",
+                snapshot.refreshMillis, stale.size(), versions.size()));
+        }
+        return snapshot;
+    }
+
+    /**
+     * Drop the aggregate of one section.
+     */
+    public static void invalidate(int sectionId) {
+        generation.incrementAndGet();
+        synchronized (LOCK) {
+            sections.remove(sectionId);
+        }
+    }
+
+    public static void clear() {
+        generation.incrementAndGet();
+        synchronized (LOCK) {
+            sections.clear();
+        }
+    }
+
+    public static String getStats() {
+        int size;
+        synchronized (LOCK) {
+            size = sections.size();
+        }
+        long count = refreshes.get();
+        return String.format("DashboardStatisticsCache: %d sections, refreshes=%d, avg=%.1f ms, max=%.1f ms, recomputed=%d, reused=%d",
+            size, count, count > 0 ? refreshNanos.get() / 1_000_000.0 / count : 0.0,
+            maxRefreshNanos.get() / 1_000_000.0, recomputedSections.get(), reusedSections.get());
+    }
+
+    /**
+     * One grouped query for all stale sections: one row per student (or per empty section).
+     */
+    private static List<SectionStats> load(int userId, List<Integer> sectionIds,
+                                           Map<Integer, SectionVersion> versions, long now) throws SQLException {
+        StringBuilder placeholders = new StringBuilder();
+        for (int i = 0; i < sectionIds.size(); i++) {
+            placeholders.append(i == 0 ? "?" : ", ?");
+        }
+        // Marks count towards the percentages only when the section has the subject with max marks
+        String query = "SELECT sec.id AS section_id, COALESCE(sec.academic_year, 0) AS academic_year, " +
+                       "s.id AS student_id, s.student_name, " +
+                       "COUNT(ss.max_marks) AS mark_count, " +
+                       "SUM((m.marks_obtained / ss.max_marks) * 100) AS pct_sum, " +
+                       (hasCreatedAt
+                           ? "SUM(CASE WHEN m.created_at >= DATE_SUB(NOW(), INTERVAL 30 DAY) THEN 1 ELSE 0 END)"
+                           : "0") + " AS recent_updates " +
+                       "FROM sections sec " +
+                       "LEFT JOIN students s ON s.section_id = sec.id AND s.created_by = ? " +
+                       "LEFT JOIN entered_exam_marks m ON m.student_id = s.id " +
+                       "LEFT JOIN section_subjects ss ON ss.section_id = sec.id AND ss.subject_id = m.subject_id " +
+                       "AND ss.max_marks > 0 AND m.marks_obtained IS NOT NULL " +
+                       "WHERE sec.created_by = ? AND sec.id IN (" + placeholders + ") " +
+                       "GROUP BY sec.id, sec.academic_year, s.id, s.student_name";
+
+        Map<Integer, SectionStats> loaded = new HashMap<>();
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(query)) {
+            int index = 1;
+            ps.setInt(index++, userId);
+            ps.setInt(index++, userId);
+            for (int sectionId : sectionIds) {
+                ps.setInt(index++, sectionId);
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    int sectionId = rs.getInt("section_id");
+                    SectionStats stats = loaded.get(sectionId);
+                    if (stats == null) {
+                        stats = new SectionStats(sectionId, userId, rs.getInt("academic_year"),
+                                                 versions.get(sectionId), now);
+                        loaded.put(sectionId, stats);
+                    }
+                    rs.getInt("student_id");
+                    if (rs.wasNull()) {
+                        continue; // section without students
+                    }
+                    stats.addStudent(rs.getString("student_name"), rs.getLong("mark_count"),
+                                     rs.getDouble("pct_sum"), rs.getInt("recent_updates"));
+                }
+            }
+        } catch (SQLException e) {
+            if (hasCreatedAt && e.getErrorCode() == 1054) { // MySQL unknown column
+                hasCreatedAt = false;
+                return load(userId, sectionIds, versions, now);
+            }
+            throw e;
+        }
+        return new ArrayList<>(loaded.values());
+    }
+
+    private static Snapshot merge(List<SectionStats> all, int academicYear) {
+        Snapshot snapshot = new Snapshot();
+        long markCount = 0;
+        double percentageSum = 0;
+        double topAverage = Double.NaN;
+        int studentsWithMarks = 0;
+        int passedStudents = 0;
+        double highest = Double.NaN;
+        double lowest = Double.NaN;
+
+        for (SectionStats stats : all) {
+            // All years
+            snapshot.recentUpdates += stats.recentUpdates;
+            studentsWithMarks += stats.studentsWithMarks;
+            passedStudents += stats.passedStudents;
+            if (!Double.isNaN(stats.highestAverage) && (Double.isNaN(highest) || stats.highestAverage > highest)) {
+                highest = stats.highestAverage;
+            }
+            if (!Double.isNaN(stats.lowestAverage) && (Double.isNaN(lowest) || stats.lowestAverage < lowest)) {
+                lowest = stats.lowestAverage;
+            }
+
+            // Selected year
+            if (academicYear > 0 && stats.academicYear != academicYear) {
+                continue;
+            }
+            snapshot.totalSections++;
+            snapshot.totalStudents += stats.studentCount;
+            markCount += stats.markCount;
+            percentageSum += stats.percentageSum;
+            if (stats.topStudentName != null && (Double.isNaN(topAverage) || stats.highestAverage > topAverage)) {
+                topAverage = stats.highestAverage;
+                snapshot.topPerformer = stats.topStudentName;
+            }
+        }
+
+        snapshot.averageScore = markCount > 0 ? percentageSum / markCount : 0.0;
+        snapshot.passRate = studentsWithMarks > 0 ? passedStudents * 100.0 / studentsWithMarks : 0.0;
+        snapshot.highestPercentage = Double.isNaN(highest) ? 0.0 : highest;
+        snapshot.lowestPercentage = Double.isNaN(lowest) ? 0.0 : lowest;
+        return snapshot;
+    }
+}
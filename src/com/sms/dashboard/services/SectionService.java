@@ -4,6 +4,7 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
 import com.sms.database.DatabaseConnection;
 import com.sms.dao.SectionDAO;
@@ -31,6 +32,13 @@ public class SectionService {
         return getSectionsByUser(userId);
     }
     
+    /**
+     * Gets only the given sections of a user (incremental refresh)
+     */
+    public List<SectionInfo> getSectionsByIds(int userId, Collection<Integer> sectionIds) {
+        return sectionDAO.getSectionsByIds(userId, sectionIds);
+    }
+    
     /**
      * Gets subjects for a specific section
      */
@@ -6,6 +6,7 @@ import java.awt.Cursor;
 import java.awt.Component;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
+import com.sms.util.BackgroundTask;
 
 /**
  * Utility class for consistent background task execution with proper UI threading
@@ -69,7 +70,7 @@ public class BackgroundTaskUtil {
             }
         };
         
-        worker.execute();
+        BackgroundTask.execute(BackgroundTask.Lane.INTERACTIVE, component, worker);
     }
     
     /**
@@ -116,13 +117,6 @@ public class BackgroundTaskUtil {
      * Simple async execution without UI components
      */
     public static void executeAsync(Runnable task) {
-        SwingWorker<Void, Void> worker = new SwingWorker<Void, Void>() {
-            @Override
-            protected Void doInBackground() throws Exception {
-                task.run();
-                return null;
-            }
-        };
-        worker.execute();
+        BackgroundTask.run(BackgroundTask.Lane.INTERACTIVE, null, "executeAsync", task);
     }
 }
\ No newline at end of file
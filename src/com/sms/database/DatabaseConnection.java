@@ -51,8 +51,8 @@ public class DatabaseConnection {
      * @throws SQLException if connection cannot be obtained
      */
     public static Connection getConnection() throws SQLException {
-        // Delegate to connection pool manager
-        return ConnectionPoolManager.getConnection();
+        // Delegate to connection pool manager (wrapped by the EDT watchdog in debug mode)
+        return EdtJdbcWatchdog.watch(ConnectionPoolManager.getConnection());
     }
     
     public static void closeConnection() {
@@ -0,0 +1,120 @@
+package com.sms.database;
+
+import java.awt.EventQueue;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import com.sms.util.ConfigLoader;
+
+/**
+ * Debug aid: flags JDBC work done on the Swing event dispatch thread.
+ *
+ * Every query on the EDT freezes the UI for a full round trip to MySQL, which is what
+ * makes screens hang on slow links to the remote database. With DEBUG_EDT_JDBC=true
+ * (or -Dsms.debug.edtJdbc=true) every pooled connection is wrapped, and taking a
+ * connection, preparing or creating a statement, or committing on the EDT prints a
+ * warning with the stack trace of the caller. Each call site is printed once with its
+ * full trace; repeats are only counted.
+ *
+ * Disabled (the default), {@link #watch} returns the connection unchanged.
+ *
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public final class EdtJdbcWatchdog {
+
+    private static final boolean ENABLED =
+        Boolean.parseBoolean(ConfigLoader.get("DEBUG_EDT_JDBC", "false"))
+        || Boolean.getBoolean("sms.debug.edtJdbc");
+
+    private static final Set<String> WATCHED_METHODS = Set.of(
+        "prepareStatement", "prepareCall", "createStatement", "commit", "rollback", "setAutoCommit");
+
+    private static final Set<String> reportedSites = ConcurrentHashMap.newKeySet();
+    private static final AtomicLong violations = new AtomicLong();
+
+    private EdtJdbcWatchdog() {
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    public static long getViolationCount() {
+        return violations.get();
+    }
+
+    /**
+     * Check the thread that takes a connection and wrap the connection so later calls
+     * on it are checked too.
+     */
+    static Connection watch(Connection conn) {
+        if (!ENABLED || conn == null) {
+            return conn;
+        }
+        check("getConnection");
+        return (Connection) Proxy.newProxyInstance(
+            Connection.class.getClassLoader(),
+            new Class<?>[] {Connection.class},
+            new WatchedConnection(conn));
+    }
+
+    /**
+     * Report the current call if it runs on the event dispatch thread.
+     */
+    public static void check(String operation) {
+        if (!ENABLED || !EventQueue.isDispatchThread()) {
+            return;
+        }
+        violations.incrementAndGet();
+
+        Throwable trace = new Throwable("JDBC " + operation + " on the Swing event dispatch thread");
+        String site = callSite(trace.getStackTrace());
+        if (reportedSites.add(site)) {
+            System.err.println("[EDT-JDBC] " + operation + " on the event dispatch thread at " + site
+                + " (move it to AsyncRepository / a background task)");
+            trace.printStackTrace();
+        }
+    }
+
+    // First frame outside the watchdog, the connection classes and the proxy machinery
+    private static String callSite(StackTraceElement[] stack) {
+        for (StackTraceElement frame : stack) {
+            String className = frame.getClassName();
+            if (!className.startsWith(EdtJdbcWatchdog.class.getName())
+                && !className.equals(DatabaseConnection.class.getName())
+                && !className.startsWith("jdk.proxy")
+                && !className.startsWith("com.sun.proxy")
+                && !className.startsWith("java.lang.reflect.")
+                && !className.startsWith("jdk.internal.reflect.")) {
+                return frame.toString();
+            }
+        }
+        return stack.length > 0 ? stack[0].toString() : "unknown";
+    }
+
+    private static final class WatchedConnection implements InvocationHandler {
+        private final Connection target;
+
+        WatchedConnection(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (WATCHED_METHODS.contains(method.getName())) {
+                check(method.getName());
+            }
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
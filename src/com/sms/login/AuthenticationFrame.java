@@ -4,6 +4,7 @@ import java.awt.*;
 import javax.swing.*;
 import com.formdev.flatlaf.FlatLightLaf;
 import com.sms.dashboard.DashboardScreen;
+import com.sms.util.BackgroundTask;
 
 /**
  * Main application frame that handles both authentication and dashboard views
@@ -163,7 +164,7 @@ public class AuthenticationFrame extends JFrame {
                 }
             }
         };
-        worker.execute();
+        BackgroundTask.execute(BackgroundTask.Lane.INTERACTIVE, null, worker);
     }
     
     private JPanel createLoadingPanel() {
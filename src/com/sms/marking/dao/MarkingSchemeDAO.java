@@ -1,6 +1,7 @@
 package com.sms.marking.dao;
 
 import com.sms.marking.models.*;
+import com.sms.dao.SectionConfigCache;
 import com.sms.database.DatabaseConnection;
 import java.sql.*;
 import java.util.*;
@@ -55,6 +56,7 @@ public class MarkingSchemeDAO {
 	            }
 	            
 	            conn.commit();
+	            SectionConfigCache.invalidate(scheme.getSectionId());
 	            // Return the schemeId after commit
 	            return schemeId;
 	        } else {
@@ -308,6 +310,11 @@ public class MarkingSchemeDAO {
             }
             
             conn.commit();
+            if (scheme.getSectionId() > 0) {
+                SectionConfigCache.invalidate(scheme.getSectionId());
+            } else {
+                SectionConfigCache.invalidateAll();
+            }
             return true;
             
         } catch (SQLException e) {
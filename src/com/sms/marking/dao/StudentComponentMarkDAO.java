@@ -6,62 +6,116 @@ import java.sql.*;
 import java.util.*;
 public class StudentComponentMarkDAO {
     
-    // Save or update student marks for a component
-    public boolean saveStudentMark(StudentComponentMark mark) throws SQLException {
-        Connection conn = null;
-        PreparedStatement pstmt = null;
-        
-        try {
-            conn = DatabaseConnection.getConnection();
-            
-            // Check if mark already exists
-            if (markExists(conn, mark.getStudentId(), mark.getComponentId())) {
-                // Update existing mark
-                String updateQuery = "UPDATE student_component_marks SET marks_obtained = ?, " +
-                                   "status = ?, entered_by = ?, entered_at = NOW() " +
-                                   "WHERE student_id = ? AND component_id = ?";
-                
-                pstmt = conn.prepareStatement(updateQuery);
-                
-                if (mark.getMarksObtained() != null) {
-                    pstmt.setDouble(1, mark.getMarksObtained());
-                } else {
-                    pstmt.setNull(1, Types.DECIMAL);
+    // Marks per executeBatch; with rewriteBatchedStatements each chunk is one multi-row INSERT
+    static final int WRITE_CHUNK_SIZE = 500;
+    
+    // PERFORMANCE: one statement per mark instead of a SELECT COUNT(*) probe followed by
+    // an UPDATE or INSERT; needs the unique key on (student_id, component_id)
+    private static final String UPSERT_QUERY =
+        "INSERT INTO student_component_marks " +
+        "(student_id, component_id, marks_obtained, status, entered_by) " +
+        "VALUES (?, ?, ?, ?, ?) " +
+        "ON DUPLICATE KEY UPDATE marks_obtained = VALUES(marks_obtained), " +
+        "status = VALUES(status), entered_by = VALUES(entered_by), entered_at = NOW()";
+    
+    // Outcome of the one-time key check; later saves reuse it instead of probing again
+    private static volatile boolean uniqueKeyChecked = false;
+    private static volatile boolean uniqueKeyReady = false;
+    
+    /**
+     * Add the unique key on (student_id, component_id) if the table does not have one yet.
+     * Checked once per run: when the key cannot be added the saves stay on the probe path
+     * until the application is restarted. Rows are never deleted here - if the table
+     * already holds duplicate pairs they are logged and the key is left for the
+     * migration step in docs/DATABASE_DEPLOYMENT_GUIDE.md. Uses its own connection - DDL
+     * causes an implicit commit.
+     * @return false if the key is missing and could not be added
+     */
+    public static boolean ensureUniqueKey() {
+        if (uniqueKeyChecked) {
+            return uniqueKeyReady;
+        }
+        synchronized (StudentComponentMarkDAO.class) {
+            if (uniqueKeyChecked) {
+                return uniqueKeyReady;
+            }
+            String indexQuery = "SELECT INDEX_NAME, GROUP_CONCAT(COLUMN_NAME ORDER BY SEQ_IN_INDEX) AS index_columns " +
+                               "FROM information_schema.STATISTICS " +
+                               "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'student_component_marks' " +
+                               "AND NON_UNIQUE = 0 GROUP BY INDEX_NAME";
+            String duplicatesQuery = "SELECT student_id, component_id, COUNT(*) AS row_count " +
+                                    "FROM student_component_marks GROUP BY student_id, component_id " +
+                                    "HAVING COUNT(*) > 1";
+            String addKey = "ALTER TABLE student_component_marks " +
+                           "ADD UNIQUE KEY uk_student_component (student_id, component_id)";
+            
+            try (Connection conn = DatabaseConnection.getConnection();
+                 Statement stmt = conn.createStatement()) {
+                boolean hasKey = false;
+                try (ResultSet rs = stmt.executeQuery(indexQuery)) {
+                    while (rs.next()) {
+                        if ("student_id,component_id".equals(rs.getString("index_columns"))) {
+                            hasKey = true;
+                        }
+                    }
                 }
-                
-                pstmt.setString(2, mark.getStatus());
-                pstmt.setInt(3, mark.getEnteredBy());
-                pstmt.setInt(4, mark.getStudentId());
-                pstmt.setInt(5, mark.getComponentId());
-                
-            } else {
-                // Insert new mark
-                String insertQuery = "INSERT INTO student_component_marks " +
-                                   "(student_id, component_id, marks_obtained, status, entered_by) " +
-                                   "VALUES (?, ?, ?, ?, ?)";
-                
-                pstmt = conn.prepareStatement(insertQuery);
-                pstmt.setInt(1, mark.getStudentId());
-                pstmt.setInt(2, mark.getComponentId());
-                
-                if (mark.getMarksObtained() != null) {
-                    pstmt.setDouble(3, mark.getMarksObtained());
-                } else {
-                    pstmt.setNull(3, Types.DECIMAL);
+                if (!hasKey) {
+                    List<String> duplicates = new ArrayList<>();
+                    try (ResultSet rs = stmt.executeQuery(duplicatesQuery)) {
+                        while (rs.next()) {
+                            duplicates.add("(student_id=" + rs.getInt("student_id") +
+                                           ", component_id=" + rs.getInt("component_id") +
+                                           ", rows=" + rs.getInt("row_count") + ")");
+                        }
+                    }
+                    if (!duplicates.isEmpty()) {
+                        System.err.println("student_component_marks has " + duplicates.size() +
+                                           " duplicate (student_id, component_id) pair(s); unique key not added, " +
+                                           "marks are saved without upserts until they are cleaned up: " + duplicates);
+                    } else {
+                        stmt.executeUpdate(addKey);
+                        System.out.println("Added unique key on student_component_marks (student_id, component_id)");
+                        hasKey = true;
+                    }
                 }
-                
-                pstmt.setString(4, mark.getStatus());
-                pstmt.setInt(5, mark.getEnteredBy());
+                uniqueKeyReady = hasKey;
+            } catch (SQLException e) {
+                System.err.println("Error adding unique key to student_component_marks: " + e.getMessage());
+                e.printStackTrace();
             }
-            
+            uniqueKeyChecked = true;
+            return uniqueKeyReady;
+        }
+    }
+    
+    // Save or update student marks for a component
+    public boolean saveStudentMark(StudentComponentMark mark) throws SQLException {
+        if (!ensureUniqueKey()) {
+            return saveMarks(Collections.singletonList(mark), false);
+        }
+        
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(UPSERT_QUERY)) {
+            setUpsertParameters(pstmt, mark);
             return pstmt.executeUpdate() > 0;
-            
-        } finally {
-            DatabaseConnection.closeResources(conn, pstmt, null);
         }
     }
     
-    // Check if mark exists
+    private static void setUpsertParameters(PreparedStatement pstmt, StudentComponentMark mark) throws SQLException {
+        pstmt.setInt(1, mark.getStudentId());
+        pstmt.setInt(2, mark.getComponentId());
+        
+        if (mark.getMarksObtained() != null) {
+            pstmt.setDouble(3, mark.getMarksObtained());
+        } else {
+            pstmt.setNull(3, Types.DECIMAL);
+        }
+        
+        pstmt.setString(4, mark.getStatus());
+        pstmt.setInt(5, mark.getEnteredBy());
+    }
+    
+    // Check if mark exists (only used while the unique key is missing)
     private boolean markExists(Connection conn, int studentId, int componentId) throws SQLException {
         String query = "SELECT COUNT(*) FROM student_component_marks WHERE student_id = ? AND component_id = ?";
         
@@ -182,34 +236,120 @@ public class StudentComponentMarkDAO {
         }
     }
     
+    // Get the marks of every student in a section for all components of a scheme
+    // PERFORMANCE: one query for the whole section (student id -> component id -> marks),
+    // instead of getStudentMarks once per student. Every student of the section has an
+    // entry, in roll number order; only present, non-negative marks are included.
+    public Map<Integer, Map<Integer, Double>> getSchemeMarksForSection(int sectionId, int schemeId) throws SQLException {
+        Map<Integer, Map<Integer, Double>> marksByStudent = new LinkedHashMap<>();
+        Connection conn = null;
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+        
+        try {
+            conn = DatabaseConnection.getConnection();
+            
+            String query = "SELECT s.id AS student_id, scm.component_id, scm.marks_obtained " +
+                          "FROM students s " +
+                          "LEFT JOIN student_component_marks scm ON scm.student_id = s.id " +
+                          "AND scm.status = 'present' AND scm.marks_obtained >= 0 " +
+                          "AND scm.component_id IN (SELECT id FROM marking_components WHERE scheme_id = ?) " +
+                          "WHERE s.section_id = ? " +
+                          "ORDER BY s.roll_number, s.id";
+            
+            pstmt = conn.prepareStatement(query);
+            pstmt.setInt(1, schemeId);
+            pstmt.setInt(2, sectionId);
+            
+            rs = pstmt.executeQuery();
+            
+            while (rs.next()) {
+                Map<Integer, Double> studentMarks = marksByStudent.computeIfAbsent(
+                    rs.getInt("student_id"), id -> new HashMap<>());
+                
+                int componentId = rs.getInt("component_id");
+                if (!rs.wasNull()) {
+                    studentMarks.put(componentId, rs.getDouble("marks_obtained"));
+                }
+            }
+            
+            return marksByStudent;
+            
+        } finally {
+            DatabaseConnection.closeResources(conn, pstmt, rs);
+        }
+    }
+    
     // Batch save marks for multiple students
+    // PERFORMANCE: one upsert batch per WRITE_CHUNK_SIZE marks (one round trip per chunk
+    // with rewriteBatchedStatements), no per-mark existence probe. Saving a whole
+    // component column of a section is a single chunk.
     public boolean saveMultipleMarks(List<StudentComponentMark> marks) throws SQLException {
         if (marks == null || marks.isEmpty()) {
             return true;
         }
-        
+        return saveMarks(marks, ensureUniqueKey());
+    }
+    
+    private boolean saveMarks(List<StudentComponentMark> marks, boolean upsert) throws SQLException {
         Connection conn = null;
-        PreparedStatement insertPstmt = null;
-        PreparedStatement updatePstmt = null;
+        PreparedStatement upsertPstmt = null;
         
         try {
             conn = DatabaseConnection.getConnection();
             conn.setAutoCommit(false);
             
-            String insertQuery = "INSERT INTO student_component_marks " +
-                               "(student_id, component_id, marks_obtained, status, entered_by) " +
-                               "VALUES (?, ?, ?, ?, ?)";
-            
-            String updateQuery = "UPDATE student_component_marks SET marks_obtained = ?, " +
-                               "status = ?, entered_by = ?, entered_at = NOW() " +
-                               "WHERE student_id = ? AND component_id = ?";
+            if (upsert) {
+                upsertPstmt = conn.prepareStatement(UPSERT_QUERY);
+                for (int n = 0; n < marks.size(); n++) {
+                    setUpsertParameters(upsertPstmt, marks.get(n));
+                    upsertPstmt.addBatch();
+                    if ((n + 1) % WRITE_CHUNK_SIZE == 0 || n == marks.size() - 1) {
+                        upsertPstmt.executeBatch();
+                    }
+                }
+            } else {
+                saveWithoutUniqueKey(conn, marks);
+            }
             
-            insertPstmt = conn.prepareStatement(insertQuery);
-            updatePstmt = conn.prepareStatement(updateQuery);
+            conn.commit();
+            return true;
             
+        } catch (SQLException e) {
+            if (conn != null) {
+                try {
+                    conn.rollback();
+                } catch (SQLException ex) {
+                    ex.printStackTrace();
+                }
+            }
+            throw e;
+        } finally {
+            if (conn != null) {
+                try {
+                    conn.setAutoCommit(true);
+                } catch (SQLException e) {
+                    e.printStackTrace();
+                }
+            }
+            DatabaseConnection.closeResources(conn, upsertPstmt, null);
+        }
+    }
+    
+    // Previous probe-then-write path, kept for databases where the unique key could not be added
+    private void saveWithoutUniqueKey(Connection conn, List<StudentComponentMark> marks) throws SQLException {
+        String insertQuery = "INSERT INTO student_component_marks " +
+                           "(student_id, component_id, marks_obtained, status, entered_by) " +
+                           "VALUES (?, ?, ?, ?, ?)";
+        
+        String updateQuery = "UPDATE student_component_marks SET marks_obtained = ?, " +
+                           "status = ?, entered_by = ?, entered_at = NOW() " +
+                           "WHERE student_id = ? AND component_id = ?";
+        
+        try (PreparedStatement insertPstmt = conn.prepareStatement(insertQuery);
+             PreparedStatement updatePstmt = conn.prepareStatement(updateQuery)) {
             for (StudentComponentMark mark : marks) {
                 if (markExists(conn, mark.getStudentId(), mark.getComponentId())) {
-                    // Update
                     if (mark.getMarksObtained() != null) {
                         updatePstmt.setDouble(1, mark.getMarksObtained());
                     } else {
@@ -223,41 +363,13 @@ public class StudentComponentMarkDAO {
                     
                     updatePstmt.addBatch();
                 } else {
-                    // Insert
-                    insertPstmt.setInt(1, mark.getStudentId());
-                    insertPstmt.setInt(2, mark.getComponentId());
-                    
-                    if (mark.getMarksObtained() != null) {
-                        insertPstmt.setDouble(3, mark.getMarksObtained());
-                    } else {
-                        insertPstmt.setNull(3, Types.DECIMAL);
-                    }
-                    
-                    insertPstmt.setString(4, mark.getStatus());
-                    insertPstmt.setInt(5, mark.getEnteredBy());
-                    
+                    setUpsertParameters(insertPstmt, mark);
                     insertPstmt.addBatch();
                 }
             }
             
             insertPstmt.executeBatch();
             updatePstmt.executeBatch();
-            
-            conn.commit();
-            return true;
-            
-        } catch (SQLException e) {
-            if (conn != null) {
-                try {
-                    conn.rollback();
-                } catch (SQLException ex) {
-                    ex.printStackTrace();
-                }
-            }
-            throw e;
-        } finally {
-            DatabaseConnection.closeResources(null, insertPstmt, null);
-            DatabaseConnection.closeResources(conn, updatePstmt, null);
         }
     }
     
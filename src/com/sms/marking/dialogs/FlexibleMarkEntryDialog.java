@@ -16,6 +16,7 @@ import com.sms.marking.utils.MarkCalculator;
 import com.sms.database.DatabaseConnection;
 import com.sms.marking.dao.*;
 import com.sms.theme.ThemeManager;
+import com.sms.util.BackgroundTask;
 
 public class FlexibleMarkEntryDialog extends JDialog {
     private ThemeManager themeManager;
@@ -419,26 +420,41 @@ public class FlexibleMarkEntryDialog extends JDialog {
                     JOptionPane.YES_NO_OPTION);
                 
                 if (confirm == JOptionPane.YES_OPTION) {
+                    // One batched upsert for the whole column
+                    List<StudentComponentMark> absentMarks = new ArrayList<>();
                     for (Student student : students) {
                         StudentComponentMark mark = new StudentComponentMark();
                         mark.setStudentId(student.getId());
                         mark.setComponentId(component.getId());
                         mark.setStatus("absent");
                         mark.setEnteredBy(userId);
-                        
-                        try {
-                            markDAO.saveStudentMark(mark);
-                        } catch (SQLException ex) {
-                            ex.printStackTrace();
-                        }
+                        absentMarks.add(mark);
                     }
                     
-                    // Clear marks in table
-                    DefaultTableModel model = (DefaultTableModel) table.getModel();
-                    int col = componentIndex + 2;
-                    for (int row = 0; row < model.getRowCount(); row++) {
-                        model.setValueAt(null, row, col);
-                    }
+                    // All-or-nothing write on the WRITE lane (the first save may also add the unique key)
+                    fillAbsentBtn.setEnabled(false);
+                    BackgroundTask.submit(BackgroundTask.Lane.WRITE, null, "Mark all absent",
+                            () -> markDAO.saveMultipleMarks(absentMarks))
+                        .whenComplete((saved, failure) -> SwingUtilities.invokeLater(() -> {
+                            fillAbsentBtn.setEnabled(true);
+                            if (failure != null) {
+                                Throwable cause = failure.getCause() != null ? failure.getCause() : failure;
+                                cause.printStackTrace();
+                                JOptionPane.showMessageDialog(this,
+                                    "Could not mark students absent for " + component.getComponentName() + ": " +
+                                    cause.getMessage() + "\nNo marks were changed.",
+                                    "Database Error",
+                                    JOptionPane.ERROR_MESSAGE);
+                                return;
+                            }
+                            
+                            // Clear marks in table
+                            DefaultTableModel model = (DefaultTableModel) table.getModel();
+                            int col = componentIndex + 2;
+                            for (int row = 0; row < model.getRowCount(); row++) {
+                                model.setValueAt(null, row, col);
+                            }
+                        }));
                 }
             });
             
@@ -466,11 +482,11 @@ public class FlexibleMarkEntryDialog extends JDialog {
             };
             
             // Calculate and populate summary
-            MarkCalculator calculator = new MarkCalculator();
+            // PERFORMANCE: one section-level calculation shared by the table and the statistics
+            Map<Integer, MarkCalculator.CalculationResult> results = calculateSummaryResults();
             
             for (Student student : students) {
-                MarkCalculator.CalculationResult result = 
-                    calculator.calculateStudentSubjectMarks(student.getId(), sectionId, subjectId);
+                MarkCalculator.CalculationResult result = summaryResult(results, student);
                 
                 Object[] rowData = {
                     student.getRollNumber(),
@@ -515,7 +531,7 @@ public class FlexibleMarkEntryDialog extends JDialog {
             JScrollPane scrollPane = new JScrollPane(summaryTable);
             
             // Statistics panel
-            JPanel statsPanel = createStatisticsPanel();
+            JPanel statsPanel = createStatisticsPanel(results);
             
             panel.add(scrollPane, BorderLayout.CENTER);
             panel.add(statsPanel, BorderLayout.SOUTH);
@@ -523,7 +539,7 @@ public class FlexibleMarkEntryDialog extends JDialog {
             return panel;
         }
         
-        private JPanel createStatisticsPanel() {
+        private JPanel createStatisticsPanel(Map<Integer, MarkCalculator.CalculationResult> results) {
             JPanel panel = new JPanel(new GridLayout(2, 3, 20, 10));
             panel.setBackground(themeManager.getCardColor());
             panel.setBorder(BorderFactory.createTitledBorder("Class Statistics"));
@@ -535,11 +551,8 @@ public class FlexibleMarkEntryDialog extends JDialog {
             double highest = 0;
             double lowest = 100;
             
-            MarkCalculator calculator = new MarkCalculator();
-            
             for (Student student : students) {
-                MarkCalculator.CalculationResult result = 
-                    calculator.calculateStudentSubjectMarks(student.getId(), sectionId, subjectId);
+                MarkCalculator.CalculationResult result = summaryResult(results, student);
                 
                 double percentage = result.getTotalPercentage();
                 totalPercentage += percentage;
@@ -563,6 +576,25 @@ public class FlexibleMarkEntryDialog extends JDialog {
             return panel;
         }
         
+        // Results of all students for the loaded marking scheme (scheme and marks loaded once)
+        private Map<Integer, MarkCalculator.CalculationResult> calculateSummaryResults() {
+            if (markingScheme == null) {
+                return new HashMap<>();
+            }
+            try {
+                return new MarkCalculator().calculateSectionSubjectMarks(markingScheme);
+            } catch (SQLException e) {
+                e.printStackTrace();
+                return new HashMap<>();
+            }
+        }
+        
+        private MarkCalculator.CalculationResult summaryResult(
+                Map<Integer, MarkCalculator.CalculationResult> results, Student student) {
+            MarkCalculator.CalculationResult result = results.get(student.getId());
+            return result != null ? result : new MarkCalculator.CalculationResult("No marks loaded");
+        }
+        
         private JLabel createStatLabel(String label, String value) {
             JLabel statLabel = new JLabel(label + " " + value);
             statLabel.setFont(new Font("SansSerif", Font.PLAIN, 14));
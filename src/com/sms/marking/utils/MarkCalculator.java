@@ -35,37 +35,65 @@ public class MarkCalculator {
                 }
             }
             
-            // Calculate for each group
-            CalculationResult result = new CalculationResult();
-            double totalInternal = 0;
-            double totalExternal = 0;
-            
-            for (ComponentGroup group : scheme.getComponentGroups()) {
-                GroupCalculation groupCalc = calculateGroupMarks(group, marksMap);
-                result.addGroupCalculation(groupCalc);
-                
-                if ("internal".equals(group.getGroupType())) {
-                    totalInternal += groupCalc.getScaledMarks();
-                } else {
-                    totalExternal += groupCalc.getScaledMarks();
-                }
-            }
-            
-            result.setInternalMarks(totalInternal);
-            result.setExternalMarks(totalExternal);
-            result.setTotalMarks(totalInternal + totalExternal);
-            result.setMaxInternalMarks(scheme.getTotalInternalMarks());
-            result.setMaxExternalMarks(scheme.getTotalExternalMarks());
-            
-            return result;
+            return calculateSchemeMarks(scheme, marksMap);
             
         } catch (SQLException e) {
             return new CalculationResult("Database error: " + e.getMessage());
         }
     }
     
-    // Calculate marks for a group
-    private GroupCalculation calculateGroupMarks(ComponentGroup group, Map<Integer, Double> marksMap) {
+    // Calculate marks for every student of a section in a subject
+    // PERFORMANCE: the marking scheme (groups and components) is loaded once and the marks
+    // of all students come from one query, instead of both per student.
+    // Returns student id -> result in roll number order (empty if there is no scheme).
+    public Map<Integer, CalculationResult> calculateSectionSubjectMarks(int sectionId, int subjectId) throws SQLException {
+        MarkingScheme scheme = schemeDAO.getMarkingScheme(sectionId, subjectId);
+        if (scheme == null) {
+            return new LinkedHashMap<>();
+        }
+        return calculateSectionSubjectMarks(scheme);
+    }
+    
+    // Same, for a marking scheme the caller has already loaded
+    public Map<Integer, CalculationResult> calculateSectionSubjectMarks(MarkingScheme scheme) throws SQLException {
+        Map<Integer, Map<Integer, Double>> marksByStudent =
+            markDAO.getSchemeMarksForSection(scheme.getSectionId(), scheme.getId());
+        
+        Map<Integer, CalculationResult> results = new LinkedHashMap<>();
+        for (Map.Entry<Integer, Map<Integer, Double>> entry : marksByStudent.entrySet()) {
+            results.put(entry.getKey(), calculateSchemeMarks(scheme, entry.getValue()));
+        }
+        return results;
+    }
+    
+    // Calculate one student's result from the scheme's groups (marks keyed by component id)
+    private CalculationResult calculateSchemeMarks(MarkingScheme scheme, Map<Integer, Double> marksMap) {
+        CalculationResult result = new CalculationResult();
+        double totalInternal = 0;
+        double totalExternal = 0;
+        
+        for (ComponentGroup group : scheme.getComponentGroups()) {
+            GroupCalculation groupCalc = calculateGroupMarks(group, marksMap);
+            result.addGroupCalculation(groupCalc);
+            
+            if ("internal".equals(group.getGroupType())) {
+                totalInternal += groupCalc.getScaledMarks();
+            } else {
+                totalExternal += groupCalc.getScaledMarks();
+            }
+        }
+        
+        result.setInternalMarks(totalInternal);
+        result.setExternalMarks(totalExternal);
+        result.setTotalMarks(totalInternal + totalExternal);
+        result.setMaxInternalMarks(scheme.getTotalInternalMarks());
+        result.setMaxExternalMarks(scheme.getTotalExternalMarks());
+        
+        return result;
+    }
+    
+    // Calculate marks for a group (marks keyed by component id)
+    public GroupCalculation calculateGroupMarks(ComponentGroup group, Map<Integer, Double> marksMap) {
         GroupCalculation calc = new GroupCalculation(group.getGroupName(), group.getGroupType());
         calc.setMaxMarks(group.getTotalGroupMarks());
         calc.setSelectionType(group.getSelectionType());
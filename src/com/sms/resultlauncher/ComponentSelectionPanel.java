@@ -10,6 +10,7 @@ import com.sms.resultlauncher.ResultLauncher;
 import com.sms.resultlauncher.ResultLauncherUtils;
 import com.sms.calculation.models.Component;
 import com.sms.dao.AnalyzerDAO;
+import com.sms.util.BackgroundTask;
 
 public class ComponentSelectionPanel extends JPanel {
     
@@ -213,6 +214,9 @@ public class ComponentSelectionPanel extends JPanel {
 
             @Override
             protected void done() {
+                if (isCancelled()) {
+                    return; // panel closed before the load finished
+                }
                 try {
                     currentComponents = get();
                     filteredComponents = new ArrayList<>(currentComponents);
@@ -226,7 +230,7 @@ public class ComponentSelectionPanel extends JPanel {
                 }
             }
         };
-        worker.execute();
+        BackgroundTask.execute(BackgroundTask.Lane.INTERACTIVE, this, worker);
     }
     
     private void populateSubjectFilter() {
@@ -0,0 +1,298 @@
+package com.sms.resultlauncher;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import com.sms.resultlauncher.EmailOutboxDAO.OutboxEmail;
+import com.sms.util.ConfigLoader;
+import com.sms.util.TokenBucket;
+
+/**
+ * Background sender for the email outbox.
+ *
+ * Launches only queue rows in email_outbox (inside their transaction) and call
+ * {@link #wakeUp()} after commit, so launch latency no longer depends on class size
+ * or on the email provider. This dispatcher then:
+ * - claims due rows in batches (safe with several clients on one database)
+ * - sends with a bounded number of concurrent virtual threads, packing rows of
+ *   one launch into bulk requests when the provider supports it
+ * - applies a token-bucket rate limit towards the provider
+ * - retries failures with exponential backoff up to EMAIL_MAX_ATTEMPTS
+ * - records the outcome per recipient and per launch (launched_results.email_sent)
+ *
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public final class EmailDispatcher {
+
+    private static final EmailDispatcher INSTANCE = new EmailDispatcher();
+
+    private static final int CLAIM_BATCH_SIZE = 50;
+    private static final long MAX_BACKOFF_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    private final int maxConcurrentSends;
+    private final int maxAttempts;
+    private final long retryBaseMillis;
+    private final long pollIntervalMillis;
+    private final Semaphore sendPermits;
+    private final TokenBucket rateLimiter;
+
+    private volatile EmailProvider provider = EmailService.MAILERSEND;
+    private volatile boolean running = false;
+    private boolean wakeRequested = false;
+    private final Object wakeLock = new Object();
+
+    private Thread pollThread;
+    private ExecutorService senders;
+
+    private EmailDispatcher() {
+        this.maxConcurrentSends = Math.max(1, ConfigLoader.getEmailDispatchConcurrency());
+        this.maxAttempts = Math.max(1, ConfigLoader.getEmailMaxAttempts());
+        this.retryBaseMillis = TimeUnit.SECONDS.toMillis(Math.max(1, ConfigLoader.getEmailRetryBaseSeconds()));
+        this.pollIntervalMillis = TimeUnit.SECONDS.toMillis(Math.max(1, ConfigLoader.getEmailPollIntervalSeconds()));
+        int ratePerSecond = Math.max(1, ConfigLoader.getEmailRatePerSecond());
+        this.sendPermits = new Semaphore(maxConcurrentSends);
+        this.rateLimiter = new TokenBucket(ratePerSecond, ratePerSecond);
+    }
+
+    public static EmailDispatcher getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Replace the email transport (e.g. with a local stub in tests).
+     */
+    public void setProvider(EmailProvider provider) {
+        this.provider = provider != null ? provider : EmailService.MAILERSEND;
+    }
+
+    /**
+     * Start the background poll loop. Safe to call more than once.
+     */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        senders = Executors.newVirtualThreadPerTaskExecutor();
+        pollThread = Thread.ofVirtual().name("email-dispatcher").start(this::pollLoop);
+        System.out.println("📧 Email dispatcher started (" + maxConcurrentSends + " concurrent senders)");
+    }
+
+    /**
+     * Ask the dispatcher to look at the outbox now instead of waiting for the next poll.
+     * Starts the dispatcher if it is not running yet.
+     */
+    public void wakeUp() {
+        start();
+        synchronized (wakeLock) {
+            wakeRequested = true;
+            wakeLock.notifyAll();
+        }
+    }
+
+    /**
+     * Stop polling and wait briefly for in-flight sends. Unsent rows stay in the
+     * outbox and are picked up again on the next start.
+     */
+    public synchronized void shutdown() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        synchronized (wakeLock) {
+            wakeLock.notifyAll();
+        }
+        senders.shutdown();
+        try {
+            if (!senders.awaitTermination(5, TimeUnit.SECONDS)) {
+                senders.shutdownNow();
+            }
+            pollThread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        System.out.println("✓ Email dispatcher stopped");
+    }
+
+    private void pollLoop() {
+        EmailOutboxDAO.ensureTable();
+        int released = EmailOutboxDAO.releaseStaleClaims();
+        if (released > 0) {
+            System.out.println("📧 Re-queued " + released + " interrupted email(s)");
+        }
+
+        while (running) {
+            EmailProvider current = provider;
+            int claimLimit = Math.max(CLAIM_BATCH_SIZE, current.maxBulkSize());
+            int processed = 0;
+            try {
+                if (current.isReady()) {
+                    processed = dispatchBatch(current, claimLimit);
+                }
+            } catch (Exception e) {
+                System.err.println("❌ Email dispatcher error: " + e.getMessage());
+            }
+
+            // A full batch means more may be waiting - go again without sleeping
+            if (processed >= claimLimit) {
+                continue;
+            }
+            synchronized (wakeLock) {
+                if (!wakeRequested && running) {
+                    try {
+                        wakeLock.wait(pollIntervalMillis);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                wakeRequested = false;
+            }
+        }
+    }
+
+    /**
+     * Claim one batch, send it with bounded concurrency and wait for it to finish.
+     * Rows of the same launch share one compiled template; with a bulk-capable
+     * provider they also share one request per {@link EmailProvider#maxBulkSize()}.
+     * @return number of messages processed
+     */
+    private int dispatchBatch(EmailProvider provider, int claimLimit) throws Exception {
+        List<OutboxEmail> batch = EmailOutboxDAO.claimDue(claimLimit);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        Map<Integer, List<OutboxEmail>> byLaunch = new LinkedHashMap<>();
+        for (OutboxEmail email : batch) {
+            byLaunch.computeIfAbsent(email.launchId, k -> new ArrayList<>()).add(email);
+        }
+
+        int bulkSize = provider.maxBulkSize();
+        List<Future<?>> inFlight = new ArrayList<>();
+        for (List<OutboxEmail> launchEmails : byLaunch.values()) {
+            OutboxEmail first = launchEmails.get(0);
+            ResultEmailTemplate template = ResultEmailTemplate.compile(first.launchName, first.messageBody);
+
+            if (bulkSize > 1) {
+                for (int from = 0; from < launchEmails.size(); from += bulkSize) {
+                    List<OutboxEmail> chunk = launchEmails.subList(from, Math.min(from + bulkSize, launchEmails.size()));
+                    submit(inFlight, () -> deliverBulk(provider, chunk, template));
+                }
+            } else {
+                for (OutboxEmail email : launchEmails) {
+                    submit(inFlight, () -> deliver(provider, email, template));
+                }
+            }
+        }
+        for (Future<?> future : inFlight) {
+            future.get();
+        }
+
+        for (Integer launchId : byLaunch.keySet()) {
+            EmailOutboxDAO.updateLaunchEmailStatus(launchId);
+        }
+        return batch.size();
+    }
+
+    private void submit(List<Future<?>> inFlight, Runnable task) throws InterruptedException {
+        sendPermits.acquire();
+        try {
+            inFlight.add(senders.submit(() -> {
+                try {
+                    task.run();
+                } finally {
+                    sendPermits.release();
+                }
+            }));
+        } catch (RuntimeException e) {
+            sendPermits.release();
+            throw e;
+        }
+    }
+
+    private void deliver(EmailProvider provider, OutboxEmail email, ResultEmailTemplate template) {
+        String error;
+        try {
+            rateLimiter.acquire();
+            if (provider.send(email.recipientName, email.recipientEmail, email.subject,
+                              template.html(email.recipientName), template.plain(email.recipientName))) {
+                EmailOutboxDAO.markSent(email.id);
+                return;
+            }
+            error = "Rejected by email provider";
+        } catch (InterruptedException e) {
+            // Shutting down - leave the row claimed; it is released on next start
+            Thread.currentThread().interrupt();
+            return;
+        } catch (Exception e) {
+            error = describe(e);
+        }
+        handleFailure(email, error);
+    }
+
+    /**
+     * One provider request (and one rate-limit token) for a whole chunk.
+     */
+    private void deliverBulk(EmailProvider provider, List<OutboxEmail> chunk, ResultEmailTemplate template) {
+        List<EmailService.Recipient> recipients = new ArrayList<>(chunk.size());
+        for (OutboxEmail email : chunk) {
+            recipients.add(new EmailService.Recipient(email.studentId, email.recipientEmail, email.recipientName));
+        }
+
+        boolean[] results;
+        String error = "Rejected by email provider";
+        try {
+            rateLimiter.acquire();
+            results = provider.sendBulk(recipients, chunk.get(0).subject, template);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (Exception e) {
+            results = new boolean[chunk.size()];
+            error = describe(e);
+        }
+
+        List<Long> deliveredIds = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            if (results[i]) {
+                deliveredIds.add(chunk.get(i).id);
+            } else {
+                handleFailure(chunk.get(i), error);
+            }
+        }
+        if (provider.reportsBulkRecipientStatus()) {
+            EmailOutboxDAO.markSent(deliveredIds);
+        } else {
+            EmailOutboxDAO.markAccepted(deliveredIds);
+        }
+    }
+
+    private void handleFailure(OutboxEmail email, String error) {
+        int attempt = email.attempts + 1;
+        if (attempt >= maxAttempts) {
+            System.err.println("❌ Giving up on email to " + email.recipientEmail + " after " + attempt + " attempts: " + error);
+            EmailOutboxDAO.markFailed(email.id, error);
+        } else {
+            EmailOutboxDAO.markRetry(email.id, error, backoffMillis(attempt));
+        }
+    }
+
+    private static String describe(Exception e) {
+        return e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+    }
+
+    /**
+     * Exponential backoff: base, 2x base, 4x base ... capped at one hour.
+     */
+    private long backoffMillis(int attempt) {
+        long delay = retryBaseMillis << Math.min(attempt - 1, 20);
+        return Math.min(delay, MAX_BACKOFF_MILLIS);
+    }
+}
@@ -0,0 +1,317 @@
+package com.sms.resultlauncher;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import com.sms.database.DatabaseConnection;
+
+/**
+ * Durable outbox for result notification emails.
+ *
+ * Rows are written inside the launch transaction (so a rolled back launch never
+ * emails anybody) and delivered afterwards by {@link EmailDispatcher}.
+ * Every recipient keeps its own status:
+ * - pending  : waiting to be sent (or waiting for the next retry)
+ * - sending  : claimed by a dispatcher
+ * - sent     : accepted by the provider for this recipient
+ * - accepted : part of a bulk request the provider queued; per-recipient delivery unknown
+ * - failed   : gave up after the maximum number of attempts
+ * - skipped  : student has no email address
+ *
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class EmailOutboxDAO {
+
+    public static final String STATUS_PENDING = "pending";
+    public static final String STATUS_SENDING = "sending";
+    public static final String STATUS_SENT = "sent";
+    // Handed to a bulk provider that queued the request; delivery per recipient is unknown
+    public static final String STATUS_ACCEPTED = "accepted";
+    public static final String STATUS_FAILED = "failed";
+    public static final String STATUS_SKIPPED = "skipped";
+
+    private static final String DEFAULT_SUBJECT = "Your Results Have Been Published";
+
+    // Claims older than this are assumed to belong to a crashed dispatcher
+    private static final int STALE_CLAIM_MINUTES = 10;
+
+    private static volatile boolean tableReady = false;
+
+    /**
+     * One queued email, as claimed by the dispatcher.
+     */
+    public static class OutboxEmail {
+        public long id;
+        public int launchId;
+        public int studentId;
+        public String recipientEmail;
+        public String recipientName;
+        public String subject;
+        public String launchName;
+        public String messageBody;
+        public int attempts;
+    }
+
+    /**
+     * Create the email_outbox table if it does not exist yet.
+     * Must run OUTSIDE the launch transaction - DDL causes an implicit commit in MySQL.
+     */
+    public static void ensureTable() {
+        if (tableReady) {
+            return;
+        }
+        synchronized (EmailOutboxDAO.class) {
+            if (tableReady) {
+                return;
+            }
+            String createTable = "CREATE TABLE IF NOT EXISTS email_outbox (" +
+                "id BIGINT AUTO_INCREMENT PRIMARY KEY, " +
+                "launch_id INT NOT NULL, " +
+                "student_id INT NOT NULL, " +
+                "recipient_email VARCHAR(255), " +
+                "recipient_name VARCHAR(255), " +
+                "subject VARCHAR(500) NOT NULL, " +
+                "launch_name VARCHAR(255), " +
+                "message_body TEXT, " +
+                "status VARCHAR(20) NOT NULL DEFAULT 'pending', " +
+                "attempts INT NOT NULL DEFAULT 0, " +
+                "last_error VARCHAR(500), " +
+                "next_attempt_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP, " +
+                "claim_token VARCHAR(36), " +
+                "claimed_at TIMESTAMP NULL, " +
+                "sent_at TIMESTAMP NULL, " +
+                "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, " +
+                "UNIQUE KEY unique_launch_student (launch_id, student_id), " +
+                "INDEX idx_status_next (status, next_attempt_at), " +
+                "INDEX idx_claim_token (claim_token)" +
+                ")";
+
+            try (Connection conn = DatabaseConnection.getConnection();
+                 Statement stmt = conn.createStatement()) {
+                stmt.executeUpdate(createTable);
+                tableReady = true;
+            } catch (SQLException e) {
+                System.err.println("Error creating email_outbox table: " + e.getMessage());
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Queue one notification per student for a launch.
+     * Uses the caller's connection so the rows commit (or roll back) with the launch.
+     * Recipient email/name are resolved with a single INSERT ... SELECT.
+     *
+     * @return number of rows queued
+     */
+    public static int enqueueLaunch(Connection conn, int launchId, List<Integer> studentIds,
+                                    ResultConfiguration config) throws SQLException {
+        if (studentIds == null || studentIds.isEmpty()) {
+            return 0;
+        }
+
+        String subject = config.getEmailSubject() != null && !config.getEmailSubject().isEmpty() ?
+                        config.getEmailSubject() : DEFAULT_SUBJECT;
+
+        String placeholders = String.join(",", java.util.Collections.nCopies(studentIds.size(), "?"));
+        String query = "INSERT INTO email_outbox " +
+                      "(launch_id, student_id, recipient_email, recipient_name, subject, " +
+                      " launch_name, message_body, status) " +
+                      "SELECT ?, s.id, s.email, COALESCE(s.student_name, 'Student'), ?, ?, ?, " +
+                      "       CASE WHEN s.email IS NULL OR s.email = '' THEN '" + STATUS_SKIPPED + "' " +
+                      "            ELSE '" + STATUS_PENDING + "' END " +
+                      "FROM students s WHERE s.id IN (" + placeholders + ")";
+
+        try (PreparedStatement ps = conn.prepareStatement(query)) {
+            int idx = 1;
+            ps.setInt(idx++, launchId);
+            ps.setString(idx++, subject);
+            ps.setString(idx++, config.getLaunchName());
+            ps.setString(idx++, config.getEmailMessage());
+            for (Integer studentId : studentIds) {
+                ps.setInt(idx++, studentId);
+            }
+            return ps.executeUpdate();
+        }
+    }
+
+    /**
+     * Atomically claim up to {@code limit} due messages for this dispatcher.
+     * The UPDATE ... LIMIT claim is safe when several clients run a dispatcher
+     * against the same database.
+     */
+    public static List<OutboxEmail> claimDue(int limit) throws SQLException {
+        List<OutboxEmail> claimed = new ArrayList<>();
+        String token = UUID.randomUUID().toString();
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            String claim = "UPDATE email_outbox SET status = ?, claim_token = ?, claimed_at = NOW() " +
+                          "WHERE status = ? AND next_attempt_at <= NOW() " +
+                          "ORDER BY id LIMIT ?";
+            int count;
+            try (PreparedStatement ps = conn.prepareStatement(claim)) {
+                ps.setString(1, STATUS_SENDING);
+                ps.setString(2, token);
+                ps.setString(3, STATUS_PENDING);
+                ps.setInt(4, limit);
+                count = ps.executeUpdate();
+            }
+            if (count == 0) {
+                return claimed;
+            }
+
+            String select = "SELECT id, launch_id, student_id, recipient_email, recipient_name, " +
+                           "subject, launch_name, message_body, attempts " +
+                           "FROM email_outbox WHERE claim_token = ? ORDER BY id";
+            try (PreparedStatement ps = conn.prepareStatement(select)) {
+                ps.setString(1, token);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        OutboxEmail email = new OutboxEmail();
+                        email.id = rs.getLong("id");
+                        email.launchId = rs.getInt("launch_id");
+                        email.studentId = rs.getInt("student_id");
+                        email.recipientEmail = rs.getString("recipient_email");
+                        email.recipientName = rs.getString("recipient_name");
+                        email.subject = rs.getString("subject");
+                        email.launchName = rs.getString("launch_name");
+                        email.messageBody = rs.getString("message_body");
+                        email.attempts = rs.getInt("attempts");
+                        claimed.add(email);
+                    }
+                }
+            }
+        }
+        return claimed;
+    }
+
+    public static void markSent(long id) {
+        String query = "UPDATE email_outbox SET status = ?, attempts = attempts + 1, " +
+                      "last_error = NULL, sent_at = NOW(), claim_token = NULL WHERE id = ?";
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(query)) {
+            ps.setString(1, STATUS_SENT);
+            ps.setLong(2, id);
+            ps.executeUpdate();
+        } catch (SQLException e) {
+            System.err.println("Error marking email " + id + " as sent: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Mark many rows as sent with one statement (bulk deliveries).
+     */
+    public static void markSent(List<Long> ids) {
+        markDelivered(ids, STATUS_SENT);
+    }
+
+    /**
+     * Mark many rows as accepted by a bulk provider that does not report per-recipient
+     * status. They are final like sent rows and are not retried.
+     */
+    public static void markAccepted(List<Long> ids) {
+        markDelivered(ids, STATUS_ACCEPTED);
+    }
+
+    private static void markDelivered(List<Long> ids, String status) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        String query = "UPDATE email_outbox SET status = ?, attempts = attempts + 1, " +
+                      "last_error = NULL, sent_at = NOW(), claim_token = NULL WHERE id IN (" +
+                      String.join(",", java.util.Collections.nCopies(ids.size(), "?")) + ")";
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(query)) {
+            ps.setString(1, status);
+            for (int i = 0; i < ids.size(); i++) {
+                ps.setLong(i + 2, ids.get(i));
+            }
+            ps.executeUpdate();
+        } catch (SQLException e) {
+            System.err.println("Error marking " + ids.size() + " emails as " + status + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Record a failed attempt and schedule the next one {@code delayMillis} from now.
+     */
+    public static void markRetry(long id, String error, long delayMillis) {
+        String query = "UPDATE email_outbox SET status = ?, attempts = attempts + 1, last_error = ?, " +
+                      "next_attempt_at = NOW() + INTERVAL ? SECOND, claim_token = NULL WHERE id = ?";
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(query)) {
+            ps.setString(1, STATUS_PENDING);
+            ps.setString(2, truncate(error));
+            ps.setLong(3, Math.max(1, delayMillis / 1000));
+            ps.setLong(4, id);
+            ps.executeUpdate();
+        } catch (SQLException e) {
+            System.err.println("Error scheduling retry for email " + id + ": " + e.getMessage());
+        }
+    }
+
+    public static void markFailed(long id, String error) {
+        String query = "UPDATE email_outbox SET status = ?, attempts = attempts + 1, last_error = ?, " +
+                      "claim_token = NULL WHERE id = ?";
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(query)) {
+            ps.setString(1, STATUS_FAILED);
+            ps.setString(2, truncate(error));
+            ps.setLong(3, id);
+            ps.executeUpdate();
+        } catch (SQLException e) {
+            System.err.println("Error marking email " + id + " as failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Return claims abandoned by a crashed or killed dispatcher to the queue.
+     */
+    public static int releaseStaleClaims() {
+        String query = "UPDATE email_outbox SET status = ?, claim_token = NULL " +
+                      "WHERE status = ? AND claimed_at < NOW() - INTERVAL " + STALE_CLAIM_MINUTES + " MINUTE";
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(query)) {
+            ps.setString(1, STATUS_PENDING);
+            ps.setString(2, STATUS_SENDING);
+            return ps.executeUpdate();
+        } catch (SQLException e) {
+            System.err.println("Error releasing stale email claims: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * Once no message of a launch is pending or in flight, store the overall outcome
+     * in launched_results.email_sent (same rule as before: at least half delivered).
+     * Skipped rows (no email address) were never sendable and do not count towards the half;
+     * rows accepted by a bulk provider count as delivered.
+     */
+    public static void updateLaunchEmailStatus(int launchId) {
+        String query = "UPDATE launched_results lr " +
+                      "JOIN (SELECT launch_id, SUM(status <> 'skipped') AS total, " +
+                      "             SUM(status IN ('sent', 'accepted')) AS sent, " +
+                      "             SUM(status IN ('pending', 'sending')) AS open_count " +
+                      "      FROM email_outbox WHERE launch_id = ? GROUP BY launch_id) o " +
+                      "  ON o.launch_id = lr.id " +
+                      "SET lr.email_sent = (o.sent > 0 AND o.sent >= FLOOR(o.total / 2)) " +
+                      "WHERE lr.id = ? AND o.open_count = 0";
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(query)) {
+            ps.setInt(1, launchId);
+            ps.setInt(2, launchId);
+            ps.executeUpdate();
+        } catch (SQLException e) {
+            System.err.println("Error updating email status for launch " + launchId + ": " + e.getMessage());
+        }
+    }
+
+    private static String truncate(String error) {
+        if (error == null) {
+            return null;
+        }
+        return error.length() > 500 ? error.substring(0, 500) : error;
+    }
+}
@@ -0,0 +1,69 @@
+package com.sms.resultlauncher;
+
+import java.util.List;
+
+/**
+ * Transport used by {@link EmailDispatcher} to deliver one outbox message.
+ *
+ * The production implementation is {@link EmailService#MAILERSEND}; tests and
+ * local runs can install a stub with {@link EmailDispatcher#setProvider(EmailProvider)}
+ * so that launches never reach the real API.
+ *
+ * @version 1.0
+ * @since 2026-10-17
+ */
+@FunctionalInterface
+public interface EmailProvider {
+
+    /**
+     * Send a single email.
+     *
+     * @return true if the provider accepted the message, false if it was rejected
+     * @throws Exception on transport errors (treated as retryable by the dispatcher)
+     */
+    boolean send(String toName, String toEmail, String subject,
+                 String htmlContent, String plainContent) throws Exception;
+
+    /**
+     * Send the same template to many recipients, personalised by name.
+     * The default sends one message at a time; providers with a bulk API override
+     * this together with {@link #maxBulkSize()}.
+     *
+     * @return per-recipient acceptance, in the order of {@code recipients}
+     */
+    default boolean[] sendBulk(List<EmailService.Recipient> recipients, String subject,
+                               ResultEmailTemplate template) throws Exception {
+        boolean[] results = new boolean[recipients.size()];
+        for (int i = 0; i < recipients.size(); i++) {
+            EmailService.Recipient recipient = recipients.get(i);
+            results[i] = send(recipient.name, recipient.email, subject,
+                              template.html(recipient.name), template.plain(recipient.name));
+        }
+        return results;
+    }
+
+    /**
+     * Whether {@link #sendBulk} reports the status of each recipient. Providers that only
+     * acknowledge the request as a whole (queued bulk APIs) return false; their rows are
+     * recorded as accepted rather than sent.
+     */
+    default boolean reportsBulkRecipientStatus() {
+        return true;
+    }
+
+    /**
+     * Largest number of recipients accepted by one {@link #sendBulk} call.
+     * 1 means the provider has no bulk mode and the dispatcher sends individually.
+     */
+    default int maxBulkSize() {
+        return 1;
+    }
+
+    /**
+     * Whether the provider is able to send at all (e.g. API key present).
+     * The dispatcher leaves queued messages pending while this is false.
+     */
+    default boolean isReady() {
+        return true;
+    }
+}
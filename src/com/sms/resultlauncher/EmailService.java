@@ -10,7 +10,11 @@ import java.nio.charset.StandardCharsets;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * EmailService for sending result notifications using MailerSend API via HTTP.
@@ -25,15 +29,81 @@ public class EmailService {
     private static final String FROM_EMAIL = ConfigLoader.getMailerSendFromEmail();
     private static final String FROM_NAME = ConfigLoader.getMailerSendFromName();
     private static final String API_URL = "https://api.mailersend.com/v1/email";
+    private static final String BULK_API_URL = "https://api.mailersend.com/v1/bulk-email";
+    
+    // MailerSend accepts at most 500 email objects per bulk request
+    private static final int MAX_BULK_SIZE = 500;
+    private static final int BULK_SIZE = Math.max(1, Math.min(MAX_BULK_SIZE, ConfigLoader.getMailerSendBulkSize()));
+    
+    // Keep IN-lists well below server packet / placeholder limits
+    private static final int RECIPIENT_LOOKUP_CHUNK = 1000;
+    
+    /**
+     * Resolved recipient of a result notification.
+     */
+    public static class Recipient {
+        public int studentId;
+        public String email;
+        public String name;
+        
+        public Recipient(int studentId, String email, String name) {
+            this.studentId = studentId;
+            this.email = email;
+            this.name = name;
+        }
+    }
+    
+    /**
+     * MailerSend transport used by the background {@link EmailDispatcher}.
+     */
+    public static final EmailProvider MAILERSEND = new EmailProvider() {
+        @Override
+        public boolean send(String toName, String toEmail, String subject,
+                            String htmlContent, String plainContent) {
+            return sendEmailViaHttp(FROM_NAME, FROM_EMAIL, toName, toEmail,
+                                   subject, htmlContent, plainContent);
+        }
+        
+        @Override
+        public boolean[] sendBulk(List<Recipient> recipients, String subject,
+                                  ResultEmailTemplate template) {
+            // The bulk endpoint only queues the request (HTTP 202); the outcome per
+            // recipient is not known here, so every entry carries the request's acceptance
+            boolean accepted = sendBulkViaHttp(recipients, subject, template);
+            boolean[] results = new boolean[recipients.size()];
+            java.util.Arrays.fill(results, accepted);
+            return results;
+        }
+        
+        @Override
+        public boolean reportsBulkRecipientStatus() {
+            return false;
+        }
+        
+        @Override
+        public int maxBulkSize() {
+            return BULK_SIZE;
+        }
+        
+        @Override
+        public boolean isReady() {
+            return isConfigured();
+        }
+    };
     
     /**
      * Send result notification emails to multiple students.
      * 
+     * PERFORMANCE OPTIMIZATION:
+     * - All recipients resolved with one IN-list query (was 2 queries per student)
+     * - Template compiled once, personalised per recipient by concatenation
+     * - Messages packed into MailerSend bulk requests (up to MAILERSEND_BULK_SIZE each)
+     * 
      * @param studentIds List of student IDs to send emails to
      * @param subject Email subject
      * @param messageBody Custom message from teacher
      * @param launchName Name of the launched result
-     * @return true if all emails sent successfully, false otherwise
+     * @return true if at least half of the emails were accepted, false otherwise
      */
     public static boolean sendResultNotifications(List<Integer> studentIds, String subject, 
                                                   String messageBody, String launchName) {
@@ -45,63 +115,108 @@ public class EmailService {
         
         System.out.println("📧 Sending emails to " + studentIds.size() + " students...");
         
-        int successCount = 0;
-        int failCount = 0;
+        String emailSubject = subject != null && !subject.isEmpty() ? 
+                        subject : "Your Results Have Been Published";
         
+        Map<Integer, Recipient> recipientsById = loadRecipients(studentIds);
+        List<Recipient> recipients = new ArrayList<>(recipientsById.size());
+        int failCount = 0;
         for (Integer studentId : studentIds) {
-            try {
-                String studentEmail = getStudentEmail(studentId);
-                String studentName = getStudentName(studentId);
-                
-                if (studentEmail == null || studentEmail.isEmpty()) {
-                    System.out.println("⚠️ No email for student ID " + studentId + ", skipping");
-                    failCount++;
-                    continue;
-                }
-                
-                // Set subject
-                String emailSubject = subject != null && !subject.isEmpty() ? 
-                                subject : "Your Results Have Been Published";
-                
-                // Create HTML and plain text content
-                String htmlContent = buildHtmlEmail(studentName, launchName, messageBody);
-                String plainContent = buildPlainEmail(studentName, launchName, messageBody);
-                
-                // Send email via HTTP API
-                boolean sent = sendEmailViaHttp(FROM_NAME, FROM_EMAIL, studentName, studentEmail, 
-                                               emailSubject, htmlContent, plainContent);
-                
-                if (sent) {
-                    System.out.println("✅ Email sent to " + studentName + " (" + studentEmail + ")");
-                    successCount++;
-                } else {
-                    System.err.println("❌ Failed to send email to " + studentEmail);
-                    failCount++;
-                }
-                
-                // Small delay to avoid rate limiting
-                Thread.sleep(100);
-                
-            } catch (Exception e) {
-                System.err.println("❌ Error for student " + studentId + ": " + e.getMessage());
+            Recipient recipient = recipientsById.get(studentId);
+            if (recipient == null || recipient.email == null || recipient.email.isEmpty()) {
+                System.out.println("⚠️ No email for student ID " + studentId + ", skipping");
                 failCount++;
+                continue;
             }
+            recipients.add(recipient);
         }
         
-        System.out.println("📊 Email Summary: " + successCount + " sent, " + failCount + " failed");
+        ResultEmailTemplate template = ResultEmailTemplate.compile(launchName, messageBody);
+        
+        int successCount = 0;
+        for (int from = 0; from < recipients.size(); from += BULK_SIZE) {
+            List<Recipient> chunk = recipients.subList(from, Math.min(from + BULK_SIZE, recipients.size()));
+            if (sendBulkViaHttp(chunk, emailSubject, template)) {
+                successCount += chunk.size();
+            } else {
+                failCount += chunk.size();
+            }
+        }
+        
+        System.out.println("📊 Email Summary: " + successCount + " accepted, " + failCount + " failed");
         
         // Consider successful if at least 50% sent
         return successCount > 0 && (successCount >= studentIds.size() / 2);
     }
     
+    /**
+     * Resolve email and name for many students with one IN-list query per
+     * {@value #RECIPIENT_LOOKUP_CHUNK} ids. Students that do not exist are absent
+     * from the returned map.
+     */
+    public static Map<Integer, Recipient> loadRecipients(List<Integer> studentIds) {
+        Map<Integer, Recipient> recipients = new LinkedHashMap<>();
+        if (studentIds == null || studentIds.isEmpty()) {
+            return recipients;
+        }
+        
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            for (int from = 0; from < studentIds.size(); from += RECIPIENT_LOOKUP_CHUNK) {
+                List<Integer> chunk = studentIds.subList(from, Math.min(from + RECIPIENT_LOOKUP_CHUNK, studentIds.size()));
+                String query = "SELECT id, email, student_name FROM students WHERE id IN (" +
+                              String.join(",", Collections.nCopies(chunk.size(), "?")) + ")";
+                try (PreparedStatement ps = conn.prepareStatement(query)) {
+                    for (int i = 0; i < chunk.size(); i++) {
+                        ps.setInt(i + 1, chunk.get(i));
+                    }
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            String name = rs.getString("student_name");
+                            recipients.put(rs.getInt("id"), new Recipient(
+                                rs.getInt("id"), rs.getString("email"), name != null ? name : "Student"));
+                        }
+                    }
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("Error loading email recipients: " + e.getMessage());
+        }
+        return recipients;
+    }
+    
     /**
      * Send email via MailerSend HTTP API.
      */
     private static boolean sendEmailViaHttp(String fromName, String fromEmail, 
                                            String toName, String toEmail,
                                            String subject, String htmlContent, String plainContent) {
+        // Build JSON payload
+        String jsonPayload = buildJsonPayload(fromName, fromEmail, toName, toEmail, 
+                                             subject, htmlContent, plainContent);
+        return postJson(API_URL, jsonPayload);
+    }
+    
+    /**
+     * Send one personalised message per recipient in a single MailerSend bulk request.
+     * MailerSend queues bulk requests (HTTP 202), so acceptance applies to the whole chunk.
+     */
+    static boolean sendBulkViaHttp(List<Recipient> recipients, String subject, ResultEmailTemplate template) {
+        if (recipients.isEmpty()) {
+            return true;
+        }
+        if (recipients.size() > MAX_BULK_SIZE) {
+            throw new IllegalArgumentException("Bulk request exceeds " + MAX_BULK_SIZE + " messages");
+        }
+        return postJson(BULK_API_URL, buildBulkPayload(recipients, subject, template));
+    }
+    
+    /**
+     * POST a JSON payload to MailerSend.
+     * @return true on HTTP 200/202
+     */
+    private static boolean postJson(String endpoint, String jsonPayload) {
         try {
-            URL url = new URL(API_URL);
+            URL url = new URL(endpoint);
             HttpURLConnection conn = (HttpURLConnection) url.openConnection();
             
             // Set up connection
@@ -110,10 +225,6 @@ public class EmailService {
             conn.setRequestProperty("Authorization", "Bearer " + API_KEY);
             conn.setDoOutput(true);
             
-            // Build JSON payload
-            String jsonPayload = buildJsonPayload(fromName, fromEmail, toName, toEmail, 
-                                                 subject, htmlContent, plainContent);
-            
             // Send request
             try (OutputStreamWriter writer = new OutputStreamWriter(conn.getOutputStream(), StandardCharsets.UTF_8)) {
                 writer.write(jsonPayload);
@@ -136,6 +247,38 @@ public class EmailService {
         }
     }
     
+    /**
+     * Build JSON array payload for the MailerSend bulk endpoint.
+     * Sender and subject are escaped once; bodies come pre-escaped from the template.
+     */
+    private static String buildBulkPayload(List<Recipient> recipients, String subject,
+                                           ResultEmailTemplate template) {
+        String fromJson = "{\"from\":{\"email\":\"" + escapeJson(FROM_EMAIL) + "\"," +
+                         "\"name\":\"" + escapeJson(FROM_NAME) + "\"},";
+        String subjectJson = "\"subject\":\"" + escapeJson(subject) + "\",";
+        
+        StringBuilder json = new StringBuilder(recipients.size() * template.estimatedJsonLength());
+        json.append("[");
+        for (int i = 0; i < recipients.size(); i++) {
+            Recipient recipient = recipients.get(i);
+            if (i > 0) json.append(",");
+            json.append(fromJson);
+            json.append("\"to\":[{");
+            json.append("\"email\":\"").append(escapeJson(recipient.email)).append("\",");
+            json.append("\"name\":\"").append(escapeJson(recipient.name)).append("\"");
+            json.append("}],");
+            json.append(subjectJson);
+            json.append("\"text\":\"");
+            template.appendPlainJson(json, recipient.name);
+            json.append("\",");
+            json.append("\"html\":\"");
+            template.appendHtmlJson(json, recipient.name);
+            json.append("\"}");
+        }
+        json.append("]");
+        return json.toString();
+    }
+    
     /**
      * Build JSON payload for MailerSend API.
      */
@@ -162,7 +305,7 @@ public class EmailService {
     /**
      * Escape JSON special characters.
      */
-    private static String escapeJson(String str) {
+    static String escapeJson(String str) {
         if (str == null) return "";
         return str.replace("\\", "\\\\")
                   .replace("\"", "\\\"")
@@ -193,62 +336,10 @@ public class EmailService {
                                "Test Email from Academic Analyzer", html, plain);
     }
     
-    /**
-     * Get student email from database.
-     */
-    private static String getStudentEmail(int studentId) {
-        try {
-            Connection conn = DatabaseConnection.getConnection();
-            String query = "SELECT email FROM students WHERE id = ?";
-            PreparedStatement ps = conn.prepareStatement(query);
-            ps.setInt(1, studentId);
-            ResultSet rs = ps.executeQuery();
-            
-            String email = null;
-            if (rs.next()) {
-                email = rs.getString("email");
-            }
-            
-            rs.close();
-            ps.close();
-            return email;
-            
-        } catch (Exception e) {
-            System.err.println("Error getting student email: " + e.getMessage());
-            return null;
-        }
-    }
-    
-    /**
-     * Get student name from database.
-     */
-    private static String getStudentName(int studentId) {
-        try {
-            Connection conn = DatabaseConnection.getConnection();
-            String query = "SELECT student_name FROM students WHERE id = ?";
-            PreparedStatement ps = conn.prepareStatement(query);
-            ps.setInt(1, studentId);
-            ResultSet rs = ps.executeQuery();
-            
-            String name = "Student";
-            if (rs.next()) {
-                name = rs.getString("student_name");
-            }
-            
-            rs.close();
-            ps.close();
-            return name;
-            
-        } catch (Exception e) {
-            System.err.println("Error getting student name: " + e.getMessage());
-            return "Student";
-        }
-    }
-    
     /**
      * Build HTML email content with professional template.
      */
-    private static String buildHtmlEmail(String studentName, String launchName, String customMessage) {
+    static String buildHtmlEmail(String studentName, String launchName, String customMessage) {
         String portalUrl = ConfigLoader.getResultPortalUrl() + "/results";
         StringBuilder html = new StringBuilder();
         
@@ -346,7 +437,7 @@ public class EmailService {
     /**
      * Build plain text email content.
      */
-    private static String buildPlainEmail(String studentName, String launchName, String customMessage) {
+    static String buildPlainEmail(String studentName, String launchName, String customMessage) {
         String portalUrl = ConfigLoader.getResultPortalUrl() + "/results";
         StringBuilder plain = new StringBuilder();
         
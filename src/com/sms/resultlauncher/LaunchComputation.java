@@ -0,0 +1,488 @@
+package com.sms.resultlauncher;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+import com.sms.calculation.CalculationUtils;
+import com.sms.calculation.StudentCalculator;
+import com.sms.calculation.models.CalculationResult;
+import com.sms.calculation.models.Component;
+import com.sms.dao.DataChangeTracker;
+import com.sms.dao.DataChangeTracker.SectionVersion;
+import com.sms.dao.SectionMarksSnapshot;
+import com.sms.database.DatabaseConnection;
+
+/**
+ * Immutable result of a launch calculation: per-student results, rankings and class
+ * statistics of the selected students of a section.
+ *
+ * PERFORMANCE: the preview and the launch used to calculate the same results twice,
+ * a few seconds apart. The preview now builds a LaunchComputation and keeps it in a
+ * small write-through cache; Launch / Update reuse it when
+ * - section, selected components and selected students are the same, and
+ * - the section's watermark (DataChangeTracker section_versions: marks, students and
+ *   configuration) read on the launch transaction is unchanged, and
+ * - it is younger than MAX_AGE_MILLIS (safety net for writers that bypass the tracker)
+ * so the launch step is only the bulk insert of the stored JSON. Otherwise the launch
+ * computes fresh on its own transaction, exactly as before.
+ *
+ * The watermark is read before the marks, so a change that commits while a
+ * computation is being built leaves it with an older watermark - it is never reused.
+ * In-app changes also drop the cached computations of their section right away.
+ *
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public final class LaunchComputation {
+
+    private static final int MAX_ENTRIES = 8;
+    private static final long MAX_AGE_MILLIS = 10 * 60 * 1000L;
+    // Below this many students the fork-join split costs more than it saves
+    static final int PARALLEL_THRESHOLD = 256;
+
+    /**
+     * Calculated result of one student.
+     */
+    public static final class StudentResult {
+        public final int studentId;
+        public final String studentName;
+        public final CalculationResult calculationResult;
+        public final List<Component> components;
+        public final int studentOrdinal; // Row in the snapshot, -1 if the student is not in the section
+
+        StudentResult(int studentId, String studentName, CalculationResult calculationResult,
+                      List<Component> components, int studentOrdinal) {
+            this.studentId = studentId;
+            this.studentName = studentName;
+            this.calculationResult = calculationResult;
+            this.components = Collections.unmodifiableList(components);
+            this.studentOrdinal = studentOrdinal;
+        }
+    }
+
+    /**
+     * Position of one student among the selected students.
+     */
+    public static final class StudentRanking {
+        public final int studentId;
+        public final int rank;          // 1 = best, ties share a rank
+        public final int totalStudents;
+        public final double percentage;
+        public final double percentile;
+        public final boolean isPassing;
+
+        StudentRanking(int studentId, int rank, int totalStudents, double percentage,
+                       double percentile, boolean isPassing) {
+            this.studentId = studentId;
+            this.rank = rank;
+            this.totalStudents = totalStudents;
+            this.percentage = percentage;
+            this.percentile = percentile;
+            this.isPassing = isPassing;
+        }
+    }
+
+    /**
+     * Statistics over the selected students.
+     */
+    public static final class ClassStatistics {
+        public final double average;
+        public final double highest;
+        public final double lowest;
+        public final double median;
+        public final int passingCount;
+        public final int failingCount;
+        public final int totalStudents;
+
+        ClassStatistics(double average, double highest, double lowest, double median,
+                        int passingCount, int totalStudents) {
+            this.average = average;
+            this.highest = highest;
+            this.lowest = lowest;
+            this.median = median;
+            this.passingCount = passingCount;
+            this.failingCount = totalStudents - passingCount;
+            this.totalStudents = totalStudents;
+        }
+    }
+
+    private final int sectionId;
+    private final String key;
+    private final SectionVersion watermark;
+    private final long computedAt;
+    private final SectionMarksSnapshot snapshot;
+    private final Map<Integer, StudentResult> results;      // selection order
+    private final List<StudentRanking> rankings;            // best first
+    private final Map<Integer, StudentRanking> rankingsById;
+    private final ClassStatistics classStatistics;
+
+    private LaunchComputation(int sectionId, String key, SectionVersion watermark, long computedAt,
+                              SectionMarksSnapshot snapshot, Map<Integer, StudentResult> results) {
+        this.sectionId = sectionId;
+        this.key = key;
+        this.watermark = watermark;
+        this.computedAt = computedAt;
+        this.snapshot = snapshot;
+        this.results = Collections.unmodifiableMap(results);
+        this.rankings = Collections.unmodifiableList(calculateRankings(results));
+        Map<Integer, StudentRanking> byId = new HashMap<>(rankings.size() * 2);
+        for (StudentRanking ranking : rankings) {
+            byId.put(ranking.studentId, ranking);
+        }
+        this.rankingsById = Collections.unmodifiableMap(byId);
+        this.classStatistics = calculateClassStatistics(results);
+    }
+
+    private static final Object LOCK = new Object();
+    private static final LinkedHashMap<String, LaunchComputation> cache =
+        new LinkedHashMap<String, LaunchComputation>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, LaunchComputation> eldest) {
+                return size() > MAX_ENTRIES;
+            }
+        };
+
+    private static final AtomicLong computations = new AtomicLong();
+    private static final AtomicLong computeNanos = new AtomicLong();
+    private static final AtomicLong reused = new AtomicLong();
+    private static final AtomicLong stale = new AtomicLong();
+
+    static {
+        DataChangeTracker.addListener((sectionId, type) -> invalidate(sectionId));
+    }
+
+    // ===== Cache =====
+
+    /**
+     * Calculate for the preview and keep the result for a following launch.
+     * Always computes fresh (the preview's Refresh button must show current data).
+     */
+    public static LaunchComputation forPreview(int sectionId, List<Integer> studentIds,
+                                               List<Component> components) throws SQLException {
+        LaunchComputation computation;
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            computation = compute(conn, sectionId, studentIds, components);
+        }
+        synchronized (LOCK) {
+            cache.put(computation.key, computation);
+        }
+        return computation;
+    }
+
+    /**
+     * Computation for a launch on the launch's connection: the cached one when it is
+     * still valid, otherwise a fresh one.
+     */
+    public static LaunchComputation forLaunch(Connection conn, int sectionId, List<Integer> studentIds,
+                                              List<Component> components) throws SQLException {
+        String key = key(sectionId, studentIds, components);
+        LaunchComputation cached;
+        synchronized (LOCK) {
+            cached = cache.get(key);
+        }
+
+        if (cached != null) {
+            SectionVersion current = DataChangeTracker.loadVersion(conn, sectionId);
+            boolean fresh = System.currentTimeMillis() - cached.computedAt < MAX_AGE_MILLIS;
+            if (fresh && current.changesSince(cached.watermark).isEmpty()) {
+                reused.incrementAndGet();
+                return cached;
+            }
+            stale.incrementAndGet();
+            synchronized (LOCK) {
+                cache.remove(key, cached);
+            }
+        }
+        return compute(conn, sectionId, studentIds, components);
+    }
+
+    public static void invalidate(int sectionId) {
+        synchronized (LOCK) {
+            cache.values().removeIf(computation -> computation.sectionId == sectionId);
+        }
+    }
+
+    public static void clear() {
+        synchronized (LOCK) {
+            cache.clear();
+        }
+    }
+
+    public static String getStats() {
+        long count = computations.get();
+        int cached;
+        synchronized (LOCK) {
+            cached = cache.size();
+        }
+        return String.format("LaunchComputation: %d cached, %d computed (avg %.1f ms), %d reused by launch, %d stale",
+            cached, count, count > 0 ? computeNanos.get() / 1_000_000.0 / count : 0.0,
+            reused.get(), stale.get());
+    }
+
+    // Section, sorted component ids and sorted student ids
+    private static String key(int sectionId, List<Integer> studentIds, List<Component> components) {
+        List<Integer> componentIds = new ArrayList<>(components.size());
+        for (Component component : components) {
+            componentIds.add(component.getId());
+        }
+        Collections.sort(componentIds);
+        List<Integer> students = new ArrayList<>(studentIds);
+        Collections.sort(students);
+        return sectionId + "|" + componentIds + "|" + students;
+    }
+
+    // ===== Accessors =====
+
+    public int getSectionId() {
+        return sectionId;
+    }
+
+    public SectionVersion getWatermark() {
+        return watermark;
+    }
+
+    public long getComputedAt() {
+        return computedAt;
+    }
+
+    /** Marks and configuration the results were calculated from */
+    public SectionMarksSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /** Results in the order the students were selected */
+    public Map<Integer, StudentResult> getResults() {
+        return results;
+    }
+
+    public boolean isEmpty() {
+        return results.isEmpty();
+    }
+
+    /** Rankings, best first */
+    public List<StudentRanking> getRankings() {
+        return rankings;
+    }
+
+    public StudentRanking getRanking(int studentId) {
+        return rankingsById.get(studentId);
+    }
+
+    public ClassStatistics getClassStatistics() {
+        return classStatistics;
+    }
+
+    // ===== Calculation =====
+
+    /**
+     * Calculate results for all students efficiently using bulk operations.
+     * All marks, exam type configs and subject passing marks of the section are
+     * preloaded into one SectionMarksSnapshot (fixed number of queries on the
+     * given connection), then every student is processed in memory, in parallel
+     * for large selections (see calculateResults).
+     */
+    static LaunchComputation compute(Connection conn, int sectionId, List<Integer> studentIds,
+                                     List<Component> components) throws SQLException {
+        long start = System.nanoTime();
+        long computedAt = System.currentTimeMillis();
+
+        // Watermark first: a change committed after this read makes the result stale
+        SectionVersion watermark = DataChangeTracker.loadVersion(conn, sectionId);
+        SectionMarksSnapshot snapshot = SectionMarksSnapshot.load(conn, sectionId, 0);
+
+        // Names of selected students outside the snapshot (single query, usually skipped)
+        List<Integer> missingIds = new ArrayList<>();
+        for (Integer studentId : studentIds) {
+            if (snapshot.studentOrdinal(studentId) < 0) {
+                missingIds.add(studentId);
+            }
+        }
+        Map<Integer, String> missingNames = getStudentNames(conn, missingIds);
+
+        Map<Integer, StudentResult> results = calculateResults(snapshot, studentIds, missingNames);
+
+        LaunchComputation computation = new LaunchComputation(sectionId,
+            key(sectionId, studentIds, components), watermark, computedAt, snapshot, results);
+        computations.incrementAndGet();
+        computeNanos.addAndGet(System.nanoTime() - start);
+        return computation;
+    }
+
+    /**
+     * CPU stage of a launch: the result of every selected student, from the snapshot
+     * only (no database access).
+     *
+     * PERFORMANCE: students are independent once the snapshot is loaded, so from
+     * PARALLEL_THRESHOLD students on they are calculated in parallel on the common
+     * fork-join pool (or the pool the caller runs in). Each student writes its own
+     * slot of an array; the map is filled afterwards in the order of studentIds, so
+     * the output is the same as a sequential run.
+     *
+     * @param missingNames names of selected students that are not in the snapshot
+     * @return results keyed by student id, in the order of studentIds
+     */
+    public static Map<Integer, StudentResult> calculateResults(SectionMarksSnapshot snapshot,
+                                                               List<Integer> studentIds,
+                                                               Map<Integer, String> missingNames) {
+        StudentCalculator calculator = new StudentCalculator(40.0);
+        StudentResult[] calculated = new StudentResult[studentIds.size()];
+
+        IntStream indexes = IntStream.range(0, calculated.length);
+        if (calculated.length >= PARALLEL_THRESHOLD) {
+            indexes = indexes.parallel();
+        }
+        indexes.forEach(i -> {
+            int studentId = studentIds.get(i);
+            int studentOrdinal = snapshot.studentOrdinal(studentId);
+            String studentName = studentOrdinal >= 0
+                ? snapshot.getStudentName(studentOrdinal)
+                : missingNames.getOrDefault(studentId, "Unknown");
+
+            // Subject-wise weighted totals (same logic as Student Analyzer)
+            List<Component> studentComponents = loadStudentComponentMarks(snapshot, studentOrdinal);
+            CalculationResult calcResult = calculator.calculateStudentMarks(
+                studentId, studentName, studentComponents);
+
+            calculated[i] = new StudentResult(
+                studentId, studentName, calcResult, studentComponents, studentOrdinal);
+        });
+
+        Map<Integer, StudentResult> results = new LinkedHashMap<>();
+        for (StudentResult result : calculated) {
+            results.put(result.studentId, result);
+        }
+        return results;
+    }
+
+    /**
+     * Load student marks using subject-wise weighted calculation.
+     * Evaluated in memory from the snapshot.
+     */
+    private static List<Component> loadStudentComponentMarks(SectionMarksSnapshot snapshot, int studentOrdinal) {
+        List<Component> studentComponents = new ArrayList<>();
+
+        int subjectCount = snapshot.getSubjectCount();
+        double totalObtained = 0.0;
+
+        for (int subject = 0; subject < subjectCount; subject++) {
+            // Weighted percentage for this subject, null = include all exam types (-1 when no marks)
+            double subjectPercentage = studentOrdinal >= 0
+                ? snapshot.subjectResult(studentOrdinal, subject, null).percentage
+                : -1;
+            totalObtained += subjectPercentage;
+        }
+
+        // Create a single "pseudo-component" representing the total
+        // Total obtained = sum of all subject percentages
+        // Total possible = number of subjects × 100
+        Component totalComp = new Component(
+            0,
+            "Overall Total",
+            "exam",
+            totalObtained,
+            subjectCount * 100.0,
+            subjectCount * 100.0
+        );
+        totalComp.setCounted(true);
+        studentComponents.add(totalComp);
+
+        return studentComponents;
+    }
+
+    /**
+     * Calculate rankings using efficient sorting (O(n log n) using Java's TimSort).
+     * Handles ties correctly (students with same percentage get same rank).
+     */
+    private static List<StudentRanking> calculateRankings(Map<Integer, StudentResult> studentResults) {
+        List<StudentResult> students = new ArrayList<>(studentResults.values());
+
+        // Assign ranks (sorted O(n log n), ties share a rank)
+        double[] percentages = new double[students.size()];
+        for (int i = 0; i < percentages.length; i++) {
+            percentages[i] = students.get(i).calculationResult.getFinalPercentage();
+        }
+        int[] ranks = CalculationUtils.assignRanks(percentages);
+
+        int totalStudents = students.size();
+        List<StudentRanking> rankings = new ArrayList<>(totalStudents);
+        for (int i = 0; i < totalStudents; i++) {
+            StudentResult result = students.get(i);
+            double percentile = ((double) (totalStudents - ranks[i] + 1) / totalStudents) * 100;
+            rankings.add(new StudentRanking(result.studentId, ranks[i], totalStudents, percentages[i],
+                percentile, result.calculationResult.isPassing()));
+        }
+        rankings.sort((a, b) -> Double.compare(b.percentage, a.percentage));
+        return rankings;
+    }
+
+    /**
+     * Calculate class statistics using single-pass algorithm (O(n) complexity).
+     * Calculates average, highest, lowest, median, passing/failing counts.
+     */
+    private static ClassStatistics calculateClassStatistics(Map<Integer, StudentResult> studentResults) {
+        if (studentResults.isEmpty()) {
+            return new ClassStatistics(0, 0, 0, 0, 0, 0);
+        }
+
+        double sum = 0;
+        double highest = Double.MIN_VALUE;
+        double lowest = Double.MAX_VALUE;
+        int passingCount = 0;
+        int totalStudents = studentResults.size();
+        double[] percentages = new double[totalStudents];
+        int i = 0;
+
+        for (StudentResult result : studentResults.values()) {
+            double percentage = result.calculationResult.getFinalPercentage();
+            sum += percentage;
+            percentages[i++] = percentage;
+
+            if (percentage > highest) highest = percentage;
+            if (percentage < lowest) lowest = percentage;
+            if (result.calculationResult.isPassing()) passingCount++;
+        }
+
+        // Median (requires sorting: O(n log n))
+        Arrays.sort(percentages);
+        int mid = totalStudents / 2;
+        double median = totalStudents % 2 == 0
+            ? (percentages[mid - 1] + percentages[mid]) / 2.0
+            : percentages[mid];
+
+        return new ClassStatistics(sum / totalStudents, highest, lowest, median, passingCount, totalStudents);
+    }
+
+    /**
+     * Bulk load student names (single query on the given connection).
+     */
+    private static Map<Integer, String> getStudentNames(Connection conn, List<Integer> studentIds) throws SQLException {
+        Map<Integer, String> names = new HashMap<>();
+        if (studentIds.isEmpty()) {
+            return names;
+        }
+
+        String placeholders = String.join(",", Collections.nCopies(studentIds.size(), "?"));
+        String query = "SELECT id, student_name FROM students WHERE id IN (" + placeholders + ")";
+        try (PreparedStatement ps = conn.prepareStatement(query)) {
+            for (int i = 0; i < studentIds.size(); i++) {
+                ps.setInt(i + 1, studentIds.get(i));
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    names.put(rs.getInt("id"), rs.getString("student_name"));
+                }
+            }
+        }
+        return names;
+    }
+}
@@ -12,6 +12,7 @@ import java.util.List;
 import com.sms.resultlauncher.ResultLauncher;
 import com.sms.resultlauncher.ResultLauncherUtils;
 import com.sms.resultlauncher.LaunchedResult;
+import com.sms.util.BackgroundTask;
 
 public class LaunchedResultsPanel extends JPanel {
     
@@ -167,6 +168,9 @@ public class LaunchedResultsPanel extends JPanel {
 
             @Override
             protected void done() {
+                if (isCancelled()) {
+                    return; // panel closed before the load finished
+                }
                 try {
                     launchedResults = get();
                     updateTable();
@@ -179,7 +183,7 @@ public class LaunchedResultsPanel extends JPanel {
                 }
             }
         };
-        worker.execute();
+        BackgroundTask.execute(BackgroundTask.Lane.INTERACTIVE, this, worker);
     }
     
     private void updateTable() {
@@ -252,7 +256,7 @@ public class LaunchedResultsPanel extends JPanel {
                         }
                     }
                 };
-                worker.execute();
+                BackgroundTask.execute(BackgroundTask.Lane.WRITE, null, worker);
             }
         }
     }
@@ -308,7 +312,7 @@ public class LaunchedResultsPanel extends JPanel {
                         }
                     }
                 };
-                worker.execute();
+                BackgroundTask.execute(BackgroundTask.Lane.WRITE, null, worker);
             }
         }
     }
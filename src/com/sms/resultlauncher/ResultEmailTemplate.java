@@ -0,0 +1,97 @@
+package com.sms.resultlauncher;
+
+import java.util.regex.Pattern;
+
+/**
+ * Result notification template compiled once per launch.
+ *
+ * Launch name and teacher message are the same for every recipient, so the HTML
+ * and plain bodies are rendered once with a name marker and split around it.
+ * Each recipient then costs two string concatenations instead of a full
+ * template build, and the JSON-escaped segments are cached for bulk payloads.
+ *
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public final class ResultEmailTemplate {
+
+    private static final String NAME_MARKER = "\u0000STUDENT_NAME\u0000";
+
+    private final String[] htmlParts;
+    private final String[] plainParts;
+    private final String[] htmlJsonParts;
+    private final String[] plainJsonParts;
+
+    private ResultEmailTemplate(String html, String plain) {
+        this.htmlParts = html.split(Pattern.quote(NAME_MARKER), -1);
+        this.plainParts = plain.split(Pattern.quote(NAME_MARKER), -1);
+        this.htmlJsonParts = escapeAll(htmlParts);
+        this.plainJsonParts = escapeAll(plainParts);
+    }
+
+    /**
+     * Compile the standard result notification for one launch.
+     */
+    public static ResultEmailTemplate compile(String launchName, String customMessage) {
+        return new ResultEmailTemplate(
+            EmailService.buildHtmlEmail(NAME_MARKER, launchName, customMessage),
+            EmailService.buildPlainEmail(NAME_MARKER, launchName, customMessage));
+    }
+
+    public String html(String studentName) {
+        return render(htmlParts, studentName);
+    }
+
+    public String plain(String studentName) {
+        return render(plainParts, studentName);
+    }
+
+    /**
+     * Append the JSON-escaped HTML body for one recipient (no surrounding quotes).
+     */
+    void appendHtmlJson(StringBuilder json, String studentName) {
+        appendJson(json, htmlJsonParts, studentName);
+    }
+
+    /**
+     * Append the JSON-escaped plain text body for one recipient (no surrounding quotes).
+     */
+    void appendPlainJson(StringBuilder json, String studentName) {
+        appendJson(json, plainJsonParts, studentName);
+    }
+
+    /**
+     * Approximate payload size of one recipient, used to presize bulk buffers.
+     */
+    int estimatedJsonLength() {
+        int length = 0;
+        for (String part : htmlJsonParts) length += part.length();
+        for (String part : plainJsonParts) length += part.length();
+        return length + 256;
+    }
+
+    private static String render(String[] parts, String studentName) {
+        StringBuilder sb = new StringBuilder(parts.length * 64 + 1024);
+        for (int i = 0; i < parts.length; i++) {
+            if (i > 0) sb.append(studentName);
+            sb.append(parts[i]);
+        }
+        return sb.toString();
+    }
+
+    private static void appendJson(StringBuilder json, String[] escapedParts, String studentName) {
+        String escapedName = EmailService.escapeJson(studentName);
+        for (int i = 0; i < escapedParts.length; i++) {
+            if (i > 0) json.append(escapedName);
+            json.append(escapedParts[i]);
+        }
+    }
+
+    private static String[] escapeAll(String[] parts) {
+        String[] escaped = new String[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            escaped[i] = EmailService.escapeJson(parts[i]);
+        }
+        return escaped;
+    }
+}
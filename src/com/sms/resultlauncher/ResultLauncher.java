@@ -8,6 +8,7 @@ import java.util.List;
 import com.formdev.flatlaf.FlatLightLaf;
 
 import com.sms.calculation.models.Component;
+import com.sms.util.BackgroundTask;
 
 public class ResultLauncher extends JPanel {
     
@@ -145,6 +146,11 @@ public class ResultLauncher extends JPanel {
         backButton.setToolTipText("Back to Dashboard");
         
         backButton.addActionListener(e -> {
+            // Drop list loads that are still queued for the panels being closed
+            BackgroundTask.cancelAll(sectionPanel);
+            BackgroundTask.cancelAll(studentPanel);
+            BackgroundTask.cancelAll(componentPanel);
+            BackgroundTask.cancelAll(resultsPanel);
             if (onCloseCallback != null) {
                 onCloseCallback.run();
             }
@@ -276,12 +282,15 @@ public class ResultLauncher extends JPanel {
             }
             
             SwingWorker<Boolean, Void> worker = new SwingWorker<Boolean, Void>() {
+                private ResultLauncherDAO.UpdateSummary updateSummary;
+                
                 @Override
                 protected Boolean doInBackground() throws Exception {
                     boolean result;
                     if (isEditMode && editingLaunchId > 0) {
-                        result = dao.updateResult(editingLaunchId, selectedStudentIds, 
-                                                 selectedComponents, config);
+                        updateSummary = dao.updateResult(editingLaunchId, selectedStudentIds, 
+                                                         selectedComponents, config);
+                        result = updateSummary.success;
                     } else {
                         result = dao.launchResults(selectedSectionId, selectedStudentIds, 
                                                    selectedComponents, config);
@@ -302,7 +311,8 @@ public class ResultLauncher extends JPanel {
                         
                         if (success) {
                             String message = isEditMode ? 
-                                "Results updated successfully!" : 
+                                "Results updated successfully!" + 
+                                    (updateSummary != null ? "\n(" + updateSummary + ")" : "") : 
                                 "Results launched successfully!";
                             String title = isEditMode ? "Update Successful" : "Launch Successful";
                             
@@ -333,7 +343,7 @@ public class ResultLauncher extends JPanel {
                 }
             };
             
-            worker.execute();
+            BackgroundTask.execute(BackgroundTask.Lane.BULK, null, worker);
         }
     }
 
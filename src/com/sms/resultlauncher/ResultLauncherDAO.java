@@ -1,5 +1,8 @@
 package com.sms.resultlauncher;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.*;
@@ -7,10 +10,15 @@ import java.util.stream.Collectors;
 import javax.swing.JOptionPane;
 import com.sms.database.DatabaseConnection;
 import com.sms.calculation.models.Component;
-import com.sms.dao.AnalyzerDAO;
-import com.sms.calculation.models.CalculationResult;
-import com.sms.calculation.StudentCalculator;
+import com.sms.dao.SectionMarksSnapshot;
+import com.sms.dao.DataChangeTracker;
+import com.sms.dao.DataChangeTracker.SectionVersion;
 import com.sms.login.LoginScreen;
+import com.sms.resultlauncher.LaunchComputation.ClassStatistics;
+import com.sms.resultlauncher.LaunchComputation.StudentRanking;
+import com.sms.resultlauncher.LaunchComputation.StudentResult;
+import com.sms.util.JsonReader;
+import com.sms.util.JsonWriter;
 
 /**
  * Optimized ResultLauncherDAO with enhanced JSON storage, ranking, and class statistics.
@@ -18,9 +26,18 @@ import com.sms.login.LoginScreen;
  * 
  * Performance improvements:
  * - Bulk database operations (O(1) queries instead of O(n))
+ * - Marks, exam type configs and passing marks preloaded once per launch
+ *   (SectionMarksSnapshot), result JSON built purely in memory
+ * - Results calculated by the preview are reused when the section did not change
+ *   since (LaunchComputation), leaving only the bulk insert
+ * - Result JSON streamed through one reused JsonWriter (no String.format)
+ * - Launch-level data stored once per launch, compact per-student rows
+ *   (LaunchedResultCodec)
  * - Fast sorting with TimSort (O(n log n))
  * - Single-pass statistics calculation (O(n))
  * - Batch inserts (n/50 database calls)
+ * - Updates rewrite only the rows whose JSON changed; visibility-only changes
+ *   patch the stored rows without recalculating
  * - Transaction safety (atomic operations)
  * 
  * @version 2.0
@@ -28,21 +45,96 @@ import com.sms.login.LoginScreen;
  */
 public class ResultLauncherDAO {
     
+    private static volatile boolean launchTablesReady = false;
+    
+    /**
+     * Outcome of {@link #updateResult}: how many launched_student_results rows were touched.
+     */
+    public static class UpdateSummary {
+        public boolean success;
+        public boolean recalculated; // false = visibility-only change, stored results kept
+        public int inserted;
+        public int updated;
+        public int deleted;
+        public int unchanged;
+        
+        public int getTouchedRows() {
+            return inserted + updated + deleted;
+        }
+        
+        @Override
+        public String toString() {
+            if (!recalculated) {
+                return "visibility settings only, " + updated + " row(s) patched, results unchanged";
+            }
+            return inserted + " added, " + updated + " changed, " + deleted + " removed, "
+                + unchanged + " unchanged";
+        }
+    }
+    
+    /**
+     * Create the per-launch tables if they do not exist yet:
+     * - launched_result_versions: the section watermark (DataChangeTracker) each launch
+     *   was calculated from, so an update can tell whether the stored results are current
+     * - launched_result_meta: launch-level result data stored once per launch
+     *   (see LaunchedResultCodec)
+     * Must run OUTSIDE the launch transaction - DDL causes an implicit commit in MySQL.
+     */
+    public static void ensureLaunchTables() {
+        if (launchTablesReady) {
+            return;
+        }
+        synchronized (ResultLauncherDAO.class) {
+            if (launchTablesReady) {
+                return;
+            }
+            String createVersions = "CREATE TABLE IF NOT EXISTS launched_result_versions (" +
+                "launch_id INT PRIMARY KEY, " +
+                "marks_version BIGINT NOT NULL DEFAULT 0, " +
+                "students_version BIGINT NOT NULL DEFAULT 0, " +
+                "config_version BIGINT NOT NULL DEFAULT 0, " +
+                "updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP" +
+                ")";
+            String createMeta = "CREATE TABLE IF NOT EXISTS launched_result_meta (" +
+                "launch_id INT PRIMARY KEY, " +
+                "format INT NOT NULL, " +
+                "launch_data MEDIUMTEXT NOT NULL, " +
+                "updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP" +
+                ")";
+            
+            try (Connection conn = DatabaseConnection.getConnection();
+                 Statement stmt = conn.createStatement()) {
+                stmt.executeUpdate(createVersions);
+                stmt.executeUpdate(createMeta);
+                launchTablesReady = true;
+            } catch (SQLException e) {
+                System.err.println("Error creating launch tables: " + e.getMessage());
+                e.printStackTrace();
+            }
+        }
+    }
+    
     /**
      * Main launch method with complete pre-calculation and storage.
      * This method:
      * 1. Starts a transaction
      * 2. Inserts launch record with visibility settings
-     * 3. Calculates results for ALL students (bulk operation)
-     * 4. Calculates rankings using fast sorting
-     * 5. Calculates class statistics
-     * 6. Stores enhanced JSON in database
-     * 7. Sends email notifications
-     * 8. Commits transaction (atomic)
+     * 3. Reuses the preview's results, rankings and class statistics if nothing
+     *    changed since the preview, otherwise calculates them (bulk operation)
+     * 4. Stores enhanced JSON in database
+     * 5. Queues email notifications in the outbox (same transaction)
+     * 6. Commits transaction (atomic) and wakes the background email dispatcher
      */
     public boolean launchResults(int sectionId, List<Integer> studentIds, 
                                  List<Component> components, ResultConfiguration config) {
         
+        // DDL commits implicitly in MySQL - make sure the outbox exists before the transaction
+        if (config.isSendEmailNotification()) {
+            EmailOutboxDAO.ensureTable();
+        }
+        DataChangeTracker.ensureTable(); // Watermark checked by LaunchComputation
+        ensureLaunchTables();
+        
         Connection conn = null;
         try {
             conn = DatabaseConnection.getConnection();
@@ -56,37 +148,39 @@ public class ResultLauncherDAO {
                 return false;
             }
             
-            // Step 2: Calculate results for ALL students efficiently (bulk operation)
-            Map<Integer, StudentResult> studentResults = calculateAllStudentResults(
-                studentIds, components, sectionId);
+            // Step 2: Results, rankings and class statistics - from the preview when the
+            // section is unchanged since, otherwise calculated now (bulk operation)
+            LaunchComputation computation = LaunchComputation.forLaunch(
+                conn, sectionId, studentIds, components);
             
-            if (studentResults.isEmpty()) {
+            if (computation.isEmpty()) {
                 System.err.println("No student results calculated");
                 conn.rollback();
                 return false;
             }
             
-            // Step 3: Calculate ranking using efficient sorting (O(n log n))
-            List<StudentRanking> rankings = calculateRankings(studentResults);
-            
-            // Step 4: Calculate class statistics
-            ClassStatistics classStats = calculateClassStatistics(studentResults);
-            
-            // Step 5: Store results in database with enhanced JSON (bulk insert)
-            boolean stored = storeStudentResults(conn, launchId, studentResults, rankings, 
-                                               classStats, config);
+            // Step 3: Store results in database with enhanced JSON (bulk insert)
+            boolean stored = storeStudentResults(conn, launchId, computation, config);
             if (!stored) {
                 conn.rollback();
                 System.err.println("Failed to store student results");
                 return false;
             }
+            saveLaunchVersion(conn, launchId, computation.getWatermark());
             
-            // Step 6: Send email notifications if enabled
+            // Step 4: Queue email notifications if enabled.
+            // PERFORMANCE OPTIMIZATION: emails are only written to the outbox here and sent
+            // by EmailDispatcher after commit - no HTTP calls while the transaction is open.
             if (config.isSendEmailNotification()) {
-                sendEmailNotifications(conn, launchId, studentIds, config);
+                int queued = EmailOutboxDAO.enqueueLaunch(conn, launchId, studentIds, config);
+                System.out.println("📧 Queued " + queued + " result notification(s) for launch " + launchId);
             }
             
             conn.commit(); // Commit transaction
+            
+            if (config.isSendEmailNotification()) {
+                EmailDispatcher.getInstance().wakeUp();
+            }
             return true;
             
         } catch (Exception e) {
@@ -102,7 +196,10 @@ public class ResultLauncherDAO {
             return false;
         } finally {
             try {
-                if (conn != null) conn.setAutoCommit(true);
+                if (conn != null) {
+                    conn.setAutoCommit(true);
+                    conn.close(); // Return to pool
+                }
             } catch (SQLException e) {
                 e.printStackTrace();
             }
@@ -153,174 +250,14 @@ public class ResultLauncherDAO {
         return launchId;
     }
     
-    /**
-     * Calculate results for all students efficiently using bulk operations.
-     * Loads all data in optimized queries, then processes in memory (O(n) complexity).
-     */
-    private Map<Integer, StudentResult> calculateAllStudentResults(
-            List<Integer> studentIds, List<Component> components, int sectionId) {
-        
-        Map<Integer, StudentResult> results = new HashMap<>();
-        StudentCalculator calculator = new StudentCalculator(40.0);
-        AnalyzerDAO dao = new AnalyzerDAO();
-        
-        // Extract component IDs for bulk query
-        List<Integer> componentIds = components.stream()
-            .map(Component::getId)
-            .collect(Collectors.toList());
-        
-        try {
-            // Bulk load student info (single query)
-            Map<Integer, String> studentNames = getStudentNames(studentIds);
-            
-            // Process each student
-            for (Integer studentId : studentIds) {
-                String studentName = studentNames.getOrDefault(studentId, "Unknown");
-                
-                // Use the same calculation logic as preview: calculate subject-wise weighted totals
-                List<Component> studentComponents = loadStudentComponentMarks(studentId, sectionId, dao);
-                
-                // Calculate using StudentCalculator (same logic as Student Analyzer and Preview)
-                CalculationResult calcResult = calculator.calculateStudentMarks(
-                    studentId, studentName, studentComponents);
-                
-                // Fetch detailed subject-wise marks (subject -> exam_type -> marks)
-                Map<String, Map<String, Integer>> subjectMarks = dao.getStudentMarksDetailed(studentId, sectionId);
-                
-                // Store in optimized structure
-                StudentResult result = new StudentResult();
-                result.studentId = studentId;
-                result.studentName = studentName;
-                result.calculationResult = calcResult;
-                result.components = studentComponents;
-                result.subjectMarks = subjectMarks; // Store for JSON generation
-                result.sectionId = sectionId;
-                
-                results.put(studentId, result);
-            }
-            
-        } catch (Exception e) {
-            System.err.println("Error calculating student results: " + e.getMessage());
-            e.printStackTrace();
-        }
-        
-        return results;
-    }
-    
-    /**
-     * Calculate rankings using efficient sorting (O(n log n) using Java's TimSort).
-     * Handles ties correctly (students with same percentage get same rank).
-     */
-    private List<StudentRanking> calculateRankings(Map<Integer, StudentResult> studentResults) {
-        // Create list of rankings
-        List<StudentRanking> rankings = new ArrayList<>();
-        
-        for (StudentResult result : studentResults.values()) {
-            StudentRanking ranking = new StudentRanking();
-            ranking.studentId = result.studentId;
-            ranking.percentage = result.calculationResult.getFinalPercentage();
-            ranking.isPassing = result.calculationResult.isPassing();
-            rankings.add(ranking);
-        }
-        
-        // Sort by percentage descending (TimSort: O(n log n) - very fast!)
-        rankings.sort((a, b) -> Double.compare(b.percentage, a.percentage));
-        
-        // Assign ranks (handle ties correctly)
-        int currentRank = 1;
-        double previousPercentage = -1;
-        int sameRankCount = 0;
-        
-        for (int i = 0; i < rankings.size(); i++) {
-            StudentRanking ranking = rankings.get(i);
-            
-            if (Math.abs(ranking.percentage - previousPercentage) < 0.01) {
-                // Same percentage as previous student (tie)
-                ranking.rank = currentRank;
-                sameRankCount++;
-            } else {
-                // Different percentage
-                currentRank += sameRankCount;
-                ranking.rank = currentRank;
-                previousPercentage = ranking.percentage;
-                sameRankCount = 1;
-            }
-        }
-        
-        // Calculate percentile for each student
-        int totalStudents = rankings.size();
-        for (StudentRanking ranking : rankings) {
-            ranking.totalStudents = totalStudents;
-            ranking.percentile = ((double)(totalStudents - ranking.rank + 1) / totalStudents) * 100;
-        }
-        
-        return rankings;
-    }
-    
-    /**
-     * Calculate class statistics using single-pass algorithm (O(n) complexity).
-     * Calculates average, highest, lowest, median, passing/failing counts.
-     */
-    private ClassStatistics calculateClassStatistics(Map<Integer, StudentResult> studentResults) {
-        ClassStatistics stats = new ClassStatistics();
-        
-        if (studentResults.isEmpty()) {
-            return stats;
-        }
-        
-        double sum = 0;
-        double highest = Double.MIN_VALUE;
-        double lowest = Double.MAX_VALUE;
-        int passingCount = 0;
-        int totalStudents = studentResults.size();
-        List<Double> percentages = new ArrayList<>();
-        
-        // Single pass through data (O(n) - very efficient!)
-        for (StudentResult result : studentResults.values()) {
-            double percentage = result.calculationResult.getFinalPercentage();
-            boolean passing = result.calculationResult.isPassing();
-            
-            sum += percentage;
-            percentages.add(percentage);
-            
-            if (percentage > highest) highest = percentage;
-            if (percentage < lowest) lowest = percentage;
-            if (passing) passingCount++;
-        }
-        
-        stats.average = sum / totalStudents;
-        stats.highest = highest;
-        stats.lowest = lowest;
-        stats.passingCount = passingCount;
-        stats.failingCount = totalStudents - passingCount;
-        stats.totalStudents = totalStudents;
-        
-        // Calculate median (requires sorting: O(n log n))
-        Collections.sort(percentages);
-        int mid = percentages.size() / 2;
-        if (percentages.size() % 2 == 0) {
-            stats.median = (percentages.get(mid - 1) + percentages.get(mid)) / 2.0;
-        } else {
-            stats.median = percentages.get(mid);
-        }
-        
-        return stats;
-    }
-    
     /**
      * Store student results with enhanced JSON structure (bulk insert for performance).
      * Uses batch processing to reduce database round-trips.
      */
     private boolean storeStudentResults(Connection conn, int launchId, 
-                                       Map<Integer, StudentResult> studentResults,
-                                       List<StudentRanking> rankings,
-                                       ClassStatistics classStats,
+                                       LaunchComputation computation,
                                        ResultConfiguration config) throws SQLException {
         
-        // Create ranking map for fast O(1) lookup
-        Map<Integer, StudentRanking> rankingMap = rankings.stream()
-            .collect(Collectors.toMap(r -> r.studentId, r -> r));
-        
         // Prepare bulk insert with batching
         String query = "INSERT INTO launched_student_results " +
             "(launch_id, student_id, result_data, created_at) VALUES (?, ?, ?, NOW())";
@@ -328,11 +265,18 @@ public class ResultLauncherDAO {
         PreparedStatement ps = conn.prepareStatement(query);
         int batchCount = 0;
         
-        for (StudentResult result : studentResults.values()) {
-            StudentRanking ranking = rankingMap.get(result.studentId);
+        // Launch-level data (config, class stats, exam types) stored once per launch
+        saveLaunchData(conn, launchId, computation, config);
+        
+        // One writer buffer for the whole launch
+        JsonWriter jsonWriter = new JsonWriter(1024);
+        SectionMarksSnapshot snapshot = computation.getSnapshot();
+        
+        for (StudentResult result : computation.getResults().values()) {
+            StudentRanking ranking = computation.getRanking(result.studentId);
             
-            // Create enhanced JSON matching Student Analyzer layout
-            String json = createEnhancedJson(result, ranking, classStats, config);
+            // Per-student row: only the student's own marks and results
+            String json = LaunchedResultCodec.encodeStudent(jsonWriter, snapshot, result, ranking);
             
             ps.setInt(1, launchId);
             ps.setInt(2, result.studentId);
@@ -358,115 +302,51 @@ public class ResultLauncherDAO {
     }
     
     /**
-     * Create enhanced JSON with all required data for student portal.
-     * Structure matches Student Analyzer layout exactly.
-     * Includes: student_info, config, components, subjects, overall, ranking, class_stats
+     * Store the launch-level part of the results (one row per launch).
      */
-    private String createEnhancedJson(StudentResult result, StudentRanking ranking,
-                                     ClassStatistics classStats, ResultConfiguration config) {
-        
-        StringBuilder json = new StringBuilder();
-        json.append("{");
-        
-        // Student Info
-        json.append("\"student_info\":{");
-        json.append("\"id\":").append(result.studentId).append(",");
-        json.append("\"name\":\"").append(escapeJson(result.studentName)).append("\"");
-        json.append("},");
-        
-        // Launch Configuration (visibility settings)
-        json.append("\"config\":{");
-        json.append("\"show_component_marks\":").append(config.isShowComponentMarks()).append(",");
-        json.append("\"show_subject_details\":").append(config.isShowSubjectDetails()).append(",");
-        json.append("\"show_rank\":").append(config.isShowRank()).append(",");
-        json.append("\"show_class_stats\":").append(config.isShowClassStats()).append(",");
-        json.append("\"allow_pdf_download\":").append(config.isAllowPdfDownload());
-        json.append("},");
-        
-        // Subjects with detailed exam-type breakdown (matching Student Analyzer)
-        json.append("\"subjects\":[");
-        if (result.subjectMarks != null && !result.subjectMarks.isEmpty()) {
-            int subjectIndex = 0;
-            AnalyzerDAO dao = new AnalyzerDAO();
-            
-            for (Map.Entry<String, Map<String, Integer>> subjectEntry : result.subjectMarks.entrySet()) {
-                if (subjectIndex > 0) json.append(",");
-                String subjectName = subjectEntry.getKey();
-                Map<String, Integer> examMarks = subjectEntry.getValue();
-                
-                json.append("{");
-                json.append("\"subject_name\":\"").append(escapeJson(subjectName)).append("\",");
-                
-                // Exam types for this subject
-                json.append("\"exam_types\":[");
-                int examIndex = 0;
-                
-                // Calculate weighted total for this subject
-                AnalyzerDAO.SubjectPassResult subjectResult = dao.calculateWeightedSubjectTotalWithPass(
-                    result.studentId, result.sectionId, subjectName, examMarks.keySet());
-                double subjectWeightedTotal = Math.abs(subjectResult.percentage);
-                boolean subjectPassed = subjectResult.passed;
-                
-                for (Map.Entry<String, Integer> examEntry : examMarks.entrySet()) {
-                    if (examIndex > 0) json.append(",");
-                    String examName = examEntry.getKey();
-                    int marksObtained = examEntry.getValue();
-                    
-                    // Get exam type details (max marks, weightage)
-                    AnalyzerDAO.ExamTypeConfig examConfig = dao.getExamTypeConfig(
-                        result.sectionId, examName);
-                    
-                    json.append("{");
-                    json.append("\"exam_name\":\"").append(escapeJson(examName)).append("\",");
-                    json.append("\"obtained\":").append(marksObtained).append(",");
-                    json.append("\"max\":").append(examConfig != null ? examConfig.maxMarks : 0).append(",");
-                    json.append("\"weightage\":").append(examConfig != null ? examConfig.weightage : 0);
-                    json.append("}");
-                    examIndex++;
-                }
-                json.append("],");
-                
-                json.append("\"weighted_total\":").append(Math.round(subjectWeightedTotal)).append(",");
-                json.append("\"max_marks\":100,");
-                json.append("\"grade\":\"").append(dao.getGradeFromPercentage(subjectWeightedTotal)).append("\",");
-                json.append("\"passed\":").append(subjectPassed);
-                json.append("}");
-                subjectIndex++;
-            }
+    private void saveLaunchData(Connection conn, int launchId, LaunchComputation computation,
+                                ResultConfiguration config) throws SQLException {
+        String launchData = LaunchedResultCodec.encodeLaunchData(computation.getSnapshot(),
+            createConfigJson(config), createClassStatsJson(computation.getClassStatistics()));
+        String upsert = "INSERT INTO launched_result_meta (launch_id, format, launch_data) VALUES (?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE format = VALUES(format), launch_data = VALUES(launch_data)";
+        try (PreparedStatement ps = conn.prepareStatement(upsert)) {
+            ps.setInt(1, launchId);
+            ps.setInt(2, LaunchedResultCodec.FORMAT);
+            ps.setString(3, launchData);
+            ps.executeUpdate();
         }
-        json.append("],");
-        
-        // Overall result (total marks, percentage, CGPA, grade, pass/fail)
-        json.append("\"overall\":{");
-        json.append("\"total_obtained\":").append(Math.round(result.calculationResult.getTotalObtained())).append(",");
-        json.append("\"total_max\":").append(Math.round(result.calculationResult.getTotalPossible())).append(",");
-        json.append("\"percentage\":").append(String.format("%.2f", result.calculationResult.getFinalPercentage())).append(",");
-        json.append("\"cgpa\":").append(String.format("%.2f", result.calculationResult.getSgpa())).append(",");
-        json.append("\"grade\":\"").append(result.calculationResult.getGrade()).append("\",");
-        json.append("\"is_passing\":").append(result.calculationResult.isPassing()).append(",");
-        json.append("\"calculation_method\":\"").append(result.calculationResult.getCalculationMethod()).append("\"");
-        json.append("},");
-        
-        // Ranking (student rank, total students, percentile)
-        json.append("\"ranking\":{");
-        json.append("\"rank\":").append(ranking.rank).append(",");
-        json.append("\"total_students\":").append(ranking.totalStudents).append(",");
-        json.append("\"percentile\":").append(String.format("%.2f", ranking.percentile));
-        json.append("},");
-        
-        // Class Statistics (average, highest, lowest, median, pass/fail counts)
-        json.append("\"class_stats\":{");
-        json.append("\"average\":").append(String.format("%.2f", classStats.average)).append(",");
-        json.append("\"highest\":").append(String.format("%.2f", classStats.highest)).append(",");
-        json.append("\"lowest\":").append(String.format("%.2f", classStats.lowest)).append(",");
-        json.append("\"median\":").append(String.format("%.2f", classStats.median)).append(",");
-        json.append("\"passing_count\":").append(classStats.passingCount).append(",");
-        json.append("\"failing_count\":").append(classStats.failingCount).append(",");
-        json.append("\"total_students\":").append(classStats.totalStudents);
-        json.append("}");
-        
-        json.append("}");
-        return json.toString();
+    }
+    
+    /**
+     * Serialize the visibility settings once per launch (launched_result_meta).
+     * An update that only changes visibility replaces exactly this block in the stored data.
+     */
+    private String createConfigJson(ResultConfiguration config) {
+        return new JsonWriter(160).beginObject()
+            .name("show_component_marks").value(config.isShowComponentMarks())
+            .name("show_subject_details").value(config.isShowSubjectDetails())
+            .name("show_rank").value(config.isShowRank())
+            .name("show_class_stats").value(config.isShowClassStats())
+            .name("allow_pdf_download").value(config.isAllowPdfDownload())
+            .endObject()
+            .toString();
+    }
+    
+    /**
+     * Serialize class statistics once per launch (launched_result_meta).
+     */
+    private String createClassStatsJson(ClassStatistics classStats) {
+        return new JsonWriter(256).beginObject()
+            .name("average").valueFixed2(classStats.average)
+            .name("highest").valueFixed2(classStats.highest)
+            .name("lowest").valueFixed2(classStats.lowest)
+            .name("median").valueFixed2(classStats.median)
+            .name("passing_count").value(classStats.passingCount)
+            .name("failing_count").value(classStats.failingCount)
+            .name("total_students").value(classStats.totalStudents)
+            .endObject()
+            .toString();
     }
     
     /**
@@ -492,84 +372,6 @@ public class ResultLauncherDAO {
         return map;
     }
     
-    /**
-     * Escape JSON special characters to prevent malformed JSON.
-     */
-    private String escapeJson(String str) {
-        if (str == null) return "";
-        return str.replace("\\", "\\\\")
-                 .replace("\"", "\\\"")
-                 .replace("\n", "\\n")
-                 .replace("\r", "\\r")
-                 .replace("\t", "\\t");
-    }
-    
-    /**
-     * Bulk load student names (single optimized query).
-     * Much faster than loading one by one (O(1) vs O(n) queries).
-     */
-    private Map<Integer, String> getStudentNames(List<Integer> studentIds) {
-        Map<Integer, String> names = new HashMap<>();
-        
-        if (studentIds.isEmpty()) return names;
-        
-        Connection conn = null;
-        try {
-            conn = DatabaseConnection.getConnection();
-            String placeholders = String.join(",", Collections.nCopies(studentIds.size(), "?"));
-            String query = "SELECT id, student_name FROM students WHERE id IN (" + placeholders + ")";
-            
-            PreparedStatement ps = conn.prepareStatement(query);
-            for (int i = 0; i < studentIds.size(); i++) {
-                ps.setInt(i + 1, studentIds.get(i));
-            }
-            
-            ResultSet rs = ps.executeQuery();
-            while (rs.next()) {
-                names.put(rs.getInt("id"), rs.getString("student_name"));
-            }
-            
-            rs.close();
-            ps.close();
-            
-        } catch (SQLException e) {
-            System.err.println("Error loading student names: " + e.getMessage());
-            e.printStackTrace();
-        } finally {
-            try { if (conn != null) conn.close(); } catch (Exception e) {}
-        }
-        
-        return names;
-    }
-    
-    /**
-     * Send email notifications to students.
-     * Updates email_sent status in database.
-     */
-    private void sendEmailNotifications(Connection conn, int launchId, 
-                                       List<Integer> studentIds, ResultConfiguration config) {
-        try {
-            boolean success = EmailService.sendResultNotifications(
-                studentIds, 
-                config.getEmailSubject(), 
-                config.getEmailMessage(), 
-                config.getLaunchName()
-            );
-            
-            // Update email sent status
-            String query = "UPDATE launched_results SET email_sent = ? WHERE id = ?";
-            PreparedStatement ps = conn.prepareStatement(query);
-            ps.setBoolean(1, success);
-            ps.setInt(2, launchId);
-            ps.executeUpdate();
-            ps.close();
-            
-        } catch (Exception e) {
-            System.err.println("Error sending emails: " + e.getMessage());
-            e.printStackTrace();
-        }
-    }
-    
     /**
      * Get all launched results for current user.
      * Returns list sorted by launch date (newest first).
@@ -658,6 +460,7 @@ public class ResultLauncherDAO {
      * This removes all associated student results and the launch record.
      */
     public boolean deleteResult(int launchId) {
+        ensureLaunchTables(); // Before the transaction (DDL commits implicitly)
         Connection conn = null;
         try {
             conn = DatabaseConnection.getConnection();
@@ -671,6 +474,15 @@ public class ResultLauncherDAO {
             int studentRows = ps1.executeUpdate();
             ps1.close();
             
+            // Recorded watermark and launch-level data of the launch
+            for (String table : new String[] {"launched_result_versions", "launched_result_meta"}) {
+                try (PreparedStatement ps = conn.prepareStatement(
+                        "DELETE FROM " + table + " WHERE launch_id = ?")) {
+                    ps.setInt(1, launchId);
+                    ps.executeUpdate();
+                }
+            }
+            
             // Then delete the launch record itself
             String deleteLaunch = "DELETE FROM launched_results " +
                                  "WHERE id = ? AND launched_by = ?";
@@ -708,66 +520,87 @@ public class ResultLauncherDAO {
     
     /**
      * Update an existing launched result with new student and component selections.
-     * This maintains the same launch record but updates the students/components and recalculates.
+     * This maintains the same launch record and only touches the rows that change:
+     * - same students and components, and the section unchanged since the results were
+     *   stored (launched_result_versions): nothing is recalculated, a visibility change
+     *   is patched into the stored rows with one UPDATE
+     * - otherwise the results are recalculated (or taken from the preview) and compared
+     *   with the stored rows by SHA-1 (computed in MySQL, the stored JSON is not
+     *   transferred); only new, changed and deselected students are written
      */
-    public boolean updateResult(int launchId, List<Integer> studentIds, 
-                               List<Component> components, ResultConfiguration config) {
+    public UpdateSummary updateResult(int launchId, List<Integer> studentIds, 
+                                      List<Component> components, ResultConfiguration config) {
+        UpdateSummary summary = new UpdateSummary();
+        
+        // Before the transaction (DDL commits implicitly)
+        DataChangeTracker.ensureTable();
+        ensureLaunchTables();
+        
         Connection conn = null;
         try {
             conn = DatabaseConnection.getConnection();
             conn.setAutoCommit(false); // Start transaction
             
-            // 1. Get the section ID from the existing launch record
-            String getSectionIdQuery = "SELECT section_id FROM launched_results WHERE id = ?";
-            PreparedStatement getSectionPs = conn.prepareStatement(getSectionIdQuery);
-            getSectionPs.setInt(1, launchId);
-            ResultSet rs = getSectionPs.executeQuery();
+            // 1. Existing launch record: section, selection and visibility settings
+            String launchQuery = "SELECT section_id, student_ids, component_ids, show_component_marks, " +
+                "show_subject_details, show_rank, show_class_stats, allow_pdf_download " +
+                "FROM launched_results WHERE id = ? FOR UPDATE";
             int sectionId = -1;
-            if (rs.next()) {
-                sectionId = rs.getInt("section_id");
+            List<Integer> storedStudentIds = new ArrayList<>();
+            List<Integer> storedComponentIds = new ArrayList<>();
+            ResultConfiguration storedConfig = new ResultConfiguration();
+            try (PreparedStatement ps = conn.prepareStatement(launchQuery)) {
+                ps.setInt(1, launchId);
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (rs.next()) {
+                        sectionId = rs.getInt("section_id");
+                        storedStudentIds = convertJsonToList(rs.getString("student_ids"));
+                        storedComponentIds = convertJsonToList(rs.getString("component_ids"));
+                        storedConfig.setShowComponentMarks(rs.getBoolean("show_component_marks"));
+                        storedConfig.setShowSubjectDetails(rs.getBoolean("show_subject_details"));
+                        storedConfig.setShowRank(rs.getBoolean("show_rank"));
+                        storedConfig.setShowClassStats(rs.getBoolean("show_class_stats"));
+                        storedConfig.setAllowPdfDownload(rs.getBoolean("allow_pdf_download"));
+                    }
+                }
             }
-            rs.close();
-            getSectionPs.close();
             
             if (sectionId == -1) {
                 System.err.println("Could not find section ID for launch ID: " + launchId);
-                return false;
-            }
-            
-            // 2. Delete old student results for this launch
-            String deleteStudentResults = "DELETE FROM launched_student_results " +
-                                         "WHERE launch_id = ?";
-            PreparedStatement ps1 = conn.prepareStatement(deleteStudentResults);
-            ps1.setInt(1, launchId);
-            int deletedRows = ps1.executeUpdate();
-            ps1.close();
-            
-            // 3. Calculate new results for all students (same as launchResults)
-            Map<Integer, StudentResult> studentResults = calculateAllStudentResults(
-                studentIds, components, sectionId);
-            
-            if (studentResults.isEmpty()) {
-                System.err.println("No student results calculated for update");
                 conn.rollback();
-                return false;
+                return summary;
             }
             
-            // 3. Calculate ranking using efficient sorting (O(n log n))
-            List<StudentRanking> rankings = calculateRankings(studentResults);
-            
-            // 4. Calculate class statistics
-            ClassStatistics classStats = calculateClassStatistics(studentResults);
-            
-            // 5. Store new student results (use same method as launchResults)
-            boolean stored = storeStudentResults(conn, launchId, studentResults, rankings, 
-                                               classStats, config);
-            if (!stored) {
-                conn.rollback();
-                System.err.println("Failed to store updated student results");
-                return false;
+            List<Integer> componentIds = components.stream()
+                .map(Component::getId).collect(Collectors.toList());
+            boolean sameSelection = sameIds(storedStudentIds, studentIds)
+                && sameIds(storedComponentIds, componentIds);
+            SectionVersion storedVersion = loadLaunchVersion(conn, launchId);
+            SectionVersion currentVersion = DataChangeTracker.loadVersion(conn, sectionId);
+            
+            if (sameSelection && storedVersion != null
+                    && currentVersion.changesSince(storedVersion).isEmpty()) {
+                // 2a. Stored results are current - only the visibility settings can differ
+                summary.updated = replaceConfigBlock(conn, launchId, storedConfig, config);
+                summary.unchanged = studentIds.size();
+            } else {
+                // 2b. Recalculate (same as launchResults: the preview's computation when the
+                // section is unchanged since) and write only the differences
+                LaunchComputation computation = LaunchComputation.forLaunch(
+                    conn, sectionId, studentIds, components);
+                
+                if (computation.isEmpty()) {
+                    System.err.println("No student results calculated for update");
+                    conn.rollback();
+                    return summary;
+                }
+                
+                summary.recalculated = true;
+                storeChangedResults(conn, launchId, computation, config, summary);
+                saveLaunchVersion(conn, launchId, computation.getWatermark());
             }
             
-            // 4. Update the launch record with new configuration
+            // 3. Update the launch record with new configuration
             String updateLaunch = "UPDATE launched_results SET " +
                 "student_ids = ?, " +
                 "component_ids = ?, " +
@@ -777,29 +610,28 @@ public class ResultLauncherDAO {
                 "show_class_stats = ?, " +
                 "allow_pdf_download = ? " +
                 "WHERE id = ?";
-            PreparedStatement ps3 = conn.prepareStatement(updateLaunch);
-            ps3.setString(1, convertListToJson(studentIds));
-            ps3.setString(2, convertListToJson(components.stream()
-
-                .map(Component::getId).collect(Collectors.toList())));
-            ps3.setBoolean(3, config.isShowComponentMarks());
-            ps3.setBoolean(4, config.isShowSubjectDetails());
-            ps3.setBoolean(5, config.isShowRank());
-            ps3.setBoolean(6, config.isShowClassStats());
-            ps3.setBoolean(7, config.isAllowPdfDownload());
-            ps3.setInt(8, launchId);
-            int updatedRows = ps3.executeUpdate();
-            ps3.close();
+            int updatedRows;
+            try (PreparedStatement ps = conn.prepareStatement(updateLaunch)) {
+                ps.setString(1, convertListToJson(studentIds));
+                ps.setString(2, convertListToJson(componentIds));
+                ps.setBoolean(3, config.isShowComponentMarks());
+                ps.setBoolean(4, config.isShowSubjectDetails());
+                ps.setBoolean(5, config.isShowRank());
+                ps.setBoolean(6, config.isShowClassStats());
+                ps.setBoolean(7, config.isAllowPdfDownload());
+                ps.setInt(8, launchId);
+                updatedRows = ps.executeUpdate();
+            }
             
             conn.commit(); // Commit transaction
             
             if (updatedRows > 0) {
-                System.out.println("Launch record " + launchId + " updated successfully");
-                return true;
+                summary.success = true;
+                System.out.println("Launch record " + launchId + " updated: " + summary);
             } else {
                 System.err.println("Failed to update launch record " + launchId);
-                return false;
             }
+            return summary;
             
         } catch (SQLException e) {
             System.err.println("Error updating result: " + e.getMessage());
@@ -811,11 +643,12 @@ public class ResultLauncherDAO {
                     System.err.println("Error rolling back: " + ex.getMessage());
                 }
             }
-            return false;
+            return summary;
         } finally {
             if (conn != null) {
                 try {
                     conn.setAutoCommit(true);
+                    conn.close(); // Return to pool
                 } catch (SQLException e) {
                     System.err.println("Error resetting auto-commit: " + e.getMessage());
                 }
@@ -824,142 +657,217 @@ public class ResultLauncherDAO {
     }
     
     /**
-     * Convert list to JSON string (fast using Java 8 streams).
+     * Write the rows of an update that differ from the stored ones.
+     * Stored rows are compared by SHA1(result_data), evaluated by MySQL. Class statistics
+     * live in the launch-level data, so a correction only changes the rows of students
+     * whose marks, rank or percentile moved (rows of older launches are rewritten once,
+     * in the current format).
      */
-    private String convertListToJson(List<Integer> list) {
-        if (list == null || list.isEmpty()) return "[]";
-        return "[" + list.stream()
-            .map(String::valueOf)
-            .collect(Collectors.joining(",")) + "]";
-    }
-    
-    /**
-     * Convert JSON string to list (fast parsing).
-     */
-    private List<Integer> convertJsonToList(String json) {
-        List<Integer> list = new ArrayList<>();
-        if (json == null || json.trim().isEmpty() || "[]".equals(json.trim())) {
-            return list;
+    private void storeChangedResults(Connection conn, int launchId, LaunchComputation computation,
+                                     ResultConfiguration config, UpdateSummary summary) throws SQLException {
+        
+        Map<Integer, String> storedHashes = new HashMap<>();
+        String hashQuery = "SELECT student_id, SHA1(result_data) AS result_hash " +
+                           "FROM launched_student_results WHERE launch_id = ?";
+        try (PreparedStatement ps = conn.prepareStatement(hashQuery)) {
+            ps.setInt(1, launchId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    storedHashes.put(rs.getInt("student_id"), rs.getString("result_hash"));
+                }
+            }
         }
         
-        try {
-            String cleaned = json.replace("[", "").replace("]", "").trim();
-            if (!cleaned.isEmpty()) {
-                for (String part : cleaned.split(",")) {
-                    list.add(Integer.parseInt(part.trim()));
+        String insertQuery = "INSERT INTO launched_student_results " +
+            "(launch_id, student_id, result_data, created_at) VALUES (?, ?, ?, NOW())";
+        String updateQuery = "UPDATE launched_student_results SET result_data = ?, created_at = NOW() " +
+            "WHERE launch_id = ? AND student_id = ?";
+        
+        saveLaunchData(conn, launchId, computation, config);
+        
+        try (PreparedStatement insert = conn.prepareStatement(insertQuery);
+             PreparedStatement update = conn.prepareStatement(updateQuery)) {
+            
+            JsonWriter jsonWriter = new JsonWriter(1024);
+            SectionMarksSnapshot snapshot = computation.getSnapshot();
+            
+            for (StudentResult result : computation.getResults().values()) {
+                String json = LaunchedResultCodec.encodeStudent(jsonWriter, snapshot, result,
+                    computation.getRanking(result.studentId));
+                
+                if (!storedHashes.containsKey(result.studentId)) {
+                    insert.setInt(1, launchId);
+                    insert.setInt(2, result.studentId);
+                    insert.setString(3, json);
+                    insert.addBatch();
+                    if (++summary.inserted % 50 == 0) {
+                        insert.executeBatch();
+                    }
+                    continue;
+                }
+                
+                String storedHash = storedHashes.remove(result.studentId);
+                if (sha1Hex(json).equalsIgnoreCase(storedHash)) {
+                    summary.unchanged++;
+                    continue;
+                }
+                update.setString(1, json);
+                update.setInt(2, launchId);
+                update.setInt(3, result.studentId);
+                update.addBatch();
+                if (++summary.updated % 50 == 0) {
+                    update.executeBatch();
                 }
             }
-        } catch (Exception e) {
-            System.err.println("Error parsing JSON: " + e.getMessage());
+            
+            if (summary.inserted % 50 != 0) {
+                insert.executeBatch();
+            }
+            if (summary.updated % 50 != 0) {
+                update.executeBatch();
+            }
         }
         
-        return list;
+        // Students that are no longer selected
+        if (!storedHashes.isEmpty()) {
+            List<Integer> removed = new ArrayList<>(storedHashes.keySet());
+            String placeholders = String.join(",", Collections.nCopies(removed.size(), "?"));
+            String deleteQuery = "DELETE FROM launched_student_results " +
+                                 "WHERE launch_id = ? AND student_id IN (" + placeholders + ")";
+            try (PreparedStatement ps = conn.prepareStatement(deleteQuery)) {
+                ps.setInt(1, launchId);
+                for (int i = 0; i < removed.size(); i++) {
+                    ps.setInt(i + 2, removed.get(i));
+                }
+                summary.deleted = ps.executeUpdate();
+            }
+        }
     }
     
-    // ===== INNER CLASSES FOR DATA STRUCTURES =====
-    
     /**
-     * Internal class to hold student result data during processing.
+     * Visibility-only update: swap the config block in the launch-level data (and in the
+     * student rows of launches stored in the old full format) with one statement each.
+     * The block is written by createConfigJson, so the old one is reproduced byte for byte.
+     * @return Rows changed (0 when the settings are unchanged)
      */
-    private static class StudentResult {
-        int studentId;
-        String studentName;
-        int sectionId;
-        CalculationResult calculationResult;
-        List<Component> components;
-        Map<String, Map<String, Integer>> subjectMarks; // subject -> exam_type -> marks
+    private int replaceConfigBlock(Connection conn, int launchId, ResultConfiguration oldConfig,
+                                   ResultConfiguration newConfig) throws SQLException {
+        String oldBlock = "\"config\":" + createConfigJson(oldConfig);
+        String newBlock = "\"config\":" + createConfigJson(newConfig);
+        if (oldBlock.equals(newBlock)) {
+            return 0;
+        }
+        int changed = 0;
+        String[] queries = {
+            "UPDATE launched_result_meta SET launch_data = REPLACE(launch_data, ?, ?) WHERE launch_id = ?",
+            "UPDATE launched_student_results SET result_data = REPLACE(result_data, ?, ?) WHERE launch_id = ?"
+        };
+        for (String query : queries) {
+            try (PreparedStatement ps = conn.prepareStatement(query)) {
+                ps.setString(1, oldBlock);
+                ps.setString(2, newBlock);
+                ps.setInt(3, launchId);
+                changed += ps.executeUpdate();
+            }
+        }
+        return changed;
     }
     
     /**
-     * Internal class for ranking data.
+     * Section watermark a launch was calculated from, null for launches stored before
+     * versions were recorded.
      */
-    private static class StudentRanking {
-        int studentId;
-        int rank;
-        int totalStudents;
-        double percentage;
-        double percentile;
-        boolean isPassing;
+    private SectionVersion loadLaunchVersion(Connection conn, int launchId) throws SQLException {
+        String query = "SELECT lr.section_id, v.marks_version, v.students_version, v.config_version " +
+                       "FROM launched_result_versions v " +
+                       "JOIN launched_results lr ON lr.id = v.launch_id " +
+                       "WHERE v.launch_id = ?";
+        try (PreparedStatement ps = conn.prepareStatement(query)) {
+            ps.setInt(1, launchId);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    return new SectionVersion(rs.getInt("section_id"),
+                        rs.getLong("marks_version"),
+                        rs.getLong("students_version"),
+                        rs.getLong("config_version"));
+                }
+            }
+        }
+        return null;
     }
     
-    /**
-     * Internal class for class statistics.
-     */
-    private static class ClassStatistics {
-        double average;
-        double highest;
-        double lowest;
-        double median;
-        int passingCount;
-        int failingCount;
-        int totalStudents;
+    private void saveLaunchVersion(Connection conn, int launchId, SectionVersion version) throws SQLException {
+        String upsert = "INSERT INTO launched_result_versions " +
+            "(launch_id, marks_version, students_version, config_version) VALUES (?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE marks_version = VALUES(marks_version), " +
+            "students_version = VALUES(students_version), config_version = VALUES(config_version)";
+        try (PreparedStatement ps = conn.prepareStatement(upsert)) {
+            ps.setInt(1, launchId);
+            ps.setLong(2, version.marksVersion);
+            ps.setLong(3, version.studentsVersion);
+            ps.setLong(4, version.configVersion);
+            ps.executeUpdate();
+        }
+    }
+    
+    // Same ids, ignoring order and duplicates
+    private static boolean sameIds(List<Integer> a, List<Integer> b) {
+        return new HashSet<>(a).equals(new HashSet<>(b));
+    }
+    
+    // Lowercase hex, same as MySQL SHA1() over a utf8/utf8mb4 TEXT column
+    private static String sha1Hex(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1").digest(value.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 not available", e);
+        }
     }
     
     /**
-     * Internal class for subject-wise breakdown.
+     * Convert list to JSON string.
      */
-    private static class SubjectBreakdown {
-        double obtained = 0;
-        double max = 0;
-        double percentage = 0;
+    private String convertListToJson(List<Integer> list) {
+        if (list == null || list.isEmpty()) return "[]";
+        JsonWriter json = new JsonWriter(list.size() * 6 + 2).beginArray();
+        for (Integer value : list) {
+            json.value(value);
+        }
+        return json.endArray().toString();
     }
     
     /**
-     * Load student marks using subject-wise weighted calculation (same as preview)
+     * Convert JSON string to list (single-pass pull parser).
      */
-    private List<Component> loadStudentComponentMarks(int studentId, int sectionId, AnalyzerDAO dao) {
-        List<Component> studentComponents = new ArrayList<>();
-        Connection conn = null;
+    private List<Integer> convertJsonToList(String json) {
+        List<Integer> list = new ArrayList<>();
+        if (json == null || json.trim().isEmpty()) {
+            return list;
+        }
         
         try {
-            conn = DatabaseConnection.getConnection();
-            
-            // Get all subjects for this section
-            String subjectQuery = "SELECT DISTINCT sub.id, sub.subject_name FROM section_subjects ss " +
-                                 "JOIN subjects sub ON ss.subject_id = sub.id " +
-                                 "WHERE ss.section_id = ?";
-            PreparedStatement ps = conn.prepareStatement(subjectQuery);
-            ps.setInt(1, sectionId);
-            ResultSet rs = ps.executeQuery();
-            
-            int subjectCount = 0;
-            double totalObtained = 0.0;
-            
-            while (rs.next()) {
-                String subjectName = rs.getString("subject_name");
-                
-                // Use AnalyzerDAO method to calculate weighted percentage for this subject
-                AnalyzerDAO.SubjectPassResult result = dao.calculateWeightedSubjectTotalWithPass(
-                    studentId, sectionId, subjectName, null); // null = include all exam types
-                
-                double subjectPercentage = result.percentage; // This is 0-100 per subject
-                totalObtained += subjectPercentage;
-                subjectCount++;
+            JsonReader reader = new JsonReader(json);
+            reader.beginArray();
+            while (reader.hasNext()) {
+                list.add(reader.nextInt());
             }
-            rs.close();
-            ps.close();
-            
-            // Create a single "pseudo-component" representing the total
-            // Total obtained = sum of all subject percentages
-            // Total possible = number of subjects × 100
-            Component totalComp = new Component(
-                0,
-                "Overall Total",
-                "exam",
-                totalObtained,
-                subjectCount * 100.0,
-                subjectCount * 100.0
-            );
-            totalComp.setCounted(true);
-            studentComponents.add(totalComp);
-            
+            reader.endArray();
         } catch (Exception e) {
-            System.err.println("Error loading marks: " + e.getMessage());
-            e.printStackTrace();
-        } finally {
-            try { if (conn != null) conn.close(); } catch (Exception e) {}
+            System.err.println("Error parsing JSON: " + e.getMessage());
         }
         
-        return studentComponents;
+        return list;
+    }
+    
+    // ===== INNER CLASSES FOR DATA STRUCTURES =====
+    
+    /**
+     * Internal class for subject-wise breakdown.
+     */
+    private static class SubjectBreakdown {
+        double obtained = 0;
+        double max = 0;
+        double percentage = 0;
     }
 }
@@ -8,17 +8,14 @@ import java.util.List;
 import java.util.ArrayList;
 import java.util.Map;
 import java.util.HashMap;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 
 import com.sms.calculation.models.Component;
-import com.sms.database.DatabaseConnection;
 import com.sms.calculation.models.CalculationResult;
-import com.sms.calculation.StudentCalculator;
 import com.sms.dao.AnalyzerDAO;
+import com.sms.dao.SectionMarksSnapshot;
 import com.sms.analyzer.Student;
 import com.sms.login.LoginScreen;
+import com.sms.util.BackgroundTask;
 
 public class ResultPreviewDialog extends JDialog {
     
@@ -31,11 +28,6 @@ public class ResultPreviewDialog extends JDialog {
     private List<String> columnList; // Shared column list
     private List<Integer> columnWidths; // Shared column widths
     
-    // OPTIMIZATION: Cache for batch-loaded data
-    private Map<Integer, Map<String, Map<String, Double>>> allStudentMarksCache; // studentId -> subject -> exam -> marks
-    private Map<Integer, List<Component>> allStudentComponentsCache; // studentId -> components
-    private String markingSystem; // Cache marking system
-    
     public ResultPreviewDialog(Window parent, int sectionId, List<Integer> studentIds, List<Component> components) {
         super(parent, "Result Preview", ModalityType.APPLICATION_MODAL);
         this.sectionId = sectionId;
@@ -55,6 +47,7 @@ public class ResultPreviewDialog extends JDialog {
         setSize(800, 600);
         setLocationRelativeTo(parent);
         setDefaultCloseOperation(DISPOSE_ON_CLOSE);
+        BackgroundTask.cancelOnClose(this);
         
         loadPreviewData();
     }
@@ -340,489 +333,124 @@ public class ResultPreviewDialog extends JDialog {
         tableModel.setRowCount(0);
         tableModel.addRow(new Object[]{"Loading...", "", "", "", "", "", ""});
         
-        SwingWorker<Void, Void> worker = new SwingWorker<Void, Void>() {
+        SwingWorker<List<Object[]>, Void> worker = new SwingWorker<List<Object[]>, Void>() {
             @Override
-            protected Void doInBackground() throws Exception {
-                calculatePreviewResults();
-                return null;
+            protected List<Object[]> doInBackground() throws Exception {
+                return calculatePreviewResults();
             }
             
             @Override
             protected void done() {
+                if (isCancelled()) {
+                    return; // dialog closed before the load finished
+                }
                 try {
-                    get(); // Check for exceptions
+                    List<Object[]> rows = get();
+                    tableModel.setRowCount(0);
+                    for (Object[] row : rows) {
+                        tableModel.addRow(row);
+                    }
                 } catch (Exception e) {
                     System.err.println("Error loading preview data: " + e.getMessage());
                     e.printStackTrace();
+                    tableModel.setRowCount(0);
                     JOptionPane.showMessageDialog(ResultPreviewDialog.this,
                         "Error loading preview data: " + e.getMessage(),
                         "Error", JOptionPane.ERROR_MESSAGE);
                 }
             }
         };
-        worker.execute();
+        BackgroundTask.execute(BackgroundTask.Lane.INTERACTIVE, this, worker);
     }
     
-    private void calculatePreviewResults() {
-        try {
-            tableModel.setRowCount(0);
-            
-            // OPTIMIZATION: Batch load ALL data upfront
-            batchLoadAllStudentMarks();
-            batchLoadMarkingSystem();
-            
-            AnalyzerDAO dao = new AnalyzerDAO();
-            StudentCalculator calculator = new StudentCalculator(40.0);
-            
-            // Get students by section
-            List<Student> allStudents = dao.getStudentsBySection(sectionId, LoginScreen.currentUserId);
-            
-            // Filter to selected students
-            List<Student> selectedStudents = allStudents.stream()
-                .filter(student -> studentIds.contains(student.getId()))
-                .toList();
-            
-            // Check if we have detailed ranking data with exam types
-            if (storedRankingData != null && !storedRankingData.subjects.isEmpty()) {
-                calculateDetailedPreview(selectedStudents, dao, calculator);
-            } else {
-                calculateSimplePreview(selectedStudents, dao, calculator);
-            }
-            
-        } catch (Exception e) {
-            System.err.println("Error in preview calculation: " + e.getMessage());
-            e.printStackTrace();
+    /**
+     * Build the table rows from the same LaunchComputation the launch stores.
+     * The computation stays cached, so Launch only has to insert it when the section
+     * did not change in between (see LaunchComputation).
+     */
+    private List<Object[]> calculatePreviewResults() throws Exception {
+        LaunchComputation computation = LaunchComputation.forPreview(sectionId, studentIds, components);
+        SectionMarksSnapshot snapshot = computation.getSnapshot();
+        
+        // Roll number and section name for display (single query)
+        AnalyzerDAO dao = new AnalyzerDAO();
+        Map<Integer, Student> studentsById = new HashMap<>();
+        for (Student student : dao.getStudentsBySection(sectionId, LoginScreen.currentUserId)) {
+            studentsById.put(student.getId(), student);
         }
-    }
-    
-    private void calculateDetailedPreview(List<Student> selectedStudents, AnalyzerDAO dao, StudentCalculator calculator) {
-        try {
-            // Store results for ranking
-            List<StudentResultDetailed> results = new ArrayList<>();
-            
-            for (Student student : selectedStudents) {
-                try {
-                    
-                    // Get marks for each exam type under each subject
-                    java.util.Map<String, java.util.Map<String, Double>> subjectExamMarks = new java.util.LinkedHashMap<>();
-                    java.util.Map<String, Double> subjectTotals = new java.util.LinkedHashMap<>();
-                    java.util.Map<String, Boolean> subjectPassStatus = new java.util.LinkedHashMap<>();
-                    boolean allSubjectsPassed = true;
-                    
-                    for (AnalyzerDAO.SubjectInfoDetailed subject : storedRankingData.subjects) {
-                        java.util.Map<String, Double> examMarks = new java.util.LinkedHashMap<>();
-                        
-                        // Get marks for each exam type
-                        for (String examType : subject.examTypes) {
-                            Double marks = getStudentExamMarks(student.getId(), subject.subjectName, examType);
-                            examMarks.put(examType, marks);
-                        }
-                        
-                        subjectExamMarks.put(subject.subjectName, examMarks);
-                        
-                        // Calculate weighted total for subject WITH DUAL PASSING CHECK
-                        AnalyzerDAO.SubjectPassResult subResult = dao.calculateWeightedSubjectTotalWithPass(
-                            student.getId(), sectionId, subject.subjectName, null);
-                        subjectTotals.put(subject.subjectName, subResult.percentage);
-                        subjectPassStatus.put(subject.subjectName, subResult.passed);
-                        
-                        // Student fails overall if ANY subject fails
-                        if (!subResult.passed) {
-                            allSubjectsPassed = false;
-                        }
-                    }
-                    
-                    // Load student component marks for overall calculation
-                    List<Component> studentComponents = loadStudentComponentMarks(student.getId());
-                    
-                    // Calculate results
-                    CalculationResult result = calculator.calculateStudentMarks(
-                        student.getId(), student.getName(), studentComponents);
-                    
-                    // Calculate CGPA based on weighted percentage (matching SectionAnalyzer logic)
-                    double cgpa = 0.0;
-                    if (allSubjectsPassed) {
-                        // Student passed all subjects - CGPA = percentage / 10.0
-                        cgpa = result.getFinalPercentage() / 10.0;
-                    } else {
-                        // Student failed at least one subject - CGPA = 0.0
-                        cgpa = 0.0;
-                    }
-                    
-                    // Store result for ranking
-                    StudentResultDetailed sr = new StudentResultDetailed();
-                    sr.student = student;
-                    sr.result = result;
-                    sr.subjectExamMarks = subjectExamMarks;
-                    sr.subjectTotals = subjectTotals;
-                    sr.subjectPassStatus = subjectPassStatus;
-                    sr.overallPassed = allSubjectsPassed;
-                    sr.cgpa = cgpa;
-                    results.add(sr);
-                    
-                } catch (Exception e) {
-                    System.err.println("Error calculating for student " + student.getName() + ": " + e.getMessage());
-                    e.printStackTrace();
-                }
-            }
-            
-            // Sort by percentage descending for ranking
-            results.sort((a, b) -> Double.compare(b.result.getFinalPercentage(), a.result.getFinalPercentage()));
-            
-            // Assign ranks
-            int rank = 1;
-            for (StudentResultDetailed sr : results) {
-                sr.rank = rank++;
+        
+        boolean detailed = storedRankingData != null && !storedRankingData.subjects.isEmpty();
+        List<Object[]> rows = new ArrayList<>();
+        
+        // Rankings are sorted best first, ties share a rank (same ranks as the launched results)
+        for (LaunchComputation.StudentRanking ranking : computation.getRankings()) {
+            Student student = studentsById.get(ranking.studentId);
+            if (student == null) {
+                continue;
             }
+            LaunchComputation.StudentResult result = computation.getResults().get(ranking.studentId);
+            int ordinal = result.studentOrdinal;
             
-            // Add to table with detailed subject breakdown
-            for (StudentResultDetailed sr : results) {
-                SwingUtilities.invokeLater(() -> {
-                    List<Object> rowData = new ArrayList<>();
-                    rowData.add(String.valueOf(sr.rank));
-                    rowData.add(sr.student.getName());
-                    rowData.add(sr.student.getRollNumber());
-                    rowData.add(sr.student.getSection());
-                    
-                    // Add exam marks for each subject
-                    for (AnalyzerDAO.SubjectInfoDetailed subject : storedRankingData.subjects) {
-                        java.util.Map<String, Double> examMarks = sr.subjectExamMarks.get(subject.subjectName);
-                        
-                        // Add individual exam type marks
-                        for (String examType : subject.examTypes) {
-                            Double marks = examMarks != null ? examMarks.get(examType) : null;
-                            rowData.add(marks != null && marks >= 0 ? String.format("%.0f", marks) : "-");
-                        }
-                        
-                        // Add subject total
-                        Double subjectTotal = sr.subjectTotals.get(subject.subjectName);
-                        rowData.add(subjectTotal != null && subjectTotal >= 0 ? String.format("%.2f", subjectTotal) : "-");
-                    }
-                    
-                    // Add overall columns
-                    rowData.add(String.format("%.0f/%.0f", sr.result.getTotalObtained(), sr.result.getTotalPossible()));
-                    rowData.add(String.format("%.2f%%", sr.result.getFinalPercentage()));
-                    rowData.add(sr.result.getGrade());
-                    rowData.add(String.format("%.2f", sr.cgpa)); // Use calculated CGPA (percentage/10.0)
-                    // Use dual passing requirement: ALL subjects must pass
-                    rowData.add(sr.overallPassed ? "PASS" : "FAIL");
-                    
-                    tableModel.addRow(rowData.toArray());
-                });
-            }
-        } catch (Exception e) {
-            System.err.println("Error in detailed preview: " + e.getMessage());
-            e.printStackTrace();
-        }
-    }
-    
-    private void calculateSimplePreview(List<Student> selectedStudents, AnalyzerDAO dao, StudentCalculator calculator) {
-        try {
-            // Store results for ranking
-            List<StudentResult> results = new ArrayList<>();
-            List<String> subjectNames = getSubjectsForSection();
+            List<Object> rowData = new ArrayList<>();
+            rowData.add(String.valueOf(ranking.rank));
+            rowData.add(student.getName());
+            rowData.add(student.getRollNumber());
+            rowData.add(student.getSection());
             
-            for (Student student : selectedStudents) {
-                try {
-                    
-                    // Calculate subject-wise percentages WITH DUAL PASSING CHECK
-                    java.util.Map<String, Double> subjectPercentages = new java.util.LinkedHashMap<>();
-                    boolean allSubjectsPassed = true;
-                    
-                    for (String subjectName : subjectNames) {
-                        AnalyzerDAO.SubjectPassResult subResult = dao.calculateWeightedSubjectTotalWithPass(
-                            student.getId(), sectionId, subjectName, null);
-                        subjectPercentages.put(subjectName, subResult.percentage);
-                        
-                        // Student fails overall if ANY subject fails
-                        if (!subResult.passed) {
-                            allSubjectsPassed = false;
-                        }
+            if (detailed) {
+                // Exam marks and weighted total for each subject
+                for (AnalyzerDAO.SubjectInfoDetailed subject : storedRankingData.subjects) {
+                    int subjectOrdinal = snapshot.subjectOrdinal(subject.subjectName);
+                    for (String examType : subject.examTypes) {
+                        double marks = examMark(snapshot, ordinal, subjectOrdinal, examType);
+                        rowData.add(marks >= 0 ? String.format("%.0f", marks) : "-");
                     }
-                    
-                    // Load student component marks for overall calculation
-                    List<Component> studentComponents = loadStudentComponentMarks(student.getId());
-                    
-                    // Calculate results
-                    CalculationResult result = calculator.calculateStudentMarks(
-                        student.getId(), student.getName(), studentComponents);
-                    
-                    // Calculate CGPA based on weighted percentage (matching SectionAnalyzer logic)
-                    double cgpa = 0.0;
-                    if (allSubjectsPassed) {
-                        // Student passed all subjects - CGPA = percentage / 10.0
-                        cgpa = result.getFinalPercentage() / 10.0;
-                    } else {
-                        // Student failed at least one subject - CGPA = 0.0
-                        cgpa = 0.0;
-                    }
-                    
-                    // Store result for ranking
-                    StudentResult sr = new StudentResult();
-                    sr.student = student;
-                    sr.result = result;
-                    sr.subjectPercentages = subjectPercentages;
-                    sr.overallPassed = allSubjectsPassed;
-                    sr.cgpa = cgpa;
-                    results.add(sr);
-                    
-                } catch (Exception e) {
-                    System.err.println("Error calculating for student " + student.getName() + ": " + e.getMessage());
-                    e.printStackTrace();
+                    double subjectTotal = ordinal >= 0 && subjectOrdinal >= 0
+                        ? snapshot.subjectResult(ordinal, subjectOrdinal, null).percentage
+                        : -1;
+                    rowData.add(subjectTotal >= 0 ? String.format("%.2f", subjectTotal) : "-");
                 }
             }
             
-            // Sort by percentage descending for ranking
-            results.sort((a, b) -> Double.compare(b.result.getFinalPercentage(), a.result.getFinalPercentage()));
-            
-            // Assign ranks
-            int rank = 1;
-            for (StudentResult sr : results) {
-                sr.rank = rank++;
-            }
-            
-            // Add to table
-            for (StudentResult sr : results) {
-                SwingUtilities.invokeLater(() -> {
-                    Object[] rowData = {
-                        String.valueOf(sr.rank),
-                        sr.student.getName(),
-                        sr.student.getRollNumber(),
-                        sr.student.getSection(),
-                        String.format("%.0f/%.0f", sr.result.getTotalObtained(), sr.result.getTotalPossible()),
-                        String.format("%.2f%%", sr.result.getFinalPercentage()),
-                        sr.result.getGrade(),
-                        String.format("%.2f", sr.cgpa), // Use calculated CGPA (percentage/10.0)
-                        sr.overallPassed ? "PASS" : "FAIL" // Use dual passing requirement
-                    };
-                    tableModel.addRow(rowData);
-                });
-            }
+            // Overall columns - dual passing requirement: ALL subjects must pass
+            CalculationResult calc = result.calculationResult;
+            boolean passed = allSubjectsPassed(snapshot, ordinal);
+            double cgpa = passed ? calc.getFinalPercentage() / 10.0 : 0.0; // matching SectionAnalyzer
+            rowData.add(String.format("%.0f/%.0f", calc.getTotalObtained(), calc.getTotalPossible()));
+            rowData.add(String.format("%.2f%%", calc.getFinalPercentage()));
+            rowData.add(calc.getGrade());
+            rowData.add(String.format("%.2f", cgpa));
+            rowData.add(passed ? "PASS" : "FAIL");
             
-        } catch (Exception e) {
-            System.err.println("Error in calculatePreviewResults: " + e.getMessage());
-            e.printStackTrace();
-            
-            SwingUtilities.invokeLater(() -> {
-                tableModel.setRowCount(0);
-                tableModel.addRow(new Object[]{"Error loading data", "", "", "", "", "", "", "", ""});
-            });
+            rows.add(rowData.toArray());
         }
+        return rows;
     }
     
-    // Helper class to store student results for ranking
-    private static class StudentResult {
-        Student student;
-        CalculationResult result;
-        int rank;
-        java.util.Map<String, Double> subjectPercentages;
-        boolean overallPassed; // True only if ALL subjects passed
-        double cgpa; // Calculated as percentage/10.0 (matching SectionAnalyzer)
-    }
-    
-    // Helper class for detailed results with exam-level breakdown
-    private static class StudentResultDetailed {
-        Student student;
-        CalculationResult result;
-        int rank;
-        java.util.Map<String, java.util.Map<String, Double>> subjectExamMarks; // subject -> exam -> marks
-        java.util.Map<String, Double> subjectTotals; // subject -> weighted percentage
-        java.util.Map<String, Boolean> subjectPassStatus; // subject -> pass/fail
-        boolean overallPassed; // True only if ALL subjects passed
-        double cgpa; // Calculated as percentage/10.0 (matching SectionAnalyzer)
-    }
-    
-    /**
-     * OPTIMIZED: Batch load ALL student marks in ONE query instead of N queries per student.
-     * Called once before processing students to eliminate N+1 performance problem.
-     */
-    private void batchLoadAllStudentMarks() {
-        allStudentMarksCache = new HashMap<>();
-        
-        if (studentIds.isEmpty()) return;
-        
-        Connection conn = null;
-        try {
-            conn = DatabaseConnection.getConnection();
-            
-            // Build IN clause for batch query
-            StringBuilder idList = new StringBuilder();
-            for (int i = 0; i < studentIds.size(); i++) {
-                if (i > 0) idList.append(",");
-                idList.append(studentIds.get(i));
-            }
-            
-            // SINGLE query fetches ALL marks for ALL students
-            String query = "SELECT sm.student_id, sub.subject_name, et.exam_name, sm.marks_obtained " +
-                          "FROM entered_exam_marks sm " +
-                          "JOIN subjects sub ON sm.subject_id = sub.id " +
-                          "JOIN exam_types et ON sm.exam_type_id = et.id " +
-                          "WHERE sm.student_id IN (" + idList + ") " +
-                          "AND sub.id IN (SELECT subject_id FROM section_subjects WHERE section_id = ?)";
-            
-            PreparedStatement ps = conn.prepareStatement(query);
-            ps.setInt(1, sectionId);
-            ResultSet rs = ps.executeQuery();
-            
-            while (rs.next()) {
-                int studentId = rs.getInt("student_id");
-                String subjectName = rs.getString("subject_name");
-                String examName = rs.getString("exam_name");
-                double marks = rs.getDouble("marks_obtained");
-                
-                allStudentMarksCache.putIfAbsent(studentId, new HashMap<>());
-                allStudentMarksCache.get(studentId).putIfAbsent(subjectName, new HashMap<>());
-                allStudentMarksCache.get(studentId).get(subjectName).put(examName, marks);
-            }
-            rs.close();
-            ps.close();
-            
-        } catch (Exception e) {
-            System.err.println("Error batch loading marks: " + e.getMessage());
-            e.printStackTrace();
-        } finally {
-            try { if (conn != null) conn.close(); } catch (Exception e) {}
+    // Marks of a student for one exam type of a subject, -1 if not entered
+    private static double examMark(SectionMarksSnapshot snapshot, int student, int subject, String examType) {
+        if (student < 0 || subject < 0) {
+            return -1;
         }
-    }
-    
-    /**
-     * Fast O(1) lookup from cache instead of database query.
-     */
-    private Double getStudentExamMarks(int studentId, String subjectName, String examTypeName) {
-        if (allStudentMarksCache == null) return null;
-        
-        Map<String, Map<String, Double>> studentMarks = allStudentMarksCache.get(studentId);
-        if (studentMarks == null) return null;
-        
-        Map<String, Double> subjectMarks = studentMarks.get(subjectName);
-        if (subjectMarks == null) return null;
-        
-        return subjectMarks.get(examTypeName);
-    }
-    
-    /**
-     * OPTIMIZED: Load marking system once at start, not per student.
-     */
-    private void batchLoadMarkingSystem() {
-        markingSystem = "old"; // default
-        Connection conn = null;
-        try {
-            conn = DatabaseConnection.getConnection();
-            PreparedStatement ps = conn.prepareStatement(
-                "SELECT marking_system FROM sections WHERE id = ?");
-            ps.setInt(1, sectionId);
-            ResultSet rs = ps.executeQuery();
-            if (rs.next()) {
-                markingSystem = rs.getString("marking_system");
+        for (int slot = snapshot.examStart(subject); slot < snapshot.examEnd(subject); slot++) {
+            if (examType.equals(snapshot.getExamName(slot)) && snapshot.hasMark(student, slot)) {
+                return snapshot.getMark(student, slot);
             }
-            rs.close();
-            ps.close();
-        } catch (Exception e) {
-            System.err.println("Error loading marking system: " + e.getMessage());
-        } finally {
-            try { if (conn != null) conn.close(); } catch (Exception e) {}
         }
+        return -1;
     }
     
-    private List<Component> loadStudentComponentMarks(int studentId) {
-        try {
-            AnalyzerDAO dao = new AnalyzerDAO();
-            
-            List<Component> studentComponents = new java.util.ArrayList<>();
-            
-            if ("flexible".equals(markingSystem)) {
-                // New system - load from student_component_marks
-                List<Integer> componentIds = components.stream()
-                    .map(Component::getId)
-                    .toList();
-                
-                java.util.Map<Integer, AnalyzerDAO.StudentComponentMark> studentMarks = 
-                    dao.getStudentComponentMarks(studentId, componentIds);
-                
-                for (Component comp : components) {
-                    AnalyzerDAO.StudentComponentMark mark = studentMarks.get(comp.getId());
-                    
-                    double obtainedMarks = 0;
-                    if (mark != null && mark.marksObtained > 0) {
-                        obtainedMarks = mark.marksObtained;
-                    }
-                    
-                    Component studentComp = new Component(
-                        comp.getId(),
-                        comp.getName(),
-                        comp.getType(),
-                        obtainedMarks,
-                        mark != null ? mark.maxMarks : comp.getMaxMarks(),
-                        mark != null ? mark.scaledToMarks : comp.getMaxMarks()
-                    );
-                    
-                    studentComp.setCounted(true);
-                    studentComp.setGroupName(comp.getGroupName());
-                    studentComp.setSequenceOrder(comp.getSequenceOrder());
-                    studentComponents.add(studentComp);
-                }
-            } else {
-                // Old system - Use AnalyzerDAO's weighted calculation method PER SUBJECT
-                // This matches SectionAnalyzer's calculation logic
-                java.sql.Connection conn = null;
-                try {
-                    conn = com.sms.database.DatabaseConnection.getConnection();
-                    
-                    // Get all subjects for this section
-                    String subjectQuery = "SELECT DISTINCT sub.id, sub.subject_name FROM section_subjects ss " +
-                                         "JOIN subjects sub ON ss.subject_id = sub.id " +
-                                         "WHERE ss.section_id = ?";
-                    java.sql.PreparedStatement ps = conn.prepareStatement(subjectQuery);
-                    ps.setInt(1, sectionId);
-                    java.sql.ResultSet rs = ps.executeQuery();
-                    
-                    int subjectCount = 0;
-                    double totalObtained = 0.0;
-                    
-                    while (rs.next()) {
-                        int subjectId = rs.getInt("id");
-                        String subjectName = rs.getString("subject_name");
-                        
-                        // Use AnalyzerDAO method to calculate weighted percentage for this subject
-                        AnalyzerDAO.SubjectPassResult result = dao.calculateWeightedSubjectTotalWithPass(
-                            studentId, sectionId, subjectName, null); // null = include all exam types
-                        
-                        double subjectPercentage = result.percentage; // This is 0-100 per subject
-                        totalObtained += subjectPercentage;
-                        subjectCount++;
-                    }
-                    rs.close();
-                    ps.close();
-                    
-                    // Create a single "pseudo-component" representing the total
-                    // Total obtained = sum of all subject percentages
-                    // Total possible = number of subjects × 100
-                    Component totalComp = new Component(
-                        0,
-                        "Overall Total",
-                        "exam",
-                        totalObtained,
-                        subjectCount * 100.0,
-                        subjectCount * 100.0
-                    );
-                    totalComp.setCounted(true);
-                    studentComponents.add(totalComp);
-                    
-                } catch (Exception e) {
-                    System.err.println("Error loading marks from old system: " + e.getMessage());
-                    e.printStackTrace();
-                } finally {
-                    try { if (conn != null) conn.close(); } catch (Exception e) {}
-                }
+    // Student fails overall if ANY subject fails
+    private static boolean allSubjectsPassed(SectionMarksSnapshot snapshot, int student) {
+        if (student < 0) {
+            return false;
+        }
+        for (int subject = 0; subject < snapshot.getSubjectCount(); subject++) {
+            if (!snapshot.subjectResult(student, subject, null).passed) {
+                return false;
             }
-            
-            return studentComponents;
-            
-        } catch (Exception e) {
-            System.err.println("Error loading student component marks: " + e.getMessage());
-            e.printStackTrace();
-            return new java.util.ArrayList<>();
         }
+        return true;
     }
     
     private Component findMatchingComponent(List<Component> components, int componentId) {
@@ -832,31 +460,6 @@ public class ResultPreviewDialog extends JDialog {
             .orElse(null);
     }
     
-    private List<String> getSubjectsForSection() {
-        List<String> subjects = new ArrayList<>();
-        java.sql.Connection conn = null;
-        try {
-            conn = com.sms.database.DatabaseConnection.getConnection();
-            String query = "SELECT DISTINCT sub.subject_name FROM section_subjects ss " +
-                          "JOIN subjects sub ON ss.subject_id = sub.id " +
-                          "WHERE ss.section_id = ? " +
-                          "ORDER BY sub.subject_name";
-            java.sql.PreparedStatement ps = conn.prepareStatement(query);
-            ps.setInt(1, sectionId);
-            java.sql.ResultSet rs = ps.executeQuery();
-            while (rs.next()) {
-                subjects.add(rs.getString("subject_name"));
-            }
-            rs.close();
-            ps.close();
-        } catch (Exception e) {
-            System.err.println("Error loading subjects: " + e.getMessage());
-        } finally {
-            try { if (conn != null) conn.close(); } catch (Exception e) {}
-        }
-        return subjects;
-    }
-    
     private void storeRankingData(AnalyzerDAO.DetailedRankingData data) {
         this.storedRankingData = data;
     }
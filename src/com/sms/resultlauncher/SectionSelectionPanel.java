@@ -8,6 +8,7 @@ import com.sms.resultlauncher.ResultLauncher;
 import com.sms.resultlauncher.ResultLauncherUtils;
 import com.sms.dao.SectionDAO;
 import com.sms.login.LoginScreen;
+import com.sms.util.BackgroundTask;
 
 public class SectionSelectionPanel extends JPanel {
     
@@ -85,6 +86,9 @@ public class SectionSelectionPanel extends JPanel {
 
             @Override
             protected void done() {
+                if (isCancelled()) {
+                    return; // panel closed before the load finished
+                }
                 try {
                     availableSections = get();
                     
@@ -104,7 +108,7 @@ public class SectionSelectionPanel extends JPanel {
                 }
             }
         };
-        worker.execute();
+        BackgroundTask.execute(BackgroundTask.Lane.INTERACTIVE, this, worker);
     }
     
     public void refreshSections() {
@@ -12,6 +12,7 @@ import com.sms.resultlauncher.ResultLauncherUtils;
 import com.sms.dao.AnalyzerDAO;
 import com.sms.analyzer.Student;
 import com.sms.login.LoginScreen;
+import com.sms.util.BackgroundTask;
 
 public class StudentSelectionPanel extends JPanel {
     
@@ -186,6 +187,9 @@ public class StudentSelectionPanel extends JPanel {
 
             @Override
             protected void done() {
+                if (isCancelled()) {
+                    return; // panel closed before the load finished
+                }
                 try {
                     currentStudents = get();
                     filteredStudents = new ArrayList<>(currentStudents);
@@ -200,7 +204,7 @@ public class StudentSelectionPanel extends JPanel {
                 }
             }
         };
-        worker.execute();
+        BackgroundTask.execute(BackgroundTask.Lane.INTERACTIVE, this, worker);
     }
     
     private void updateStudentsList() {
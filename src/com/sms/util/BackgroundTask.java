@@ -0,0 +1,408 @@
+package com.sms.util;
+
+import java.awt.Window;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.swing.SwingWorker;
+
+/**
+ * Central scheduler for background work, in named lanes.
+ *
+ * PERFORMANCE: Raw SwingWorkers all share one JDK pool of 10 threads, so a burst of
+ * saves or a bulk launch could hold every thread while a screen waits to load. Each
+ * lane here has its own threads, concurrency limit and thread priority:
+ * - INTERACTIVE: reads a user is waiting for (screens, lists, previews)
+ * - WRITE: saves and deletes
+ * - BULK: imports, exports and result launches
+ *
+ * Tasks can be tied to an owner (a panel or dialog); {@link #cancelAll} cancels the
+ * owner's queued and running tasks when it closes. Queued tasks are removed from the
+ * queue, running ones are interrupted.
+ *
+ * Per lane, queue depth, active threads, completed/failed/cancelled counts and the
+ * queue wait / run time of the tasks are exposed through {@link #getStats()}. Tasks
+ * that wait longer than SLOW_WAIT_MILLIS in a queue are logged with their lane and name.
+ *
+ * Lane sizes: BG_INTERACTIVE_THREADS (default 4), BG_WRITE_THREADS (2), BG_BULK_THREADS (1).
+ *
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public final class BackgroundTask {
+
+    private static final long SLOW_WAIT_MILLIS = 2000;
+
+    /**
+     * Kind of work; each lane has its own threads.
+     */
+    public enum Lane {
+        INTERACTIVE("interactive", "BG_INTERACTIVE_THREADS", 4, Thread.NORM_PRIORITY),
+        WRITE("write", "BG_WRITE_THREADS", 2, Thread.NORM_PRIORITY - 1),
+        BULK("bulk", "BG_BULK_THREADS", 1, Thread.MIN_PRIORITY + 1);
+
+        private final String label;
+        private final String configKey;
+        private final int defaultThreads;
+        private final int priority;
+
+        Lane(String label, String configKey, int defaultThreads, int priority) {
+            this.label = label;
+            this.configKey = configKey;
+            this.defaultThreads = defaultThreads;
+            this.priority = priority;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    /**
+     * Point-in-time metrics of one lane.
+     */
+    public static final class LaneStats {
+        public final Lane lane;
+        public final int threads;
+        public final int active;
+        public final int queued;
+        public final long completed;
+        public final long failed;
+        public final long cancelled;
+        public final double avgWaitMillis;
+        public final double maxWaitMillis;
+        public final double avgRunMillis;
+        public final double maxRunMillis;
+
+        LaneStats(LaneExecutor executor) {
+            this.lane = executor.lane;
+            this.threads = executor.pool.getMaximumPoolSize();
+            this.active = executor.pool.getActiveCount();
+            this.queued = executor.pool.getQueue().size();
+            this.completed = executor.completed.get();
+            this.failed = executor.failed.get();
+            this.cancelled = executor.cancelled.get();
+            long started = executor.started.get();
+            this.avgWaitMillis = started > 0 ? executor.waitNanos.get() / 1_000_000.0 / started : 0.0;
+            this.maxWaitMillis = executor.maxWaitNanos.get() / 1_000_000.0;
+            long finished = executor.finished.get();
+            this.avgRunMillis = finished > 0 ? executor.runNanos.get() / 1_000_000.0 / finished : 0.0;
+            this.maxRunMillis = executor.maxRunNanos.get() / 1_000_000.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %d/%d active, %d queued, completed=%d, failed=%d, cancelled=%d, " +
+                                 "wait avg=%.1f ms max=%.1f ms, run avg=%.1f ms max=%.1f ms",
+                lane.label, active, threads, queued, completed, failed, cancelled,
+                avgWaitMillis, maxWaitMillis, avgRunMillis, maxRunMillis);
+        }
+    }
+
+    /**
+     * Something an owner can cancel.
+     */
+    private interface Cancellable {
+        void cancel();
+    }
+
+    private static final class LaneExecutor {
+        final Lane lane;
+        final ThreadPoolExecutor pool;
+        final AtomicLong started = new AtomicLong();
+        final AtomicLong finished = new AtomicLong();
+        final AtomicLong completed = new AtomicLong();
+        final AtomicLong failed = new AtomicLong();
+        final AtomicLong cancelled = new AtomicLong();
+        final AtomicLong waitNanos = new AtomicLong();
+        final AtomicLong maxWaitNanos = new AtomicLong();
+        final AtomicLong runNanos = new AtomicLong();
+        final AtomicLong maxRunNanos = new AtomicLong();
+
+        LaneExecutor(Lane lane) {
+            this.lane = lane;
+            int threads = Math.max(1, ConfigLoader.getInt(lane.configKey, lane.defaultThreads));
+            AtomicInteger threadNumber = new AtomicInteger();
+            this.pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "bg-" + lane.label + "-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    thread.setPriority(lane.priority);
+                    return thread;
+                });
+            this.pool.allowCoreThreadTimeOut(true);
+        }
+    }
+
+    /**
+     * Queue entry: measures queue wait and run time around the actual work.
+     */
+    private static final class TrackedRunnable implements Runnable {
+        private final LaneExecutor executor;
+        private final String name;
+        private final Runnable body;
+        private final long queuedAt = System.nanoTime();
+
+        TrackedRunnable(LaneExecutor executor, String name, Runnable body) {
+            this.executor = executor;
+            this.name = name;
+            this.body = body;
+        }
+
+        @Override
+        public void run() {
+            long start = System.nanoTime();
+            long wait = start - queuedAt;
+            executor.started.incrementAndGet();
+            executor.waitNanos.addAndGet(wait);
+            executor.maxWaitNanos.accumulateAndGet(wait, Math::max);
+            if (wait > TimeUnit.MILLISECONDS.toNanos(SLOW_WAIT_MILLIS)) {
+                System.err.println(String.format("BackgroundTask: '%s' waited %d ms in the %s lane (%d queued)",
+                    name, TimeUnit.NANOSECONDS.toMillis(wait), executor.lane.label, executor.pool.getQueue().size()));
+            }
+            try {
+                body.run();
+            } finally {
+                long run = System.nanoTime() - start;
+                executor.finished.incrementAndGet();
+                executor.runNanos.addAndGet(run);
+                executor.maxRunNanos.accumulateAndGet(run, Math::max);
+            }
+        }
+    }
+
+    private static final Map<Lane, LaneExecutor> lanes = new java.util.EnumMap<>(Lane.class);
+    private static final Map<Object, Set<Cancellable>> ownedTasks = new WeakHashMap<>();
+
+    static {
+        for (Lane lane : Lane.values()) {
+            lanes.put(lane, new LaneExecutor(lane));
+        }
+    }
+
+    private BackgroundTask() {
+    }
+
+    /**
+     * Run a task in a lane.
+     *
+     * @param owner panel or dialog whose {@link #cancelAll} cancels the task, or null
+     * @param name short description for the logs
+     * @return completes with the task's result; cancel(true) removes the task from the
+     *         queue or interrupts it
+     */
+    public static <T> CompletableFuture<T> submit(Lane lane, Object owner, String name, Callable<T> task) {
+        LaneExecutor executor = lanes.get(lane);
+        CompletableFuture<T> future = new CompletableFuture<>();
+        Object runnerLock = new Object();
+        Thread[] runner = new Thread[1];
+
+        TrackedRunnable tracked = new TrackedRunnable(executor, name, () -> {
+            if (future.isDone()) {
+                return;
+            }
+            synchronized (runnerLock) {
+                runner[0] = Thread.currentThread();
+            }
+            try {
+                future.complete(task.call());
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            } finally {
+                synchronized (runnerLock) {
+                    runner[0] = null;
+                }
+                Thread.interrupted(); // a late cancel must not leak into the next task
+            }
+        });
+
+        Cancellable cancellable = () -> future.cancel(true);
+        future.whenComplete((result, failure) -> {
+            untrack(owner, cancellable);
+            if (future.isCancelled()) {
+                executor.cancelled.incrementAndGet();
+                executor.pool.remove(tracked);
+                synchronized (runnerLock) {
+                    if (runner[0] != null) {
+                        runner[0].interrupt();
+                    }
+                }
+            } else if (failure != null) {
+                executor.failed.incrementAndGet();
+            } else {
+                executor.completed.incrementAndGet();
+            }
+        });
+
+        track(owner, cancellable);
+        try {
+            executor.pool.execute(tracked);
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Run a task without result in a lane.
+     */
+    public static CompletableFuture<Void> run(Lane lane, Object owner, String name, Runnable task) {
+        return submit(lane, owner, name, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * Run a SwingWorker in a lane instead of the shared SwingWorker pool. done(),
+     * process() and property changes still arrive on the EDT as usual.
+     * A cancelled worker's done() is still called; check isCancelled() there.
+     *
+     * @param owner panel or dialog whose {@link #cancelAll} cancels the worker, or null
+     */
+    public static <W extends SwingWorker<?, ?>> W execute(Lane lane, Object owner, W worker) {
+        LaneExecutor executor = lanes.get(lane);
+        TrackedRunnable[] tracked = new TrackedRunnable[1];
+        Cancellable cancellable = () -> {
+            if (worker.cancel(true)) {
+                executor.cancelled.incrementAndGet();
+                executor.pool.remove(tracked[0]);
+            }
+        };
+        tracked[0] = new TrackedRunnable(executor, worker.getClass().getName(), () -> {
+            try {
+                if (!worker.isCancelled()) {
+                    worker.run();
+                    // run() keeps doInBackground's exception in the worker; get() does not block here
+                    if (!worker.isCancelled()) {
+                        try {
+                            worker.get();
+                            executor.completed.incrementAndGet();
+                        } catch (ExecutionException e) {
+                            executor.failed.incrementAndGet();
+                        } catch (CancellationException e) {
+                            // cancelled right after run(); counted by whoever cancelled it
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                }
+            } finally {
+                untrack(owner, cancellable);
+            }
+        });
+
+        track(owner, cancellable);
+        try {
+            executor.pool.execute(tracked[0]);
+        } catch (RejectedExecutionException e) {
+            untrack(owner, cancellable);
+            worker.cancel(false);
+        }
+        return worker;
+    }
+
+    /**
+     * Cancel every queued or running task of an owner (e.g. when its panel or dialog closes).
+     */
+    public static void cancelAll(Object owner) {
+        if (owner == null) {
+            return;
+        }
+        List<Cancellable> toCancel;
+        synchronized (ownedTasks) {
+            Set<Cancellable> tasks = ownedTasks.remove(owner);
+            if (tasks == null) {
+                return;
+            }
+            toCancel = new ArrayList<>(tasks);
+        }
+        for (Cancellable task : toCancel) {
+            task.cancel();
+        }
+    }
+
+    /**
+     * Cancel the window's tasks when it is closed or disposed.
+     */
+    public static void cancelOnClose(Window window) {
+        window.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                cancelAll(window);
+            }
+        });
+    }
+
+    public static LaneStats getLaneStats(Lane lane) {
+        return new LaneStats(lanes.get(lane));
+    }
+
+    public static String getStats() {
+        StringBuilder stats = new StringBuilder("BackgroundTask lanes:");
+        for (Lane lane : Lane.values()) {
+            stats.append("\n  ").append(getLaneStats(lane));
+        }
+        return stats.toString();
+    }
+
+    /**
+     * Stop all lanes. Pending writes get a few seconds to finish; queued reads and
+     * bulk work are dropped.
+     */
+    public static void shutdown() {
+        lanes.get(Lane.INTERACTIVE).pool.shutdownNow();
+        lanes.get(Lane.BULK).pool.shutdownNow();
+        ThreadPoolExecutor writes = lanes.get(Lane.WRITE).pool;
+        writes.shutdown();
+        try {
+            if (!writes.awaitTermination(10, TimeUnit.SECONDS)) {
+                System.err.println("BackgroundTask: " + writes.getQueue().size() + " writes still pending at shutdown");
+                writes.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            writes.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        System.out.println(getStats());
+    }
+
+    private static void track(Object owner, Cancellable task) {
+        if (owner == null) {
+            return;
+        }
+        synchronized (ownedTasks) {
+            ownedTasks.computeIfAbsent(owner, k -> new LinkedHashSet<>()).add(task);
+        }
+    }
+
+    private static void untrack(Object owner, Cancellable task) {
+        if (owner == null) {
+            return;
+        }
+        synchronized (ownedTasks) {
+            Set<Cancellable> tasks = ownedTasks.get(owner);
+            if (tasks != null) {
+                tasks.remove(task);
+                if (tasks.isEmpty()) {
+                    ownedTasks.remove(owner);
+                }
+            }
+        }
+    }
+}
@@ -288,6 +288,33 @@ public class ConfigLoader {
         return get("MAILERSEND_FROM_NAME", "Academic Analyzer");
     }
     
+    public static int getMailerSendBulkSize() {
+        return getInt("MAILERSEND_BULK_SIZE", 500);
+    }
+    
+    /**
+     * Get email outbox dispatcher configuration
+     */
+    public static int getEmailDispatchConcurrency() {
+        return getInt("EMAIL_DISPATCH_CONCURRENCY", 4);
+    }
+    
+    public static int getEmailRatePerSecond() {
+        return getInt("EMAIL_RATE_PER_SECOND", 8);
+    }
+    
+    public static int getEmailMaxAttempts() {
+        return getInt("EMAIL_MAX_ATTEMPTS", 5);
+    }
+    
+    public static int getEmailRetryBaseSeconds() {
+        return getInt("EMAIL_RETRY_BASE_SECONDS", 30);
+    }
+    
+    public static int getEmailPollIntervalSeconds() {
+        return getInt("EMAIL_POLL_INTERVAL_SECONDS", 30);
+    }
+    
     /**
      * Get Result Portal URL
      */
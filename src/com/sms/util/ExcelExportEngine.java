@@ -0,0 +1,325 @@
+package com.sms.util;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Iterator;
+import javax.swing.JTable;
+import javax.swing.table.TableModel;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+/**
+ * Streaming .xlsx export in constant memory.
+ *
+ * PERFORMANCE OPTIMIZATION:
+ * - SXSSFWorkbook keeps only a fixed window of rows on the heap; older rows are flushed
+ *   to a (compressed) temp file, so heap use does not grow with the row count
+ * - cell styles come from a shared {@link ExcelStyleRegistry} instead of one CellStyle per cell
+ * - rows are pulled from a {@link RowSupplier} (JDBC cursor, snapshot, table) into one
+ *   reused value array, so the data never has to be materialised as a whole
+ * - column widths are computed from the text length seen while writing; autoSizeColumn
+ *   cannot see flushed rows and measures every cell with AWT fonts
+ *
+ * Usage:
+ * <pre>
+ * try (ExcelExportEngine engine = new ExcelExportEngine()) {
+ *     ExcelExportEngine.SheetWriter sheet = engine.sheet("Marks", columnNames.length);
+ *     sheet.title("Mark Entry", titleStyle, 0);
+ *     sheet.header(columnNames, headerStyle, 0);
+ *     sheet.rows(ExcelExportEngine.RowSupplier.fromResultSet(rs), (row, col, value) -> dataStyle, 0);
+ *     sheet.autoSizeColumns(512);
+ *     engine.write(file);
+ * }
+ * </pre>
+ *
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class ExcelExportEngine implements AutoCloseable {
+
+    // Rows kept in memory per sheet; everything above is flushed to disk
+    public static final int DEFAULT_ROW_WINDOW = 200;
+
+    // Excel's column width limit is 255 characters
+    private static final int MAX_COLUMN_CHARS = 255;
+
+    /**
+     * Source of data rows. Implementations fill the given array (one slot per column)
+     * and return false when there are no more rows. The array is reused between calls.
+     */
+    public interface RowSupplier {
+        boolean next(Object[] values) throws SQLException;
+
+        /**
+         * Rows of an open ResultSet, column by column. For constant memory with MySQL,
+         * create the statement forward-only / read-only with fetch size Integer.MIN_VALUE
+         * so the driver streams rows instead of buffering the whole result.
+         */
+        static RowSupplier fromResultSet(ResultSet rs) throws SQLException {
+            ResultSetMetaData meta = rs.getMetaData();
+            int columnCount = meta.getColumnCount();
+            return values -> {
+                if (!rs.next()) {
+                    return false;
+                }
+                for (int i = 0; i < columnCount && i < values.length; i++) {
+                    values[i] = rs.getObject(i + 1);
+                }
+                return true;
+            };
+        }
+
+        /**
+         * Rows of an in-memory snapshot.
+         */
+        static RowSupplier fromRows(Iterable<Object[]> rows) {
+            Iterator<Object[]> iterator = rows.iterator();
+            return values -> {
+                if (!iterator.hasNext()) {
+                    return false;
+                }
+                Object[] row = iterator.next();
+                System.arraycopy(row, 0, values, 0, Math.min(row.length, values.length));
+                return true;
+            };
+        }
+
+        /**
+         * Rows of a Swing table model, in model order.
+         */
+        static RowSupplier fromTableModel(TableModel model) {
+            int[] next = {0};
+            return values -> {
+                int row = next[0];
+                if (row >= model.getRowCount()) {
+                    return false;
+                }
+                for (int col = 0; col < values.length && col < model.getColumnCount(); col++) {
+                    values[col] = model.getValueAt(row, col);
+                }
+                next[0]++;
+                return true;
+            };
+        }
+
+        /**
+         * Rows of a Swing table as the user sees it: view column order (columns may have
+         * been dragged) and view row order (sorted or filtered), matching
+         * {@code table.getColumnName(i)} headers.
+         */
+        static RowSupplier fromTableView(JTable table) {
+            int[] next = {0};
+            return values -> {
+                int row = next[0];
+                if (row >= table.getRowCount()) {
+                    return false;
+                }
+                int modelRow = table.convertRowIndexToModel(row);
+                for (int col = 0; col < values.length && col < table.getColumnCount(); col++) {
+                    values[col] = table.getModel().getValueAt(modelRow, table.convertColumnIndexToModel(col));
+                }
+                next[0]++;
+                return true;
+            };
+        }
+    }
+
+    /**
+     * Style of one data cell.
+     */
+    public interface CellStyler {
+        /**
+         * @param dataRow 0-based index among the data rows (not the sheet row)
+         * @return style spec, or null for the default style
+         */
+        ExcelStyle styleFor(long dataRow, int column, Object value);
+    }
+
+    private final SXSSFWorkbook workbook;
+    private final ExcelStyleRegistry styles;
+
+    public ExcelExportEngine() {
+        this(DEFAULT_ROW_WINDOW);
+    }
+
+    /**
+     * @param rowWindow rows kept in memory per sheet
+     */
+    public ExcelExportEngine(int rowWindow) {
+        this.workbook = new SXSSFWorkbook(rowWindow);
+        this.workbook.setCompressTempFiles(true);
+        this.styles = new ExcelStyleRegistry(workbook);
+    }
+
+    public ExcelStyleRegistry getStyles() {
+        return styles;
+    }
+
+    /**
+     * Start a new sheet with a fixed number of columns.
+     */
+    public SheetWriter sheet(String name, int columnCount) {
+        return new SheetWriter(workbook.createSheet(name), columnCount);
+    }
+
+    public void write(File file) throws IOException {
+        try (OutputStream out = new FileOutputStream(file)) {
+            write(out);
+        }
+    }
+
+    public void write(OutputStream out) throws IOException {
+        workbook.write(out);
+        out.flush();
+    }
+
+    /**
+     * Delete the temp files and release the workbook.
+     */
+    @Override
+    public void close() throws IOException {
+        workbook.close();
+    }
+
+    /**
+     * Appends rows to one sheet, top to bottom.
+     */
+    public class SheetWriter {
+        private final SXSSFSheet sheet;
+        private final int columnCount;
+        private final int[] maxChars;
+        private int nextRow = 0;
+
+        SheetWriter(SXSSFSheet sheet, int columnCount) {
+            this.sheet = sheet;
+            this.columnCount = columnCount;
+            this.maxChars = new int[columnCount];
+        }
+
+        /**
+         * Underlying sheet, e.g. for print setup. Rows already flushed cannot be accessed.
+         */
+        public Sheet getSheet() {
+            return sheet;
+        }
+
+        public int getNextRow() {
+            return nextRow;
+        }
+
+        /**
+         * Single text cell merged across all columns (not counted for column widths).
+         * @param height row height in points, 0 for the default
+         */
+        public void title(String text, ExcelStyle style, float height) {
+            int rowIndex = nextRow;
+            Row row = newRow(height);
+            Cell cell = row.createCell(0);
+            cell.setCellValue(text);
+            if (style != null) {
+                cell.setCellStyle(styles.get(style));
+            }
+            if (columnCount > 1) {
+                sheet.addMergedRegion(new CellRangeAddress(rowIndex, rowIndex, 0, columnCount - 1));
+            }
+        }
+
+        public void blankRow() {
+            newRow(0);
+        }
+
+        public void header(String[] names, ExcelStyle style, float height) {
+            Row row = newRow(height);
+            for (int col = 0; col < columnCount && col < names.length; col++) {
+                Cell cell = row.createCell(col);
+                cell.setCellValue(names[col]);
+                if (style != null) {
+                    cell.setCellStyle(styles.get(style));
+                }
+                track(col, names[col]);
+            }
+        }
+
+        /**
+         * Write every row of the supplier.
+         * @param height row height in points, 0 for the default
+         * @return number of data rows written
+         */
+        public long rows(RowSupplier supplier, CellStyler styler, float height) throws SQLException {
+            Object[] values = new Object[columnCount];
+            long dataRow = 0;
+            while (supplier.next(values)) {
+                Row row = newRow(height);
+                for (int col = 0; col < columnCount; col++) {
+                    ExcelStyle style = styler != null ? styler.styleFor(dataRow, col, values[col]) : null;
+                    writeCell(row.createCell(col), col, values[col], style);
+                }
+                Arrays.fill(values, null);
+                dataRow++;
+            }
+            return dataRow;
+        }
+
+        /**
+         * Set column widths from the longest text written to each column.
+         * @param extraWidth padding in 1/256 of a character
+         */
+        public void autoSizeColumns(int extraWidth) {
+            for (int col = 0; col < columnCount; col++) {
+                int chars = Math.min(MAX_COLUMN_CHARS - 1, Math.max(maxChars[col], 4) + 1);
+                sheet.setColumnWidth(col, Math.min(MAX_COLUMN_CHARS * 256, chars * 256 + extraWidth));
+            }
+        }
+
+        private Row newRow(float height) {
+            Row row = sheet.createRow(nextRow++);
+            if (height > 0) {
+                row.setHeightInPoints(height);
+            }
+            return row;
+        }
+
+        private void writeCell(Cell cell, int col, Object value, ExcelStyle style) {
+            if (style != null) {
+                cell.setCellStyle(styles.get(style));
+            }
+            if (value == null) {
+                return;
+            }
+
+            if (value instanceof Number) {
+                cell.setCellValue(((Number) value).doubleValue());
+            } else if (value instanceof Boolean) {
+                cell.setCellValue((Boolean) value);
+            } else if (value instanceof String && style != null && style.isPercentFormat()
+                       && ((String) value).endsWith("%")) {
+                // "85.5%" in a percent-formatted cell is stored as the number 0.855
+                String text = (String) value;
+                try {
+                    cell.setCellValue(Double.parseDouble(text.substring(0, text.length() - 1).trim()) / 100.0);
+                } catch (NumberFormatException e) {
+                    cell.setCellValue(text);
+                }
+            } else {
+                cell.setCellValue(value.toString());
+            }
+            track(col, value.toString());
+        }
+
+        private void track(int col, String text) {
+            if (text != null && text.length() > maxChars[col]) {
+                maxChars[col] = text.length();
+            }
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.sms.util;
+
+import java.util.Objects;
+import org.apache.poi.ss.usermodel.BorderStyle;
+import org.apache.poi.ss.usermodel.HorizontalAlignment;
+import org.apache.poi.ss.usermodel.IndexedColors;
+import org.apache.poi.ss.usermodel.VerticalAlignment;
+
+/**
+ * Immutable description of an Excel cell style (font, fill, borders, alignment, format).
+ *
+ * Specs are value objects: two equal specs map to the same workbook CellStyle in
+ * {@link ExcelStyleRegistry}, so export code can describe the style of every cell
+ * without creating a new CellStyle per cell.
+ *
+ * Usage:
+ * <pre>
+ * ExcelStyle header = ExcelStyle.PLAIN.bold().fill(IndexedColors.GREY_25_PERCENT)
+ *                                     .border(BorderStyle.THIN).align(HorizontalAlignment.CENTER);
+ * </pre>
+ *
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public final class ExcelStyle {
+
+    public static final ExcelStyle PLAIN = new ExcelStyle(false, false, (short) 0, (short) -1, (short) -1,
+        null, null, null, null, null);
+
+    final boolean bold;
+    final boolean italic;
+    final short fontSize;        // points, 0 = workbook default
+    final short fontColor;       // IndexedColors index, -1 = default
+    final short fillColor;       // IndexedColors index, -1 = no fill
+    final BorderStyle borderTopBottom;
+    final BorderStyle borderSides;
+    final HorizontalAlignment align;
+    final VerticalAlignment verticalAlign;
+    final String dataFormat;
+
+    private ExcelStyle(boolean bold, boolean italic, short fontSize, short fontColor, short fillColor,
+                       BorderStyle borderTopBottom, BorderStyle borderSides,
+                       HorizontalAlignment align, VerticalAlignment verticalAlign, String dataFormat) {
+        this.bold = bold;
+        this.italic = italic;
+        this.fontSize = fontSize;
+        this.fontColor = fontColor;
+        this.fillColor = fillColor;
+        this.borderTopBottom = borderTopBottom;
+        this.borderSides = borderSides;
+        this.align = align;
+        this.verticalAlign = verticalAlign;
+        this.dataFormat = dataFormat;
+    }
+
+    public ExcelStyle bold() {
+        return new ExcelStyle(true, italic, fontSize, fontColor, fillColor,
+            borderTopBottom, borderSides, align, verticalAlign, dataFormat);
+    }
+
+    public ExcelStyle italic() {
+        return new ExcelStyle(bold, true, fontSize, fontColor, fillColor,
+            borderTopBottom, borderSides, align, verticalAlign, dataFormat);
+    }
+
+    public ExcelStyle fontSize(int points) {
+        return new ExcelStyle(bold, italic, (short) points, fontColor, fillColor,
+            borderTopBottom, borderSides, align, verticalAlign, dataFormat);
+    }
+
+    public ExcelStyle fontColor(IndexedColors color) {
+        return new ExcelStyle(bold, italic, fontSize, color.getIndex(), fillColor,
+            borderTopBottom, borderSides, align, verticalAlign, dataFormat);
+    }
+
+    /**
+     * Solid background fill.
+     */
+    public ExcelStyle fill(IndexedColors color) {
+        return new ExcelStyle(bold, italic, fontSize, fontColor, color.getIndex(),
+            borderTopBottom, borderSides, align, verticalAlign, dataFormat);
+    }
+
+    /**
+     * Same border on all four sides.
+     */
+    public ExcelStyle border(BorderStyle border) {
+        return border(border, border);
+    }
+
+    public ExcelStyle border(BorderStyle topBottom, BorderStyle sides) {
+        return new ExcelStyle(bold, italic, fontSize, fontColor, fillColor,
+            topBottom, sides, align, verticalAlign, dataFormat);
+    }
+
+    public ExcelStyle align(HorizontalAlignment alignment) {
+        return new ExcelStyle(bold, italic, fontSize, fontColor, fillColor,
+            borderTopBottom, borderSides, alignment, verticalAlign, dataFormat);
+    }
+
+    public ExcelStyle verticalAlign(VerticalAlignment alignment) {
+        return new ExcelStyle(bold, italic, fontSize, fontColor, fillColor,
+            borderTopBottom, borderSides, align, alignment, dataFormat);
+    }
+
+    /**
+     * Excel number format, e.g. "0.00" or "0.00%".
+     */
+    public ExcelStyle format(String format) {
+        return new ExcelStyle(bold, italic, fontSize, fontColor, fillColor,
+            borderTopBottom, borderSides, align, verticalAlign, format);
+    }
+
+    public boolean isPercentFormat() {
+        return dataFormat != null && dataFormat.endsWith("%");
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ExcelStyle)) return false;
+        ExcelStyle other = (ExcelStyle) o;
+        return bold == other.bold && italic == other.italic && fontSize == other.fontSize
+            && fontColor == other.fontColor && fillColor == other.fillColor
+            && borderTopBottom == other.borderTopBottom && borderSides == other.borderSides
+            && align == other.align && verticalAlign == other.verticalAlign
+            && Objects.equals(dataFormat, other.dataFormat);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(bold, italic, fontSize, fontColor, fillColor,
+            borderTopBottom, borderSides, align, verticalAlign, dataFormat);
+    }
+}
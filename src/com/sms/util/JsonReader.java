@@ -0,0 +1,371 @@
+package com.sms.util;
+
+/**
+ * Single-pass pull parser for JSON text.
+ *
+ * Reads tokens straight from the source string without building a tree and
+ * without regular expressions, so parsing is linear in the input length.
+ * Unknown members can be skipped with {@link #skipValue()}.
+ *
+ * Usage:
+ * <pre>
+ * JsonReader reader = new JsonReader(text);
+ * reader.beginObject();
+ * while (reader.hasNext()) {
+ *     switch (reader.nextName()) {
+ *         case "id": id = reader.nextInt(); break;
+ *         default: reader.skipValue();
+ *     }
+ * }
+ * reader.endObject();
+ * </pre>
+ *
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class JsonReader {
+
+    public enum Token {
+        BEGIN_OBJECT, END_OBJECT, BEGIN_ARRAY, END_ARRAY,
+        NAME, STRING, NUMBER, BOOLEAN, NULL, END_DOCUMENT
+    }
+
+    private static final double[] POW10 = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+        1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private final String in;
+    private int pos = 0;
+
+    // Container stack: true = object, false = array
+    private boolean[] inObject = new boolean[16];
+    // Whether the next token in the current container needs a preceding comma
+    private boolean[] hasElement = new boolean[16];
+    private int depth = 0;
+    private boolean expectValueAfterName = false;
+
+    public JsonReader(String json) {
+        this.in = json != null ? json : "";
+    }
+
+    public Token peek() {
+        skipWhitespace();
+        if (pos >= in.length()) {
+            return Token.END_DOCUMENT;
+        }
+        char c = in.charAt(pos);
+        if (c == '}' || c == ']') {
+            return c == '}' ? Token.END_OBJECT : Token.END_ARRAY;
+        }
+        int p = pos;
+        if (!expectValueAfterName && depth > 0 && hasElement[depth]) {
+            if (c != ',') {
+                throw syntaxError("Expected ','");
+            }
+            p = skipWhitespace(p + 1);
+            c = p < in.length() ? in.charAt(p) : 0;
+        }
+        if (depth > 0 && inObject[depth] && !expectValueAfterName) {
+            return Token.NAME;
+        }
+        switch (c) {
+            case '{': return Token.BEGIN_OBJECT;
+            case '[': return Token.BEGIN_ARRAY;
+            case '"': return Token.STRING;
+            case 't': case 'f': return Token.BOOLEAN;
+            case 'n': return Token.NULL;
+            default: return Token.NUMBER;
+        }
+    }
+
+    public boolean hasNext() {
+        Token token = peek();
+        return token != Token.END_OBJECT && token != Token.END_ARRAY && token != Token.END_DOCUMENT;
+    }
+
+    public void beginObject() {
+        beginValue();
+        expect('{');
+        push(true);
+    }
+
+    public void endObject() {
+        skipWhitespace();
+        expect('}');
+        depth--;
+    }
+
+    public void beginArray() {
+        beginValue();
+        expect('[');
+        push(false);
+    }
+
+    public void endArray() {
+        skipWhitespace();
+        expect(']');
+        depth--;
+    }
+
+    public String nextName() {
+        if (depth == 0 || !inObject[depth] || expectValueAfterName) {
+            throw syntaxError("Expected a value, not a name");
+        }
+        separate();
+        String name = readString();
+        skipWhitespace();
+        expect(':');
+        expectValueAfterName = true;
+        return name;
+    }
+
+    public String nextString() {
+        beginValue();
+        char c = current();
+        if (c == '"') {
+            return readString();
+        }
+        if (c == 'n') {
+            readLiteral("null");
+            return null;
+        }
+        // Numbers and booleans as text (lenient, like the old extractJsonValue)
+        int start = pos;
+        while (pos < in.length() && ",}] \t\r\n".indexOf(in.charAt(pos)) < 0) {
+            pos++;
+        }
+        return in.substring(start, pos);
+    }
+
+    public boolean nextBoolean() {
+        beginValue();
+        if (current() == 't') {
+            readLiteral("true");
+            return true;
+        }
+        readLiteral("false");
+        return false;
+    }
+
+    public void nextNull() {
+        beginValue();
+        readLiteral("null");
+    }
+
+    public long nextLong() {
+        double value = nextDouble();
+        long result = (long) value;
+        if (result != value) {
+            throw syntaxError("Expected an integer");
+        }
+        return result;
+    }
+
+    public int nextInt() {
+        return Math.toIntExact(nextLong());
+    }
+
+    /**
+     * Parse a number. Plain decimals with up to 15 significant digits are
+     * computed directly (exact, no allocation); anything else uses Double.parseDouble.
+     */
+    public double nextDouble() {
+        beginValue();
+        if (current() == '"') {
+            return Double.parseDouble(readString());
+        }
+
+        int start = pos;
+        boolean negative = false;
+        if (pos < in.length() && in.charAt(pos) == '-') {
+            negative = true;
+            pos++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = 0;
+        boolean inFraction = false;
+        boolean simple = true;
+        while (pos < in.length()) {
+            char c = in.charAt(pos);
+            if (c >= '0' && c <= '9') {
+                if (digits < 18) {
+                    mantissa = mantissa * 10 + (c - '0');
+                } else {
+                    simple = false;
+                }
+                if (mantissa != 0) digits++;
+                if (inFraction) fractionDigits++;
+            } else if (c == '.' && !inFraction) {
+                inFraction = true;
+            } else if (c == 'e' || c == 'E' || c == '+' || c == '-') {
+                simple = false;
+            } else {
+                break;
+            }
+            pos++;
+        }
+        if (pos == start || (negative && pos == start + 1)) {
+            throw syntaxError("Expected a number");
+        }
+        if (simple && digits <= 15 && fractionDigits < POW10.length) {
+            double value = mantissa / POW10[fractionDigits];
+            return negative ? -value : value;
+        }
+        return Double.parseDouble(in.substring(start, pos));
+    }
+
+    /**
+     * Skip the next value, including nested objects and arrays.
+     */
+    public void skipValue() {
+        Token token = peek();
+        switch (token) {
+            case BEGIN_OBJECT:
+                beginObject();
+                while (hasNext()) {
+                    nextName();
+                    skipValue();
+                }
+                endObject();
+                break;
+            case BEGIN_ARRAY:
+                beginArray();
+                while (hasNext()) {
+                    skipValue();
+                }
+                endArray();
+                break;
+            case NAME:
+                nextName();
+                skipValue();
+                break;
+            case STRING:
+                nextString();
+                break;
+            case BOOLEAN:
+                nextBoolean();
+                break;
+            case NULL:
+                nextNull();
+                break;
+            case NUMBER:
+                nextDouble();
+                break;
+            default:
+                throw syntaxError("Nothing to skip");
+        }
+    }
+
+    private void push(boolean object) {
+        depth++;
+        if (depth == inObject.length) {
+            inObject = java.util.Arrays.copyOf(inObject, depth * 2);
+            hasElement = java.util.Arrays.copyOf(hasElement, depth * 2);
+        }
+        inObject[depth] = object;
+        hasElement[depth] = false;
+    }
+
+    private void beginValue() {
+        if (expectValueAfterName) {
+            expectValueAfterName = false;
+            skipWhitespace();
+            return;
+        }
+        if (depth > 0 && inObject[depth]) {
+            throw syntaxError("Expected a name");
+        }
+        separate();
+    }
+
+    private void separate() {
+        skipWhitespace();
+        if (depth > 0) {
+            if (hasElement[depth]) {
+                expect(',');
+                skipWhitespace();
+            }
+            hasElement[depth] = true;
+        }
+    }
+
+    private String readString() {
+        expect('"');
+        int start = pos;
+        StringBuilder sb = null;
+        while (pos < in.length()) {
+            char c = in.charAt(pos);
+            if (c == '"') {
+                String value = sb == null ? in.substring(start, pos) : sb.append(in, start, pos).toString();
+                pos++;
+                return value;
+            }
+            if (c == '\\') {
+                if (sb == null) sb = new StringBuilder(pos - start + 16);
+                sb.append(in, start, pos);
+                pos++;
+                char escaped = pos < in.length() ? in.charAt(pos) : 0;
+                switch (escaped) {
+                    case 'n': sb.append('\n'); break;
+                    case 'r': sb.append('\r'); break;
+                    case 't': sb.append('\t'); break;
+                    case 'b': sb.append('\b'); break;
+                    case 'f': sb.append('\f'); break;
+                    case 'u':
+                        if (pos + 4 >= in.length()) throw syntaxError("Bad unicode escape");
+                        sb.append((char) Integer.parseInt(in.substring(pos + 1, pos + 5), 16));
+                        pos += 4;
+                        break;
+                    default: sb.append(escaped);
+                }
+                pos++;
+                start = pos;
+                continue;
+            }
+            pos++;
+        }
+        throw syntaxError("Unterminated string");
+    }
+
+    private void readLiteral(String literal) {
+        if (!in.startsWith(literal, pos)) {
+            throw syntaxError("Expected " + literal);
+        }
+        pos += literal.length();
+    }
+
+    private char current() {
+        if (pos >= in.length()) {
+            throw syntaxError("Unexpected end of input");
+        }
+        return in.charAt(pos);
+    }
+
+    private void expect(char c) {
+        if (pos >= in.length() || in.charAt(pos) != c) {
+            throw syntaxError("Expected '" + c + "'");
+        }
+        pos++;
+    }
+
+    private void skipWhitespace() {
+        pos = skipWhitespace(pos);
+    }
+
+    private int skipWhitespace(int p) {
+        while (p < in.length()) {
+            char c = in.charAt(p);
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+                break;
+            }
+            p++;
+        }
+        return p;
+    }
+
+    private IllegalStateException syntaxError(String message) {
+        return new IllegalStateException(message + " at position " + pos);
+    }
+}
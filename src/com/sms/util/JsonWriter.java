@@ -0,0 +1,241 @@
+package com.sms.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Minimal streaming JSON writer on top of a reusable StringBuilder.
+ *
+ * Commas and quoting are handled by the writer, so callers only describe the
+ * structure. Fixed two-decimal numbers are written without String.format
+ * (no Formatter parsing, no locale-dependent decimal separator).
+ *
+ * Usage:
+ * <pre>
+ * JsonWriter json = new JsonWriter();
+ * json.beginObject().name("id").value(42).name("name").value("Asha").endObject();
+ * String text = json.toString();
+ * json.reset(); // reuse the buffer for the next document
+ * </pre>
+ *
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class JsonWriter {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final StringBuilder out;
+
+    // hasElement[d] == true once the container at depth d has at least one member
+    private boolean[] hasElement = new boolean[16];
+    private int depth = 0;
+    private boolean afterName = false;
+
+    public JsonWriter() {
+        this(1024);
+    }
+
+    public JsonWriter(int initialCapacity) {
+        this.out = new StringBuilder(initialCapacity);
+    }
+
+    /**
+     * Clear the buffer (keeping its capacity) to write a new document.
+     */
+    public JsonWriter reset() {
+        out.setLength(0);
+        depth = 0;
+        afterName = false;
+        hasElement[0] = false;
+        return this;
+    }
+
+    public JsonWriter beginObject() {
+        beforeValue();
+        out.append('{');
+        push();
+        return this;
+    }
+
+    public JsonWriter endObject() {
+        depth--;
+        out.append('}');
+        return this;
+    }
+
+    public JsonWriter beginArray() {
+        beforeValue();
+        out.append('[');
+        push();
+        return this;
+    }
+
+    public JsonWriter endArray() {
+        depth--;
+        out.append(']');
+        return this;
+    }
+
+    public JsonWriter name(String name) {
+        separate();
+        writeString(name);
+        out.append(':');
+        afterName = true;
+        return this;
+    }
+
+    public JsonWriter value(String value) {
+        beforeValue();
+        if (value == null) {
+            out.append("null");
+        } else {
+            writeString(value);
+        }
+        return this;
+    }
+
+    public JsonWriter value(long value) {
+        beforeValue();
+        out.append(value);
+        return this;
+    }
+
+    public JsonWriter value(boolean value) {
+        beforeValue();
+        out.append(value);
+        return this;
+    }
+
+    /**
+     * Write a number rounded HALF_UP to two decimals ("12.50"), like "%.2f".
+     */
+    public JsonWriter valueFixed2(double value) {
+        beforeValue();
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            out.append("null");
+            return this;
+        }
+
+        double scaled = Math.abs(value) * 100.0;
+        long cents;
+        double fraction = scaled - Math.floor(scaled);
+        if (scaled < 1e9 && Math.abs(fraction - 0.5) > 1e-6) {
+            cents = Math.round(scaled);
+        } else {
+            // Near a rounding tie - round the shortest decimal form, as Formatter does
+            cents = BigDecimal.valueOf(Math.abs(value)).setScale(2, RoundingMode.HALF_UP)
+                                                   .movePointRight(2).longValueExact();
+        }
+
+        // "%.2f" keeps the sign even when a negative value rounds to zero
+        if (value < 0 || (value == 0 && 1 / value < 0)) {
+            out.append('-');
+        }
+        out.append(cents / 100).append('.');
+        long rest = cents % 100;
+        if (rest < 10) {
+            out.append('0');
+        }
+        out.append(rest);
+        return this;
+    }
+
+    /**
+     * Append a raw, already valid JSON fragment as the next value.
+     */
+    public JsonWriter rawValue(CharSequence json) {
+        beforeValue();
+        out.append(json);
+        return this;
+    }
+
+    public int length() {
+        return out.length();
+    }
+
+    @Override
+    public String toString() {
+        return out.toString();
+    }
+
+    /**
+     * Escape a string for inclusion inside JSON quotes.
+     */
+    public static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x20 || c == '"' || c == '\\') {
+                StringBuilder sb = new StringBuilder(value.length() + 16);
+                appendEscaped(sb, value);
+                return sb.toString();
+            }
+        }
+        return value;
+    }
+
+    private void writeString(String value) {
+        out.append('"');
+        appendEscaped(out, value);
+        out.append('"');
+    }
+
+    private static void appendEscaped(StringBuilder sb, String value) {
+        int start = 0;
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            String replacement;
+            switch (c) {
+                case '"': replacement = "\\\""; break;
+                case '\\': replacement = "\\\\"; break;
+                case '\n': replacement = "\\n"; break;
+                case '\r': replacement = "\\r"; break;
+                case '\t': replacement = "\\t"; break;
+                case '\b': replacement = "\\b"; break;
+                case '\f': replacement = "\\f"; break;
+                default:
+                    if (c >= 0x20) {
+                        continue;
+                    }
+                    replacement = null;
+            }
+            sb.append(value, start, i);
+            if (replacement != null) {
+                sb.append(replacement);
+            } else {
+                sb.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xF]);
+            }
+            start = i + 1;
+        }
+        sb.append(value, start, length);
+    }
+
+    private void push() {
+        depth++;
+        if (depth == hasElement.length) {
+            hasElement = java.util.Arrays.copyOf(hasElement, depth * 2);
+        }
+        hasElement[depth] = false;
+    }
+
+    private void beforeValue() {
+        if (afterName) {
+            afterName = false;
+            return;
+        }
+        separate();
+    }
+
+    private void separate() {
+        if (depth > 0) {
+            if (hasElement[depth]) {
+                out.append(',');
+            }
+            hasElement[depth] = true;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.sms.util;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Thread-safe token bucket rate limiter.
+ *
+ * Tokens refill continuously at {@code permitsPerSecond} up to {@code burst};
+ * {@link #acquire()} blocks until a token is available. Callers sleep outside the
+ * lock, so waiting threads never block each other's refill.
+ *
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class TokenBucket {
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private double tokens;
+    private long lastRefillNanos;
+
+    public TokenBucket(double permitsPerSecond, int burst) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("permitsPerSecond must be positive");
+        }
+        this.capacity = Math.max(1, burst);
+        this.tokensPerNano = permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.tokens = this.capacity;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * Take one token, waiting as long as necessary.
+     */
+    public void acquire() throws InterruptedException {
+        while (true) {
+            long waitNanos;
+            synchronized (this) {
+                refill();
+                if (tokens >= 1) {
+                    tokens -= 1;
+                    return;
+                }
+                waitNanos = (long) Math.ceil((1 - tokens) / tokensPerNano);
+            }
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    /**
+     * Take one token if available right now.
+     */
+    public synchronized boolean tryAcquire() {
+        refill();
+        if (tokens >= 1) {
+            tokens -= 1;
+            return true;
+        }
+        return false;
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * tokensPerNano);
+        lastRefillNanos = now;
+    }
+}
@@ -2,9 +2,14 @@ package com.sms.viewtool;
 
 import com.sms.analyzer.Student;
 import com.sms.dao.AnalyzerDAO;
+import com.sms.dao.SectionConfigCache;
 import com.sms.dao.SectionDAO;
 import com.sms.dao.StudentDAO;
 import com.sms.database.DatabaseConnection;
+import com.sms.resultlauncher.LaunchedResultCodec;
+import com.sms.util.ExcelExportEngine;
+import com.sms.util.ExcelStyle;
+import com.sms.util.JsonReader;
 import javax.swing.*;
 import javax.swing.border.*;
 import javax.swing.filechooser.FileNameExtensionFilter;
@@ -25,7 +30,6 @@ import java.awt.Toolkit;
 import org.apache.poi.hpsf.Date;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.ss.usermodel.Font;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import com.itextpdf.text.Document;
 import com.itextpdf.text.DocumentException;
 import com.itextpdf.text.PageSize;
@@ -917,85 +921,48 @@ public class ViewSelectionTool extends JPanel {
     
     private Map<String, Map<String, Integer>> getMaxMarksForSection(int sectionId) {
         Map<String, Map<String, Integer>> maxMarksMap = new LinkedHashMap<>();
-        Connection conn = null;
-        PreparedStatement ps1 = null;
-        PreparedStatement ps3 = null;
-        ResultSet rs1 = null;
-        ResultSet rs3 = null;
         
-        try {
-            conn = DatabaseConnection.getConnection();
-            
-            // Step 1: Get subjects and their max marks for this section (same as Section Analyzer)
-            String subjectQuery = 
-                "SELECT DISTINCT sub.subject_name, sub.id, ss.max_marks " +
-                "FROM section_subjects ss " +
-                "JOIN subjects sub ON ss.subject_id = sub.id " +
-                "WHERE ss.section_id = ? " +
-                "ORDER BY sub.subject_name";
-            
-            ps1 = conn.prepareStatement(subjectQuery);
-            ps1.setInt(1, sectionId);
-            rs1 = ps1.executeQuery();
-            
-            Map<String, Integer> subjectIds = new HashMap<>();
-            
-            while (rs1.next()) {
-                String subjectName = rs1.getString("subject_name");
-                int subjectId = rs1.getInt("id");
-                subjectIds.put(subjectName, subjectId);
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            // Step 1: Subjects of this section (cached section configuration, same as Section Analyzer)
+            SectionConfigCache.SectionConfig config = SectionConfigCache.get(conn, sectionId);
+            Map<Integer, Map<String, Integer>> examsBySubject = new HashMap<>();
+            for (SectionConfigCache.SubjectEntry subject : config.getSubjects()) {
+                examsBySubject.put(subject.subjectId, new LinkedHashMap<>());
+            }
+            if (examsBySubject.isEmpty()) {
+                return maxMarksMap;
             }
-            rs1.close();
-            ps1.close();
-            
-            // Step 2: Get exam types and their actual max marks for each subject (same as Section Analyzer)
-            for (Map.Entry<String, Integer> entry : subjectIds.entrySet()) {
-                String subjectName = entry.getKey();
-                int subjectId = entry.getValue();
-                
-                Map<String, Integer> examTypeMaxMarks = new LinkedHashMap<>();
-                
-                // Get exam types from entered_exam_marks table (same approach as Section Analyzer)
-                String examTypeQuery1 = 
-                    "SELECT DISTINCT et.exam_name, et.max_marks " +
-                    "FROM entered_exam_marks sm " +
-                    "JOIN exam_types et ON sm.exam_type_id = et.id " +
-                    "JOIN students s ON sm.student_id = s.id " +
-                    "WHERE sm.subject_id = ? AND s.section_id = ? " +
-                    "ORDER BY et.exam_name";
-                
-                ps3 = conn.prepareStatement(examTypeQuery1);
-                ps3.setInt(1, subjectId);
-                ps3.setInt(2, sectionId);
-                rs3 = ps3.executeQuery();
-                
-                while (rs3.next()) {
-                    String examType = rs3.getString("exam_name");
-                    int maxMarks = rs3.getInt("max_marks");
-                    if (examType != null && !examType.trim().isEmpty()) {
-                        examTypeMaxMarks.put(examType, maxMarks);
+            
+            // Step 2: Exam types that actually have marks entered, for all subjects in ONE query
+            String examTypeQuery = 
+                "SELECT DISTINCT sm.subject_id, et.exam_name, et.max_marks " +
+                "FROM entered_exam_marks sm " +
+                "JOIN exam_types et ON sm.exam_type_id = et.id " +
+                "JOIN students s ON sm.student_id = s.id " +
+                "WHERE s.section_id = ? " +
+                "ORDER BY et.exam_name";
+            
+            try (PreparedStatement ps = conn.prepareStatement(examTypeQuery)) {
+                ps.setInt(1, sectionId);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        Map<String, Integer> examTypeMaxMarks = examsBySubject.get(rs.getInt("subject_id"));
+                        String examType = rs.getString("exam_name");
+                        if (examTypeMaxMarks != null && examType != null && !examType.trim().isEmpty()) {
+                            examTypeMaxMarks.put(examType, rs.getInt("max_marks"));
+                        }
                     }
                 }
-                rs3.close();
-                ps3.close();
-                
+            }
+            
+            for (SectionConfigCache.SubjectEntry subject : config.getSubjects()) {
+                Map<String, Integer> examTypeMaxMarks = examsBySubject.get(subject.subjectId);
                 if (!examTypeMaxMarks.isEmpty()) {
-                    maxMarksMap.put(subjectName, examTypeMaxMarks);
+                    maxMarksMap.put(subject.subjectName, examTypeMaxMarks);
                 }
             }
-            
         } catch (SQLException e) {
             e.printStackTrace();
-        } finally {
-            try {
-                if (rs3 != null) rs3.close();
-                if (ps3 != null) ps3.close();
-                if (rs1 != null) rs1.close();
-                if (ps1 != null) ps1.close();
-                if (conn != null) conn.close();
-            } catch (SQLException e) {
-                e.printStackTrace();
-            }
         }
         
         return maxMarksMap;
@@ -1518,6 +1485,14 @@ public class ViewSelectionTool extends JPanel {
                 WHERE ss.section_id = ?
             """;
             
+            // Weighted results of every subject with marks, in one query on this connection
+            Map<String, Set<String>> subjectFilters = new HashMap<>();
+            for (String subjectName : data.subjectMarks.keySet()) {
+                subjectFilters.put(subjectName, selectedFilters.get(subjectName));
+            }
+            Map<String, AnalyzerDAO.SubjectPassResult> subjectResults = analyzerDAO.calculateSubjectResults(
+                conn, Collections.singletonList(studentId), sectionId, subjectFilters).get(studentId);
+            
             PreparedStatement ps = conn.prepareStatement(query);
             ps.setInt(1, sectionId);
             ResultSet rs = ps.executeQuery();
@@ -1536,12 +1511,12 @@ public class ViewSelectionTool extends JPanel {
                     continue;
                 }
                 
-                // Get selected filters for this subject (or null for all)
-                Set<String> examFilter = selectedFilters.get(subjectName);
-                
-                // Calculate weighted total using AnalyzerDAO with DUAL PASSING logic (same as Section Analyzer)
-                AnalyzerDAO.SubjectPassResult result = analyzerDAO.calculateWeightedSubjectTotalWithPass(
-                    studentId, sectionId, subjectName, examFilter);
+                // Weighted total with DUAL PASSING logic (same as Section Analyzer)
+                AnalyzerDAO.SubjectPassResult result = subjectResults.get(subjectName);
+                if (result == null) {
+                    // Subject has no scheme result (e.g. no components configured) - same fallback as the analyzers
+                    result = new AnalyzerDAO.SubjectPassResult(-1, false, false, false, new ArrayList<>());
+                }
                 
                 double weightedPercentage = Math.abs(result.percentage);
                 boolean passed = result.passed;
@@ -1733,6 +1708,8 @@ public class ViewSelectionTool extends JPanel {
         
         try {
             conn = DatabaseConnection.getConnection();
+            // Launch-level data shared by the packed rows of this launch
+            LaunchedResultCodec.LaunchLayout layout = LaunchedResultCodec.loadLayout(conn, launchId);
             
             // Get all students from this launch with their result data
             String query = "SELECT lsr.student_id, lsr.created_at, lsr.result_data, " +
@@ -1762,7 +1739,7 @@ public class ViewSelectionTool extends JPanel {
                 data.launchDate = dateFormat.format(rs.getTimestamp("created_at"));
                 
                 // Parse result_data JSON to get subject marks
-                String resultData = rs.getString("result_data");
+                String resultData = LaunchedResultCodec.expand(layout, rs.getString("result_data"));
                 if (resultData != null && !resultData.isEmpty()) {
                     parseResultData(data, resultData, selectedSubjects);
                 }
@@ -1786,91 +1763,127 @@ public class ViewSelectionTool extends JPanel {
     
     private void parseResultData(ExtendedStudentData data, String jsonData, List<String> selectedSubjects) {
         // Parse nested JSON structure with "subjects" array
+        // PERFORMANCE: single pass with a pull parser - no regex backtracking over the blob
         try {
-            // First, extract subject names and their exam_types for display
+            // Subject names and their exam_types for display
             Map<String, List<String>> subjectExamTypes = new HashMap<>();
             
-            // Use regex to find each subject block with its exam_types array
-            java.util.regex.Pattern subjectPattern = java.util.regex.Pattern.compile(
-                "\"subject_name\":\"([^\"]+)\".*?\"exam_types\":\\[(.*?)\\].*?\"weighted_total\":(\\d+(?:\\.\\d+)?).*?\"passed\":(true|false)", 
-                java.util.regex.Pattern.DOTALL);
-            java.util.regex.Matcher subjectMatcher = subjectPattern.matcher(jsonData);
-            
             double totalPercentage = 0;
             int subjectCount = 0;
             int failedCount = 0;
             
-            while (subjectMatcher.find()) {
-                String subjectName = subjectMatcher.group(1);
-                String examTypesArray = subjectMatcher.group(2);
-                double weightedTotal = Double.parseDouble(subjectMatcher.group(3));
-                boolean passed = "true".equals(subjectMatcher.group(4));
-                
-                // Extract exam type names, obtained marks, AND max marks from the array
-                List<String> examTypesList = new ArrayList<>();
-                Map<String, Integer> examMarksMap = new HashMap<>();
-                Map<String, Integer> examMaxMarksMap = new HashMap<>();
-                
-                // Pattern to match: "exam_name":"Internal","obtained":18,"max":20,"weightage":20
-                java.util.regex.Pattern examTypePattern = java.util.regex.Pattern.compile(
-                    "\"exam_name\":\"([^\"]+)\".*?\"obtained\":(\\d+).*?\"max\":(\\d+)");
-                java.util.regex.Matcher examTypeMatcher = examTypePattern.matcher(examTypesArray);
-                
-                while (examTypeMatcher.find()) {
-                    String examName = examTypeMatcher.group(1);
-                    int obtainedMarks = Integer.parseInt(examTypeMatcher.group(2));
-                    int maxMarks = Integer.parseInt(examTypeMatcher.group(3));
+            Double overallPercentage = null;
+            Double cgpa = null;
+            String grade = null;
+            boolean isPassing = false;
+            
+            JsonReader reader = new JsonReader(jsonData);
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String section = reader.nextName();
+                
+                if ("subjects".equals(section)) {
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        String subjectName = null;
+                        double weightedTotal = 0;
+                        boolean passed = false;
+                        
+                        // Exam type names, obtained marks AND max marks
+                        List<String> examTypesList = new ArrayList<>();
+                        Map<String, Integer> examMarksMap = new HashMap<>();
+                        Map<String, Integer> examMaxMarksMap = new HashMap<>();
+                        
+                        reader.beginObject();
+                        while (reader.hasNext()) {
+                            switch (reader.nextName()) {
+                                case "subject_name": subjectName = reader.nextString(); break;
+                                case "weighted_total": weightedTotal = reader.nextDouble(); break;
+                                case "passed": passed = reader.nextBoolean(); break;
+                                case "exam_types":
+                                    reader.beginArray();
+                                    while (reader.hasNext()) {
+                                        String examName = null;
+                                        int obtainedMarks = 0;
+                                        int maxMarks = 0;
+                                        reader.beginObject();
+                                        while (reader.hasNext()) {
+                                            switch (reader.nextName()) {
+                                                case "exam_name": examName = reader.nextString(); break;
+                                                case "obtained": obtainedMarks = (int) reader.nextDouble(); break;
+                                                case "max": maxMarks = (int) reader.nextDouble(); break;
+                                                default: reader.skipValue();
+                                            }
+                                        }
+                                        reader.endObject();
+                                        
+                                        if (examName != null) {
+                                            examTypesList.add(examName);
+                                            examMarksMap.put(examName, obtainedMarks);
+                                            examMaxMarksMap.put(examName, maxMarks);
+                                        }
+                                    }
+                                    reader.endArray();
+                                    break;
+                                default: reader.skipValue();
+                            }
+                        }
+                        reader.endObject();
+                        
+                        if (subjectName == null) {
+                            continue;
+                        }
+                        
+                        subjectExamTypes.put(subjectName, examTypesList);
+                        data.subjectMarks.put(subjectName, examMarksMap);
+                        
+                        // Store max marks for header display
+                        if (!examMaxMarksMap.isEmpty()) {
+                            if (data.subjectMaxMarks == null) {
+                                data.subjectMaxMarks = new HashMap<>();
+                            }
+                            data.subjectMaxMarks.put(subjectName, examMaxMarksMap);
+                        }
+                        
+                        data.subjectWeightedTotals.put(subjectName, weightedTotal);
+                        data.subjectPassStatus.put(subjectName, passed);
+                        
+                        totalPercentage += weightedTotal;
+                        subjectCount++;
+                        
+                        if (!passed) {
+                            failedCount++;
+                        }
+                    }
+                    reader.endArray();
                     
-                    examTypesList.add(examName);
-                    examMarksMap.put(examName, obtainedMarks);
-                    examMaxMarksMap.put(examName, maxMarks);
-                }
-                
-                subjectExamTypes.put(subjectName, examTypesList);
-                data.subjectMarks.put(subjectName, examMarksMap);
-                
-                // Store max marks for header display
-                if (!examMaxMarksMap.isEmpty()) {
-                    if (data.subjectMaxMarks == null) {
-                        data.subjectMaxMarks = new HashMap<>();
+                } else if ("overall".equals(section)) {
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        switch (reader.nextName()) {
+                            case "percentage": overallPercentage = reader.nextDouble(); break;
+                            case "cgpa": cgpa = reader.nextDouble(); break;
+                            case "grade": grade = reader.nextString(); break;
+                            case "is_passing": isPassing = reader.nextBoolean(); break;
+                            default: reader.skipValue();
+                        }
                     }
-                    data.subjectMaxMarks.put(subjectName, examMaxMarksMap);
-                }
-                
-                data.subjectWeightedTotals.put(subjectName, weightedTotal);
-                data.subjectPassStatus.put(subjectName, passed);
-                
-                totalPercentage += weightedTotal;
-                subjectCount++;
-                
-                if (!passed) {
-                    failedCount++;
+                    reader.endObject();
+                    
+                } else {
+                    reader.skipValue();
                 }
             }
+            reader.endObject();
             
             // Store exam types information for display
             data.subjectExamTypes = subjectExamTypes;
             // Extract overall data
             if (subjectCount > 0) {
-                String overallPercentageStr = extractJsonValue(jsonData, "percentage");
-                String cgpaStr = extractJsonValue(jsonData, "cgpa");
-                String gradeStr = extractJsonValue(jsonData, "grade");
-                String isPassingStr = extractJsonValue(jsonData, "is_passing");
-                
-                if (overallPercentageStr != null) {
-                    data.percentage = Double.parseDouble(overallPercentageStr);
-                } else {
-                    data.percentage = totalPercentage / subjectCount;
-                }
-                
-                if (cgpaStr != null) {
-                    data.sgpa = Double.parseDouble(cgpaStr);
-                } else {
-                    data.sgpa = data.percentage / 10.0;
-                }
-                
-                data.grade = gradeStr != null ? gradeStr : calculateGrade(data.percentage);
-                data.status = "true".equals(isPassingStr) ? "Pass" : "Fail";
+                data.percentage = overallPercentage != null ? overallPercentage : totalPercentage / subjectCount;
+                data.sgpa = cgpa != null ? cgpa : data.percentage / 10.0;
+                data.grade = grade != null ? grade : calculateGrade(data.percentage);
+                data.status = isPassing ? "Pass" : "Fail";
                 data.failedSubjectsCount = failedCount;
                 // Total marks should be sum of all subject weighted totals
                 data.totalMarks = totalPercentage;
@@ -1881,42 +1894,6 @@ public class ViewSelectionTool extends JPanel {
         }
     }
     
-    private String extractJsonValue(String json, String key) {
-        try {
-            String searchKey = "\"" + key + "\":";
-            int startIndex = json.indexOf(searchKey);
-            if (startIndex == -1) return null;
-            
-            startIndex += searchKey.length();
-            
-            // Skip whitespace
-            while (startIndex < json.length() && Character.isWhitespace(json.charAt(startIndex))) {
-                startIndex++;
-            }
-            
-            // Check if value is a string (starts with ")
-            if (json.charAt(startIndex) == '"') {
-                startIndex++; // Skip opening quote
-                int endIndex = json.indexOf('"', startIndex);
-                if (endIndex == -1) return null;
-                return json.substring(startIndex, endIndex);
-            } else {
-                // Value is a number or boolean
-                int endIndex = startIndex;
-                while (endIndex < json.length() && 
-                       (Character.isDigit(json.charAt(endIndex)) || 
-                        json.charAt(endIndex) == '.' || 
-                        json.charAt(endIndex) == '-' ||
-                        Character.isLetter(json.charAt(endIndex)))) {
-                    endIndex++;
-                }
-                return json.substring(startIndex, endIndex);
-            }
-        } catch (Exception e) {
-            return null;
-        }
-    }
-    
     
     private double calculateGradePoint(int marks, int maxMarks) {
         double percentage = (marks * 100.0) / maxMarks;
@@ -1995,8 +1972,7 @@ public class ViewSelectionTool extends JPanel {
             return;
         }
         
-        FileOutputStream fileOut = null;
-        Workbook workbook = null;
+        ExcelExportEngine engine = null;
         
         try {
             JFileChooser fileChooser = new JFileChooser();
@@ -2014,220 +1990,86 @@ public class ViewSelectionTool extends JPanel {
                     filePath += ".xlsx";
                 }
                 
-                workbook = new XSSFWorkbook();
-                Sheet sheet = workbook.createSheet("Student Data");
-                
-                // Create column header row at row 4 with modern styling
-                Row headerRow = sheet.createRow(4);
-                headerRow.setHeightInPoints(25);
-                CellStyle headerStyle = workbook.createCellStyle();
-                org.apache.poi.ss.usermodel.Font headerFont = workbook.createFont();
-                headerFont.setBold(true);
-                headerFont.setFontHeightInPoints((short) 11);
-                headerFont.setColor(IndexedColors.WHITE.getIndex());
-                headerStyle.setFont(headerFont);
-                headerStyle.setFillForegroundColor(IndexedColors.DARK_BLUE.getIndex());
-                headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-                headerStyle.setBorderBottom(BorderStyle.MEDIUM);
-                headerStyle.setBorderTop(BorderStyle.MEDIUM);
-                headerStyle.setBorderLeft(BorderStyle.THIN);
-                headerStyle.setBorderRight(BorderStyle.THIN);
-                headerStyle.setAlignment(HorizontalAlignment.CENTER);
-                headerStyle.setVerticalAlignment(VerticalAlignment.CENTER);
+                // PERFORMANCE: streaming workbook (constant memory) with shared styles
+                int columnCount = resultTable.getColumnCount();
+                engine = new ExcelExportEngine();
+                ExcelExportEngine.SheetWriter sheetWriter = engine.sheet("Student Data", columnCount);
                 
                 // ============ MODERN HEADER SECTION ============
-                // Create title rows
-                Row titleRow = sheet.createRow(0);
-                titleRow.setHeightInPoints(30);
-                Cell titleCell = titleRow.createCell(0);
-                titleCell.setCellValue("ACADEMIC MANAGEMENT SYSTEM");
-                
-                CellStyle titleStyle = workbook.createCellStyle();
-                org.apache.poi.ss.usermodel.Font titleFont = workbook.createFont();
-                titleFont.setFontHeightInPoints((short) 18);
-                titleFont.setBold(true);
-                titleFont.setColor(IndexedColors.DARK_BLUE.getIndex());
-                titleStyle.setFont(titleFont);
-                titleStyle.setAlignment(HorizontalAlignment.CENTER);
-                titleStyle.setVerticalAlignment(VerticalAlignment.CENTER);
-                titleCell.setCellStyle(titleStyle);
-                
-                // Subtitle
-                Row subtitleRow = sheet.createRow(1);
-                subtitleRow.setHeightInPoints(25);
-                Cell subtitleCell = subtitleRow.createCell(0);
-                subtitleCell.setCellValue("Student Performance Report");
-                
-                CellStyle subtitleStyle = workbook.createCellStyle();
-                org.apache.poi.ss.usermodel.Font subtitleFont = workbook.createFont();
-                subtitleFont.setFontHeightInPoints((short) 14);
-                subtitleFont.setBold(true);
-                subtitleFont.setColor(IndexedColors.GREY_80_PERCENT.getIndex());
-                subtitleStyle.setFont(subtitleFont);
-                subtitleStyle.setAlignment(HorizontalAlignment.CENTER);
-                subtitleStyle.setVerticalAlignment(VerticalAlignment.CENTER);
-                subtitleCell.setCellStyle(subtitleStyle);
-                
-                // Info row
-                Row infoRow = sheet.createRow(2);
-                infoRow.setHeightInPoints(18);
-                Cell infoCell = infoRow.createCell(0);
+                sheetWriter.title("ACADEMIC MANAGEMENT SYSTEM", ExcelStyle.PLAIN.fontSize(18).bold()
+                    .fontColor(IndexedColors.DARK_BLUE).align(HorizontalAlignment.CENTER)
+                    .verticalAlign(VerticalAlignment.CENTER), 30);
+                sheetWriter.title("Student Performance Report", ExcelStyle.PLAIN.fontSize(14).bold()
+                    .fontColor(IndexedColors.GREY_80_PERCENT).align(HorizontalAlignment.CENTER)
+                    .verticalAlign(VerticalAlignment.CENTER), 25);
+                
                 String selectedSection = (String) sectionDropdown.getSelectedItem();
                 String sectionInfo = selectedSection != null ? selectedSection : "All Sections";
-                infoCell.setCellValue("Section: " + sectionInfo + " | Generated: " + 
-                    new java.text.SimpleDateFormat("dd MMM yyyy, hh:mm a").format(new java.util.Date()));
-                
-                CellStyle infoStyle = workbook.createCellStyle();
-                org.apache.poi.ss.usermodel.Font infoFont = workbook.createFont();
-                infoFont.setFontHeightInPoints((short) 10);
-                infoFont.setItalic(true);
-                infoFont.setColor(IndexedColors.GREY_50_PERCENT.getIndex());
-                infoStyle.setFont(infoFont);
-                infoStyle.setAlignment(HorizontalAlignment.CENTER);
-                infoCell.setCellStyle(infoStyle);
+                sheetWriter.title("Section: " + sectionInfo + " | Generated: " + 
+                    new java.text.SimpleDateFormat("dd MMM yyyy, hh:mm a").format(new java.util.Date()),
+                    ExcelStyle.PLAIN.fontSize(10).italic().fontColor(IndexedColors.GREY_50_PERCENT)
+                    .align(HorizontalAlignment.CENTER), 18);
                 
                 // Empty row for spacing
-                sheet.createRow(3);
+                sheetWriter.blankRow();
                 
-                // Add column headers with modern styling
-                for (int i = 0; i < resultTable.getColumnCount(); i++) {
-                    Cell cell = headerRow.createCell(i);
-                    cell.setCellValue(resultTable.getColumnName(i));
-                    cell.setCellStyle(headerStyle);
+                // Column headers with modern styling
+                String[] columnNames = new String[columnCount];
+                for (int i = 0; i < columnCount; i++) {
+                    columnNames[i] = resultTable.getColumnName(i);
+                }
+                sheetWriter.header(columnNames, ExcelStyle.PLAIN.bold().fontSize(11).fontColor(IndexedColors.WHITE)
+                    .fill(IndexedColors.DARK_BLUE).border(BorderStyle.MEDIUM, BorderStyle.THIN)
+                    .align(HorizontalAlignment.CENTER).verticalAlign(VerticalAlignment.CENTER), 25);
+                
+                // Per-column formatting rules, decided once instead of per cell
+                boolean[] important = new boolean[columnCount];
+                boolean[] centered = new boolean[columnCount];
+                boolean[] status = new boolean[columnCount];
+                for (int j = 0; j < columnCount; j++) {
+                    String colName = columnNames[j];
+                    important[j] = colName.contains("Name") || colName.contains("Total") ||
+                                   colName.contains("CGPA") || colName.contains("Grade") ||
+                                   colName.contains("Rank");
+                    centered[j] = !colName.contains("Name") && !colName.contains("Email") && 
+                                  !colName.contains("Phone") && !colName.contains("Section");
+                    status[j] = colName.equals("Status");
                 }
                 
-                // Create modern cell styles for data
-                CellStyle dataStyle = workbook.createCellStyle();
-                dataStyle.setBorderBottom(BorderStyle.THIN);
-                dataStyle.setBorderTop(BorderStyle.THIN);
-                dataStyle.setBorderLeft(BorderStyle.THIN);
-                dataStyle.setBorderRight(BorderStyle.THIN);
-                dataStyle.setVerticalAlignment(VerticalAlignment.CENTER);
-                
-                // Alternating row style
-                CellStyle altRowStyle = workbook.createCellStyle();
-                altRowStyle.cloneStyleFrom(dataStyle);
-                altRowStyle.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
-                altRowStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-                
-                // Pass style - modern green
-                CellStyle passStyle = workbook.createCellStyle();
-                passStyle.cloneStyleFrom(dataStyle);
-                passStyle.setFillForegroundColor(IndexedColors.LIGHT_GREEN.getIndex());
-                passStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-                org.apache.poi.ss.usermodel.Font passFont = workbook.createFont();
-                passFont.setColor(IndexedColors.DARK_GREEN.getIndex());
-                passFont.setBold(true);
-                passStyle.setFont(passFont);
-                
-                // Fail style - modern red
-                CellStyle failStyle = workbook.createCellStyle();
-                failStyle.cloneStyleFrom(dataStyle);
-                failStyle.setFillForegroundColor(IndexedColors.ROSE.getIndex());
-                failStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-                org.apache.poi.ss.usermodel.Font failFont = workbook.createFont();
-                failFont.setColor(IndexedColors.RED.getIndex());
-                failFont.setBold(true);
-                failStyle.setFont(failFont);
-                
-                // Bold style for important columns
-                CellStyle boldStyle = workbook.createCellStyle();
-                boldStyle.cloneStyleFrom(dataStyle);
-                org.apache.poi.ss.usermodel.Font boldFont = workbook.createFont();
-                boldFont.setBold(true);
-                boldStyle.setFont(boldFont);
-                
-                CellStyle boldAltStyle = workbook.createCellStyle();
-                boldAltStyle.cloneStyleFrom(altRowStyle);
-                boldAltStyle.setFont(boldFont);
-                
-                // Create data rows with modern styling
-                for (int i = 0; i < resultTable.getRowCount(); i++) {
-                    Row row = sheet.createRow(i + 5); // Start after header section
-                    row.setHeightInPoints(20); // Taller rows for better readability
-                    
-                    boolean isAltRow = (i % 2 == 1);
-                    
-                    for (int j = 0; j < resultTable.getColumnCount(); j++) {
-                        Cell cell = row.createCell(j);
-                        Object value = resultTable.getValueAt(i, j);
-                        String colName = resultTable.getColumnName(j);
-                        
-                        // Determine if this is an important column (for bold)
-                        boolean isImportant = colName.contains("Name") || colName.contains("Total") ||
-                                            colName.contains("CGPA") || colName.contains("Grade") ||
-                                            colName.contains("Rank");
-                        
-                        // Set cell value based on type
-                        if (value == null) {
-                            cell.setCellValue("");
-                        } else if (value instanceof Integer) {
-                            cell.setCellValue((Integer) value);
-                        } else if (value instanceof Double) {
-                            cell.setCellValue((Double) value);
-                        } else if (value instanceof String) {
-                            String strValue = (String) value;
-                            // Handle percentage and other formatted values
-                            if (strValue.endsWith("%")) {
-                                try {
-                                    double percentValue = Double.parseDouble(strValue.replace("%", ""));
-                                    cell.setCellValue(percentValue / 100.0);
-                                    CellStyle percentStyle = workbook.createCellStyle();
-                                    percentStyle.cloneStyleFrom(isAltRow ? altRowStyle : dataStyle);
-                                    if (isImportant) percentStyle.setFont(boldFont);
-                                    percentStyle.setDataFormat(workbook.createDataFormat().getFormat("0.00%"));
-                                    cell.setCellStyle(percentStyle);
-                                } catch (NumberFormatException e) {
-                                    cell.setCellValue(strValue);
-                                    cell.setCellStyle(isImportant ? (isAltRow ? boldAltStyle : boldStyle) : (isAltRow ? altRowStyle : dataStyle));
-                                }
-                            } else {
-                                cell.setCellValue(strValue);
-                                cell.setCellStyle(isImportant ? (isAltRow ? boldAltStyle : boldStyle) : (isAltRow ? altRowStyle : dataStyle));
-                            }
-                        } else {
-                            cell.setCellValue(value.toString());
-                            cell.setCellStyle(isImportant ? (isAltRow ? boldAltStyle : boldStyle) : (isAltRow ? altRowStyle : dataStyle));
+                ExcelStyle dataStyle = ExcelStyle.PLAIN.border(BorderStyle.THIN).verticalAlign(VerticalAlignment.CENTER);
+                ExcelStyle altRowStyle = dataStyle.fill(IndexedColors.GREY_25_PERCENT);
+                ExcelStyle passStyle = dataStyle.fill(IndexedColors.LIGHT_GREEN)
+                    .fontColor(IndexedColors.DARK_GREEN).bold();
+                ExcelStyle failStyle = dataStyle.fill(IndexedColors.ROSE)
+                    .fontColor(IndexedColors.RED).bold();
+                
+                // Data rows with modern styling
+                sheetWriter.rows(ExcelExportEngine.RowSupplier.fromTableView(resultTable),
+                    (dataRow, col, value) -> {
+                        // Conditional formatting for status
+                        if (status[col] && value != null) {
+                            if ("Pass".equals(value.toString())) return passStyle;
+                            if ("Fail".equals(value.toString())) return failStyle;
                         }
                         
-                        // Apply conditional formatting for status
-                        if (colName.equals("Status")) {
-                            String cellValue = value != null ? value.toString() : "";
-                            if ("Pass".equals(cellValue)) {
-                                cell.setCellStyle(passStyle);
-                            } else if ("Fail".equals(cellValue)) {
-                                cell.setCellStyle(failStyle);
-                            }
+                        ExcelStyle style = dataRow % 2 == 1 ? altRowStyle : dataStyle;
+                        if (important[col]) {
+                            style = style.bold();
                         }
-                        
-                        // Center align for numeric columns
-                        if (!colName.contains("Name") && !colName.contains("Email") && 
-                            !colName.contains("Phone") && !colName.contains("Section")) {
-                            CellStyle currentStyle = cell.getCellStyle();
-                            if (currentStyle != passStyle && currentStyle != failStyle) {
-                                CellStyle centeredStyle = workbook.createCellStyle();
-                                centeredStyle.cloneStyleFrom(currentStyle);
-                                centeredStyle.setAlignment(HorizontalAlignment.CENTER);
-                                cell.setCellStyle(centeredStyle);
-                            }
+                        if (isPercentText(value)) {
+                            style = style.format("0.00%");
                         }
-                    }
-                }
+                        if (centered[col]) {
+                            style = style.align(HorizontalAlignment.CENTER);
+                        }
+                        return style;
+                    }, 20);
                 
-                // Merge cells for title section
-                sheet.addMergedRegion(new org.apache.poi.ss.util.CellRangeAddress(0, 0, 0, resultTable.getColumnCount() - 1));
-                sheet.addMergedRegion(new org.apache.poi.ss.util.CellRangeAddress(1, 1, 0, resultTable.getColumnCount() - 1));
-                sheet.addMergedRegion(new org.apache.poi.ss.util.CellRangeAddress(2, 2, 0, resultTable.getColumnCount() - 1));
-                
-                // Auto-size columns with better spacing
-                for (int i = 0; i < resultTable.getColumnCount(); i++) {
-                    sheet.autoSizeColumn(i);
-                    // Add generous extra space for readability
-                    int currentWidth = sheet.getColumnWidth(i);
-                    sheet.setColumnWidth(i, currentWidth + 1200);
-                }
+                // Column widths with generous extra space for readability
+                sheetWriter.autoSizeColumns(1200);
                 
                 // Set print settings for professional output
+                Sheet sheet = sheetWriter.getSheet();
                 sheet.setFitToPage(true);
                 sheet.getPrintSetup().setFitWidth((short) 1);
                 sheet.getPrintSetup().setFitHeight((short) 0);
@@ -2235,9 +2077,7 @@ public class ViewSelectionTool extends JPanel {
                 sheet.setHorizontallyCenter(true);
                 
                 // Write to file
-                fileOut = new FileOutputStream(filePath);
-                workbook.write(fileOut);
-                fileOut.flush();
+                engine.write(new File(filePath));
                 
                 showStyledMessage("Data exported successfully to:\n" + filePath, "Export Successful", JOptionPane.INFORMATION_MESSAGE);
                 
@@ -2259,11 +2099,8 @@ public class ViewSelectionTool extends JPanel {
         } finally {
             // Ensure resources are closed
             try {
-                if (fileOut != null) {
-                    fileOut.close();
-                }
-                if (workbook != null) {
-                    workbook.close();
+                if (engine != null) {
+                    engine.close();
                 }
             } catch (Exception e) {
                 e.printStackTrace();
@@ -2271,6 +2108,22 @@ public class ViewSelectionTool extends JPanel {
         }
     }
     
+    /**
+     * True for values like "85.50%" that are exported as numeric percentages.
+     */
+    private static boolean isPercentText(Object value) {
+        if (!(value instanceof String) || !((String) value).endsWith("%")) {
+            return false;
+        }
+        try {
+            String text = (String) value;
+            Double.parseDouble(text.substring(0, text.length() - 1));
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+    
     private void exportToPdf() {
         if (resultTable.getRowCount() == 0) {
             showStyledMessage("No data to export! Please click 'Show Data' first.", "No Data", JOptionPane.WARNING_MESSAGE);